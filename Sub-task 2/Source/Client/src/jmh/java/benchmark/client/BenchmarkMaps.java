@@ -0,0 +1,224 @@
+package benchmark.client;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+import MessagesBase.ETerrain;
+import MessagesGameState.EFortState;
+import MessagesGameState.EPlayerPositionState;
+import MessagesGameState.ETreasureState;
+import MessagesGameState.FullMap;
+import MessagesGameState.FullMapNode;
+import client.constants.GameConstants;
+import client.converter.Converter;
+import client.converter.MapConverter;
+import client.enumerations.ECastleValue;
+import client.enumerations.ETerrainType;
+import client.map.Coordinate;
+import client.map.Field;
+import client.map.Map;
+import client.map.MapValidator;
+
+/**
+ * Creates the maps used by the benchmarks. The half maps are random maps
+ * created from a seed (see SEED) which pass the map validator of the client,
+ * so the benchmarks get the same maps in every run. Two half maps are combined
+ * into the full map of the network protocol in one of the two layouts the
+ * server sends: square (8x8, the halves on top of each other) or rectangle
+ * (16x4, the halves next to each other).
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class BenchmarkMaps {
+
+	/**
+	 * Default seed of the random inputs, a String so that it can be used as
+	 * default value of a benchmark parameter (e.g. "-p seed=7").
+	 */
+	public static final String SEED = "20201";
+
+	public static final String SQUARE_LAYOUT = "square";
+	public static final String RECTANGLE_LAYOUT = "rectangle";
+
+	private BenchmarkMaps() {
+
+	}
+
+	/**
+	 * The half map sent by the player, the full map received from the server and
+	 * the full map converted into a client map.
+	 */
+	public static class GameMaps {
+
+		private final Map halfMap;
+		private final FullMap fullMap;
+		private final Map gameMap;
+
+		private GameMaps(Map halfMap, FullMap fullMap, Map gameMap) {
+			this.halfMap = halfMap;
+			this.fullMap = fullMap;
+			this.gameMap = gameMap;
+		}
+
+		public Map getHalfMap() {
+			return halfMap;
+		}
+
+		public FullMap getFullMap() {
+			return fullMap;
+		}
+
+		public Map getGameMap() {
+			return gameMap;
+		}
+	}
+
+	/**
+	 * Creates a random half map which passes the map validator, with the same
+	 * number of mountain and water fields as the maps of the map controller.
+	 * Random layouts are created until one is valid, so the same random
+	 * generator state always leads to the same half map.
+	 *
+	 * @param random (seeded random generator)
+	 * @return (Map object with the castle field)
+	 */
+	public static Map createRandomHalfMap(Random random) {
+
+		MapValidator validator = new MapValidator();
+
+		while (true) {
+
+			List<Field> fields = new ArrayList<Field>();
+
+			for (int fieldNum = 0; fieldNum < GameConstants.NUM_OF_HALF_MAP_FIELDS; ++fieldNum) {
+				fields.add(new Field(ETerrainType.Grass));
+			}
+
+			placeRandomTerrain(fields, ETerrainType.Mountain, GameConstants.NUM_OF_GENERATED_MOUNTAIN_FIELDS, random);
+			placeRandomTerrain(fields, ETerrainType.Water, GameConstants.NUM_OF_GENERATED_WATER_FIELDS, random);
+
+			Field castleField = fields.get(placeRandomTerrain(fields, ETerrainType.Grass, 1, random));
+			castleField.setFieldCastleContent(ECastleValue.MyCastlePresent);
+
+			HashMap<Coordinate, Field> hashMap = new HashMap<Coordinate, Field>();
+
+			for (int fieldNum = 0; fieldNum < fields.size(); ++fieldNum) {
+
+				Coordinate coordinate = new Coordinate(fieldNum % GameConstants.HALF_MAP_WIDTH,
+						fieldNum / GameConstants.HALF_MAP_WIDTH);
+				fields.get(fieldNum).setCoordinate(coordinate);
+				hashMap.put(coordinate, fields.get(fieldNum));
+			}
+
+			Map halfMap = new Map(hashMap);
+			halfMap.setCastleField(castleField);
+
+			if (validator.validateHalfMap(halfMap))
+				return halfMap;
+		}
+	}
+
+	/**
+	 * Turns the given number of random grass fields into fields of the terrain
+	 * and returns the index of the last one.
+	 */
+	private static int placeRandomTerrain(List<Field> fields, ETerrainType terrain, int fieldsNum, Random random) {
+
+		int index = -1;
+
+		for (int fieldNum = 0; fieldNum < fieldsNum; ++fieldNum) {
+
+			index = random.nextInt(fields.size());
+
+			while (!fields.get(index).getFieldTerrain().equals(ETerrainType.Grass)) {
+				index = random.nextInt(fields.size());
+			}
+
+			fields.get(index).setFieldTerrain(terrain);
+		}
+
+		return index;
+	}
+
+	/**
+	 * Creates the maps of a game in the given layout from two random half maps.
+	 * The random generator also decides if the half map of the player is placed
+	 * first (top/left) or second (bottom/right). The full map shows the castle and
+	 * the position of the player on the castle, the enemy castle and the
+	 * treasures are unknown.
+	 *
+	 * @param layout (SQUARE_LAYOUT or RECTANGLE_LAYOUT)
+	 * @param random (seeded random generator)
+	 * @return (GameMaps object)
+	 */
+	public static GameMaps createRandomGameMaps(String layout, Random random) {
+
+		Map halfMap = createRandomHalfMap(random);
+		Map enemyHalfMap = createRandomHalfMap(random);
+		boolean halfMapFirst = random.nextBoolean();
+
+		int offsetX = RECTANGLE_LAYOUT.equals(layout) ? GameConstants.HALF_MAP_WIDTH : 0;
+		int offsetY = RECTANGLE_LAYOUT.equals(layout) ? 0 : GameConstants.HALF_MAP_HEIGHT;
+
+		Collection<FullMapNode> nodes = new ArrayList<FullMapNode>();
+
+		addFullMapNodes(nodes, halfMap, true, halfMapFirst ? 0 : offsetX, halfMapFirst ? 0 : offsetY);
+		addFullMapNodes(nodes, enemyHalfMap, false, halfMapFirst ? offsetX : 0, halfMapFirst ? offsetY : 0);
+
+		FullMap fullMap = new FullMap(nodes);
+
+		return new GameMaps(halfMap, fullMap, new MapConverter(new Converter(null)).converteFullMapToMap(fullMap));
+	}
+
+	/**
+	 * Returns the fields sorted by their coordinates (row by row), so that fields
+	 * chosen by a seeded random generator do not depend on the order of the hash
+	 * map.
+	 *
+	 * @param fields
+	 * @return (sorted list of fields)
+	 */
+	public static List<Field> getSortedFields(HashMap<Coordinate, Field> fields) {
+
+		List<Field> sortedFields = new ArrayList<Field>(fields.values());
+
+		sortedFields.sort((first, second) -> first.getCoordinate().getY() == second.getCoordinate().getY()
+				? first.getCoordinate().getX() - second.getCoordinate().getX()
+				: first.getCoordinate().getY() - second.getCoordinate().getY());
+
+		return sortedFields;
+	}
+
+	private static void addFullMapNodes(Collection<FullMapNode> nodes, Map halfMap, boolean myHalfMap, int offsetX,
+			int offsetY) {
+
+		for (Field field : getSortedFields(halfMap.getHashMap())) {
+
+			boolean castleField = myHalfMap && field == halfMap.getCastleField();
+
+			nodes.add(new FullMapNode(toTerrain(field.getFieldTerrain()),
+					castleField ? EPlayerPositionState.MyPosition : EPlayerPositionState.NoPlayerPresent,
+					ETreasureState.NoOrUnknownTreasureState,
+					castleField ? EFortState.MyFortPresent : EFortState.NoOrUnknownFortState,
+					field.getCoordinate().getX() + offsetX, field.getCoordinate().getY() + offsetY));
+		}
+	}
+
+	private static ETerrain toTerrain(ETerrainType terrain) {
+
+		switch (terrain) {
+
+		case Mountain:
+			return ETerrain.Mountain;
+		case Water:
+			return ETerrain.Water;
+		default:
+			return ETerrain.Grass;
+		}
+	}
+
+}
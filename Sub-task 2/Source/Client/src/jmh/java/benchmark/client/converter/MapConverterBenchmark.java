@@ -0,0 +1,91 @@
+package benchmark.client.converter;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import MessagesGameState.FullMap;
+import benchmark.client.BenchmarkMaps;
+import client.converter.Converter;
+import client.converter.MapConverter;
+import client.map.Map;
+
+/**
+ * Conversion of the full map received from the server into the client map.
+ * The full maps are combined from half maps created from the seed.
+ *
+ * Run with "gradlew jmh -PjmhInclude=MapConverterBenchmark" or the main
+ * method, both report the allocation rate of the GC profiler.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapConverterBenchmark {
+
+	private static final int GAMES_NUM = 16;
+
+	@Param({ BenchmarkMaps.SQUARE_LAYOUT, BenchmarkMaps.RECTANGLE_LAYOUT })
+	private String layout;
+
+	@Param(BenchmarkMaps.SEED)
+	private long seed;
+
+	private MapConverter mapConverter;
+	private FullMap[] fullMaps;
+	private int gameNum;
+
+	@Setup(Level.Trial)
+	public void createMaps() {
+
+		Random random = new Random(seed);
+
+		// the conversion of the full map only uses the enum converter
+		mapConverter = new MapConverter(new Converter(null));
+		fullMaps = new FullMap[GAMES_NUM];
+
+		for (int gameNum = 0; gameNum < GAMES_NUM; ++gameNum) {
+			fullMaps[gameNum] = BenchmarkMaps.createRandomGameMaps(layout, random).getFullMap();
+		}
+	}
+
+	@Benchmark
+	public Map converteFullMapToMap() {
+
+		int currentGameNum = gameNum;
+		gameNum = (gameNum + 1) % GAMES_NUM;
+
+		return mapConverter.converteFullMapToMap(fullMaps[currentGameNum]);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+
+		Options options = new OptionsBuilder().include(MapConverterBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class).build();
+
+		new Runner(options).run();
+	}
+
+}
@@ -0,0 +1,95 @@
+package benchmark.client.map;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import benchmark.client.BenchmarkMaps;
+import client.map.Map;
+import client.map.MapController;
+
+/**
+ * Generation of a valid half map by the map controller. The map controller
+ * generates random maps until one passes the map validator, the generated maps
+ * are counted by the generationAttempts counter. Both results are reported as
+ * throughput, so the average number of generated maps per valid half map is
+ * generateMap:generationAttempts divided by generateMap.
+ *
+ * The half map does not depend on the layout of the full map. The map
+ * controller is seeded, so every run generates the same sequence of maps.
+ *
+ * Run with "gradlew jmh -PjmhInclude=MapControllerBenchmark" or the main
+ * method, both report the allocation rate of the GC profiler.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapControllerBenchmark {
+
+	@Param(BenchmarkMaps.SEED)
+	private long seed;
+
+	private MapController mapController;
+
+	/**
+	 * Counts the generated maps, the rejected ones included.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class GenerationCounters {
+
+		public long generationAttempts;
+
+		@Setup(Level.Iteration)
+		public void resetCounters() {
+			generationAttempts = 0;
+		}
+	}
+
+	@Setup(Level.Trial)
+	public void createMapController() {
+
+		mapController = new MapController(seed);
+	}
+
+	@Benchmark
+	public Map generateMap(GenerationCounters counters) {
+
+		Map halfMap = mapController.generateMap();
+		counters.generationAttempts += mapController.getGenerationAttempts();
+
+		return halfMap;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+
+		Options options = new OptionsBuilder().include(MapControllerBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class).build();
+
+		new Runner(options).run();
+	}
+
+}
@@ -0,0 +1,132 @@
+package benchmark.client.move;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import benchmark.client.BenchmarkMaps;
+import benchmark.client.BenchmarkMaps.GameMaps;
+import client.enumerations.EMovementType;
+import client.enumerations.ETerrainType;
+import client.game.Avatar;
+import client.map.Field;
+import client.move.AI;
+import client.move.MapSidesController;
+
+/**
+ * Decision of the next move by a new AI, with the avatar standing on its
+ * castle. The AI keeps the current route between the moves, so every call
+ * uses a new AI to calculate the route again (the AI constructor divides the
+ * game map into the map sides).
+ *
+ * In the treasure phase the AI searches the nearest unvisited grass fields on
+ * its own map side. In the castle phase the treasure is collected and the AI
+ * searches the route to all grass fields around the known enemy position on
+ * the opponents map side, which calculates one route per grass field.
+ *
+ * Run with "gradlew jmh -PjmhInclude=AIBenchmark" or the main method, both
+ * report the allocation rate of the GC profiler.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AIBenchmark {
+
+	private static final String TREASURE_PHASE = "treasure";
+	private static final String CASTLE_PHASE = "castle";
+	private static final int GAMES_NUM = 16;
+
+	@Param({ BenchmarkMaps.SQUARE_LAYOUT, BenchmarkMaps.RECTANGLE_LAYOUT })
+	private String layout;
+
+	@Param({ TREASURE_PHASE, CASTLE_PHASE })
+	private String phase;
+
+	@Param(BenchmarkMaps.SEED)
+	private long seed;
+
+	private GameMaps[] gameMaps;
+	private Avatar[] avatars;
+	private int gameNum;
+
+	@Setup(Level.Trial)
+	public void createMaps() {
+
+		Random random = new Random(seed);
+
+		gameMaps = new GameMaps[GAMES_NUM];
+		avatars = new Avatar[GAMES_NUM];
+
+		for (int gameNum = 0; gameNum < GAMES_NUM; ++gameNum) {
+
+			gameMaps[gameNum] = BenchmarkMaps.createRandomGameMaps(layout, random);
+			avatars[gameNum] = new Avatar();
+			avatars[gameNum].setCurrentPosition(gameMaps[gameNum].getGameMap().getCastleField());
+
+			if (CASTLE_PHASE.equals(phase)) {
+
+				avatars[gameNum].setTreasureCollected(true);
+				avatars[gameNum].setEnemyPosition(getRandomOpponentsGrassField(gameMaps[gameNum], random));
+			}
+		}
+	}
+
+	private Field getRandomOpponentsGrassField(GameMaps gameMaps, Random random) {
+
+		List<Field> grassFields = new ArrayList<Field>();
+
+		for (Field field : BenchmarkMaps.getSortedFields(
+				new MapSidesController(gameMaps.getGameMap(), gameMaps.getHalfMap()).getOpponentsMapSide())) {
+
+			if (field.getFieldTerrain().equals(ETerrainType.Grass))
+				grassFields.add(field);
+		}
+
+		return grassFields.get(random.nextInt(grassFields.size()));
+	}
+
+	@Benchmark
+	public EMovementType getNextMove() {
+
+		int currentGameNum = gameNum;
+		gameNum = (gameNum + 1) % GAMES_NUM;
+
+		AI ai = new AI(gameMaps[currentGameNum].getGameMap(), gameMaps[currentGameNum].getHalfMap());
+
+		return ai.getNextMove(avatars[currentGameNum]);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+
+		Options options = new OptionsBuilder().include(AIBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class).build();
+
+		new Runner(options).run();
+	}
+
+}
@@ -0,0 +1,108 @@
+package benchmark.client.move;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import benchmark.client.BenchmarkMaps;
+import benchmark.client.BenchmarkMaps.GameMaps;
+import client.map.Coordinate;
+import client.map.Field;
+import client.move.MapSidesController;
+
+/**
+ * Search of the neighbour fields on the game map, which is done for every
+ * field the route calculator and the map validator visit. Every call takes the
+ * next field of the game maps, so border, corner and inner fields of the
+ * layout are all measured.
+ *
+ * Run with "gradlew jmh -PjmhInclude=MapSidesControllerBenchmark" or the main
+ * method, both report the allocation rate of the GC profiler.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapSidesControllerBenchmark {
+
+	private static final int GAMES_NUM = 4;
+
+	@Param({ BenchmarkMaps.SQUARE_LAYOUT, BenchmarkMaps.RECTANGLE_LAYOUT })
+	private String layout;
+
+	@Param(BenchmarkMaps.SEED)
+	private long seed;
+
+	private List<MapSidesController> mapSidesControllers;
+	private List<HashMap<Coordinate, Field>> maps;
+	private List<Field> fields;
+	private int fieldNum;
+
+	@Setup(Level.Trial)
+	public void createMaps() {
+
+		Random random = new Random(seed);
+
+		mapSidesControllers = new ArrayList<MapSidesController>();
+		maps = new ArrayList<HashMap<Coordinate, Field>>();
+		fields = new ArrayList<Field>();
+
+		for (int gameNum = 0; gameNum < GAMES_NUM; ++gameNum) {
+
+			GameMaps gameMaps = BenchmarkMaps.createRandomGameMaps(layout, random);
+			MapSidesController mapSidesController = new MapSidesController(gameMaps.getGameMap(),
+					gameMaps.getHalfMap());
+
+			for (Field field : BenchmarkMaps.getSortedFields(gameMaps.getGameMap().getHashMap())) {
+
+				mapSidesControllers.add(mapSidesController);
+				maps.add(gameMaps.getGameMap().getHashMap());
+				fields.add(field);
+			}
+		}
+	}
+
+	@Benchmark
+	public List<Field> getNeighbors() {
+
+		int currentFieldNum = fieldNum;
+		fieldNum = (fieldNum + 1) % fields.size();
+
+		return mapSidesControllers.get(currentFieldNum).getNeighbors(fields.get(currentFieldNum),
+				maps.get(currentFieldNum));
+	}
+
+	public static void main(String[] args) throws RunnerException {
+
+		Options options = new OptionsBuilder().include(MapSidesControllerBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class).build();
+
+		new Runner(options).run();
+	}
+
+}
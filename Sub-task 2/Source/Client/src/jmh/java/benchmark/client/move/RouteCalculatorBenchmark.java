@@ -0,0 +1,127 @@
+package benchmark.client.move;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import benchmark.client.BenchmarkMaps;
+import benchmark.client.BenchmarkMaps.GameMaps;
+import client.enumerations.ETerrainType;
+import client.map.Field;
+import client.map.Map;
+import client.move.MapSidesController;
+import client.move.Route;
+import client.move.RouteCalculator;
+
+/**
+ * Calculation of the best route from the castle to a set of target grass
+ * fields anywhere on the game map. The route calculator calculates the routes
+ * to every target separately, so the time grows with the number of targets.
+ * The targets are chosen with the seed.
+ *
+ * Run with "gradlew jmh -PjmhInclude=RouteCalculatorBenchmark" or the main
+ * method, both report the allocation rate of the GC profiler.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteCalculatorBenchmark {
+
+	private static final int GAMES_NUM = 16;
+
+	@Param({ BenchmarkMaps.SQUARE_LAYOUT, BenchmarkMaps.RECTANGLE_LAYOUT })
+	private String layout;
+
+	@Param({ "1", "4", "16" })
+	private int targetsNum;
+
+	@Param(BenchmarkMaps.SEED)
+	private long seed;
+
+	private Map[] maps;
+	private RouteCalculator[] routeCalculators;
+	private List<Set<Field>> targetFields;
+	private int gameNum;
+
+	@Setup(Level.Trial)
+	public void createMaps() {
+
+		Random random = new Random(seed);
+
+		maps = new Map[GAMES_NUM];
+		routeCalculators = new RouteCalculator[GAMES_NUM];
+		targetFields = new ArrayList<Set<Field>>();
+
+		for (int gameNum = 0; gameNum < GAMES_NUM; ++gameNum) {
+
+			GameMaps gameMaps = BenchmarkMaps.createRandomGameMaps(layout, random);
+
+			maps[gameNum] = gameMaps.getGameMap();
+			routeCalculators[gameNum] = new RouteCalculator(
+					new MapSidesController(gameMaps.getGameMap(), gameMaps.getHalfMap()));
+			targetFields.add(getRandomGrassFields(maps[gameNum], random));
+		}
+	}
+
+	private Set<Field> getRandomGrassFields(Map map, Random random) {
+
+		List<Field> grassFields = new ArrayList<Field>();
+
+		for (Field field : BenchmarkMaps.getSortedFields(map.getHashMap())) {
+
+			if (field.getFieldTerrain().equals(ETerrainType.Grass) && field != map.getCastleField())
+				grassFields.add(field);
+		}
+
+		Collections.shuffle(grassFields, random);
+
+		return new LinkedHashSet<Field>(grassFields.subList(0, targetsNum));
+	}
+
+	@Benchmark
+	public Route getBestRoute() {
+
+		int currentGameNum = gameNum;
+		gameNum = (gameNum + 1) % GAMES_NUM;
+
+		return routeCalculators[currentGameNum].getBestRoute(maps[currentGameNum].getCastleField(),
+				targetFields.get(currentGameNum), maps[currentGameNum].getHashMap());
+	}
+
+	public static void main(String[] args) throws RunnerException {
+
+		Options options = new OptionsBuilder().include(RouteCalculatorBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class).build();
+
+		new Runner(options).run();
+	}
+
+}
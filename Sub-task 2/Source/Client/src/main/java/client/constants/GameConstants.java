@@ -1,5 +1,8 @@
 package client.constants;
 
+import client.enumerations.EGameStateRequestMode;
+import client.enumerations.EWireFormat;
+
 /**
  * All constant values needed for game creation and execution.
  * 
@@ -28,4 +31,16 @@ public class GameConstants {
 	public static final int MIN_MAP_HEIGHT_FIELD = 0;
 	public static final int MIN_MAP_WIDTH_FIELD = 0;
 
+	public static final EGameStateRequestMode GAME_STATE_REQUEST_MODE = EGameStateRequestMode.Polling;
+	public static final long GAME_STATE_POLLING_INTERVAL_MILLIS = 400;
+	public static final long LONG_POLL_TIMEOUT_MILLIS = 30000;
+
+	public static final boolean MAP_DELTA_ENABLED = true;
+	public static final String MAP_DELTA_BASE_HEADER = "Map-Delta-Base";
+
+	public static final EWireFormat WIRE_FORMAT = EWireFormat.Xml;
+	public static final String WIRE_FORMAT_JSON_MEDIA_TYPE = "application/json";
+	public static final String WIRE_FORMAT_BINARY_MEDIA_TYPE = "application/x-game-binary";
+	public static final boolean NETWORK_COMPRESSION_ENABLED = true;
+
 }
@@ -0,0 +1,335 @@
+package client.converter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import MessagesBase.EMove;
+import MessagesBase.ERequestState;
+import MessagesBase.HalfMap;
+import MessagesBase.HalfMapNode;
+import MessagesBase.PlayerMove;
+import MessagesBase.ResponseEnvelope;
+import MessagesBase.UniquePlayerIdentifier;
+import MessagesGameState.EPlayerGameState;
+import MessagesGameState.FullMap;
+import MessagesGameState.FullMapNode;
+import MessagesGameState.GameState;
+import MessagesGameState.PlayerState;
+import client.exceptions.ConverterException;
+
+/**
+ * Binary format of the messages. Numbers are written big endian, strings as
+ * modified UTF-8 with a two byte length (see DataOutput) and enum values as
+ * one byte ordinal. Every map node takes one byte (see MapNodeCodes).
+ *
+ * A map whose nodes fill a complete rectangle starting at 0/0 (every full map)
+ * is written as width, height and the node codes row by row, so a map of 64
+ * fields needs 66 bytes. Other maps (map deltas) are written as a list of x, y
+ * and code per node.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class BinaryCodec implements IMessageCodec {
+
+	private static final EPlayerGameState[] PLAYER_STATE_VALUES = EPlayerGameState.values();
+	private static final EMove[] MOVE_VALUES = EMove.values();
+
+	private static final int NO_MAP = 0;
+	private static final int GRID_MAP = 1;
+	private static final int NODE_LIST_MAP = 2;
+	private static final int MAX_GRID_SIDE = 0xFF;
+	private static final int INITIAL_BUFFER_SIZE = 256;
+
+	@Override
+	public byte[] encodeGameState(ResponseEnvelope<GameState> gameState) {
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+
+		try (DataOutputStream output = new DataOutputStream(bytes)) {
+
+			output.writeByte(gameState.getState().ordinal());
+
+			if (gameState.getState() == ERequestState.Error) {
+
+				writeNullableString(output, gameState.getExceptionName());
+				writeNullableString(output, gameState.getExceptionMessage());
+
+			} else {
+
+				writeGameState(output, gameState.getData().get());
+			}
+
+		} catch (IOException | RuntimeException e) {
+
+			throw new ConverterException("Converter exception: The game state could not be encoded.", e);
+		}
+
+		return bytes.toByteArray();
+	}
+
+	private void writeGameState(DataOutputStream output, GameState gameState) throws IOException {
+
+		output.writeUTF(gameState.getGameStateId());
+		output.writeByte(gameState.getPlayers().size());
+
+		for (PlayerState player : gameState.getPlayers()) {
+
+			output.writeUTF(player.getFirstName());
+			output.writeUTF(player.getLastName());
+			output.writeUTF(player.getStudentID());
+			output.writeByte(player.getState().ordinal());
+			output.writeUTF(player.getUniquePlayerID());
+			output.writeBoolean(player.hasCollectedTreasure());
+		}
+
+		if (!gameState.getMap().isPresent()) {
+
+			output.writeByte(NO_MAP);
+			return;
+		}
+
+		Collection<FullMapNode> nodes = gameState.getMap().get().getMapNodes();
+		byte[] grid = createGrid(nodes);
+
+		if (grid == null) {
+
+			output.writeByte(NODE_LIST_MAP);
+			output.writeShort(nodes.size());
+
+			for (FullMapNode node : nodes) {
+
+				output.writeByte(node.getX());
+				output.writeByte(node.getY());
+				output.writeByte(MapNodeCodes.encodeFullMapNode(node));
+			}
+
+			return;
+		}
+
+		output.writeByte(GRID_MAP);
+		output.writeByte(grid[0]);
+		output.writeByte(grid[1]);
+		output.write(grid, 2, grid.length - 2);
+	}
+
+	/**
+	 * Returns width, height and the node codes row by row, or null if the nodes do
+	 * not fill a rectangle starting at 0/0 exactly once.
+	 */
+	private byte[] createGrid(Collection<FullMapNode> nodes) {
+
+		int width = 0;
+		int height = 0;
+
+		for (FullMapNode node : nodes) {
+
+			if (node.getX() < 0 || node.getY() < 0 || node.getX() >= MAX_GRID_SIDE || node.getY() >= MAX_GRID_SIDE)
+				return null;
+
+			width = Math.max(width, node.getX() + 1);
+			height = Math.max(height, node.getY() + 1);
+		}
+
+		if (nodes.isEmpty() || width * height != nodes.size())
+			return null;
+
+		byte[] grid = new byte[2 + width * height];
+		boolean[] filled = new boolean[width * height];
+
+		grid[0] = (byte) width;
+		grid[1] = (byte) height;
+
+		for (FullMapNode node : nodes) {
+
+			int index = node.getY() * width + node.getX();
+
+			if (filled[index])
+				return null;
+
+			filled[index] = true;
+			grid[2 + index] = (byte) MapNodeCodes.encodeFullMapNode(node);
+		}
+
+		return grid;
+	}
+
+	@Override
+	public ResponseEnvelope<GameState> decodeGameState(InputStream input) {
+
+		try {
+
+			DataInputStream data = new DataInputStream(input);
+
+			if (data.readUnsignedByte() == ERequestState.Error.ordinal()) {
+
+				return new ResponseEnvelope<GameState>(readNullableString(data), readNullableString(data));
+			}
+
+			String gameStateID = data.readUTF();
+			int playersNum = data.readUnsignedByte();
+			List<PlayerState> players = new ArrayList<PlayerState>(playersNum);
+
+			for (int playerNum = 0; playerNum < playersNum; ++playerNum) {
+
+				players.add(new PlayerState(data.readUTF(), data.readUTF(), data.readUTF(),
+						PLAYER_STATE_VALUES[data.readUnsignedByte()], new UniquePlayerIdentifier(data.readUTF()),
+						data.readBoolean()));
+			}
+
+			return new ResponseEnvelope<GameState>(new GameState(readMap(data), players, gameStateID));
+
+		} catch (IOException | RuntimeException e) {
+
+			throw new ConverterException("Converter exception: The game state could not be decoded.", e);
+		}
+	}
+
+	private Optional<FullMap> readMap(DataInputStream data) throws IOException {
+
+		int mapKind = data.readUnsignedByte();
+
+		if (mapKind == NO_MAP)
+			return Optional.empty();
+
+		List<FullMapNode> nodes = new ArrayList<FullMapNode>();
+
+		if (mapKind == GRID_MAP) {
+
+			int width = data.readUnsignedByte();
+			int height = data.readUnsignedByte();
+
+			for (int y = 0; y < height; ++y) {
+
+				for (int x = 0; x < width; ++x) {
+
+					nodes.add(MapNodeCodes.decodeFullMapNode(data.readUnsignedByte(), x, y));
+				}
+			}
+
+		} else {
+
+			int nodesNum = data.readUnsignedShort();
+
+			for (int nodeNum = 0; nodeNum < nodesNum; ++nodeNum) {
+
+				nodes.add(readListNode(data));
+			}
+		}
+
+		return Optional.of(new FullMap(nodes));
+	}
+
+	private FullMapNode readListNode(DataInputStream data) throws IOException {
+
+		int x = data.readUnsignedByte();
+		int y = data.readUnsignedByte();
+
+		return MapNodeCodes.decodeFullMapNode(data.readUnsignedByte(), x, y);
+	}
+
+	@Override
+	public byte[] encodeHalfMap(HalfMap halfMap) {
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+
+		try (DataOutputStream output = new DataOutputStream(bytes)) {
+
+			output.writeUTF(halfMap.getUniquePlayerID());
+			output.writeByte(halfMap.getNodes().size());
+
+			for (HalfMapNode node : halfMap.getNodes()) {
+
+				output.writeByte(node.getX());
+				output.writeByte(node.getY());
+				output.writeByte(MapNodeCodes.encodeHalfMapNode(node));
+			}
+
+		} catch (IOException | RuntimeException e) {
+
+			throw new ConverterException("Converter exception: The half map could not be encoded.", e);
+		}
+
+		return bytes.toByteArray();
+	}
+
+	@Override
+	public HalfMap decodeHalfMap(InputStream input) {
+
+		try {
+
+			DataInputStream data = new DataInputStream(input);
+			String playerID = data.readUTF();
+			int nodesNum = data.readUnsignedByte();
+			List<HalfMapNode> nodes = new ArrayList<HalfMapNode>(nodesNum);
+
+			for (int nodeNum = 0; nodeNum < nodesNum; ++nodeNum) {
+
+				int x = data.readUnsignedByte();
+				int y = data.readUnsignedByte();
+
+				nodes.add(MapNodeCodes.decodeHalfMapNode(data.readUnsignedByte(), x, y));
+			}
+
+			return new HalfMap(playerID, nodes);
+
+		} catch (IOException | RuntimeException e) {
+
+			throw new ConverterException("Converter exception: The half map could not be decoded.", e);
+		}
+	}
+
+	@Override
+	public byte[] encodePlayerMove(PlayerMove playerMove) {
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+
+		try (DataOutputStream output = new DataOutputStream(bytes)) {
+
+			output.writeUTF(playerMove.getUniquePlayerID());
+			output.writeByte(playerMove.getMove().ordinal());
+
+		} catch (IOException | RuntimeException e) {
+
+			throw new ConverterException("Converter exception: The move could not be encoded.", e);
+		}
+
+		return bytes.toByteArray();
+	}
+
+	@Override
+	public PlayerMove decodePlayerMove(InputStream input) {
+
+		try {
+
+			DataInputStream data = new DataInputStream(input);
+
+			return PlayerMove.of(data.readUTF(), MOVE_VALUES[data.readUnsignedByte()]);
+
+		} catch (IOException | RuntimeException e) {
+
+			throw new ConverterException("Converter exception: The move could not be decoded.", e);
+		}
+	}
+
+	private void writeNullableString(DataOutputStream output, String value) throws IOException {
+
+		output.writeBoolean(value != null);
+
+		if (value != null)
+			output.writeUTF(value);
+	}
+
+	private String readNullableString(DataInputStream data) throws IOException {
+
+		return data.readBoolean() ? data.readUTF() : null;
+	}
+
+}
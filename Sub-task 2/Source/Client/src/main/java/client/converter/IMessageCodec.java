@@ -0,0 +1,35 @@
+package client.converter;
+
+import java.io.InputStream;
+
+import MessagesBase.HalfMap;
+import MessagesBase.PlayerMove;
+import MessagesBase.ResponseEnvelope;
+import MessagesGameState.GameState;
+
+/**
+ * A compact format of the messages which are exchanged most often: the game
+ * state polled by the clients and the half maps and moves they send. Codecs
+ * hold no state and can be shared by all threads. The server (server.converter)
+ * and the client (client.converter) each have a copy of the codecs with the
+ * same formats, which CodecCopiesTest of the server compares, so a change must
+ * be made in both copies.
+ * 
+ * @author Nemanja Srdanovic
+ *
+ */
+public interface IMessageCodec {
+
+	public byte[] encodeGameState(ResponseEnvelope<GameState> gameState);
+
+	public ResponseEnvelope<GameState> decodeGameState(InputStream input);
+
+	public byte[] encodeHalfMap(HalfMap halfMap);
+
+	public HalfMap decodeHalfMap(InputStream input);
+
+	public byte[] encodePlayerMove(PlayerMove playerMove);
+
+	public PlayerMove decodePlayerMove(InputStream input);
+
+}
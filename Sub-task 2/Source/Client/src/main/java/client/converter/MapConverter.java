@@ -113,6 +113,57 @@ public class MapConverter {
 		return map;
 	}
 
+	/**
+	 * This method is used by the map-converter to apply a network map which only
+	 * contains the changed nodes to the map the client already holds. The fields
+	 * are changed in place, so references to them stay valid.
+	 * 
+	 * @param map      (Map object for the client.map package)
+	 * @param mapDelta (FullMap object from the network protocol with the changed
+	 *                 nodes)
+	 */
+	public void applyFullMapDelta(Map map, FullMap mapDelta) {
+
+		if (map == null || mapDelta == null)
+			throw new ConverterException("Converter exception: The game map cant be null.");
+
+		HashMap<Integer, Field> fields = new HashMap<Integer, Field>();
+
+		for (Field field : map.getHashMap().values()) {
+			fields.put(getFieldKey(field.getCoordinate().getX(), field.getCoordinate().getY()), field);
+		}
+
+		for (FullMapNode fullMapNode : mapDelta.getMapNodes()) {
+
+			Field changedField = converteFullMapNodeToField(fullMapNode);
+			Field field = fields.get(getFieldKey(fullMapNode.getX(), fullMapNode.getY()));
+
+			if (field == null) {
+
+				Coordinate coordinate = new Coordinate(fullMapNode.getX(), fullMapNode.getY());
+				changedField.setCoordinate(coordinate);
+				map.getHashMap().put(coordinate, changedField);
+				field = changedField;
+
+			} else {
+
+				field.setFieldTerrain(changedField.getFieldTerrain());
+				field.setFieldCastleContent(changedField.getFieldCastleContent());
+				field.setFieldAvatarContent(changedField.getFieldAvatarContent());
+				field.setFieldTreasureContent(changedField.getFieldTreasureContent());
+			}
+
+			if (field.getFieldCastleContent().equals(ECastleValue.MyCastlePresent)) {
+				map.setCastleField(field);
+			}
+		}
+	}
+
+	private int getFieldKey(int x, int y) {
+
+		return y * (GameConstants.MAX_MAP_WIDTH_FIELD + 1) + x;
+	}
+
 	/**
 	 * This method is used by the map-converter to convert the maps field object
 	 * into a network convenient map node object which can be send to the server.
@@ -0,0 +1,74 @@
+package client.converter;
+
+import MessagesBase.ETerrain;
+import MessagesBase.HalfMapNode;
+import MessagesGameState.EFortState;
+import MessagesGameState.EPlayerPositionState;
+import MessagesGameState.ETreasureState;
+import MessagesGameState.FullMapNode;
+import client.exceptions.ConverterException;
+
+/**
+ * Packs the characteristics of a map node into one byte, which is used by the
+ * compact message formats. The position of the node is not part of the code.
+ * 
+ * Full map node: bits 0-1 terrain, bits 2-3 player position, bit 4 treasure,
+ * bits 5-6 fort. Half map node: bits 0-1 terrain, bit 2 fort.
+ * 
+ * @author Nemanja Srdanovic
+ *
+ */
+public class MapNodeCodes {
+
+	private static final ETerrain[] TERRAIN_VALUES = ETerrain.values();
+	private static final EPlayerPositionState[] POSITION_VALUES = EPlayerPositionState.values();
+	private static final ETreasureState[] TREASURE_VALUES = ETreasureState.values();
+	private static final EFortState[] FORT_VALUES = EFortState.values();
+
+	private static final int TERRAIN_MASK = 0b11;
+	private static final int POSITION_SHIFT = 2;
+	private static final int POSITION_MASK = 0b11;
+	private static final int TREASURE_SHIFT = 4;
+	private static final int TREASURE_MASK = 0b1;
+	private static final int FORT_SHIFT = 5;
+	private static final int FORT_MASK = 0b11;
+	private static final int HALF_MAP_FORT_SHIFT = 2;
+
+	private MapNodeCodes() {
+
+	}
+
+	public static int encodeFullMapNode(FullMapNode node) {
+
+		return node.getTerrain().ordinal() | node.getPlayerPositionState().ordinal() << POSITION_SHIFT
+				| node.getTreasureState().ordinal() << TREASURE_SHIFT | node.getFortState().ordinal() << FORT_SHIFT;
+	}
+
+	public static FullMapNode decodeFullMapNode(int code, int x, int y) {
+
+		return new FullMapNode(getValue(TERRAIN_VALUES, code & TERRAIN_MASK),
+				getValue(POSITION_VALUES, (code >> POSITION_SHIFT) & POSITION_MASK),
+				getValue(TREASURE_VALUES, (code >> TREASURE_SHIFT) & TREASURE_MASK),
+				getValue(FORT_VALUES, (code >> FORT_SHIFT) & FORT_MASK), x, y);
+	}
+
+	public static int encodeHalfMapNode(HalfMapNode node) {
+
+		return node.getTerrain().ordinal() | (node.isFortPresent() ? 1 : 0) << HALF_MAP_FORT_SHIFT;
+	}
+
+	public static HalfMapNode decodeHalfMapNode(int code, int x, int y) {
+
+		return new HalfMapNode(x, y, ((code >> HALF_MAP_FORT_SHIFT) & 1) != 0,
+				getValue(TERRAIN_VALUES, code & TERRAIN_MASK));
+	}
+
+	private static <T> T getValue(T[] values, int ordinal) {
+
+		if (ordinal >= values.length)
+			throw new ConverterException("Converter exception: Unknown map node code.");
+
+		return values[ordinal];
+	}
+
+}
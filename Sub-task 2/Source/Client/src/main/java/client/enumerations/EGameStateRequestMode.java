@@ -0,0 +1,15 @@
+package client.enumerations;
+
+/**
+ * Enum representing the two ways in which the game state worker can request
+ * the game state from the server. Polling sends a request in a fixed interval,
+ * long polling sends a request which the server answers only when the game
+ * state has changed.
+ * 
+ * @author Nemanja Srdanovic
+ *
+ */
+public enum EGameStateRequestMode {
+	Polling, LongPolling;
+
+}
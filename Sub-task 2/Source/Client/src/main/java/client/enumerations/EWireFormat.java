@@ -0,0 +1,14 @@
+package client.enumerations;
+
+/**
+ * Formats in which game states, half maps and moves can be exchanged with the
+ * server. XML is the format of the network protocol, a compact format is
+ * chosen with the Accept and Content-Type headers of the requests.
+ * 
+ * @author Nemanja Srdanovic
+ *
+ */
+public enum EWireFormat {
+	Xml, Json, Binary;
+
+}
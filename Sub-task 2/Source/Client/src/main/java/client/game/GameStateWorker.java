@@ -11,6 +11,7 @@ import client.constants.GameConstants;
 import client.converter.Converter;
 import client.enumerations.EAvatarPositionValue;
 import client.enumerations.ECastleValue;
+import client.enumerations.EGameStateRequestMode;
 import client.enumerations.ETreasureValue;
 import client.exceptions.MapException;
 import client.map.Coordinate;
@@ -22,7 +23,12 @@ import client.map.Map;
  * off the game logic and have the updated game state in parallel, without
  * having to call a gameState function every time an wait for the response. The
  * GameStateWorker thread is sending a gameState request automatically every 0.4
- * seconds and updates the game state, game map and player state.
+ * seconds and updates the game state, game map and player state. In the long
+ * polling mode the request is sent again as soon as the last one was answered
+ * with a new game state, because the server only answers when the game state
+ * has changed. If it answers early with the same game state (e.g. on a timeout
+ * or when the server does not support long polling) the worker waits 0.4
+ * seconds as well, so that it does not flood the server with requests.
  * 
  * @author Nemanja Srdanovic
  *
@@ -37,6 +43,7 @@ public class GameStateWorker implements Runnable {
 	private Map fullMap;
 	private Avatar avatar;
 	private boolean enemyPostionSet;
+	private EGameStateRequestMode requestMode;
 	private static Logger logger = LoggerFactory.getLogger(GameStateWorker.class);
 
 	/**
@@ -45,8 +52,21 @@ public class GameStateWorker implements Runnable {
 	 * @param gameController (GameController object from the client.game package)
 	 */
 	public GameStateWorker(GameController gameController) {
+		this(gameController, GameConstants.GAME_STATE_REQUEST_MODE);
+	}
+
+	/**
+	 * Instantiates a new game state worker which requests the game state in the
+	 * given mode. The parameters must not be null.
+	 * 
+	 * @param gameController (GameController object from the client.game package)
+	 * @param requestMode    (EGameStateRequestMode from the client.enumerations
+	 *                       package)
+	 */
+	public GameStateWorker(GameController gameController, EGameStateRequestMode requestMode) {
 		super();
 		this.gameController = gameController;
+		this.requestMode = requestMode;
 		this.converter = gameController.getConverter();
 		this.avatar = gameController.getGame().getAvatar();
 		this.gameStateID = "StartID";
@@ -64,29 +84,46 @@ public class GameStateWorker implements Runnable {
 
 		while (gameController.isGameActive()) {
 
-			this.gameState = gameController.getNetwork().getGameStatus();
+			if (requestMode == EGameStateRequestMode.LongPolling) {
+				this.gameState = gameController.getNetwork().waitForGameStatusChange(gameStateID);
+			} else {
+				this.gameState = gameController.getNetwork().getGameStatus();
+			}
+
+			boolean gameStateChanged = !gameStateID.equals(gameState.getGameStateId());
 
-			if (!gameStateID.equals(gameState.getGameStateId())) {
+			if (gameStateChanged) {
 
 				this.gameStateID = gameState.getGameStateId();
 				this.playerState = converter.getMyPlayerState(gameState);
 
-				if (gameState.getMap().isPresent()
-						&& gameState.getMap().get().getMapNodes().size() != GameConstants.NUM_OF_HALF_MAP_FIELDS) {
+				boolean mapDelta = fullMap != null && gameController.getNetwork().isMapDelta();
+
+				if (gameState.getMap().isPresent() && (mapDelta
+						|| gameState.getMap().get().getMapNodes().size() != GameConstants.NUM_OF_HALF_MAP_FIELDS)) {
 
-					fullMap = converter.getMapConverter().converteFullMapToMap(gameState.getMap().get());
+					if (mapDelta) {
+						converter.getMapConverter().applyFullMapDelta(fullMap, gameState.getMap().get());
+					} else {
+						fullMap = converter.getMapConverter().converteFullMapToMap(gameState.getMap().get());
+					}
 
 					avatar.setTreasureCollected(playerState.hasCollectedTreasure());
 					setAvatarState(fullMap);
 					gameController.setFullMap(fullMap);
 					gameController.setGameStateStatus(true);
+					gameController.getNetwork().setMapDeltaBase(gameStateID);
 				}
 
 				setGameStates();
 			}
 
+			if (requestMode == EGameStateRequestMode.LongPolling && gameStateChanged) {
+				continue;
+			}
+
 			try {
-				Thread.sleep(400);
+				Thread.sleep(GameConstants.GAME_STATE_POLLING_INTERVAL_MILLIS);
 			} catch (InterruptedException e) {
 
 				logger.error("Game state worker exception: ", e);
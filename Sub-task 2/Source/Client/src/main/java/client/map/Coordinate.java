@@ -71,6 +71,31 @@ public class Coordinate {
 		this.y = y;
 	}
 
+	/**
+	 * Coordinates with the same position are equal. Without this the maps keyed
+	 * by coordinates would iterate in the order of the identity hash codes, which
+	 * differ from run to run and from thread to thread, so the same seed would not
+	 * lead to the same moves.
+	 */
+	@Override
+	public int hashCode() {
+		return x * (GameConstants.MAX_MAP_HEIGHT_FIELD + 1) + y;
+	}
+
+	@Override
+	public boolean equals(Object object) {
+
+		if (this == object)
+			return true;
+
+		if (!(object instanceof Coordinate))
+			return false;
+
+		Coordinate coordinate = (Coordinate) object;
+
+		return x == coordinate.x && y == coordinate.y;
+	}
+
 	/**
 	 * Implements a working toString method for this object to ease debugging.
 	 */
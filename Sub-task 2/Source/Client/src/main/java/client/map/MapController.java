@@ -3,7 +3,7 @@ package client.map;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 import client.constants.GameConstants;
 import client.enumerations.ECastleValue;
@@ -19,16 +19,31 @@ import client.enumerations.ETerrainType;
 public class MapController {
 
 	private MapValidator validator;
-	private Random generator;
+	private SplittableRandom generator;
 	private Field castleField;
+	private int generationAttempts;
 
 	/**
 	 * Instantiates a new map controller object.
 	 */
 	public MapController() {
+		this(new SplittableRandom());
+	}
+
+	/**
+	 * Instantiates a new map controller object which generates the same maps for
+	 * the same seed, e.g. for benchmarks and the self-play tournament.
+	 * 
+	 * @param seed
+	 */
+	public MapController(long seed) {
+		this(new SplittableRandom(seed));
+	}
+
+	private MapController(SplittableRandom generator) {
 		super();
 		this.validator = new MapValidator();
-		this.generator = new Random();
+		this.generator = generator;
 	}
 
 	/**
@@ -39,9 +54,11 @@ public class MapController {
 	public Map generateMap() {
 
 		Map halfMap;
+		generationAttempts = 0;
 		do {
 
 			halfMap = new Map(generateHashMap());
+			++generationAttempts;
 
 		} while (!validator.validateHalfMap(halfMap));
 
@@ -51,6 +68,16 @@ public class MapController {
 
 	}
 
+	/**
+	 * Returns how many maps the last call of generateMap has generated, the maps
+	 * rejected by the validator included.
+	 * 
+	 * @return
+	 */
+	public int getGenerationAttempts() {
+		return generationAttempts;
+	}
+
 	/**
 	 * Method used to create a collection containing game specified coordinate and
 	 * field objects.
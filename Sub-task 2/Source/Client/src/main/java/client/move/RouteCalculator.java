@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.ListIterator;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -38,7 +39,9 @@ public class RouteCalculator {
 		this.mapSidesController = mapSidesController;
 		this.costToDestinationField = new HashMap<Field, Integer>();
 		this.fieldToGetToDestination = new HashMap<Field, Field>();
-		this.fieldsWithUnknownMinRoute = new HashSet<Field>();
+		// iterated to find the next field, the insertion order keeps the choice
+		// between fields with the same cost the same in every run
+		this.fieldsWithUnknownMinRoute = new LinkedHashSet<Field>();
 		this.fieldsWithKnownMinRoute = new HashSet<Field>();
 
 	}
@@ -1,12 +1,20 @@
 package client.network;
 
+import java.io.ByteArrayInputStream;
+import java.util.function.Function;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClient.RequestBodySpec;
+import org.springframework.web.reactive.function.client.WebClient.RequestHeadersSpec;
 
 import MessagesBase.ERequestState;
 import MessagesBase.PlayerMove;
@@ -14,12 +22,23 @@ import MessagesBase.PlayerRegistration;
 import MessagesBase.ResponseEnvelope;
 import MessagesBase.UniquePlayerIdentifier;
 import MessagesGameState.GameState;
+import client.constants.GameConstants;
+import client.converter.BinaryCodec;
+import client.converter.CompactJsonCodec;
+import client.converter.IMessageCodec;
 import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
 
 /**
  * This network object is used by the game controller to send and receive data
  * from/to the server.
  * 
+ * The messages are exchanged as XML, unless a compact format is chosen in
+ * GameConstants.WIRE_FORMAT. Then half maps and moves are sent in that format
+ * and the game state is requested in it, with XML as fallback for a server
+ * which does not support it. Responses compressed with gzip are accepted if
+ * GameConstants.NETWORK_COMPRESSION_ENABLED is set.
+ * 
  * @author Nemanja Srdanovic
  *
  */
@@ -30,8 +49,13 @@ public class Network {
 	private String playerID;
 	private String serverBaseUrl;
 	private GameState gameState;
+	private String gameStateETag;
+	private String mapDeltaBase;
+	private boolean mapDelta;
 	private WebClient baseWebClient;
 	private Mono<ResponseEnvelope> webAccess;
+	private IMessageCodec codec;
+	private MediaType codecMediaType;
 	private static Logger logger = LoggerFactory.getLogger(Network.class);
 
 	/**
@@ -47,8 +71,23 @@ public class Network {
 		this.serverBaseUrl = serverBaseUrl;
 
 		baseWebClient = WebClient.builder().baseUrl(serverBaseUrl + "/games")
+				.clientConnector(new ReactorClientHttpConnector(
+						HttpClient.create().compress(GameConstants.NETWORK_COMPRESSION_ENABLED)))
 				.defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_XML_VALUE)
 				.defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_XML_VALUE).build();
+
+		switch (GameConstants.WIRE_FORMAT) {
+		case Json:
+			codec = new CompactJsonCodec();
+			codecMediaType = MediaType.parseMediaType(GameConstants.WIRE_FORMAT_JSON_MEDIA_TYPE);
+			break;
+		case Binary:
+			codec = new BinaryCodec();
+			codecMediaType = MediaType.parseMediaType(GameConstants.WIRE_FORMAT_BINARY_MEDIA_TYPE);
+			break;
+		default:
+			codec = null;
+		}
 	}
 
 	/**
@@ -101,8 +140,8 @@ public class Network {
 	 */
 	public void sendHalfMap(MessagesBase.HalfMap halfMap) {
 
-		webAccess = baseWebClient.method(HttpMethod.POST).uri("/" + gameID + "/halfmaps")
-				.body(BodyInserters.fromValue(halfMap)).retrieve().bodyToMono(ResponseEnvelope.class);
+		webAccess = withBody(baseWebClient.method(HttpMethod.POST).uri("/" + gameID + "/halfmaps"), halfMap,
+				messageCodec -> messageCodec.encodeHalfMap(halfMap)).retrieve().bodyToMono(ResponseEnvelope.class);
 
 		ResponseEnvelope resultReg = webAccess.block();
 
@@ -130,14 +169,82 @@ public class Network {
 	 * If the request is carried out correctly, the player will get all the game
 	 * relevant information in the response.
 	 * 
+	 * The ETag of the last received game state is sent in the If-None-Match
+	 * header. If the game state did not change since then, the server answers
+	 * with 304 (Not Modified) and the last game state is returned again.
+	 * 
+	 * If a map delta base was set, the server may answer with only the map nodes
+	 * which changed since that game state (see isMapDelta).
+	 * 
 	 * @return (GameState object from the network protocol)
 	 */
 	public GameState getGameStatus() {
 
-		webAccess = baseWebClient.method(HttpMethod.GET).uri("/" + gameID + "/states/" + playerID).retrieve()
-				.bodyToMono(ResponseEnvelope.class);
+		return requestGameStatus("/" + gameID + "/states/" + playerID + getMapDeltaQuery("?"));
+	}
+
+	/**
+	 * Long polling variant of getGameStatus. The server keeps the request open
+	 * until the game state id of the player differs from the given one or the
+	 * timeout has passed, so the new game state is received as soon as the enemy
+	 * has acted, without sending a request every few milliseconds.
+	 * 
+	 * @param gameStateID (id of the last received game state)
+	 * @return (GameState object from the network protocol)
+	 */
+	public GameState waitForGameStatusChange(String gameStateID) {
+
+		return requestGameStatus("/" + gameID + "/states/" + playerID + "?waitForChangeAfter=" + gameStateID
+				+ "&timeoutMs=" + GameConstants.LONG_POLL_TIMEOUT_MILLIS + getMapDeltaQuery("&"));
+	}
+
+	private String getMapDeltaQuery(String separator) {
+
+		if (!GameConstants.MAP_DELTA_ENABLED || mapDeltaBase == null)
+			return "";
+
+		return separator + "mapDeltaSince=" + mapDeltaBase;
+	}
+
+	/**
+	 * Sets the id of the last game state whose map was applied by the client. The
+	 * following game state requests ask the server only for the map nodes which
+	 * changed since then.
+	 * 
+	 * @param mapDeltaBase (game state id)
+	 */
+	public void setMapDeltaBase(String mapDeltaBase) {
+		this.mapDeltaBase = mapDeltaBase;
+	}
+
+	/**
+	 * Returns true if the map of the last received game state only contains the
+	 * nodes which changed since the map delta base. Otherwise the map is complete.
+	 * 
+	 * @return
+	 */
+	public boolean isMapDelta() {
+		return mapDelta;
+	}
+
+	private GameState requestGameStatus(String uri) {
 
-		ResponseEnvelope<GameState> resultReg = webAccess.block();
+		ClientResponse response = baseWebClient.method(HttpMethod.GET).uri(uri)
+				.headers(headers -> {
+					if (gameStateETag != null)
+						headers.setIfNoneMatch(gameStateETag);
+					if (codec != null)
+						headers.set(HttpHeaders.ACCEPT,
+								codecMediaType + ", " + MediaType.APPLICATION_XML_VALUE + ";q=0.5");
+				}).exchange().block();
+
+		if (response.statusCode() == HttpStatus.NOT_MODIFIED) {
+
+			response.releaseBody().block();
+			return gameState;
+		}
+
+		ResponseEnvelope<GameState> resultReg = readGameState(response);
 
 		if (resultReg.getState() == ERequestState.Error) {
 
@@ -145,12 +252,41 @@ public class Network {
 
 		} else {
 			gameState = resultReg.getData().get();
+			gameStateETag = response.headers().asHttpHeaders().getETag();
+			mapDelta = response.headers().asHttpHeaders().containsKey(GameConstants.MAP_DELTA_BASE_HEADER);
 		}
 
 		return gameState;
 
 	}
 
+	/**
+	 * Reads the game state in the format the server has answered with. The server
+	 * answers with XML if it does not support the chosen compact format.
+	 */
+	private ResponseEnvelope<GameState> readGameState(ClientResponse response) {
+
+		MediaType contentType = response.headers().contentType().orElse(MediaType.APPLICATION_XML);
+
+		if (codec == null || !codecMediaType.isCompatibleWith(contentType))
+			return response.bodyToMono(ResponseEnvelope.class).block();
+
+		return codec.decodeGameState(new ByteArrayInputStream(response.bodyToMono(byte[].class).block()));
+	}
+
+	/**
+	 * Sets the message as body of the request, as XML or encoded in the chosen
+	 * compact format.
+	 */
+	private RequestHeadersSpec<?> withBody(RequestBodySpec request, Object message,
+			Function<IMessageCodec, byte[]> encoder) {
+
+		if (codec == null)
+			return request.body(BodyInserters.fromValue(message));
+
+		return request.contentType(codecMediaType).body(BodyInserters.fromValue(encoder.apply(codec)));
+	}
+
 	/**
 	 * The client uses this method to send an HTTP post request with an XML message
 	 * in the body to the following endpoint:
@@ -163,8 +299,8 @@ public class Network {
 	 */
 	public void sendPlayerMove(PlayerMove move) {
 
-		webAccess = baseWebClient.method(HttpMethod.POST).uri("/" + gameID + "/moves")
-				.body(BodyInserters.fromValue(move)).retrieve().bodyToMono(ResponseEnvelope.class);
+		webAccess = withBody(baseWebClient.method(HttpMethod.POST).uri("/" + gameID + "/moves"), move,
+				messageCodec -> messageCodec.encodePlayerMove(move)).retrieve().bodyToMono(ResponseEnvelope.class);
 
 		ResponseEnvelope resultReg = webAccess.block();
 
@@ -88,6 +88,22 @@ public class ConverterTestObjects {
 		return gameMap;
 	}
 
+	/**
+	 * Generates a network map object which only contains one changed node: the
+	 * field at x=2 and y=1 is a grass field with the players avatar on it.
+	 * 
+	 * @return
+	 */
+	public static FullMap generateTestFullMapDelta() {
+
+		Set<FullMapNode> nodes = new LinkedHashSet<FullMapNode>();
+
+		nodes.add(new FullMapNode(ETerrain.Grass, EPlayerPositionState.MyPosition,
+				ETreasureState.NoOrUnknownTreasureState, EFortState.NoOrUnknownFortState, 2, 1));
+
+		return new FullMap(nodes);
+	}
+
 	/**
 	 * Returns a map which triggers an exception.
 	 * 
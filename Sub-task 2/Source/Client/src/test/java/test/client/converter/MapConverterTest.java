@@ -13,8 +13,11 @@ import org.mockito.Mockito;
 import MessagesGameState.FullMap;
 import MessagesGameState.FullMapNode;
 import client.converter.Converter;
+import client.enumerations.EAvatarPositionValue;
+import client.enumerations.ETerrainType;
 import client.exceptions.ConverterException;
 import client.game.GameController;
+import client.map.Field;
 import client.map.Map;
 import client.map.MapController;
 
@@ -113,4 +116,29 @@ class MapConverterTest {
 				.converteFullMapToMap(testObjects.generateTestFullMapObjects(map)).getHashMap().size());
 	}
 
+	/**
+	 * Checks if a received map delta changes the existing field of the client map
+	 * in place, without adding or replacing fields.
+	 */
+	@Test
+	public void fullMapDeltaReceived_ApplyToMap_fieldChangedInPlace() {
+
+		Map map = converter.getMapConverter()
+				.converteFullMapToMap(testObjects.generateTestFullMapObjects(mapController.generateMap()));
+		int fieldsNum = map.getHashMap().size();
+		Field changedField = null;
+
+		for (Field field : map.getHashMap().values()) {
+
+			if (field.getCoordinate().getX() == 2 && field.getCoordinate().getY() == 1)
+				changedField = field;
+		}
+
+		converter.getMapConverter().applyFullMapDelta(map, testObjects.generateTestFullMapDelta());
+
+		Assertions.assertEquals(fieldsNum, map.getHashMap().size());
+		Assertions.assertEquals(ETerrainType.Grass, changedField.getFieldTerrain());
+		Assertions.assertEquals(EAvatarPositionValue.MyAvatarPosition, changedField.getFieldAvatarContent());
+	}
+
 }
@@ -0,0 +1,251 @@
+package test.client.converter;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import MessagesBase.EMove;
+import MessagesBase.ERequestState;
+import MessagesBase.ETerrain;
+import MessagesBase.HalfMap;
+import MessagesBase.HalfMapNode;
+import MessagesBase.PlayerMove;
+import MessagesBase.ResponseEnvelope;
+import MessagesBase.UniquePlayerIdentifier;
+import MessagesGameState.EFortState;
+import MessagesGameState.EPlayerGameState;
+import MessagesGameState.EPlayerPositionState;
+import MessagesGameState.ETreasureState;
+import MessagesGameState.FullMap;
+import MessagesGameState.FullMapNode;
+import MessagesGameState.GameState;
+import MessagesGameState.PlayerState;
+import client.converter.BinaryCodec;
+import client.converter.CompactJsonCodec;
+import client.converter.IMessageCodec;
+
+/**
+ * Checks that every compact format decodes the messages it encoded into the
+ * same messages. The server has a copy of the codecs with the same test, so
+ * both sides notice if their copies stop matching.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class MessageCodecTest {
+
+	private static final IMessageCodec[] codecs = { new CompactJsonCodec(), new BinaryCodec() };
+
+	private static final int MAP_WIDTH = 16;
+	private static final int MAP_HEIGHT = 8;
+	private static final int HALF_MAP_WIDTH = 8;
+	private static final int HALF_MAP_HEIGHT = 4;
+
+	/**
+	 * Test that encodes a game state with a full map in which every value of every
+	 * node characteristic appears and compares the decoded game state.
+	 */
+	@Test
+	public void fullMapGameState_EncodeAndDecode_SameGameState() {
+
+		List<FullMapNode> nodes = new ArrayList<FullMapNode>();
+
+		for (int y = 0; y < MAP_HEIGHT; ++y) {
+
+			for (int x = 0; x < MAP_WIDTH; ++x) {
+				nodes.add(createFullMapNode(x, y));
+			}
+		}
+
+		assertGameStateRoundTrip(createGameState(Optional.of(new FullMap(nodes))));
+	}
+
+	/**
+	 * Test that encodes game states with map deltas, whose nodes do not fill the
+	 * map, and with an empty map delta and compares the decoded game states.
+	 */
+	@Test
+	public void mapDeltaGameState_EncodeAndDecode_SameGameState() {
+
+		List<FullMapNode> nodes = Arrays.asList(createFullMapNode(3, 1), createFullMapNode(10, 5),
+				createFullMapNode(0, 0), createFullMapNode(MAP_WIDTH - 1, MAP_HEIGHT - 1));
+
+		assertGameStateRoundTrip(createGameState(Optional.of(new FullMap(nodes))));
+		assertGameStateRoundTrip(createGameState(Optional.of(new FullMap(new ArrayList<FullMapNode>()))));
+		assertGameStateRoundTrip(createGameState(Optional.empty()));
+	}
+
+	/**
+	 * Test that encodes a half map with a fort and every terrain and compares the
+	 * decoded half map.
+	 */
+	@Test
+	public void halfMap_EncodeAndDecode_SameHalfMap() {
+
+		List<HalfMapNode> nodes = new ArrayList<HalfMapNode>();
+
+		for (int y = 0; y < HALF_MAP_HEIGHT; ++y) {
+
+			for (int x = 0; x < HALF_MAP_WIDTH; ++x) {
+
+				nodes.add(new HalfMapNode(x, y, x == 2 && y == 1,
+						ETerrain.values()[(x + y) % ETerrain.values().length]));
+			}
+		}
+
+		HalfMap halfMap = new HalfMap("a123b-dae21-d539o-dfr1", nodes);
+
+		for (IMessageCodec codec : codecs) {
+
+			HalfMap decoded = codec.decodeHalfMap(new ByteArrayInputStream(codec.encodeHalfMap(halfMap)));
+
+			Assertions.assertEquals(halfMap.getUniquePlayerID(), decoded.getUniquePlayerID(), codecName(codec));
+			Assertions.assertEquals(renderHalfMap(halfMap.getNodes()), renderHalfMap(decoded.getNodes()),
+					codecName(codec));
+		}
+	}
+
+	/**
+	 * Test that encodes a move in every direction and compares the decoded moves.
+	 */
+	@Test
+	public void playerMove_EncodeAndDecode_SamePlayerMove() {
+
+		for (IMessageCodec codec : codecs) {
+
+			for (EMove move : EMove.values()) {
+
+				PlayerMove playerMove = PlayerMove.of("a123b-dae21-d539o-dfr1", move);
+				PlayerMove decoded = codec
+						.decodePlayerMove(new ByteArrayInputStream(codec.encodePlayerMove(playerMove)));
+
+				Assertions.assertEquals(playerMove.getUniquePlayerID(), decoded.getUniquePlayerID(),
+						codecName(codec));
+				Assertions.assertEquals(move, decoded.getMove(), codecName(codec));
+			}
+		}
+	}
+
+	/**
+	 * Test that encodes error responses, with a message of one character and with
+	 * characters which have to be escaped, and compares the decoded errors. The
+	 * message of an error response must not be empty.
+	 */
+	@Test
+	public void errorEnvelope_EncodeAndDecode_SameError() {
+
+		List<ResponseEnvelope<GameState>> errors = Arrays.asList(
+				new ResponseEnvelope<GameState>("GenericExampleException",
+						"The \"game\" \\ \u00e9\u4e2d\n was not found."),
+				new ResponseEnvelope<GameState>("ShortMessageException", "?"));
+
+		for (IMessageCodec codec : codecs) {
+
+			for (ResponseEnvelope<GameState> error : errors) {
+
+				ResponseEnvelope<GameState> decoded = codec
+						.decodeGameState(new ByteArrayInputStream(codec.encodeGameState(error)));
+
+				Assertions.assertEquals(ERequestState.Error, decoded.getState(), codecName(codec));
+				Assertions.assertEquals(error.getExceptionName(), decoded.getExceptionName(), codecName(codec));
+				Assertions.assertEquals(error.getExceptionMessage(), decoded.getExceptionMessage(), codecName(codec));
+				Assertions.assertFalse(decoded.getData().isPresent(), codecName(codec));
+			}
+		}
+	}
+
+	private void assertGameStateRoundTrip(GameState gameState) {
+
+		for (IMessageCodec codec : codecs) {
+
+			ResponseEnvelope<GameState> decoded = codec.decodeGameState(
+					new ByteArrayInputStream(codec.encodeGameState(new ResponseEnvelope<GameState>(gameState))));
+
+			Assertions.assertEquals(ERequestState.Okay, decoded.getState(), codecName(codec));
+			Assertions.assertEquals(renderGameState(gameState), renderGameState(decoded.getData().get()),
+					codecName(codec));
+		}
+	}
+
+	private GameState createGameState(Optional<FullMap> map) {
+
+		List<PlayerState> players = Arrays.asList(
+				new PlayerState("Nemanja", "Srdanovi\u0107", "01576891", EPlayerGameState.ShouldActNext,
+						new UniquePlayerIdentifier("a123b-dae21-d539o-dfr1"), true),
+				new PlayerState("Second \"Player\"", "", "0", EPlayerGameState.ShouldWait,
+						new UniquePlayerIdentifier("b456c-ebf32-e640p-egs2"), false));
+
+		return new GameState(map, players, "gameState-17");
+	}
+
+	/**
+	 * The characteristics cycle with different periods, so that every value of
+	 * every characteristic appears on the map.
+	 */
+	private FullMapNode createFullMapNode(int x, int y) {
+
+		return new FullMapNode(ETerrain.values()[(x + y) % ETerrain.values().length],
+				EPlayerPositionState.values()[x % EPlayerPositionState.values().length],
+				ETreasureState.values()[y % ETreasureState.values().length],
+				EFortState.values()[(x + 2 * y) % EFortState.values().length], x, y);
+	}
+
+	private String renderGameState(GameState gameState) {
+
+		List<PlayerState> players = new ArrayList<PlayerState>(gameState.getPlayers());
+		players.sort(Comparator.comparing(PlayerState::getUniquePlayerID));
+
+		StringBuilder rendered = new StringBuilder(gameState.getGameStateId()).append('\n');
+
+		for (PlayerState player : players) {
+
+			rendered.append(player.getFirstName()).append(' ').append(player.getLastName()).append(' ')
+					.append(player.getStudentID()).append(' ').append(player.getState()).append(' ')
+					.append(player.getUniquePlayerID()).append(' ').append(player.hasCollectedTreasure()).append('\n');
+		}
+
+		if (!gameState.getMap().isPresent())
+			return rendered.append("no map").toString();
+
+		List<FullMapNode> nodes = new ArrayList<FullMapNode>(gameState.getMap().get().getMapNodes());
+		nodes.sort(Comparator.comparingInt(FullMapNode::getY).thenComparingInt(FullMapNode::getX));
+
+		for (FullMapNode node : nodes) {
+
+			rendered.append(node.getX()).append(',').append(node.getY()).append(' ').append(node.getTerrain())
+					.append(' ').append(node.getPlayerPositionState()).append(' ').append(node.getTreasureState())
+					.append(' ').append(node.getFortState()).append(';');
+		}
+
+		return rendered.toString();
+	}
+
+	private String renderHalfMap(Collection<HalfMapNode> halfMapNodes) {
+
+		List<HalfMapNode> nodes = new ArrayList<HalfMapNode>(halfMapNodes);
+		nodes.sort(Comparator.comparingInt(HalfMapNode::getY).thenComparingInt(HalfMapNode::getX));
+
+		StringBuilder rendered = new StringBuilder();
+
+		for (HalfMapNode node : nodes) {
+
+			rendered.append(node.getX()).append(',').append(node.getY()).append(' ').append(node.getTerrain())
+					.append(' ').append(node.isFortPresent()).append(';');
+		}
+
+		return rendered.toString();
+	}
+
+	private String codecName(IMessageCodec codec) {
+
+		return codec.getClass().getSimpleName();
+	}
+
+}
@@ -21,6 +21,7 @@ import MessagesGameState.PlayerState;
 import client.converter.Converter;
 import client.converter.EnumConverter;
 import client.converter.MapConverter;
+import client.enumerations.EGameStateRequestMode;
 import client.exceptions.StartParameterException;
 import client.game.Avatar;
 import client.game.Game;
@@ -125,6 +126,7 @@ class GameStateWorkerTest {
 		GameState gameState = new GameState("12345");
 
 		Mockito.when(network.getGameStatus()).thenReturn(gameState);
+		Mockito.when(network.waitForGameStatusChange(any())).thenReturn(gameState);
 		Mockito.when(converter.getMyPlayerState(any())).thenReturn(myPlayerState);
 
 		Mockito.when(controller.isGameActive()).thenCallRealMethod();
@@ -157,6 +159,7 @@ class GameStateWorkerTest {
 		GameState gameState = new GameState(testObjects.getDummyFullMap(), players, "12345");
 
 		Mockito.when(network.getGameStatus()).thenReturn(gameState);
+		Mockito.when(network.waitForGameStatusChange(any())).thenReturn(gameState);
 		Mockito.when(converter.getMyPlayerState(any())).thenReturn(myPlayerState);
 		Mockito.when(mapConverter.converteFullMapToMap(any())).thenReturn(testObjects.getFullMap());
 
@@ -186,4 +189,31 @@ class GameStateWorkerTest {
 
 	}
 
+	/**
+	 * The same game state as in receivedGameState_setGameStates_isGameActiveFalse
+	 * is requested through the polling mode, which has to lead to the same
+	 * result.
+	 */
+	@Test
+	public void receivedGameStateByPolling_setGameStates_isGameActiveFalse() {
+
+		UniquePlayerIdentifier myPlayerId = new UniquePlayerIdentifier("abe1-fad1");
+		PlayerState myPlayerState = new PlayerState("Enemy", "TheEnemyest", "0134999", EPlayerGameState.Lost,
+				myPlayerId, false);
+		GameState gameState = new GameState("12345");
+
+		Mockito.when(network.getGameStatus()).thenReturn(gameState);
+		Mockito.when(converter.getMyPlayerState(any())).thenReturn(myPlayerState);
+
+		Mockito.when(controller.isGameActive()).thenCallRealMethod();
+		Mockito.doCallRealMethod().when(controller).setIsGameActive(anyBoolean());
+
+		worker = new GameStateWorker(controller, EGameStateRequestMode.Polling);
+		controller.setIsGameActive(true);
+		worker.run();
+
+		Assertions.assertEquals(false, controller.isGameActive());
+
+	}
+
 }
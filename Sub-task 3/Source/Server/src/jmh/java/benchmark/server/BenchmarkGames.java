@@ -0,0 +1,261 @@
+package benchmark.server;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Random;
+
+import MessagesBase.ETerrain;
+import MessagesBase.HalfMap;
+import MessagesBase.HalfMapNode;
+import MessagesBase.PlayerRegistration;
+import MessagesBase.UniqueGameIdentifier;
+import MessagesBase.UniquePlayerIdentifier;
+import server.exceptions.MapRuleException;
+import server.game.Game;
+import server.game.GameController;
+import server.game.GameRandom;
+import server.game.RunningGames;
+import server.map.MapController;
+import server.player.Player;
+import server.rules.GameConstants;
+import server.rules.HalfMapRuleCheck;
+
+/**
+ * Creates the games and half maps used by the benchmarks. The half map is a
+ * fixed layout which passes all map rules, so the benchmarks measure the same
+ * work in every run. Benchmarks which need different maps use random half maps
+ * created from a seed (see SEED), so they get the same maps in every run as
+ * well. The random numbers of the games and map controllers (map layout,
+ * treasures and fake enemy positions) are seeded in the same way.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class BenchmarkGames {
+
+	public static final String FIRST_PLAYER_ID = "first-player";
+	public static final String SECOND_PLAYER_ID = "second-player";
+
+	/**
+	 * Default seed of the random inputs, a String so that it can be used as
+	 * default value of a benchmark parameter (e.g. "-p seed=7").
+	 */
+	public static final String SEED = "20201";
+
+	private static final long GAME_SEED = Long.parseLong(SEED);
+
+	private static final int MIN_RANDOM_WATER_FIELDS = GameConstants.MIN_MAP_WATER_FIELDS;
+	private static final int MAX_RANDOM_WATER_FIELDS = 7;
+	private static final int MIN_RANDOM_MOUNTAIN_FIELDS = GameConstants.MIN_MAP_MOUNTAIN_FIELDS;
+	private static final int MAX_RANDOM_MOUNTAIN_FIELDS = 7;
+
+	private static final String[] HALF_MAP_ROWS = { "GGMGGGGG", "GWGMGWGG", "GGWGMGWG", "GGGGGGGG" };
+	private static final int CASTLE_X = 0;
+	private static final int CASTLE_Y = 3;
+
+	private BenchmarkGames() {
+
+	}
+
+	/**
+	 * Creates a valid half map of the given player.
+	 *
+	 * @param playerID
+	 * @return (HalfMap object)
+	 */
+	public static HalfMap createHalfMap(String playerID) {
+
+		Collection<HalfMapNode> nodes = new ArrayList<HalfMapNode>();
+
+		for (int y = 0; y < HALF_MAP_ROWS.length; ++y) {
+
+			for (int x = 0; x < HALF_MAP_ROWS[y].length(); ++x) {
+
+				nodes.add(new HalfMapNode(x, y, x == CASTLE_X && y == CASTLE_Y, toTerrain(HALF_MAP_ROWS[y].charAt(x))));
+			}
+		}
+
+		return new HalfMap(playerID, nodes);
+	}
+
+	/**
+	 * Creates a random half map of the given player which passes all map rules.
+	 * Random layouts are created until one passes the half map rules, so the
+	 * same random generator state always leads to the same half map.
+	 *
+	 * @param playerID
+	 * @param random   (seeded random generator)
+	 * @return (HalfMap object)
+	 */
+	public static HalfMap createRandomHalfMap(String playerID, Random random) {
+
+		HalfMapRuleCheck halfMapRules = new HalfMapRuleCheck();
+		Player player = new Player("Random", "Player", "0", playerID);
+
+		while (true) {
+
+			ETerrain[] terrains = new ETerrain[GameConstants.NUM_OF_HALF_MAP_FIELDS];
+
+			for (int index = 0; index < terrains.length; ++index) {
+				terrains[index] = ETerrain.Grass;
+			}
+
+			placeRandomTerrain(terrains, ETerrain.Water, MIN_RANDOM_WATER_FIELDS, MAX_RANDOM_WATER_FIELDS, random);
+			placeRandomTerrain(terrains, ETerrain.Mountain, MIN_RANDOM_MOUNTAIN_FIELDS, MAX_RANDOM_MOUNTAIN_FIELDS,
+					random);
+
+			int castleIndex = random.nextInt(terrains.length);
+
+			while (terrains[castleIndex] != ETerrain.Grass) {
+				castleIndex = random.nextInt(terrains.length);
+			}
+
+			Collection<HalfMapNode> nodes = new ArrayList<HalfMapNode>();
+
+			for (int index = 0; index < terrains.length; ++index) {
+
+				nodes.add(new HalfMapNode(index % GameConstants.HALF_MAP_WIDTH, index / GameConstants.HALF_MAP_WIDTH,
+						index == castleIndex, terrains[index]));
+			}
+
+			HalfMap halfMap = new HalfMap(playerID, nodes);
+
+			try {
+
+				halfMapRules.receiveHalfMap(player, halfMap, null);
+				return halfMap;
+
+			} catch (MapRuleException e) {
+				// the layout breaks a map rule, the next one is tried
+			}
+		}
+	}
+
+	private static void placeRandomTerrain(ETerrain[] terrains, ETerrain terrain, int minFields, int maxFields,
+			Random random) {
+
+		int fieldsNum = minFields + random.nextInt(maxFields - minFields + 1);
+
+		for (int fieldNum = 0; fieldNum < fieldsNum; ++fieldNum) {
+
+			int index = random.nextInt(terrains.length);
+
+			while (terrains[index] != ETerrain.Grass
+					|| (terrain == ETerrain.Water && !isWaterAllowedOnBorders(terrains, index))) {
+				index = random.nextInt(terrains.length);
+			}
+
+			terrains[index] = terrain;
+		}
+	}
+
+	/**
+	 * Checks if one more water field at the index keeps the number of water
+	 * fields on every border within the limit of the border rule, so that most
+	 * random layouts pass the half map rules.
+	 */
+	private static boolean isWaterAllowedOnBorders(ETerrain[] terrains, int index) {
+
+		int x = index % GameConstants.HALF_MAP_WIDTH;
+		int y = index / GameConstants.HALF_MAP_WIDTH;
+		int topWater = 0;
+		int bottomWater = 0;
+		int leftWater = 0;
+		int rightWater = 0;
+
+		for (int fieldIndex = 0; fieldIndex < terrains.length; ++fieldIndex) {
+
+			if (terrains[fieldIndex] != ETerrain.Water)
+				continue;
+
+			int fieldX = fieldIndex % GameConstants.HALF_MAP_WIDTH;
+			int fieldY = fieldIndex / GameConstants.HALF_MAP_WIDTH;
+
+			topWater += fieldY == 0 ? 1 : 0;
+			bottomWater += fieldY == GameConstants.MAX_HALF_MAP_HEIGHT_FIELD ? 1 : 0;
+			leftWater += fieldX == 0 ? 1 : 0;
+			rightWater += fieldX == GameConstants.MAX_HALF_MAP_WIDTH_FIELD ? 1 : 0;
+		}
+
+		return (y != 0 || topWater < GameConstants.MAX_MAP_WATER_FIELDS_ON_HORIZONTAL_EGE)
+				&& (y != GameConstants.MAX_HALF_MAP_HEIGHT_FIELD
+						|| bottomWater < GameConstants.MAX_MAP_WATER_FIELDS_ON_HORIZONTAL_EGE)
+				&& (x != 0 || leftWater < GameConstants.MAX_MAP_WATER_FIELDS_ON_VERTICAL_EGE)
+				&& (x != GameConstants.MAX_HALF_MAP_WIDTH_FIELD
+						|| rightWater < GameConstants.MAX_MAP_WATER_FIELDS_ON_VERTICAL_EGE);
+	}
+
+	/**
+	 * Creates a running game with two registered players which did not send a
+	 * half map yet.
+	 *
+	 * @param gameID
+	 * @return (Game object)
+	 */
+	public static Game createRegisteredGame(String gameID) {
+
+		Game game = new Game(new UniqueGameIdentifier(gameID), new GameRandom(GAME_SEED));
+		GameController gameController = game.getGameController();
+
+		RunningGames.addGame(game);
+
+		gameController.addNewPlayer(new PlayerRegistration("First", "Player", "1"),
+				new UniquePlayerIdentifier(FIRST_PLAYER_ID));
+		gameController.addNewPlayer(new PlayerRegistration("Second", "Player", "2"),
+				new UniquePlayerIdentifier(SECOND_PLAYER_ID));
+
+		return game;
+	}
+
+	/**
+	 * Creates a running game with two registered players which both sent their
+	 * half map.
+	 *
+	 * @param gameID
+	 * @return (Game object)
+	 */
+	public static Game createStartedGame(String gameID) {
+
+		Game game = createRegisteredGame(gameID);
+		GameController gameController = game.getGameController();
+
+		gameController.setHalfMap(gameID, createHalfMap(FIRST_PLAYER_ID));
+		gameController.setHalfMap(gameID, createHalfMap(SECOND_PLAYER_ID));
+
+		return game;
+	}
+
+	/**
+	 * Creates a map controller without a game, which received a random half map
+	 * of both players. The castle and position of the players are set like in a
+	 * started game.
+	 *
+	 * @param firstPlayer
+	 * @param secondPlayer
+	 * @param random       (seeded random generator)
+	 * @return (MapController object)
+	 */
+	public static MapController createStartedMapController(Player firstPlayer, Player secondPlayer, Random random) {
+
+		MapController mapController = new MapController(new GameRandom(random.nextLong()));
+
+		mapController.setHalfMap(firstPlayer, createRandomHalfMap(firstPlayer.getPlayerID(), random));
+		mapController.setHalfMap(secondPlayer, createRandomHalfMap(secondPlayer.getPlayerID(), random));
+
+		return mapController;
+	}
+
+	private static ETerrain toTerrain(char terrain) {
+
+		switch (terrain) {
+
+		case 'M':
+			return ETerrain.Mountain;
+		case 'W':
+			return ETerrain.Water;
+		default:
+			return ETerrain.Grass;
+		}
+	}
+
+}
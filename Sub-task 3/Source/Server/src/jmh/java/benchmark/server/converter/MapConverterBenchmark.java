@@ -0,0 +1,98 @@
+package benchmark.server.converter;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import MessagesGameState.FullMap;
+import benchmark.server.BenchmarkGames;
+import server.converter.MapConverter;
+import server.game.GameRandom;
+import server.map.MapSnapshot;
+import server.player.Player;
+
+/**
+ * Conversion of the map snapshot of combined maps into the full map of the
+ * network protocol, from the view of the first player. The half maps are
+ * created from the seed. In game round 1 the enemy avatar is placed on a
+ * random field chosen from the seed as well, in round 20 on its real position.
+ *
+ * Run with "gradlew jmh -PjmhInclude=MapConverterBenchmark" or the main
+ * method, both report the allocation rate of the GC profiler.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapConverterBenchmark {
+
+	private static final int GAMES_NUM = 16;
+
+	@Param(BenchmarkGames.SEED)
+	private long seed;
+
+	@Param({ "1", "20" })
+	private int gameRound;
+
+	private MapConverter mapConverter;
+	private MapSnapshot[] snapshots;
+	private Player[] players;
+	private int gameNum;
+
+	@Setup(Level.Trial)
+	public void createMaps() {
+
+		Random random = new Random(seed);
+
+		mapConverter = new MapConverter(new GameRandom(seed));
+		snapshots = new MapSnapshot[GAMES_NUM];
+		players = new Player[GAMES_NUM];
+
+		for (int gameNum = 0; gameNum < GAMES_NUM; ++gameNum) {
+
+			players[gameNum] = new Player("First", "Player", "1", BenchmarkGames.FIRST_PLAYER_ID);
+			snapshots[gameNum] = BenchmarkGames.createStartedMapController(players[gameNum],
+					new Player("Second", "Player", "2", BenchmarkGames.SECOND_PLAYER_ID), random).getSnapshot();
+		}
+	}
+
+	@Benchmark
+	public FullMap converteMapToFullMap() {
+
+		int currentGameNum = gameNum;
+		gameNum = (gameNum + 1) % GAMES_NUM;
+
+		return mapConverter.converteMapToFullMap(snapshots[currentGameNum], players[currentGameNum], gameRound);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+
+		Options options = new OptionsBuilder().include(MapConverterBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class).build();
+
+		new Runner(options).run();
+	}
+
+}
@@ -0,0 +1,229 @@
+package benchmark.server.converter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import MessagesBase.EMove;
+import MessagesBase.HalfMap;
+import MessagesBase.PlayerMove;
+import MessagesBase.ResponseEnvelope;
+import MessagesGameState.GameState;
+import benchmark.server.BenchmarkGames;
+import server.converter.IMessageCodec;
+import server.converter.ResponseMarshaller;
+import server.enumerations.EWireFormat;
+import server.game.Game;
+import server.game.RunningGames;
+
+/**
+ * Compares the formats of the messages: encoding and decoding of the game
+ * state with the full map of a started game, of a half map and of a move. XML
+ * is written and read with JAXB like the message converter of spring does.
+ *
+ * The payload size of every message is printed once per format when the trial
+ * starts, uncompressed and compressed with gzip.
+ *
+ * Run with "gradlew jmh -PjmhInclude=WireFormatBenchmark" or the main method.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+
+	private static final String GAME_ID = "wire";
+
+	@Param({ "Xml", "Json", "Binary" })
+	private EWireFormat format;
+
+	private IMessageCodec codec;
+	private ResponseEnvelope<GameState> gameState;
+	private HalfMap halfMap;
+	private PlayerMove playerMove;
+	private byte[] encodedGameState;
+	private byte[] encodedHalfMap;
+	private byte[] encodedPlayerMove;
+
+	@Setup(Level.Trial)
+	public void encodeMessages() throws JAXBException, IOException {
+
+		Game game = BenchmarkGames.createStartedGame(GAME_ID);
+
+		gameState = new ResponseEnvelope<>(
+				game.getGameController().getGameStateObject(GAME_ID, BenchmarkGames.FIRST_PLAYER_ID));
+		halfMap = BenchmarkGames.createHalfMap(BenchmarkGames.FIRST_PLAYER_ID);
+		playerMove = PlayerMove.of(BenchmarkGames.FIRST_PLAYER_ID, EMove.Right);
+
+		RunningGames.removeGame(game);
+
+		codec = format == EWireFormat.Xml ? new JaxbCodec() : ResponseMarshaller.getCodec(format);
+		encodedGameState = codec.encodeGameState(gameState);
+		encodedHalfMap = codec.encodeHalfMap(halfMap);
+		encodedPlayerMove = codec.encodePlayerMove(playerMove);
+
+		System.out.printf("%n%s payload bytes (gzip): game state %d (%d), half map %d (%d), move %d (%d)%n", format,
+				encodedGameState.length, gzip(encodedGameState), encodedHalfMap.length, gzip(encodedHalfMap),
+				encodedPlayerMove.length, gzip(encodedPlayerMove));
+	}
+
+	private int gzip(byte[] bytes) throws IOException {
+
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+
+		try (GZIPOutputStream output = new GZIPOutputStream(compressed)) {
+			output.write(bytes);
+		}
+
+		return compressed.size();
+	}
+
+	@Benchmark
+	public byte[] encodeGameState() {
+
+		return codec.encodeGameState(gameState);
+	}
+
+	@Benchmark
+	public ResponseEnvelope<GameState> decodeGameState() {
+
+		return codec.decodeGameState(new ByteArrayInputStream(encodedGameState));
+	}
+
+	@Benchmark
+	public byte[] encodeHalfMap() {
+
+		return codec.encodeHalfMap(halfMap);
+	}
+
+	@Benchmark
+	public HalfMap decodeHalfMap() {
+
+		return codec.decodeHalfMap(new ByteArrayInputStream(encodedHalfMap));
+	}
+
+	@Benchmark
+	public byte[] encodePlayerMove() {
+
+		return codec.encodePlayerMove(playerMove);
+	}
+
+	@Benchmark
+	public PlayerMove decodePlayerMove() {
+
+		return codec.decodePlayerMove(new ByteArrayInputStream(encodedPlayerMove));
+	}
+
+	/**
+	 * The XML format of the network protocol. Marshaller and unmarshaller are
+	 * created per call, as by the message converter of spring.
+	 */
+	private static class JaxbCodec implements IMessageCodec {
+
+		private final JAXBContext jaxbContext;
+
+		private JaxbCodec() throws JAXBException {
+
+			jaxbContext = JAXBContext.newInstance(ResponseEnvelope.class, GameState.class, HalfMap.class,
+					PlayerMove.class);
+		}
+
+		private byte[] marshal(Object message) {
+
+			ByteArrayOutputStream xml = new ByteArrayOutputStream(4096);
+
+			try {
+
+				Marshaller marshaller = jaxbContext.createMarshaller();
+				marshaller.setProperty(Marshaller.JAXB_ENCODING, "UTF-8");
+				marshaller.marshal(message, xml);
+
+			} catch (JAXBException e) {
+
+				throw new IllegalStateException(e);
+			}
+
+			return xml.toByteArray();
+		}
+
+		private Object unmarshal(InputStream input) {
+
+			try {
+
+				return jaxbContext.createUnmarshaller().unmarshal(input);
+
+			} catch (JAXBException e) {
+
+				throw new IllegalStateException(e);
+			}
+		}
+
+		@Override
+		public byte[] encodeGameState(ResponseEnvelope<GameState> gameState) {
+			return marshal(gameState);
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public ResponseEnvelope<GameState> decodeGameState(InputStream input) {
+			return (ResponseEnvelope<GameState>) unmarshal(input);
+		}
+
+		@Override
+		public byte[] encodeHalfMap(HalfMap halfMap) {
+			return marshal(halfMap);
+		}
+
+		@Override
+		public HalfMap decodeHalfMap(InputStream input) {
+			return (HalfMap) unmarshal(input);
+		}
+
+		@Override
+		public byte[] encodePlayerMove(PlayerMove playerMove) {
+			return marshal(playerMove);
+		}
+
+		@Override
+		public PlayerMove decodePlayerMove(InputStream input) {
+			return (PlayerMove) unmarshal(input);
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+
+		Options options = new OptionsBuilder().include(WireFormatBenchmark.class.getSimpleName()).build();
+
+		new Runner(options).run();
+	}
+
+}
@@ -0,0 +1,117 @@
+package benchmark.server.game;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import server.game.GameMailbox;
+
+/**
+ * Compares the two ways of serializing the actions of one game: the mailbox
+ * which is drained by the shared pool and a coarse synchronized block on the
+ * game. Every request thread sends its actions to one of the games, so with
+ * one game all threads compete for the same game and with many games they are
+ * spread like the requests of many parallel matches.
+ *
+ * The action simulates the work of a request (rule checks, map conversion) by
+ * consuming CPU while holding the game.
+ *
+ * Run with "gradlew jmh -PjmhInclude=GameExecutionBenchmark" or the main method.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class GameExecutionBenchmark {
+
+	@Param({ "1", "64" })
+	private int gamesNum;
+
+	@Param({ "500" })
+	private long actionTokens;
+
+	private GameMailbox[] mailboxes;
+	private Object[] gameLocks;
+
+	/**
+	 * Every benchmark thread sends its requests to its own game, wrapping around
+	 * if there are less games than threads.
+	 */
+	@State(Scope.Thread)
+	public static class RequestThread {
+
+		private int gameNum;
+
+		@Setup(Level.Trial)
+		public void chooseGame(GameExecutionBenchmark benchmark, ThreadParams threadParams) {
+
+			gameNum = threadParams.getThreadIndex() % benchmark.gamesNum;
+		}
+	}
+
+	@Setup(Level.Trial)
+	public void createGames() {
+
+		mailboxes = new GameMailbox[gamesNum];
+		gameLocks = new Object[gamesNum];
+
+		for (int gameNum = 0; gameNum < gamesNum; ++gameNum) {
+
+			mailboxes[gameNum] = new GameMailbox();
+			gameLocks[gameNum] = new Object();
+		}
+	}
+
+	@Benchmark
+	public long mailbox(RequestThread requestThread) {
+
+		return mailboxes[requestThread.gameNum].execute(this::action);
+	}
+
+	@Benchmark
+	public long synchronizedGame(RequestThread requestThread) {
+
+		synchronized (gameLocks[requestThread.gameNum]) {
+			return action();
+		}
+	}
+
+	private long action() {
+
+		Blackhole.consumeCPU(actionTokens);
+
+		return actionTokens;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+
+		Options options = new OptionsBuilder().include(GameExecutionBenchmark.class.getSimpleName()).build();
+
+		new Runner(options).run();
+	}
+
+}
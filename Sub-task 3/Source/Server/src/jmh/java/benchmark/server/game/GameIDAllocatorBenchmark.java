@@ -0,0 +1,131 @@
+package benchmark.server.game;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import MessagesBase.UniqueGameIdentifier;
+import server.enumerations.ERulePhase;
+import server.game.Game;
+import server.game.GameIDAllocator;
+import server.game.RunningGames;
+import server.rules.Rules;
+
+/**
+ * Burst creation of games. One invocation creates 10 000 games the same way
+ * the new game endpoint does (id, game object, new game rules, registry). The
+ * new games are active, so when all game slots are used the oldest game is
+ * removed as if it had expired, and its id and slot are reused. The score is
+ * the time of the whole burst, which has to stay below one second.
+ *
+ * The id generation itself is compared with the former UUID based ids.
+ *
+ * Run with "gradlew jmh -PjmhInclude=GameIDAllocatorBenchmark" or the main
+ * method.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameIDAllocatorBenchmark {
+
+	private static final int BURST_GAMES_NUM = 10_000;
+
+	private GameIDAllocator allocator;
+
+	@Setup(Level.Trial)
+	public void createAllocator() {
+
+		allocator = new GameIDAllocator(0);
+	}
+
+	@TearDown(Level.Iteration)
+	public void clearRegistry() {
+
+		while (RunningGames.removeOldestGame() != null) {
+		}
+	}
+
+	/**
+	 * Creates 10 000 games in one burst.
+	 */
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@Warmup(iterations = 5)
+	@Measurement(iterations = 20)
+	public void createGameBurst(Blackhole blackhole) {
+
+		for (int gameNum = 0; gameNum < BURST_GAMES_NUM; ++gameNum) {
+
+			Game game;
+
+			if (RunningGames.getAdmission().getUsedSlotsNum() >= RunningGames.getAdmission().getCapacity()) {
+				RunningGames.removeOldestGame();
+			}
+
+			do {
+
+				game = new Game(new UniqueGameIdentifier(RunningGames.allocateGameID()));
+				Rules.check(ERulePhase.NewGame, rule -> rule.newGame());
+
+			} while (!RunningGames.addGame(game));
+
+			blackhole.consume(game);
+		}
+	}
+
+	/**
+	 * Issues and releases ids from several threads.
+	 */
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@Threads(8)
+	public String allocateAndRelease() {
+
+		String gameID = allocator.allocate();
+		allocator.release(gameID);
+
+		return gameID;
+	}
+
+	/**
+	 * The former id generation, for comparison.
+	 */
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@Threads(8)
+	public String randomUUID() {
+
+		return UUID.randomUUID().toString().substring(0, 5);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+
+		Options options = new OptionsBuilder().include(GameIDAllocatorBenchmark.class.getSimpleName()).build();
+
+		new Runner(options).run();
+	}
+
+}
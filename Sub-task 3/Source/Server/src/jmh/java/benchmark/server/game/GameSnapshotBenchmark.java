@@ -0,0 +1,115 @@
+package benchmark.server.game;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import benchmark.server.BenchmarkGames;
+import server.game.GameSnapshotFile;
+import server.game.RunningGames;
+
+/**
+ * Snapshot of 1 000 started games in a temporary file. The game capacity of
+ * the forked JVM is raised, so that all games are running at the same time.
+ *
+ * writeGames measures the periodic snapshot of all running games.
+ * restoreGames measures what a restart of the server adds before it accepts
+ * requests: reading the snapshot and registering the games under their old
+ * ids. The score is the time for all games and has to stay below one second.
+ *
+ * Run with "gradlew jmh -PjmhInclude=GameSnapshotBenchmark" or the main
+ * method.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(value = 1, jvmArgsAppend = "-Dgames.capacity=1000")
+public class GameSnapshotBenchmark {
+
+	private static final int GAMES_NUM = 1000;
+
+	private File file;
+	private GameSnapshotFile snapshotFile;
+
+	/**
+	 * Removes all games before every restore, so that the games of the snapshot
+	 * can be registered again.
+	 */
+	@State(Scope.Benchmark)
+	public static class EmptyRegistry {
+
+		@Setup(Level.Invocation)
+		public void clearRegistry() {
+
+			while (RunningGames.removeOldestGame() != null) {
+			}
+		}
+	}
+
+	@Setup(Level.Trial)
+	public void writeSnapshot() throws IOException {
+
+		file = File.createTempFile("games", ".snapshot");
+		snapshotFile = new GameSnapshotFile(file.toPath());
+
+		for (int gameNum = 0; gameNum < GAMES_NUM; ++gameNum) {
+			BenchmarkGames.createStartedGame(RunningGames.allocateGameID());
+		}
+
+		snapshotFile.writeGames();
+	}
+
+	@TearDown(Level.Trial)
+	public void deleteSnapshot() {
+
+		file.delete();
+	}
+
+	/**
+	 * Writes all running games into the snapshot.
+	 */
+	@Benchmark
+	public int writeGames() {
+
+		return snapshotFile.writeGames();
+	}
+
+	/**
+	 * Reads the snapshot and registers all games.
+	 */
+	@Benchmark
+	public int restoreGames(EmptyRegistry emptyRegistry) {
+
+		return snapshotFile.restoreGames();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+
+		Options options = new OptionsBuilder().include(GameSnapshotBenchmark.class.getSimpleName()).build();
+
+		new Runner(options).run();
+	}
+
+}
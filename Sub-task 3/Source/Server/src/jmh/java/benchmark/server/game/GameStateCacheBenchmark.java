@@ -0,0 +1,90 @@
+package benchmark.server.game;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import MessagesBase.ResponseEnvelope;
+import benchmark.server.BenchmarkGames;
+import server.converter.ResponseMarshaller;
+import server.game.Game;
+import server.game.GameController;
+import server.game.RunningGames;
+
+/**
+ * Measures the state polls per second of one core between two moves, once with
+ * the response cache and once converting and marshalling the game state on
+ * every poll as before.
+ *
+ * Run with "gradlew jmh -PjmhInclude=GameStateCacheBenchmark" or the main
+ * method.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(1)
+public class GameStateCacheBenchmark {
+
+	private static final String GAME_ID = "cache";
+
+	private Game game;
+	private GameController gameController;
+	private ResponseMarshaller responseMarshaller;
+
+	@Setup(Level.Trial)
+	public void startGame() {
+
+		game = BenchmarkGames.createStartedGame(GAME_ID);
+		gameController = game.getGameController();
+		responseMarshaller = new ResponseMarshaller();
+	}
+
+	@TearDown(Level.Trial)
+	public void removeGame() {
+
+		RunningGames.removeGame(game);
+	}
+
+	@Benchmark
+	public byte[] cachedPoll() {
+
+		return gameController.getGameStateResponse(GAME_ID, BenchmarkGames.FIRST_PLAYER_ID, null, null).getBody();
+	}
+
+	@Benchmark
+	public byte[] uncachedPoll() {
+
+		return responseMarshaller.marshalGameState(
+				new ResponseEnvelope<>(gameController.getGameStateObject(GAME_ID, BenchmarkGames.FIRST_PLAYER_ID)));
+	}
+
+	public static void main(String[] args) throws RunnerException {
+
+		Options options = new OptionsBuilder().include(GameStateCacheBenchmark.class.getSimpleName()).build();
+
+		new Runner(options).run();
+	}
+
+}
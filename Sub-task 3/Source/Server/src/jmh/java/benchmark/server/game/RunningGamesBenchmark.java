@@ -0,0 +1,134 @@
+package benchmark.server.game;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import MessagesBase.UniqueGameIdentifier;
+import server.game.Game;
+import server.game.RunningGames;
+import server.rules.GameConstants;
+
+/**
+ * Contention benchmark for the RunningGames registry. The registry is filled up
+ * to the maximal number of parallel games and is then accessed by a growing
+ * number of threads, the same way Tomcat worker threads access it. The lookup
+ * throughput should grow with the thread count, because lookups do not take
+ * any lock.
+ *
+ * Run all thread counts with the main method or a single one with "gradlew jmh
+ * -PjmhInclude=RunningGamesBenchmark".
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RunningGamesBenchmark {
+
+	private static final int[] TOMCAT_THREAD_NUMS = { 1, 2, 4, 8, 16, 32, 64 };
+	private static final int GAME_ID_MASK = 1023;
+
+	private String[] gameIDs;
+
+	/**
+	 * Every thread walks through the game ids with its own cursor, so that the
+	 * threads do not share a counter.
+	 */
+	@State(Scope.Thread)
+	public static class LookupCursor {
+
+		private int position;
+
+		private int next() {
+			return position++ & GAME_ID_MASK;
+		}
+	}
+
+	@Setup(Level.Trial)
+	public void fillRegistry() {
+
+		gameIDs = new String[GAME_ID_MASK + 1];
+
+		for (int gameNum = 0; gameNum < gameIDs.length; ++gameNum) {
+
+			gameIDs[gameNum] = String.format("%05d", gameNum % GameConstants.MAX_PARALLEL_GAME_NUM);
+		}
+
+		for (int gameNum = 0; gameNum < GameConstants.MAX_PARALLEL_GAME_NUM; ++gameNum) {
+
+			RunningGames.addGame(new Game(new UniqueGameIdentifier(gameIDs[gameNum])));
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void clearRegistry() {
+
+		while (RunningGames.removeOldestGame() != null) {
+		}
+	}
+
+	/**
+	 * Only lookups, like the state polling of all clients.
+	 */
+	@Benchmark
+	public Game lookup(LookupCursor cursor) {
+
+		return RunningGames.getGame(gameIDs[cursor.next()]);
+	}
+
+	/**
+	 * Lookups while another thread permanently removes the oldest game and creates
+	 * a new one with the same id.
+	 */
+	@Benchmark
+	@Group("lookupWhileReplacing")
+	@GroupThreads(7)
+	public Game lookupWhileReplacing(LookupCursor cursor) {
+
+		return RunningGames.getGame(gameIDs[cursor.next()]);
+	}
+
+	@Benchmark
+	@Group("lookupWhileReplacing")
+	@GroupThreads(1)
+	public boolean replaceOldestGame() {
+
+		Game oldestGame = RunningGames.removeOldestGame();
+
+		return RunningGames.addGame(new Game(oldestGame.getGameIdentifier()));
+	}
+
+	public static void main(String[] args) throws RunnerException {
+
+		for (int threadNum : TOMCAT_THREAD_NUMS) {
+
+			Options options = new OptionsBuilder()
+					.include(RunningGamesBenchmark.class.getSimpleName() + ".lookup$").threads(threadNum).build();
+
+			new Runner(options).run();
+		}
+	}
+
+}
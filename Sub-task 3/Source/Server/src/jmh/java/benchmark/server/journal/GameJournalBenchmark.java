@@ -0,0 +1,132 @@
+package benchmark.server.journal;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.sqlite.SQLiteDataSource;
+
+import benchmark.server.BenchmarkGames;
+import server.enumerations.EGameEventType;
+import server.journal.GameEvent;
+import server.journal.GameJournal;
+import server.rules.GameConstants;
+
+/**
+ * Benchmarks of the game journal on a temporary SQLite database.
+ *
+ * writeEvents appends a burst of events and closes the journal, which waits
+ * until all events are written. The score is the time of the whole burst, so
+ * the sustained write rate is EVENTS_NUM divided by the score.
+ *
+ * append only measures the cost a request thread pays for one event, with
+ * several threads appending at the same time while the writer is running.
+ *
+ * Run with "gradlew jmh -PjmhInclude=GameJournalBenchmark" or the main method.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+public class GameJournalBenchmark {
+
+	private static final int EVENTS_NUM = 100_000;
+	private static final String GAME_ID = "a2906";
+
+	private File databaseFile;
+	private SQLiteDataSource dataSource;
+	private GameJournal journal;
+	private GameEvent event;
+
+	@Setup(Level.Trial)
+	public void createDatabase() throws IOException {
+
+		databaseFile = File.createTempFile("journal-benchmark", ".sqlite");
+		dataSource = new SQLiteDataSource();
+		dataSource.setUrl("jdbc:sqlite:" + databaseFile.getAbsolutePath());
+		event = new GameEvent(GAME_ID, EGameEventType.MoveReceived, BenchmarkGames.FIRST_PLAYER_ID, "Right");
+	}
+
+	@Setup(Level.Iteration)
+	public void startJournal() throws SQLException {
+
+		journal = new GameJournal(dataSource, GameConstants.GAME_JOURNAL_BATCH_SIZE, EVENTS_NUM,
+				GameConstants.GAME_JOURNAL_FLUSH_INTERVAL_MILLIS);
+		journal.start();
+	}
+
+	@TearDown(Level.Iteration)
+	public void stopJournal() {
+
+		journal.close();
+	}
+
+	@TearDown(Level.Trial)
+	public void deleteDatabase() {
+
+		new File(databaseFile.getAbsolutePath() + "-wal").delete();
+		new File(databaseFile.getAbsolutePath() + "-shm").delete();
+		databaseFile.delete();
+	}
+
+	/**
+	 * Appends a burst of events and waits until they are written.
+	 */
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	@Warmup(iterations = 3)
+	@Measurement(iterations = 10)
+	public long writeEvents() {
+
+		for (int eventNum = 0; eventNum < EVENTS_NUM; ++eventNum) {
+			journal.append(event);
+		}
+
+		journal.close();
+
+		return journal.getWrittenEventsNum();
+	}
+
+	/**
+	 * Appends single events from request threads. Events which do not fit into the
+	 * queue are dropped, which costs about the same as appending them.
+	 */
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.NANOSECONDS)
+	@Warmup(iterations = 3, time = 1)
+	@Measurement(iterations = 5, time = 1)
+	@Threads(8)
+	public boolean append() {
+
+		return journal.append(event);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+
+		Options options = new OptionsBuilder().include(GameJournalBenchmark.class.getSimpleName()).build();
+
+		new Runner(options).run();
+	}
+
+}
@@ -0,0 +1,128 @@
+package benchmark.server.map;
+
+import java.util.HashMap;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import benchmark.server.BenchmarkGames;
+import server.converter.MapConverter;
+import server.game.GameRandom;
+import server.map.Coordinate;
+import server.map.Map;
+import server.map.MapCombiner;
+import server.map.PlayerMap;
+import server.player.Player;
+
+/**
+ * Combination of two half maps into the full map, with half maps, layouts and
+ * treasure fields created from the seed. The combiner moves the castle of the player whose half map is
+ * placed second, so the castles are set back before every combination.
+ *
+ * Run with "gradlew jmh -PjmhInclude=MapCombinerBenchmark" or the main method,
+ * both report the allocation rate of the GC profiler.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapCombinerBenchmark {
+
+	private static final int HALF_MAP_PAIRS_NUM = 32;
+
+	@Param(BenchmarkGames.SEED)
+	private long seed;
+
+	private MapCombiner mapCombiner;
+	private HalfMapPair[] halfMapPairs;
+	private int pairNum;
+
+	/**
+	 * The half maps of both players with their castle positions before the
+	 * combination.
+	 */
+	private static class HalfMapPair {
+
+		private final HashMap<String, PlayerMap> halfMaps = new HashMap<String, PlayerMap>();
+		private final HashMap<Player, Coordinate> castles = new HashMap<Player, Coordinate>();
+
+		private void addHalfMap(PlayerMap playerMap) {
+
+			halfMaps.put(playerMap.getPlayer().getPlayerID(), playerMap);
+			castles.put(playerMap.getPlayer(), playerMap.getPlayer().getCastePosition());
+		}
+
+		private void resetCastles() {
+
+			castles.forEach((player, castle) -> {
+				player.setCastePosition(castle);
+				player.setCurrentPosition(castle);
+			});
+		}
+	}
+
+	@Setup(Level.Trial)
+	public void createHalfMaps() {
+
+		Random random = new Random(seed);
+		MapConverter mapConverter = new MapConverter();
+
+		mapCombiner = new MapCombiner(new GameRandom(seed));
+		halfMapPairs = new HalfMapPair[HALF_MAP_PAIRS_NUM];
+
+		for (int pairNum = 0; pairNum < HALF_MAP_PAIRS_NUM; ++pairNum) {
+
+			halfMapPairs[pairNum] = new HalfMapPair();
+
+			for (String playerID : new String[] { BenchmarkGames.FIRST_PLAYER_ID, BenchmarkGames.SECOND_PLAYER_ID }) {
+
+				Player player = new Player("Benchmark", "Player", "0", playerID);
+
+				halfMapPairs[pairNum].addHalfMap(new PlayerMap(player, mapConverter
+						.converteHalfMapToMap(BenchmarkGames.createRandomHalfMap(playerID, random), player)));
+			}
+		}
+	}
+
+	@Benchmark
+	public Map combineHalfMaps() {
+
+		HalfMapPair halfMapPair = halfMapPairs[pairNum];
+		pairNum = (pairNum + 1) % HALF_MAP_PAIRS_NUM;
+
+		halfMapPair.resetCastles();
+
+		return mapCombiner.combineHalfMaps(halfMapPair.halfMaps);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+
+		Options options = new OptionsBuilder().include(MapCombinerBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class).build();
+
+		new Runner(options).run();
+	}
+
+}
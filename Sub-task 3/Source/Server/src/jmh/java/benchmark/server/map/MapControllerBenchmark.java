@@ -0,0 +1,114 @@
+package benchmark.server.map;
+
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import MessagesGameState.FullMap;
+import benchmark.server.BenchmarkGames;
+import server.map.MapController;
+import server.player.Player;
+
+/**
+ * Map of the first player in map controllers which received two half maps
+ * created from the seed. convertedFullMap converts the current map for every
+ * call, storedFullMap returns the map stored for the game state after the
+ * first call.
+ *
+ * The game round decides if the enemy avatar is still shown on a random
+ * position (round 1) or already on its real position (round 20).
+ *
+ * Run with "gradlew jmh -PjmhInclude=MapControllerBenchmark" or the main
+ * method, both report the allocation rate of the GC profiler.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapControllerBenchmark {
+
+	private static final String GAME_STATE_ID = "benchmark";
+	private static final int GAMES_NUM = 16;
+
+	@Param(BenchmarkGames.SEED)
+	private long seed;
+
+	@Param({ "1", "20" })
+	private int gameRound;
+
+	private MapController[] mapControllers;
+	private Player[] players;
+	private int gameNum;
+
+	@Setup(Level.Trial)
+	public void createMaps() {
+
+		Random random = new Random(seed);
+
+		mapControllers = new MapController[GAMES_NUM];
+		players = new Player[GAMES_NUM];
+
+		for (int gameNum = 0; gameNum < GAMES_NUM; ++gameNum) {
+
+			players[gameNum] = new Player("First", "Player", "1", BenchmarkGames.FIRST_PLAYER_ID);
+			mapControllers[gameNum] = BenchmarkGames.createStartedMapController(players[gameNum],
+					new Player("Second", "Player", "2", BenchmarkGames.SECOND_PLAYER_ID), random);
+		}
+	}
+
+	@Benchmark
+	public Optional<FullMap> convertedFullMap() {
+
+		int currentGameNum = nextGameNum();
+
+		return mapControllers[currentGameNum].getOptionalFullMap(players[currentGameNum], gameRound);
+	}
+
+	@Benchmark
+	public Optional<FullMap> storedFullMap() {
+
+		int currentGameNum = nextGameNum();
+
+		return mapControllers[currentGameNum].getOptionalFullMap(players[currentGameNum], gameRound, GAME_STATE_ID);
+	}
+
+	private int nextGameNum() {
+
+		int currentGameNum = gameNum;
+		gameNum = (gameNum + 1) % GAMES_NUM;
+
+		return currentGameNum;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+
+		Options options = new OptionsBuilder().include(MapControllerBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class).build();
+
+		new Runner(options).run();
+	}
+
+}
@@ -0,0 +1,75 @@
+package benchmark.server.player;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import MessagesGameState.PlayerState;
+import benchmark.server.BenchmarkGames;
+import server.player.Player;
+import server.player.PlayerController;
+
+/**
+ * Conversion of the player states into the network protocol, from the view of
+ * the first player (the id of the enemy is hidden). The player states do not
+ * depend on the maps, so the two registered players are the same in every run
+ * and no seed is needed.
+ *
+ * Run with "gradlew jmh -PjmhInclude=PlayerControllerBenchmark" or the main
+ * method, both report the allocation rate of the GC profiler.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayerControllerBenchmark {
+
+	private PlayerController playerController;
+	private Player player;
+
+	@Setup(Level.Trial)
+	public void registerPlayers() {
+
+		playerController = new PlayerController();
+		player = new Player("First", "Player", "1", BenchmarkGames.FIRST_PLAYER_ID);
+
+		playerController.addPlayer(player);
+		playerController.addPlayer(new Player("Second", "Player", "2", BenchmarkGames.SECOND_PLAYER_ID));
+	}
+
+	@Benchmark
+	public Collection<PlayerState> convertePlayerStates() {
+
+		return playerController.convertePlayerStates(player);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+
+		Options options = new OptionsBuilder().include(PlayerControllerBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class).build();
+
+		new Runner(options).run();
+	}
+
+}
@@ -0,0 +1,106 @@
+package benchmark.server.rules;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import MessagesBase.HalfMap;
+import benchmark.server.BenchmarkGames;
+import server.game.Game;
+import server.game.RunningGames;
+import server.player.Player;
+import server.rules.IRule;
+
+/**
+ * Check of a received half map by every rule, the separate half map rules as
+ * well as the compiled HalfMapRuleCheck which replaces them. The half maps are
+ * created from the seed and all pass the rules, so every check runs through
+ * completely. The game has two registered players which did not send a half
+ * map yet.
+ *
+ * Run with "gradlew jmh -PjmhInclude=HalfMapRulesBenchmark" or the main
+ * method, both report the allocation rate of the GC profiler.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HalfMapRulesBenchmark {
+
+	private static final String GAME_ID = "rules";
+	private static final int HALF_MAPS_NUM = 64;
+
+	@Param({ "BorderRuleCheck", "CastleRuleCheck", "IslandRuleCheck", "TerrainRuleCheck", "HalfMapRuleCheck",
+			"GameRuleCheck", "PlayerRuleCheck", "TooMuchMapsSentRuleCheck", "MoveRuleCheck" })
+	private String ruleName;
+
+	@Param(BenchmarkGames.SEED)
+	private long seed;
+
+	private Game game;
+	private IRule rule;
+	private Player player;
+	private HalfMap[] halfMaps;
+	private int halfMapNum;
+
+	@Setup(Level.Trial)
+	public void createHalfMaps() throws ReflectiveOperationException {
+
+		Random random = new Random(seed);
+
+		game = BenchmarkGames.createRegisteredGame(GAME_ID);
+		player = game.getGameController().getPlayers().get(BenchmarkGames.FIRST_PLAYER_ID);
+		rule = (IRule) Class.forName(IRule.class.getPackageName() + "." + ruleName).getDeclaredConstructor()
+				.newInstance();
+		halfMaps = new HalfMap[HALF_MAPS_NUM];
+
+		for (int mapNum = 0; mapNum < HALF_MAPS_NUM; ++mapNum) {
+			halfMaps[mapNum] = BenchmarkGames.createRandomHalfMap(BenchmarkGames.FIRST_PLAYER_ID, random);
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void removeGame() {
+
+		RunningGames.removeGame(game);
+	}
+
+	@Benchmark
+	public void receiveHalfMap() {
+
+		rule.receiveHalfMap(player, halfMaps[halfMapNum], GAME_ID);
+		halfMapNum = (halfMapNum + 1) % HALF_MAPS_NUM;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+
+		Options options = new OptionsBuilder().include(HalfMapRulesBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class).build();
+
+		new Runner(options).run();
+	}
+
+}
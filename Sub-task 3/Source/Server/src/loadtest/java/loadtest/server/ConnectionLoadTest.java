@@ -0,0 +1,279 @@
+package loadtest.server;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import MessagesBase.PlayerRegistration;
+import MessagesBase.ResponseEnvelope;
+import MessagesBase.UniqueGameIdentifier;
+import MessagesBase.UniquePlayerIdentifier;
+import reactor.core.Disposable;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import server.converter.BinaryCodec;
+import server.rules.GameConstants;
+
+/**
+ * Compares how many parked long poll connections the servlet (Tomcat) and the
+ * reactive (Netty) implementation of the endpoints can hold per GB of heap.
+ *
+ * For each stack the server is started in its own JVM with the same heap
+ * size. The load test creates games with two registered players and then
+ * opens the given number of long polls on their game states, which stay open
+ * until the maximum long poll timeout. The live heap (after a full GC) and the
+ * number of threads of the server are taken with jcmd before and after the
+ * connections were opened. The difference divided by the number of connections
+ * is the heap cost of one connection.
+ *
+ * Run with "gradlew connectionLoadTest -Pconnections=4000" or the main method
+ * with the number of connections as first argument. The JVM of the load test
+ * needs a limit of open files above the number of connections.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class ConnectionLoadTest {
+
+	private static final String[] STACKS = { "servlet", "reactive" };
+	private static final int DEFAULT_CONNECTIONS_NUM = 4000;
+	private static final int PLAYERS_PER_GAME = 2;
+	private static final int CONNECTIONS_PER_PLAYER = 20;
+	private static final int STATE_REQUEST_ROUNDS = 2;
+	private static final int FIRST_PORT = 18300;
+	private static final String SERVER_HEAP = "-Xmx1g";
+	private static final long BYTES_PER_GB = 1024L * 1024L * 1024L;
+	private static final Duration PARKING_TIMEOUT = Duration.ofSeconds(30);
+	private static final long SETTLE_MILLIS = 2000;
+
+	private final int connectionsNum;
+	private final BinaryCodec binaryCodec = new BinaryCodec();
+	private final ConnectionProvider connectionProvider;
+	private final WebClient webClient;
+	private final AtomicInteger sentNum = new AtomicInteger();
+
+	/**
+	 * Holds the values measured for one stack.
+	 */
+	private static class StackResult {
+
+		private long baselineHeapBytes;
+		private long loadedHeapBytes;
+		private int baselineThreadsNum;
+		private int loadedThreadsNum;
+		private int parkedNum;
+		private int completedEarlyNum;
+
+		private long getBytesPerConnection() {
+			return parkedNum == 0 ? 0 : (loadedHeapBytes - baselineHeapBytes) / parkedNum;
+		}
+
+		private long getConnectionsPerGB() {
+			long bytesPerConnection = getBytesPerConnection();
+			return bytesPerConnection <= 0 ? 0 : BYTES_PER_GB / bytesPerConnection;
+		}
+	}
+
+	/**
+	 * Holds the ids needed to request the game state of one player.
+	 */
+	private static class PlayerSession {
+
+		private final String gameID;
+		private final String playerID;
+		private String gameStateID;
+
+		private PlayerSession(String gameID, String playerID) {
+			this.gameID = gameID;
+			this.playerID = playerID;
+		}
+	}
+
+	public ConnectionLoadTest(int connectionsNum) {
+
+		this.connectionsNum = connectionsNum;
+		this.connectionProvider = ConnectionProvider.builder("connection-load-test").maxConnections(connectionsNum + 1)
+				.pendingAcquireMaxCount(-1).build();
+		this.webClient = WebClient.builder()
+				.clientConnector(new ReactorClientHttpConnector(
+						HttpClient.create(connectionProvider).doAfterRequest((request, connection) -> sentNum.incrementAndGet())))
+				.build();
+	}
+
+	public static void main(String[] args) throws Exception {
+
+		int connectionsNum = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_CONNECTIONS_NUM;
+		ConnectionLoadTest loadTest = new ConnectionLoadTest(connectionsNum);
+		Map<String, StackResult> results = new LinkedHashMap<String, StackResult>();
+
+		try {
+
+			for (int stackNum = 0; stackNum < STACKS.length; ++stackNum) {
+				results.put(STACKS[stackNum], loadTest.runStack(STACKS[stackNum], FIRST_PORT + stackNum));
+			}
+
+		} finally {
+
+			loadTest.connectionProvider.disposeLater().block();
+		}
+
+		printResults(connectionsNum, results);
+	}
+
+	private StackResult runStack(String stack, int port) throws Exception {
+
+		List<Disposable> parkedPolls = new ArrayList<Disposable>();
+
+		try (LoadTestServer server = LoadTestServer.start(stack, port, List.of(SERVER_HEAP), webClient)) {
+
+			String baseUrl = server.getBaseUrl();
+			StackResult result = new StackResult();
+			List<PlayerSession> sessions = createSessions(baseUrl);
+
+			result.baselineHeapBytes = measureLiveHeap(server);
+			result.baselineThreadsNum = countThreads(server);
+
+			AtomicInteger completedNum = new AtomicInteger();
+
+			sentNum.set(0);
+
+			for (int connectionNum = 0; connectionNum < connectionsNum; ++connectionNum) {
+
+				PlayerSession session = sessions.get(connectionNum % sessions.size());
+
+				parkedPolls.add(webClient.get()
+						.uri(baseUrl + "/games/{gameID}/states/{playerID}?waitForChangeAfter={stateID}&timeoutMs={timeout}",
+								session.gameID, session.playerID, session.gameStateID,
+								GameConstants.LONG_POLL_MAX_TIMEOUT_MILLIS)
+						.accept(MediaType.parseMediaType(GameConstants.WIRE_FORMAT_BINARY_MEDIA_TYPE))
+						.retrieve().bodyToMono(byte[].class)
+						.subscribe(body -> completedNum.incrementAndGet(), error -> completedNum.incrementAndGet()));
+			}
+
+			long deadline = System.nanoTime() + PARKING_TIMEOUT.toNanos();
+
+			while (sentNum.get() < connectionsNum && System.nanoTime() < deadline) {
+				Thread.sleep(100);
+			}
+
+			Thread.sleep(SETTLE_MILLIS);
+
+			result.loadedHeapBytes = measureLiveHeap(server);
+			result.loadedThreadsNum = countThreads(server);
+			result.completedEarlyNum = completedNum.get();
+			result.parkedNum = sentNum.get() - result.completedEarlyNum;
+
+			return result;
+
+		} finally {
+
+			parkedPolls.forEach(Disposable::dispose);
+		}
+	}
+
+	/**
+	 * Creates the games with two registered players each and reads the current
+	 * game state id of every player.
+	 */
+	private List<PlayerSession> createSessions(String baseUrl) {
+
+		List<PlayerSession> sessions = new ArrayList<PlayerSession>();
+		int gamesNum = Math.max(1, connectionsNum / (PLAYERS_PER_GAME * CONNECTIONS_PER_PLAYER));
+
+		for (int gameNum = 0; gameNum < gamesNum; ++gameNum) {
+
+			String gameID = webClient.get().uri(baseUrl + "/games").accept(MediaType.APPLICATION_XML).retrieve()
+					.bodyToMono(UniqueGameIdentifier.class).block().getUniqueGameID();
+
+			for (int playerNum = 0; playerNum < PLAYERS_PER_GAME; ++playerNum) {
+
+				ResponseEnvelope<UniquePlayerIdentifier> registration = webClient.post()
+						.uri(baseUrl + "/games/{gameID}/players", gameID).contentType(MediaType.APPLICATION_XML)
+						.accept(MediaType.APPLICATION_XML)
+						.bodyValue(new PlayerRegistration("Load", "Test", String.valueOf(playerNum))).retrieve()
+						.bodyToMono(new ParameterizedTypeReference<ResponseEnvelope<UniquePlayerIdentifier>>() {
+						}).block();
+
+				sessions.add(new PlayerSession(gameID, registration.getData().get().getUniquePlayerID()));
+			}
+		}
+
+		// the first game state requests choose the player who acts first and change
+		// the game state, so the id is taken from the second round of requests
+		for (int roundNum = 0; roundNum < STATE_REQUEST_ROUNDS; ++roundNum) {
+
+			for (PlayerSession session : sessions) {
+
+				byte[] gameState = webClient.get()
+						.uri(baseUrl + "/games/{gameID}/states/{playerID}", session.gameID, session.playerID)
+						.accept(MediaType.parseMediaType(GameConstants.WIRE_FORMAT_BINARY_MEDIA_TYPE)).retrieve()
+						.bodyToMono(byte[].class).block();
+
+				session.gameStateID = binaryCodec.decodeGameState(new ByteArrayInputStream(gameState)).getData()
+						.get().getGameStateId();
+			}
+		}
+
+		return sessions;
+	}
+
+	/**
+	 * Returns the bytes of all live objects in the heap of the server. The class
+	 * histogram of jcmd runs a full GC before it counts the objects.
+	 */
+	private long measureLiveHeap(LoadTestServer server) throws IOException, InterruptedException {
+
+		List<String> histogram = runJcmd(server, "GC.class_histogram");
+		String[] total = histogram.get(histogram.size() - 1).trim().split("\\s+");
+
+		return Long.parseLong(total[total.length - 1]);
+	}
+
+	private int countThreads(LoadTestServer server) throws IOException, InterruptedException {
+
+		return (int) runJcmd(server, "Thread.print").stream().filter(line -> line.startsWith("\"")).count();
+	}
+
+	private List<String> runJcmd(LoadTestServer server, String command) throws IOException, InterruptedException {
+
+		Path jcmd = LoadTestServer.getJavaCommand().resolveSibling("jcmd");
+		Process process = new ProcessBuilder(jcmd.toString(), String.valueOf(server.getPid()), command)
+				.redirectErrorStream(true).start();
+		byte[] output = process.getInputStream().readAllBytes();
+
+		process.waitFor();
+
+		return List.of(new String(output, StandardCharsets.UTF_8).split("\\R"));
+	}
+
+	private static void printResults(int connectionsNum, Map<String, StackResult> results) {
+
+		System.out.println();
+		System.out.println("Parked long polls: " + connectionsNum + ", server heap: " + SERVER_HEAP);
+		System.out.println(String.format("%-10s %8s %8s %14s %14s %12s %12s %14s", "stack", "parked", "early",
+				"heap before", "heap after", "threads", "bytes/conn", "conns/GB"));
+
+		for (Map.Entry<String, StackResult> result : results.entrySet()) {
+
+			StackResult value = result.getValue();
+
+			System.out.println(String.format("%-10s %8d %8d %14d %14d %5d -> %-4d %12d %14d", result.getKey(),
+					value.parkedNum, value.completedEarlyNum, value.baselineHeapBytes, value.loadedHeapBytes,
+					value.baselineThreadsNum, value.loadedThreadsNum, value.getBytesPerConnection(),
+					value.getConnectionsPerGB()));
+		}
+	}
+
+}
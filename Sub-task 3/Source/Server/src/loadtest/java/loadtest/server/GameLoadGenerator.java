@@ -0,0 +1,359 @@
+package loadtest.server;
+
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import MessagesBase.ERequestState;
+import MessagesBase.ETerrain;
+import MessagesBase.HalfMap;
+import MessagesBase.HalfMapNode;
+import MessagesBase.PlayerRegistration;
+import MessagesBase.ResponseEnvelope;
+import MessagesBase.UniqueGameIdentifier;
+import MessagesBase.UniquePlayerIdentifier;
+import MessagesGameState.GameState;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import server.converter.BinaryCodec;
+import server.rules.GameConstants;
+
+/**
+ * Simulates many clients playing against a server started in its own JVM. For
+ * every two players a game is created, both players are registered and send a
+ * valid half map, and then each player requests its game state again and again
+ * with a random think time in between (on average the configured think time).
+ * The games are started evenly spread over the ramp up time.
+ *
+ * All requests go through the real HTTP endpoints with a non-blocking client,
+ * so one JVM can simulate more than 10 000 players. Half maps and game states
+ * are sent in the binary wire format, game state requests carry the ETag of
+ * the last answer. The latency of every request is recorded per endpoint in an
+ * HdrHistogram. At the end the throughput and percentiles of each endpoint and
+ * the full percentile distributions are printed.
+ *
+ * Run with "gradlew gameLoadTest -Pplayers=10000 -PthinkMillis=1000
+ * -PdurationSeconds=60 -Pstack=servlet" or the main method with the same
+ * values as arguments. The JVM of the load test needs a limit of open files
+ * above the number of players.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class GameLoadGenerator {
+
+	private static final int DEFAULT_PLAYERS_NUM = 10000;
+	private static final long DEFAULT_THINK_MILLIS = 1000;
+	private static final long DEFAULT_DURATION_SECONDS = 60;
+	private static final String DEFAULT_STACK = "servlet";
+
+	private static final int PLAYERS_PER_GAME = 2;
+	private static final int PORT = 18310;
+	private static final String SERVER_HEAP = "-Xmx2g";
+	private static final int SERVER_SPARE_CONNECTIONS = 100;
+	private static final Duration MAX_RAMP_UP = Duration.ofSeconds(10);
+	private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+	private static final double NANOS_PER_MILLI = 1_000_000.0;
+	private static final int PERCENTILE_TICKS_PER_HALF_DISTANCE = 5;
+
+	private static final String[] HALF_MAP_ROWS = { "GGMGGGGG", "GWGMGWGG", "GGWGMGWG", "GGGGGGGG" };
+	private static final int CASTLE_X = 0;
+	private static final int CASTLE_Y = 3;
+
+	private static final MediaType BINARY = MediaType.parseMediaType(GameConstants.WIRE_FORMAT_BINARY_MEDIA_TYPE);
+
+	private final int playersNum;
+	private final long thinkMillis;
+	private final Duration duration;
+	private final BinaryCodec binaryCodec = new BinaryCodec();
+	private final ConnectionProvider connectionProvider;
+	private final WebClient webClient;
+	private final Map<String, EndpointStatistic> statistics = new LinkedHashMap<String, EndpointStatistic>();
+	private final EndpointStatistic newGameStatistic = addStatistic("newGame");
+	private final EndpointStatistic registerPlayerStatistic = addStatistic("registerPlayer");
+	private final EndpointStatistic halfMapStatistic = addStatistic("receiveHalfMap");
+	private final EndpointStatistic gameStateStatistic = addStatistic("returnGameState");
+	private final AtomicInteger failedGamesNum = new AtomicInteger();
+
+	private String baseUrl;
+	private long endNanos;
+
+	/**
+	 * Latencies and errors of the requests to one endpoint.
+	 */
+	private static class EndpointStatistic {
+
+		private final String endpointName;
+		private final ConcurrentHistogram latencies;
+		private final LongAdder errors;
+
+		private EndpointStatistic(String endpointName) {
+
+			this.endpointName = endpointName;
+			this.latencies = new ConcurrentHistogram(GameConstants.METRICS_MAX_TRACKED_NANOS,
+					GameConstants.METRICS_SIGNIFICANT_DIGITS);
+			this.errors = new LongAdder();
+		}
+
+		private void record(long startNanos) {
+
+			latencies.recordValue(Math.min(System.nanoTime() - startNanos, GameConstants.METRICS_MAX_TRACKED_NANOS));
+		}
+	}
+
+	public GameLoadGenerator(int playersNum, long thinkMillis, Duration duration) {
+
+		this.playersNum = playersNum;
+		this.thinkMillis = thinkMillis;
+		this.duration = duration;
+		this.connectionProvider = ConnectionProvider.builder("game-load-generator").maxConnections(playersNum)
+				.pendingAcquireMaxCount(-1).pendingAcquireTimeout(REQUEST_TIMEOUT).build();
+		this.webClient = WebClient.builder()
+				.clientConnector(new ReactorClientHttpConnector(HttpClient.create(connectionProvider))).build();
+	}
+
+	public static void main(String[] args) throws Exception {
+
+		int playersNum = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PLAYERS_NUM;
+		long thinkMillis = args.length > 1 ? Long.parseLong(args[1]) : DEFAULT_THINK_MILLIS;
+		long durationSeconds = args.length > 2 ? Long.parseLong(args[2]) : DEFAULT_DURATION_SECONDS;
+		String stack = args.length > 3 ? args[3] : DEFAULT_STACK;
+
+		GameLoadGenerator loadGenerator = new GameLoadGenerator(playersNum, thinkMillis,
+				Duration.ofSeconds(durationSeconds));
+		int gamesNum = loadGenerator.getGamesNum();
+		List<String> serverJvmArgs = List.of(SERVER_HEAP, "-Dgames.capacity=" + gamesNum,
+				"-Dserver.tomcat.max-connections=" + (playersNum + SERVER_SPARE_CONNECTIONS));
+
+		try (LoadTestServer server = LoadTestServer.start(stack, PORT, serverJvmArgs, loadGenerator.webClient)) {
+
+			long elapsedNanos = loadGenerator.run(server.getBaseUrl());
+
+			System.out.println();
+			System.out.println("Players: " + playersNum + " (" + gamesNum + " games), think time: " + thinkMillis
+					+ " ms, duration: " + durationSeconds + " s, stack: " + stack);
+			loadGenerator.printResults(elapsedNanos);
+
+		} finally {
+
+			loadGenerator.connectionProvider.disposeLater().block();
+		}
+	}
+
+	/**
+	 * Plays all games until the duration is over.
+	 *
+	 * @param baseUrl (e.g. http://localhost:18235)
+	 * @return (elapsed nanoseconds)
+	 */
+	public long run(String baseUrl) {
+
+		this.baseUrl = baseUrl;
+
+		int gamesNum = getGamesNum();
+		long startNanos = System.nanoTime();
+		long rampUpNanos = Math.min(MAX_RAMP_UP.toNanos(), duration.toNanos() / 2);
+
+		endNanos = startNanos + duration.toNanos();
+
+		Flux.range(0, gamesNum).flatMap(gameNum -> Mono.delay(Duration.ofNanos(rampUpNanos * gameNum / gamesNum))
+				.then(playGame()), gamesNum).then().block();
+
+		return System.nanoTime() - startNanos;
+	}
+
+	public int getGamesNum() {
+		return Math.max(1, playersNum / PLAYERS_PER_GAME);
+	}
+
+	private EndpointStatistic addStatistic(String endpointName) {
+
+		EndpointStatistic statistic = new EndpointStatistic(endpointName);
+		statistics.put(endpointName, statistic);
+
+		return statistic;
+	}
+
+	/**
+	 * Creates a game, registers the players, sends their half maps and lets them
+	 * request the game state until the end of the load test. A game whose setup
+	 * fails is counted and not played.
+	 */
+	private Mono<Void> playGame() {
+
+		return timed(newGameStatistic, createGame()).flatMap(gameID -> Flux.range(0, PLAYERS_PER_GAME)
+				.concatMap(playerNum -> timed(registerPlayerStatistic, registerPlayer(gameID, playerNum)))
+				.collectList()
+				.flatMap(playerIDs -> Flux.fromIterable(playerIDs)
+						.concatMap(playerID -> timed(halfMapStatistic, sendHalfMap(gameID, playerID)))
+						.then(Mono.just(playerIDs)))
+				.flatMap(playerIDs -> Flux.fromIterable(playerIDs)
+						.flatMap(playerID -> requestGameStates(gameID, playerID)).then()))
+				.onErrorResume(e -> {
+					failedGamesNum.incrementAndGet();
+					return Mono.empty();
+				});
+	}
+
+	private Mono<String> createGame() {
+
+		return webClient.get().uri(baseUrl + "/games").accept(MediaType.APPLICATION_XML).retrieve()
+				.bodyToMono(UniqueGameIdentifier.class).map(UniqueGameIdentifier::getUniqueGameID);
+	}
+
+	private Mono<String> registerPlayer(String gameID, int playerNum) {
+
+		return webClient.post().uri(baseUrl + "/games/{gameID}/players", gameID)
+				.contentType(MediaType.APPLICATION_XML).accept(MediaType.APPLICATION_XML)
+				.bodyValue(new PlayerRegistration("Load", "Test", String.valueOf(playerNum))).retrieve()
+				.bodyToMono(new ParameterizedTypeReference<ResponseEnvelope<UniquePlayerIdentifier>>() {
+				}).map(registration -> checkOkay(registration).getData().get().getUniquePlayerID());
+	}
+
+	private Mono<ResponseEnvelope<?>> sendHalfMap(String gameID, String playerID) {
+
+		return webClient.post().uri(baseUrl + "/games/{gameID}/halfmaps", gameID).contentType(BINARY)
+				.accept(MediaType.APPLICATION_XML).bodyValue(binaryCodec.encodeHalfMap(createHalfMap(playerID)))
+				.retrieve().bodyToMono(new ParameterizedTypeReference<ResponseEnvelope<?>>() {
+				}).map(this::checkOkay);
+	}
+
+	/**
+	 * Requests the game state of the player after every think time until the end
+	 * of the load test. A failed request is counted and the player goes on.
+	 */
+	private Mono<Void> requestGameStates(String gameID, String playerID) {
+
+		AtomicReference<String> eTag = new AtomicReference<String>();
+
+		return Mono.defer(() -> Mono.delay(getThinkTime())
+				.then(timed(gameStateStatistic, requestGameState(gameID, playerID, eTag)))
+				.onErrorResume(e -> Mono.empty())).repeat(() -> System.nanoTime() < endNanos).then();
+	}
+
+	private Mono<ResponseEntity<byte[]>> requestGameState(String gameID, String playerID,
+			AtomicReference<String> eTag) {
+
+		return webClient.get().uri(baseUrl + "/games/{gameID}/states/{playerID}", gameID, playerID).accept(BINARY)
+				.headers(headers -> {
+					if (eTag.get() != null)
+						headers.setIfNoneMatch(eTag.get());
+				}).retrieve().toEntity(byte[].class).map(response -> {
+
+					if (response.getStatusCode() == HttpStatus.OK) {
+
+						ResponseEnvelope<GameState> gameState = binaryCodec
+								.decodeGameState(new ByteArrayInputStream(response.getBody()));
+
+						checkOkay(gameState);
+						eTag.set(response.getHeaders().getETag());
+					}
+
+					return response;
+				});
+	}
+
+	/**
+	 * Records the latency of the request, or counts it as error if it fails or
+	 * takes longer than the request timeout.
+	 */
+	private <T> Mono<T> timed(EndpointStatistic statistic, Mono<T> request) {
+
+		return Mono.defer(() -> {
+
+			long startNanos = System.nanoTime();
+
+			return request.timeout(REQUEST_TIMEOUT).doOnSuccess(response -> statistic.record(startNanos))
+					.doOnError(e -> statistic.errors.increment());
+		});
+	}
+
+	private <T extends ResponseEnvelope<?>> T checkOkay(T response) {
+
+		if (response.getState() == ERequestState.Error)
+			throw new IllegalStateException(response.getExceptionName() + ": " + response.getExceptionMessage());
+
+		return response;
+	}
+
+	private Duration getThinkTime() {
+
+		return Duration.ofMillis(thinkMillis / 2 + ThreadLocalRandom.current().nextLong(thinkMillis + 1));
+	}
+
+	private HalfMap createHalfMap(String playerID) {
+
+		Collection<HalfMapNode> nodes = new ArrayList<HalfMapNode>();
+
+		for (int y = 0; y < HALF_MAP_ROWS.length; ++y) {
+
+			for (int x = 0; x < HALF_MAP_ROWS[y].length(); ++x) {
+
+				nodes.add(new HalfMapNode(x, y, x == CASTLE_X && y == CASTLE_Y, toTerrain(HALF_MAP_ROWS[y].charAt(x))));
+			}
+		}
+
+		return new HalfMap(playerID, nodes);
+	}
+
+	private ETerrain toTerrain(char field) {
+
+		switch (field) {
+		case 'W':
+			return ETerrain.Water;
+		case 'M':
+			return ETerrain.Mountain;
+		default:
+			return ETerrain.Grass;
+		}
+	}
+
+	private void printResults(long elapsedNanos) {
+
+		double elapsedSeconds = elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1);
+
+		System.out.println("Failed games: " + failedGamesNum.get());
+		System.out.println(String.format("%-16s %10s %8s %10s %10s %10s %10s %10s", "endpoint", "calls", "errors",
+				"req/s", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+
+		for (EndpointStatistic statistic : statistics.values()) {
+
+			Histogram latencies = statistic.latencies.copy();
+
+			System.out.println(String.format("%-16s %10d %8d %10.1f %10.3f %10.3f %10.3f %10.3f",
+					statistic.endpointName, latencies.getTotalCount(), statistic.errors.sum(),
+					latencies.getTotalCount() / elapsedSeconds, latencies.getValueAtPercentile(50) / NANOS_PER_MILLI,
+					latencies.getValueAtPercentile(99) / NANOS_PER_MILLI,
+					latencies.getValueAtPercentile(99.9) / NANOS_PER_MILLI, latencies.getMaxValue() / NANOS_PER_MILLI));
+		}
+
+		for (EndpointStatistic statistic : statistics.values()) {
+
+			System.out.println();
+			System.out.println("Latency distribution of " + statistic.endpointName + " (ms):");
+			statistic.latencies.copy().outputPercentileDistribution(System.out, PERCENTILE_TICKS_PER_HALF_DISTANCE,
+					NANOS_PER_MILLI);
+		}
+	}
+
+}
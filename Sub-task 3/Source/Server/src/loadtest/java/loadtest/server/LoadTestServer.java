@@ -0,0 +1,152 @@
+package loadtest.server;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * Server started in its own JVM for a load test. The JVM uses the class path
+ * of the load test and a new temporary working directory, which receives the
+ * database, the game snapshot and the log of the server.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class LoadTestServer implements AutoCloseable {
+
+	private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(90);
+	private static final long STARTUP_RETRY_MILLIS = 500;
+	private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+	private final Process process;
+	private final Path workingDirectory;
+	private final String baseUrl;
+
+	private LoadTestServer(Process process, Path workingDirectory, int port) {
+
+		this.process = process;
+		this.workingDirectory = workingDirectory;
+		this.baseUrl = "http://localhost:" + port;
+	}
+
+	/**
+	 * Starts the server and waits until it answers requests.
+	 *
+	 * @param stack     (servlet or reactive, see MainServer)
+	 * @param port
+	 * @param jvmArgs   (additional arguments of the JVM, e.g. heap size)
+	 * @param webClient (used to check if the server is started)
+	 * @return (started server)
+	 * @throws IOException
+	 * @throws InterruptedException
+	 */
+	public static LoadTestServer start(String stack, int port, List<String> jvmArgs, WebClient webClient)
+			throws IOException, InterruptedException {
+
+		Path workingDirectory = Files.createTempDirectory("load-test-" + stack);
+		List<String> command = new ArrayList<String>();
+
+		command.add(getJavaCommand().toString());
+		command.addAll(jvmArgs);
+		command.add("-Dgames.snapshot.file=" + workingDirectory.resolve("games.snapshot"));
+		command.add("-cp");
+		command.add(System.getProperty("java.class.path"));
+		command.add("server.main.MainServer");
+		command.add("--server.port=" + port);
+		command.add("--spring.main.web-application-type=" + stack);
+		command.add("--spring.jpa.show-sql=false");
+		command.add("--logging.level.root=WARN");
+
+		File log = workingDirectory.resolve("server.log").toFile();
+		Process process = new ProcessBuilder(command).directory(workingDirectory.toFile()).redirectErrorStream(true)
+				.redirectOutput(log).start();
+		LoadTestServer server = new LoadTestServer(process, workingDirectory, port);
+
+		try {
+
+			server.waitUntilStarted(webClient);
+
+		} catch (IOException | InterruptedException | RuntimeException e) {
+
+			server.close();
+			throw e;
+		}
+
+		return server;
+	}
+
+	/**
+	 * Returns the java command of the running JVM, the JDK tools (e.g. jcmd) are
+	 * placed next to it.
+	 *
+	 * @return (path of the java command)
+	 */
+	public static Path getJavaCommand() {
+
+		return Path.of(ProcessHandle.current().info().command().orElse("java"));
+	}
+
+	private void waitUntilStarted(WebClient webClient) throws IOException, InterruptedException {
+
+		long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+
+		while (System.nanoTime() < deadline) {
+
+			if (!process.isAlive())
+				throw new IOException("The server stopped during startup, see " + workingDirectory.resolve("server.log"));
+
+			try {
+
+				webClient.get().uri(baseUrl + "/metrics").retrieve().toBodilessEntity().block();
+				return;
+
+			} catch (RuntimeException e) {
+
+				Thread.sleep(STARTUP_RETRY_MILLIS);
+			}
+		}
+
+		throw new IOException("The server did not start within " + STARTUP_TIMEOUT + ".");
+	}
+
+	public long getPid() {
+		return process.pid();
+	}
+
+	public String getBaseUrl() {
+		return baseUrl;
+	}
+
+	public Path getWorkingDirectory() {
+		return workingDirectory;
+	}
+
+	/**
+	 * Stops the server. The working directory is kept, so that the log can be
+	 * looked at after the load test.
+	 */
+	@Override
+	public void close() {
+
+		process.destroy();
+
+		try {
+
+			if (!process.waitFor(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS))
+				process.destroyForcibly();
+
+		} catch (InterruptedException e) {
+
+			process.destroyForcibly();
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
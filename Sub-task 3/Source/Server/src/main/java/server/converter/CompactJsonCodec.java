@@ -0,0 +1,405 @@
+package server.converter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import MessagesBase.EMove;
+import MessagesBase.ERequestState;
+import MessagesBase.HalfMap;
+import MessagesBase.HalfMapNode;
+import MessagesBase.PlayerMove;
+import MessagesBase.ResponseEnvelope;
+import MessagesBase.UniquePlayerIdentifier;
+import MessagesGameState.EPlayerGameState;
+import MessagesGameState.FullMap;
+import MessagesGameState.FullMapNode;
+import MessagesGameState.GameState;
+import MessagesGameState.PlayerState;
+import server.exceptions.ConverterException;
+
+/**
+ * Compact JSON format of the messages. The field names are shortened and every
+ * map node is written as an array of x, y and the node code (see
+ * MapNodeCodes), e.g.
+ *
+ * <pre>
+ * {"s":"Okay","d":{"id":"5","p":[{"f":"Anna","l":"Muster","sid":"01234567","s":"ShouldActNext","id":"a2906a21-...","t":false}],"m":[[0,0,1],[1,0,0]]}}
+ * {"s":"Error","en":"Game id not found.","em":"The provided gameId is invalid."}
+ * {"id":"a2906a21-...","n":[[0,0,0],[1,0,5]]}
+ * {"id":"a2906a21-...","m":"Up"}
+ * </pre>
+ *
+ * The map field is missing if the game state has no map. The messages are
+ * written and read with the streaming API of Jackson, no object mapping is
+ * involved.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class CompactJsonCodec implements IMessageCodec {
+
+	private static final JsonFactory jsonFactory = new JsonFactory();
+
+	private static final String STATE = "s";
+	private static final String DATA = "d";
+	private static final String EXCEPTION_NAME = "en";
+	private static final String EXCEPTION_MESSAGE = "em";
+	private static final String ID = "id";
+	private static final String PLAYERS = "p";
+	private static final String MAP = "m";
+	private static final String NODES = "n";
+	private static final String FIRST_NAME = "f";
+	private static final String LAST_NAME = "l";
+	private static final String STUDENT_ID = "sid";
+	private static final String TREASURE = "t";
+	private static final String MOVE = "m";
+	private static final int INITIAL_BUFFER_SIZE = 512;
+
+	@Override
+	public byte[] encodeGameState(ResponseEnvelope<GameState> gameState) {
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+
+		try (JsonGenerator json = jsonFactory.createGenerator(bytes)) {
+
+			json.writeStartObject();
+			json.writeStringField(STATE, gameState.getState().name());
+
+			if (gameState.getState() == ERequestState.Error) {
+
+				json.writeStringField(EXCEPTION_NAME, gameState.getExceptionName());
+				json.writeStringField(EXCEPTION_MESSAGE, gameState.getExceptionMessage());
+
+			} else {
+
+				json.writeFieldName(DATA);
+				writeGameState(json, gameState.getData().get());
+			}
+
+			json.writeEndObject();
+
+		} catch (IOException | RuntimeException e) {
+
+			throw new ConverterException("Converter exception: The game state could not be encoded.", e);
+		}
+
+		return bytes.toByteArray();
+	}
+
+	private void writeGameState(JsonGenerator json, GameState gameState) throws IOException {
+
+		json.writeStartObject();
+		json.writeStringField(ID, gameState.getGameStateId());
+		json.writeArrayFieldStart(PLAYERS);
+
+		for (PlayerState player : gameState.getPlayers()) {
+
+			json.writeStartObject();
+			json.writeStringField(FIRST_NAME, player.getFirstName());
+			json.writeStringField(LAST_NAME, player.getLastName());
+			json.writeStringField(STUDENT_ID, player.getStudentID());
+			json.writeStringField(STATE, player.getState().name());
+			json.writeStringField(ID, player.getUniquePlayerID());
+			json.writeBooleanField(TREASURE, player.hasCollectedTreasure());
+			json.writeEndObject();
+		}
+
+		json.writeEndArray();
+
+		if (gameState.getMap().isPresent()) {
+
+			json.writeArrayFieldStart(MAP);
+
+			for (FullMapNode node : gameState.getMap().get().getMapNodes()) {
+
+				json.writeStartArray();
+				json.writeNumber(node.getX());
+				json.writeNumber(node.getY());
+				json.writeNumber(MapNodeCodes.encodeFullMapNode(node));
+				json.writeEndArray();
+			}
+
+			json.writeEndArray();
+		}
+
+		json.writeEndObject();
+	}
+
+	@Override
+	public ResponseEnvelope<GameState> decodeGameState(InputStream input) {
+
+		try (JsonParser json = jsonFactory.createParser(input)) {
+
+			String state = null;
+			String exceptionName = null;
+			String exceptionMessage = null;
+			GameState gameState = null;
+
+			expect(json, JsonToken.START_OBJECT);
+
+			while (json.nextToken() == JsonToken.FIELD_NAME) {
+
+				String field = json.getCurrentName();
+				json.nextToken();
+
+				switch (field) {
+				case STATE:
+					state = json.getValueAsString();
+					break;
+				case EXCEPTION_NAME:
+					exceptionName = json.getValueAsString();
+					break;
+				case EXCEPTION_MESSAGE:
+					exceptionMessage = json.getValueAsString();
+					break;
+				case DATA:
+					gameState = readGameState(json);
+					break;
+				default:
+					json.skipChildren();
+				}
+			}
+
+			if (ERequestState.valueOf(state) == ERequestState.Error)
+				return new ResponseEnvelope<GameState>(exceptionName, exceptionMessage);
+
+			return new ResponseEnvelope<GameState>(gameState);
+
+		} catch (IOException | RuntimeException e) {
+
+			throw new ConverterException("Converter exception: The game state could not be decoded.", e);
+		}
+	}
+
+	private GameState readGameState(JsonParser json) throws IOException {
+
+		String gameStateID = null;
+		List<PlayerState> players = new ArrayList<PlayerState>();
+		Optional<FullMap> map = Optional.empty();
+
+		if (json.currentToken() != JsonToken.START_OBJECT)
+			throw new ConverterException("Converter exception: The game state is no JSON object.");
+
+		while (json.nextToken() == JsonToken.FIELD_NAME) {
+
+			String field = json.getCurrentName();
+			json.nextToken();
+
+			switch (field) {
+			case ID:
+				gameStateID = json.getValueAsString();
+				break;
+			case PLAYERS:
+				while (json.nextToken() == JsonToken.START_OBJECT) {
+					players.add(readPlayer(json));
+				}
+				break;
+			case MAP:
+				List<FullMapNode> nodes = new ArrayList<FullMapNode>();
+				while (json.nextToken() == JsonToken.START_ARRAY) {
+					int x = nextInt(json);
+					int y = nextInt(json);
+					nodes.add(MapNodeCodes.decodeFullMapNode(nextInt(json), x, y));
+					expect(json, JsonToken.END_ARRAY);
+				}
+				map = Optional.of(new FullMap(nodes));
+				break;
+			default:
+				json.skipChildren();
+			}
+		}
+
+		return new GameState(map, players, gameStateID);
+	}
+
+	private PlayerState readPlayer(JsonParser json) throws IOException {
+
+		String firstName = null;
+		String lastName = null;
+		String studentID = null;
+		EPlayerGameState state = null;
+		String playerID = null;
+		boolean collectedTreasure = false;
+
+		while (json.nextToken() == JsonToken.FIELD_NAME) {
+
+			String field = json.getCurrentName();
+			json.nextToken();
+
+			switch (field) {
+			case FIRST_NAME:
+				firstName = json.getValueAsString();
+				break;
+			case LAST_NAME:
+				lastName = json.getValueAsString();
+				break;
+			case STUDENT_ID:
+				studentID = json.getValueAsString();
+				break;
+			case STATE:
+				state = EPlayerGameState.valueOf(json.getValueAsString());
+				break;
+			case ID:
+				playerID = json.getValueAsString();
+				break;
+			case TREASURE:
+				collectedTreasure = json.getBooleanValue();
+				break;
+			default:
+				json.skipChildren();
+			}
+		}
+
+		return new PlayerState(firstName, lastName, studentID, state, new UniquePlayerIdentifier(playerID),
+				collectedTreasure);
+	}
+
+	@Override
+	public byte[] encodeHalfMap(HalfMap halfMap) {
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+
+		try (JsonGenerator json = jsonFactory.createGenerator(bytes)) {
+
+			json.writeStartObject();
+			json.writeStringField(ID, halfMap.getUniquePlayerID());
+			json.writeArrayFieldStart(NODES);
+
+			for (HalfMapNode node : halfMap.getNodes()) {
+
+				json.writeStartArray();
+				json.writeNumber(node.getX());
+				json.writeNumber(node.getY());
+				json.writeNumber(MapNodeCodes.encodeHalfMapNode(node));
+				json.writeEndArray();
+			}
+
+			json.writeEndArray();
+			json.writeEndObject();
+
+		} catch (IOException | RuntimeException e) {
+
+			throw new ConverterException("Converter exception: The half map could not be encoded.", e);
+		}
+
+		return bytes.toByteArray();
+	}
+
+	@Override
+	public HalfMap decodeHalfMap(InputStream input) {
+
+		try (JsonParser json = jsonFactory.createParser(input)) {
+
+			String playerID = null;
+			List<HalfMapNode> nodes = new ArrayList<HalfMapNode>();
+
+			expect(json, JsonToken.START_OBJECT);
+
+			while (json.nextToken() == JsonToken.FIELD_NAME) {
+
+				String field = json.getCurrentName();
+				json.nextToken();
+
+				switch (field) {
+				case ID:
+					playerID = json.getValueAsString();
+					break;
+				case NODES:
+					while (json.nextToken() == JsonToken.START_ARRAY) {
+						int x = nextInt(json);
+						int y = nextInt(json);
+						nodes.add(MapNodeCodes.decodeHalfMapNode(nextInt(json), x, y));
+						expect(json, JsonToken.END_ARRAY);
+					}
+					break;
+				default:
+					json.skipChildren();
+				}
+			}
+
+			return new HalfMap(playerID, nodes);
+
+		} catch (IOException | RuntimeException e) {
+
+			throw new ConverterException("Converter exception: The half map could not be decoded.", e);
+		}
+	}
+
+	@Override
+	public byte[] encodePlayerMove(PlayerMove playerMove) {
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+
+		try (JsonGenerator json = jsonFactory.createGenerator(bytes)) {
+
+			json.writeStartObject();
+			json.writeStringField(ID, playerMove.getUniquePlayerID());
+			json.writeStringField(MOVE, playerMove.getMove().name());
+			json.writeEndObject();
+
+		} catch (IOException | RuntimeException e) {
+
+			throw new ConverterException("Converter exception: The move could not be encoded.", e);
+		}
+
+		return bytes.toByteArray();
+	}
+
+	@Override
+	public PlayerMove decodePlayerMove(InputStream input) {
+
+		try (JsonParser json = jsonFactory.createParser(input)) {
+
+			String playerID = null;
+			EMove move = null;
+
+			expect(json, JsonToken.START_OBJECT);
+
+			while (json.nextToken() == JsonToken.FIELD_NAME) {
+
+				String field = json.getCurrentName();
+				json.nextToken();
+
+				switch (field) {
+				case ID:
+					playerID = json.getValueAsString();
+					break;
+				case MOVE:
+					move = EMove.valueOf(json.getValueAsString());
+					break;
+				default:
+					json.skipChildren();
+				}
+			}
+
+			return PlayerMove.of(playerID, move);
+
+		} catch (IOException | RuntimeException e) {
+
+			throw new ConverterException("Converter exception: The move could not be decoded.", e);
+		}
+	}
+
+	private void expect(JsonParser json, JsonToken token) throws IOException {
+
+		if (json.nextToken() != token)
+			throw new ConverterException("Converter exception: Unexpected JSON content, expected " + token + ".");
+	}
+
+	private int nextInt(JsonParser json) throws IOException {
+
+		expect(json, JsonToken.VALUE_NUMBER_INT);
+
+		return json.getIntValue();
+	}
+
+}
@@ -1,5 +1,6 @@
 package server.converter;
 
+import MessagesBase.EMove;
 import MessagesBase.ETerrain;
 import MessagesGameState.EFortState;
 import MessagesGameState.EPlayerGameState;
@@ -7,6 +8,7 @@ import MessagesGameState.EPlayerPositionState;
 import MessagesGameState.ETreasureState;
 import server.enumerations.EAvatarPositionValue;
 import server.enumerations.ECastleValue;
+import server.enumerations.EMovementType;
 import server.enumerations.EPlayerStateValue;
 import server.enumerations.ETerrainType;
 import server.enumerations.ETreasureValue;
@@ -304,4 +306,34 @@ public class EnumConverter {
 		}
 
 	}
+
+	/**
+	 * This method is used by the enum-converter to convert the network protocol
+	 * EMove enumeration into a server convenient, which can be used by the move
+	 * controller.
+	 * 
+	 * @param move (EMove from the network protocol)
+	 * @return (EMovementType from server.enumeration e.g. Down, Left)
+	 */
+	public EMovementType NetworkMove_To_EMovementType(EMove move) {
+
+		if (move == null)
+			throw new ConverterException("Converter exception: The move cant be null.");
+
+		switch (move) {
+
+		case Down:
+			return EMovementType.Down;
+		case Left:
+			return EMovementType.Left;
+		case Right:
+			return EMovementType.Right;
+		case Up:
+			return EMovementType.Up;
+		default:
+
+			throw new ConverterException("Converter exception: Unknown move.");
+		}
+
+	}
 }
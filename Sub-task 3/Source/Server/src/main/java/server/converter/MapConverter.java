@@ -1,13 +1,9 @@
 package server.converter;
 
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.List;
-import java.util.Map.Entry;
-import java.util.Random;
 
 import MessagesBase.HalfMap;
 import MessagesBase.HalfMapNode;
@@ -17,15 +13,19 @@ import server.enumerations.EAvatarPositionValue;
 import server.enumerations.ECastleValue;
 import server.enumerations.ETerrainType;
 import server.exceptions.ConverterException;
+import server.game.GameRandom;
 import server.map.Coordinate;
-import server.map.Field;
 import server.map.Map;
+import server.map.MapSnapshot;
 import server.player.Player;
 import server.rules.GameConstants;
 
 public class MapConverter {
 
+	private static final int NO_FIELD = -1;
+
 	private EnumConverter enumConverter;
+	private GameRandom random;
 
 	/**
 	 * Instantiates a new map converter object.
@@ -34,7 +34,18 @@ public class MapConverter {
 	 */
 	public MapConverter() {
 
+		this(new GameRandom());
+	}
+
+	/**
+	 * Instantiates a new map converter object.
+	 * 
+	 * @param random (stream of the game which chooses the fake enemy positions)
+	 */
+	public MapConverter(GameRandom random) {
+
 		this.enumConverter = new EnumConverter();
+		this.random = random;
 	}
 
 	/**
@@ -49,7 +60,7 @@ public class MapConverter {
 		if (halfMap == null)
 			throw new ConverterException("Converter exception: The game map cant be null.");
 
-		HashMap<Coordinate, Field> mapHashMap = new HashMap<Coordinate, Field>();
+		Map map = new Map(GameConstants.HALF_MAP_WIDTH, GameConstants.HALF_MAP_HEIGHT);
 
 		Collection<HalfMapNode> halfMapNodesSet = halfMap.getNodes();
 
@@ -60,75 +71,91 @@ public class MapConverter {
 
 			HalfMapNode halfMapNode = it.next();
 
-			Field field = converteHalfMapNodeToField(halfMapNode);
-			Coordinate coordinate = new Coordinate(halfMapNode.getX(), halfMapNode.getY());
-			field.setCoordinate(coordinate);
-			mapHashMap.put(coordinate, field);
+			int index = converteHalfMapNodeToField(halfMapNode, map);
 
-			if (field.getFieldCastleContent().equals(ECastleValue.MyCastlePresent)) {
+			if (map.getFieldCastleContent(index).equals(ECastleValue.MyCastlePresent)) {
 
-				player.setCastePosition(field);
-				player.setCurrentPosition(field);
-				field.setFieldAvatarContent(EAvatarPositionValue.MyAvatarPosition);
+				Coordinate coordinate = map.getCoordinate(index);
+
+				player.setCastePosition(coordinate);
+				player.setCurrentPosition(coordinate);
+				map.setFieldAvatarContent(index, EAvatarPositionValue.MyAvatarPosition);
 			}
 
 		}
 
-		Map map = new Map(mapHashMap);
 		return map;
 	}
 
 	/**
-	 * This method is used to convert the HalfMap Node object into a server object
-	 * which can be used by all classes.
+	 * This method is used to convert the HalfMap Node object into a field of the
+	 * server map.
 	 * 
 	 * @param halfMapNode (FullMap node object from the network protocol)
-	 * @return (Field object for the server.map package)
+	 * @param map         (the map to which the field is added)
+	 * @return (index of the field in the map)
 	 */
-	private Field converteHalfMapNodeToField(HalfMapNode halfMapNode) {
+	private int converteHalfMapNodeToField(HalfMapNode halfMapNode, Map map) {
 
 		if (halfMapNode == null)
 			throw new ConverterException("Converter exception: The game map node cant be null.");
 
-		if (halfMapNode.getX() > GameConstants.MAX_HALF_MAP_WIDTH_FIELD
+		if (halfMapNode.getX() < GameConstants.MIN_MAP_WIDTH_FIELD
+				|| halfMapNode.getY() < GameConstants.MIN_MAP_HEIGHT_FIELD
+				|| halfMapNode.getX() > GameConstants.MAX_HALF_MAP_WIDTH_FIELD
 				|| halfMapNode.getY() > GameConstants.MAX_HALF_MAP_HEIGHT_FIELD)
 			throw new ConverterException("Converter exception: The game map node is out of map.");
 
-		Field field = new Field(enumConverter.NetworkTerrain_To_ETerrainType(halfMapNode.getTerrain()));
+		int index = map.getIndex(halfMapNode.getX(), halfMapNode.getY());
+
+		map.setField(index, enumConverter.NetworkTerrain_To_ETerrainType(halfMapNode.getTerrain()));
 
 		if (halfMapNode.isFortPresent()) {
 
-			field.setFieldCastleContent(ECastleValue.MyCastlePresent);
+			map.setFieldCastleContent(index, ECastleValue.MyCastlePresent);
 		}
 
-		return field;
+		return index;
 	}
 
 	/**
-	 * This method is used to convert the server convenient map object into a
-	 * network protocol object.
+	 * This method is used to convert a map snapshot into a network protocol object
+	 * from the view of the given player. The castle of the enemy is hidden, and
+	 * until the round after which the real position is visible the enemy avatar
+	 * is shown on a random position. The snapshot is not changed.
 	 * 
-	 * 
-	 * @param map
+	 * @param snapshot
 	 * @param player
 	 * @param gameRound
 	 * @return
 	 */
-	public FullMap converteMapToFullMap(Map map, Player player, int gameRound) {
+	public FullMap converteMapToFullMap(MapSnapshot snapshot, Player player, int gameRound) {
 
 		Collection<FullMapNode> mapNodes = new HashSet<FullMapNode>();
 
-		if (gameRound <= GameConstants.ROUND_AFTER_WHICH_REAL_POSITION_VISIBLE
-				&& map.getHashMap().size() == GameConstants.NUM_OF_HALF_MAP_FIELDS * 2) {
+		int playerCastle = snapshot.getIndex(player.getCastePosition());
+		int playerPosition = snapshot.getIndex(player.getCurrentPosition());
+		int randomEnemyPosition = NO_FIELD;
+
+		boolean hideEnemyPosition = gameRound <= GameConstants.ROUND_AFTER_WHICH_REAL_POSITION_VISIBLE
+				&& snapshot.getFieldsNum() == GameConstants.NUM_OF_HALF_MAP_FIELDS * 2;
 
-			setRandomEnemyPosition(map, player);
+		if (hideEnemyPosition) {
+
+			randomEnemyPosition = getRandomEnemyPosition(snapshot, playerPosition, playerCastle, gameRound);
 		}
 
-		for (Entry<Coordinate, Field> entry : map.getHashMap().entrySet()) {
+		for (int index = 0; index < snapshot.getSize(); ++index) {
+
+			if (snapshot.hasField(index)) {
 
-			FullMapNode fullMapNode = converteFieldToFullMapNode(entry.getValue(), player, gameRound);
+				FullMapNode fullMapNode = converteFieldToFullMapNode(snapshot, index,
+						getVisibleCastle(snapshot, index, playerCastle),
+						getVisibleAvatar(snapshot, index, playerPosition, randomEnemyPosition, hideEnemyPosition,
+								gameRound));
 
-			mapNodes.add(fullMapNode);
+				mapNodes.add(fullMapNode);
+			}
 		}
 
 		FullMap fullMap = new FullMap(mapNodes);
@@ -137,81 +164,167 @@ public class MapConverter {
 	}
 
 	/**
-	 * This method is used to convert the Field object into a network protocol
-	 * object.
+	 * Creates a map which only contains the nodes of the full map that differ
+	 * from the node with the same coordinate in the base map.
 	 * 
-	 * @param field
-	 * @param player
+	 * @param baseMap (map the client already holds)
+	 * @param fullMap (current map of the client)
+	 * @return (FullMap with the changed nodes or null if the maps do not have the
+	 *         same nodes)
+	 */
+	public FullMap createFullMapDelta(FullMap baseMap, FullMap fullMap) {
+
+		if (baseMap.getMapNodes().size() != fullMap.getMapNodes().size())
+			return null;
+
+		HashMap<Integer, FullMapNode> baseNodes = new HashMap<Integer, FullMapNode>();
+
+		for (FullMapNode baseNode : baseMap.getMapNodes()) {
+			baseNodes.put(getNodeKey(baseNode), baseNode);
+		}
+
+		Collection<FullMapNode> changedNodes = new HashSet<FullMapNode>();
+
+		for (FullMapNode fullMapNode : fullMap.getMapNodes()) {
+
+			FullMapNode baseNode = baseNodes.get(getNodeKey(fullMapNode));
+
+			if (baseNode == null)
+				return null;
+
+			if (!baseNode.getTerrain().equals(fullMapNode.getTerrain())
+					|| !baseNode.getFortState().equals(fullMapNode.getFortState())
+					|| !baseNode.getTreasureState().equals(fullMapNode.getTreasureState())
+					|| !baseNode.getPlayerPositionState().equals(fullMapNode.getPlayerPositionState())) {
+
+				changedNodes.add(fullMapNode);
+			}
+		}
+
+		return new FullMap(changedNodes);
+	}
+
+	private int getNodeKey(FullMapNode fullMapNode) {
+
+		return fullMapNode.getY() * (GameConstants.MAX_MAP_WIDTH_FIELD + 1) + fullMapNode.getX();
+	}
+
+	/**
+	 * Returns the castle value of a field as seen by the player: only the own
+	 * castle is shown.
+	 * 
+	 * @param snapshot
+	 * @param index
+	 * @param playerCastle (index of the players castle)
+	 * @return
+	 */
+	private ECastleValue getVisibleCastle(MapSnapshot snapshot, int index, int playerCastle) {
+
+		if (snapshot.getFieldCastleContent(index).equals(ECastleValue.MyCastlePresent) && index != playerCastle) {
+
+			return ECastleValue.NoOrUnknownCastleState;
+		}
+
+		return snapshot.getFieldCastleContent(index);
+	}
+
+	/**
+	 * Returns the avatar value of a field as seen by the player. The enemy avatar
+	 * is either shown on its random position or, after the round in which the real
+	 * position becomes visible, on its real position.
+	 * 
+	 * @param snapshot
+	 * @param index
+	 * @param playerPosition      (index of the players avatar)
+	 * @param randomEnemyPosition (index of the random enemy position)
+	 * @param hideEnemyPosition
 	 * @param gameRound
 	 * @return
 	 */
-	private FullMapNode converteFieldToFullMapNode(Field field, Player player, int gameRound) {
+	private EAvatarPositionValue getVisibleAvatar(MapSnapshot snapshot, int index, int playerPosition,
+			int randomEnemyPosition, boolean hideEnemyPosition, int gameRound) {
 
-		if (field.getFieldCastleContent().equals(ECastleValue.MyCastlePresent)
-				&& !(field.getCoordinate().getX() == player.getCastePosition().getCoordinate().getX()
-						&& field.getCoordinate().getY() == player.getCastePosition().getCoordinate().getY())) {
+		EAvatarPositionValue avatar = snapshot.getFieldAvatarContent(index);
+		boolean enemyAvatar = avatar.equals(EAvatarPositionValue.MyAvatarPosition) && index != playerPosition;
 
-			field.setFieldCastleContent(ECastleValue.NoOrUnknownCastleState);
+		if (hideEnemyPosition) {
 
-		}
+			if (index == randomEnemyPosition) {
+				return EAvatarPositionValue.EnemyAvatarPosition;
+			}
 
-		if (field.getFieldAvatarContent().equals(EAvatarPositionValue.MyAvatarPosition)
-				&& !(field.getCoordinate().getX() == player.getCurrentPosition().getCoordinate().getX()
-						&& field.getCoordinate().getY() == player.getCurrentPosition().getCoordinate().getY())
-				&& gameRound > GameConstants.ROUND_AFTER_WHICH_REAL_POSITION_VISIBLE) {
+			return enemyAvatar ? EAvatarPositionValue.NoAvatarPresent : avatar;
+		}
 
-			field.setFieldAvatarContent(EAvatarPositionValue.EnemyAvatarPosition);
+		if (enemyAvatar && gameRound > GameConstants.ROUND_AFTER_WHICH_REAL_POSITION_VISIBLE) {
+			return EAvatarPositionValue.EnemyAvatarPosition;
 		}
 
-		FullMapNode fullMapNode = new FullMapNode(enumConverter.ETerrainType_To_NetworkTerrain(field.getFieldTerrain()),
-				enumConverter.EAvatarPositionValue_To_NetworkPlayerPositionState(field.getFieldAvatarContent()),
-				enumConverter.ETreasureValue_To_NetworkTreasureState(field.getFieldTreasureContent()),
-				enumConverter.ECastleValue_To_NetworkFortState(field.getFieldCastleContent()),
-				field.getCoordinate().getX(), field.getCoordinate().getY());
+		return avatar;
+	}
+
+	/**
+	 * This method is used to convert a field of the map into a network protocol
+	 * object.
+	 * 
+	 * @param snapshot
+	 * @param index
+	 * @param castle   (castle value visible to the player)
+	 * @param avatar   (avatar value visible to the player)
+	 * @return
+	 */
+	private FullMapNode converteFieldToFullMapNode(MapSnapshot snapshot, int index, ECastleValue castle,
+			EAvatarPositionValue avatar) {
+
+		FullMapNode fullMapNode = new FullMapNode(
+				enumConverter.ETerrainType_To_NetworkTerrain(snapshot.getFieldTerrain(index)),
+				enumConverter.EAvatarPositionValue_To_NetworkPlayerPositionState(avatar),
+				enumConverter.ETreasureValue_To_NetworkTreasureState(snapshot.getFieldTreasureContent(index)),
+				enumConverter.ECastleValue_To_NetworkFortState(castle), snapshot.getX(index), snapshot.getY(index));
 
 		return fullMapNode;
 	}
 
 	/**
 	 * 
-	 * This method removes the correct enemy avatar position and set the avatar on a
-	 * random position.
+	 * This method chooses a random water field on which the enemy avatar is shown
+	 * instead of its correct position. The field only depends on the game, the
+	 * player and the game round, so a view which is converted again (e.g. after
+	 * the game was restored from a snapshot) shows the same field.
 	 * 
-	 * @param map
-	 * @param player
+	 * @param snapshot
+	 * @param playerPosition (index of the players avatar)
+	 * @param playerCastle   (index of the players castle)
+	 * @param gameRound
+	 * @return (index of the random position)
 	 */
-	private void setRandomEnemyPosition(Map map, Player player) {
-
-		boolean positionSet = false;
-		Coordinate currentEnemyAvatarPosition = null;
+	private int getRandomEnemyPosition(MapSnapshot snapshot, int playerPosition, int playerCastle, int gameRound) {
 
-		for (Entry<Coordinate, Field> entry : map.getHashMap().entrySet()) {
+		GameRandom viewRandom = random.derive(((long) gameRound << Integer.SIZE) | playerCastle);
 
-			Field field = entry.getValue();
+		int currentEnemyAvatarPosition = NO_FIELD;
 
-			if (field.getFieldAvatarContent().equals(EAvatarPositionValue.MyAvatarPosition)
-					&& !(field.getCoordinate().getX() == player.getCurrentPosition().getCoordinate().getX()
-							&& field.getCoordinate().getY() == player.getCurrentPosition().getCoordinate().getY())) {
+		for (int index = 0; index < snapshot.getSize(); ++index) {
 
-				field.setFieldAvatarContent(EAvatarPositionValue.NoAvatarPresent);
-				currentEnemyAvatarPosition = field.getCoordinate();
+			if (snapshot.hasField(index)
+					&& snapshot.getFieldAvatarContent(index).equals(EAvatarPositionValue.MyAvatarPosition)
+					&& index != playerPosition) {
 
+				currentEnemyAvatarPosition = index;
 			}
 		}
 
-		List<Field> mapFields = new ArrayList<Field>(map.getHashMap().values());
-
-		while (!positionSet) {
+		int enemyX = currentEnemyAvatarPosition == NO_FIELD ? NO_FIELD : snapshot.getX(currentEnemyAvatarPosition);
+		int enemyY = currentEnemyAvatarPosition == NO_FIELD ? NO_FIELD : snapshot.getY(currentEnemyAvatarPosition);
 
-			int randomNode = new Random().nextInt(mapFields.size());
+		while (true) {
 
-			if (mapFields.get(randomNode).getFieldTerrain().equals(ETerrainType.Water)
-					&& (mapFields.get(randomNode).getCoordinate().getX() != currentEnemyAvatarPosition.getX()
-							&& mapFields.get(randomNode).getCoordinate().getY() != currentEnemyAvatarPosition.getY())) {
+			int randomNode = viewRandom.nextInt(snapshot.getSize());
 
-				mapFields.get(randomNode).setFieldAvatarContent(EAvatarPositionValue.EnemyAvatarPosition);
+			if (snapshot.hasField(randomNode) && snapshot.getFieldTerrain(randomNode).equals(ETerrainType.Water)
+					&& (snapshot.getX(randomNode) != enemyX && snapshot.getY(randomNode) != enemyY)) {
 
-				positionSet = true;
+				return randomNode;
 			}
 
 		}
@@ -0,0 +1,114 @@
+package server.converter;
+
+import java.io.ByteArrayOutputStream;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+
+import MessagesBase.ResponseEnvelope;
+import MessagesGameState.GameState;
+import server.enumerations.EWireFormat;
+import server.exceptions.ConverterException;
+
+/**
+ * Converts responses into the XML bytes which are sent to the client, in the
+ * same format as the XML message converter of spring, or into one of the
+ * compact formats chosen by the client. The JAXB context is
+ * created only once because its creation is expensive, the marshaller is not
+ * thread safe and is therefore created per call.
+ * 
+ * @author Nemanja Srdanovic
+ *
+ */
+public class ResponseMarshaller {
+
+	private static final JAXBContext jaxbContext;
+
+	static {
+
+		try {
+
+			jaxbContext = JAXBContext.newInstance(ResponseEnvelope.class, GameState.class);
+
+		} catch (JAXBException e) {
+
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private static final IMessageCodec jsonCodec = new CompactJsonCodec();
+	private static final IMessageCodec binaryCodec = new BinaryCodec();
+
+	/**
+	 * Instantiates a new response marshaller object.
+	 */
+	public ResponseMarshaller() {
+
+	}
+
+	/**
+	 * Returns the codec of a compact format.
+	 * 
+	 * @param format (Json or Binary)
+	 * @return (IMessageCodec object)
+	 */
+	public static IMessageCodec getCodec(EWireFormat format) {
+
+		switch (format) {
+		case Json:
+			return jsonCodec;
+		case Binary:
+			return binaryCodec;
+		default:
+			throw new ConverterException("Converter exception: No codec for the format " + format + ".");
+		}
+	}
+
+	/**
+	 * This method is used to convert a game state response into the bytes of the
+	 * given format.
+	 * 
+	 * @param gameState
+	 * @param format
+	 * @return (XML, compact JSON or binary bytes)
+	 */
+	public byte[] marshalGameState(ResponseEnvelope<GameState> gameState, EWireFormat format) {
+
+		if (format == EWireFormat.Xml)
+			return marshalGameState(gameState);
+
+		if (gameState == null)
+			throw new ConverterException("Converter exception: The game state can not be null.");
+
+		return getCodec(format).encodeGameState(gameState);
+	}
+
+	/**
+	 * This method is used to convert a game state response into XML bytes.
+	 * 
+	 * @param gameState
+	 * @return (UTF-8 encoded XML)
+	 */
+	public byte[] marshalGameState(ResponseEnvelope<GameState> gameState) {
+
+		if (gameState == null)
+			throw new ConverterException("Converter exception: The game state can not be null.");
+
+		ByteArrayOutputStream xml = new ByteArrayOutputStream(4096);
+
+		try {
+
+			Marshaller marshaller = jaxbContext.createMarshaller();
+			marshaller.setProperty(Marshaller.JAXB_ENCODING, "UTF-8");
+			marshaller.marshal(gameState, xml);
+
+		} catch (JAXBException e) {
+
+			throw new ConverterException("Converter exception: The game state could not be marshalled.", e);
+		}
+
+		return xml.toByteArray();
+	}
+
+}
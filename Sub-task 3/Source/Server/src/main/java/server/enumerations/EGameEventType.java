@@ -0,0 +1,6 @@
+package server.enumerations;
+
+public enum EGameEventType {
+	GameCreated, PlayerRegistered, HalfMapReceived, MoveReceived, GameFinished;
+
+}
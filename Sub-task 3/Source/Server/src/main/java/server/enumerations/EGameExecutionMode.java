@@ -0,0 +1,6 @@
+package server.enumerations;
+
+public enum EGameExecutionMode {
+	Mailbox, Synchronized;
+
+}
@@ -0,0 +1,15 @@
+package server.enumerations;
+
+/**
+ * Enum representing the four different possible move directions which can be
+ * used by a player/client. Each move direction is executed in relation to the
+ * current player position and moves the avatar of the player towards an
+ * adjacent map field.
+ * 
+ * @author Nemanja Srdanovic
+ *
+ */
+public enum EMovementType {
+	Down, Left, Right, Up;
+
+}
@@ -0,0 +1,6 @@
+package server.enumerations;
+
+public enum ERulePhase {
+	NewGame, RegisterPlayer, ReceiveHalfMap, ReturnGameState, ReceiveMove;
+
+}
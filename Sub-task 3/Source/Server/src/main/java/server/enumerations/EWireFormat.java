@@ -0,0 +1,14 @@
+package server.enumerations;
+
+/**
+ * Formats in which game states, half maps and moves can be exchanged with the
+ * clients. XML is the format of the network protocol, the compact formats are
+ * chosen by the client with the Accept and Content-Type headers.
+ * 
+ * @author Nemanja Srdanovic
+ *
+ */
+public enum EWireFormat {
+	Xml, Json, Binary;
+
+}
@@ -0,0 +1,26 @@
+package server.exceptions;
+
+/**
+ * This GameCapacityException object is used to indicate that no new game can
+ * be created, because all game slots are used by active games. The client
+ * should try again after the given time.
+ * 
+ * @author Nemanja Srdanovic
+ *
+ */
+public class GameCapacityException extends GameRuleException {
+
+	private static final long serialVersionUID = 1L;
+
+	private final long retryAfterSeconds;
+
+	public GameCapacityException(String errorName, String errorMessage, long retryAfterSeconds) {
+		super(errorName, errorMessage);
+		this.retryAfterSeconds = retryAfterSeconds;
+	}
+
+	public long getRetryAfterSeconds() {
+		return retryAfterSeconds;
+	}
+
+}
@@ -0,0 +1,14 @@
+package server.exceptions;
+
+import server.player.Player;
+
+public class MoveRuleException extends RuleException {
+
+	private static final long serialVersionUID = 1L;
+
+	public MoveRuleException(Player player, String errorName, String errorMessage) {
+		super(player, errorName, errorMessage);
+
+	}
+
+}
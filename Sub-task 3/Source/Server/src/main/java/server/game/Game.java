@@ -1,6 +1,13 @@
 package server.game;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
 import MessagesBase.UniqueGameIdentifier;
+import server.enumerations.EGameExecutionMode;
+import server.exceptions.RuleException;
+import server.journal.GameEvents;
+import server.rules.GameConstants;
 
 /**
  * 
@@ -10,15 +17,38 @@ import MessagesBase.UniqueGameIdentifier;
 public class Game {
 
 	private UniqueGameIdentifier gameIdentifier;
+	private GameRandom random;
 	private GameController gameController;
+	private GameMailbox mailbox;
+	private GameStateWaiters stateWaiters;
 	private long runningTime;
 	private int gameRound;
+	private volatile long creationSequence;
+	private volatile long lastActivityTime;
+	private volatile int expirySlot;
 
 	public Game(UniqueGameIdentifier gameIdentifier) {
 
+		this(gameIdentifier, new GameRandom());
+	}
+
+	/**
+	 * Instantiates a game whose random numbers are taken from the given
+	 * generator. A game created again with the same seed and receiving the same
+	 * requests is played the same way.
+	 * 
+	 * @param gameIdentifier
+	 * @param random
+	 */
+	public Game(UniqueGameIdentifier gameIdentifier, GameRandom random) {
+
 		this.gameIdentifier = gameIdentifier;
-		this.gameController = new GameController();
+		this.random = random;
+		this.gameController = new GameController(random);
+		this.mailbox = new GameMailbox();
+		this.stateWaiters = new GameStateWaiters();
 		this.runningTime = System.currentTimeMillis();
+		this.lastActivityTime = this.runningTime;
 		this.gameRound = 0;
 
 	}
@@ -31,10 +61,116 @@ public class Game {
 		return gameController;
 	}
 
+	/**
+	 * Returns the seed of the random numbers of this game, which is written to
+	 * the game journal to replay the game.
+	 * 
+	 * @return long
+	 */
+	public long getSeed() {
+		return random.getSeed();
+	}
+
+	protected GameRandom getRandom() {
+		return random;
+	}
+
+	/**
+	 * Executes an action which reads or changes the state of this game. Both
+	 * players send their requests at the same time, so the actions are serialized
+	 * per game: either through the mailbox of the game or, depending on the
+	 * configured execution mode, by synchronizing on the game object.
+	 * 
+	 * If the action breaks a business rule of a player, the player loses the
+	 * game before the exception is passed on. The result of a game is written to
+	 * the game journal by the action which finished it.
+	 * 
+	 * @param action
+	 * @return (the result of the action)
+	 */
+	public <T> T execute(Supplier<T> action) {
+
+		if (GameConstants.GAME_EXECUTION_MODE == EGameExecutionMode.Synchronized) {
+
+			synchronized (this) {
+				return runAction(action);
+			}
+		}
+
+		return mailbox.execute(() -> runAction(action));
+	}
+
+	/**
+	 * Executes an action like execute, without blocking the calling thread. Used
+	 * by the reactive endpoints, whose event loop threads must not wait for the
+	 * mailbox. In the synchronized execution mode the action is executed
+	 * directly.
+	 * 
+	 * @param action
+	 * @return (future of the result of the action, completed exceptionally if a
+	 *         rule was broken)
+	 */
+	public <T> CompletableFuture<T> executeAsync(Supplier<T> action) {
+
+		if (GameConstants.GAME_EXECUTION_MODE == EGameExecutionMode.Synchronized) {
+
+			try {
+
+				return CompletableFuture.completedFuture(execute(action));
+
+			} catch (RuntimeException ex) {
+
+				return CompletableFuture.failedFuture(ex);
+			}
+		}
+
+		return mailbox.executeAsync(() -> runAction(action));
+	}
+
+	private <T> T runAction(Supplier<T> action) {
+
+		boolean finished = gameController.isFinished();
+
+		try {
+
+			return action.get();
+
+		} catch (RuleException ex) {
+
+			if (ex.getPlayer() != null) {
+
+				gameController.setPlayerLost(ex.getPlayer());
+				stateWaiters.notifyWaiters();
+			}
+
+			throw ex;
+
+		} finally {
+
+			if (!finished && gameController.isFinished()) {
+				GameEvents.gameFinished(gameIdentifier.getUniqueGameID(), gameController.getPlayers().values());
+			}
+		}
+	}
+
+	/**
+	 * Returns the game state requests which are waiting for the next change of
+	 * this game. Must only be used inside of an action executed on this game.
+	 * 
+	 * @return (GameStateWaiters object)
+	 */
+	public GameStateWaiters getStateWaiters() {
+		return stateWaiters;
+	}
+
 	public long getRunningTime() {
 		return runningTime;
 	}
 
+	protected void setRunningTime(long runningTime) {
+		this.runningTime = runningTime;
+	}
+
 	public int getGameRound() {
 		return gameRound;
 	}
@@ -43,4 +179,47 @@ public class Game {
 		this.gameRound = gameRound;
 	}
 
+	public long getCreationSequence() {
+		return creationSequence;
+	}
+
+	protected void setCreationSequence(long creationSequence) {
+		this.creationSequence = creationSequence;
+	}
+
+	/**
+	 * Returns the time of the last request which was sent to this game. Games are
+	 * expired based on this time and not on the creation time.
+	 * 
+	 * @return (milliseconds)
+	 */
+	public long getLastActivityTime() {
+		return lastActivityTime;
+	}
+
+	/**
+	 * Is called for every request sent to this game, so that the game is not
+	 * expired as long as the clients are active.
+	 */
+	public void updateLastActivity() {
+		this.lastActivityTime = System.currentTimeMillis();
+	}
+
+	protected int getExpirySlot() {
+		return expirySlot;
+	}
+
+	protected void setExpirySlot(int expirySlot) {
+		this.expirySlot = expirySlot;
+	}
+
+	/**
+	 * Returns an estimate of the heap memory which is retained by this game.
+	 * 
+	 * @return (bytes)
+	 */
+	public long getEstimatedMemoryFootprint() {
+		return gameController.getEstimatedMemoryFootprint();
+	}
+
 }
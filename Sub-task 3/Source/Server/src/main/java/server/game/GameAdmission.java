@@ -0,0 +1,224 @@
+package server.game;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import server.exceptions.GameCapacityException;
+import server.rules.GameConstants;
+
+/**
+ * Admission control for new games. Every running game holds one of a fixed
+ * number of slots. The slots are counted with compare and set, so concurrent
+ * game creations can never exceed the capacity. If all slots are used, a game
+ * is evicted to make room, but only if it is finished (a player won or lost)
+ * or idle for a while; finished games are evicted first. If every slot is used
+ * by an active game, the new game is rejected and the client is told when to
+ * try again, so that a burst of new games can not end running matches.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class GameAdmission {
+
+	private static Logger logger = LoggerFactory.getLogger(GameAdmission.class);
+
+	private static final long MILLIS_PER_SECOND = 1000;
+
+	private final int capacity;
+	private final long idleMillis;
+	private final AtomicInteger usedSlots;
+	private final AtomicInteger pendingAdmissions;
+	private final LongAdder admittedGames;
+	private final LongAdder rejectedGames;
+	private final LongAdder evictedFinishedGames;
+	private final LongAdder evictedIdleGames;
+
+	/**
+	 * Instantiates a new admission control. The parameters must be positive.
+	 *
+	 * @param capacity   (maximal number of running games)
+	 * @param idleMillis (time without requests after which a game may be evicted)
+	 */
+	public GameAdmission(int capacity, long idleMillis) {
+
+		this.capacity = capacity;
+		this.idleMillis = idleMillis;
+		this.usedSlots = new AtomicInteger();
+		this.pendingAdmissions = new AtomicInteger();
+		this.admittedGames = new LongAdder();
+		this.rejectedGames = new LongAdder();
+		this.evictedFinishedGames = new LongAdder();
+		this.evictedIdleGames = new LongAdder();
+	}
+
+	/**
+	 * Checks if a new game could be admitted right now, evicting a finished or
+	 * idle game if all slots are used. Does not take a slot.
+	 *
+	 * @param runningGames
+	 * @throws GameCapacityException (if every slot is used by an active game)
+	 */
+	protected void checkAdmission(Collection<Game> runningGames) {
+
+		if (usedSlots.get() < capacity) {
+			return;
+		}
+
+		long currentTime = System.currentTimeMillis();
+
+		if (!evictGame(runningGames, currentTime)) {
+
+			rejectedGames.increment();
+			throw createCapacityException(runningGames, currentTime);
+		}
+	}
+
+	/**
+	 * Takes a slot for a new game, evicting a finished or idle game if all slots
+	 * are used. The slot must be released when the game is removed.
+	 *
+	 * @param runningGames
+	 * @throws GameCapacityException (if every slot is used by an active game)
+	 */
+	protected void acquireSlot(Collection<Game> runningGames) {
+
+		pendingAdmissions.incrementAndGet();
+
+		try {
+
+			while (true) {
+
+				int slots = usedSlots.get();
+
+				if (slots < capacity) {
+
+					if (usedSlots.compareAndSet(slots, slots + 1)) {
+
+						admittedGames.increment();
+						return;
+					}
+
+					continue;
+				}
+
+				long currentTime = System.currentTimeMillis();
+
+				if (!evictGame(runningGames, currentTime)) {
+
+					rejectedGames.increment();
+					throw createCapacityException(runningGames, currentTime);
+				}
+			}
+
+		} finally {
+			pendingAdmissions.decrementAndGet();
+		}
+	}
+
+	protected void releaseSlot() {
+
+		usedSlots.decrementAndGet();
+	}
+
+	/**
+	 * Removes the finished game or, if there is none, the idle game with the
+	 * oldest activity. Active games are never evicted.
+	 *
+	 * @return (false if no game can be evicted)
+	 */
+	private boolean evictGame(Collection<Game> runningGames, long currentTime) {
+
+		Game finishedGame = null;
+		Game idleGame = null;
+
+		for (Game game : runningGames) {
+
+			if (game.getGameController().isFinished()) {
+
+				if (finishedGame == null || game.getLastActivityTime() < finishedGame.getLastActivityTime())
+					finishedGame = game;
+
+			} else if (currentTime - game.getLastActivityTime() >= idleMillis) {
+
+				if (idleGame == null || game.getLastActivityTime() < idleGame.getLastActivityTime())
+					idleGame = game;
+			}
+		}
+
+		Game evictedGame = finishedGame != null ? finishedGame : idleGame;
+
+		if (evictedGame == null) {
+			return false;
+		}
+
+		// if another thread removed the game in the meantime, its slot is free now
+		if (RunningGames.removeGame(evictedGame)) {
+
+			if (evictedGame == finishedGame) {
+				evictedFinishedGames.increment();
+			} else {
+				evictedIdleGames.increment();
+			}
+
+			logger.info("Game evicted to admit a new game. ID: {}", evictedGame.getGameIdentifier().getUniqueGameID());
+		}
+
+		return true;
+	}
+
+	/**
+	 * The client is told to try again when the game with the oldest activity
+	 * becomes idle, if no request is sent to it until then.
+	 */
+	private GameCapacityException createCapacityException(Collection<Game> runningGames, long currentTime) {
+
+		long retryAfterMillis = idleMillis;
+
+		for (Game game : runningGames) {
+
+			retryAfterMillis = Math.min(retryAfterMillis, game.getLastActivityTime() + idleMillis - currentTime);
+		}
+
+		long retryAfterSeconds = Math.max(GameConstants.ADMISSION_MIN_RETRY_AFTER_SECONDS,
+				(retryAfterMillis + MILLIS_PER_SECOND - 1) / MILLIS_PER_SECOND);
+
+		logger.info("New game rejected, all {} game slots are used by active games.", capacity);
+
+		return new GameCapacityException("Game capacity reached.",
+				"All games on the server are active. Try again in " + retryAfterSeconds + " seconds.",
+				retryAfterSeconds);
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	public int getUsedSlotsNum() {
+		return usedSlots.get();
+	}
+
+	public int getPendingAdmissionsNum() {
+		return pendingAdmissions.get();
+	}
+
+	public long getAdmittedGamesNum() {
+		return admittedGames.sum();
+	}
+
+	public long getRejectedGamesNum() {
+		return rejectedGames.sum();
+	}
+
+	public long getEvictedFinishedGamesNum() {
+		return evictedFinishedGames.sum();
+	}
+
+	public long getEvictedIdleGamesNum() {
+		return evictedIdleGames.sum();
+	}
+
+}
@@ -5,17 +5,22 @@ import java.util.HashMap;
 import java.util.Optional;
 
 import MessagesBase.HalfMap;
+import MessagesBase.PlayerMove;
 import MessagesBase.PlayerRegistration;
+import MessagesBase.ResponseEnvelope;
 import MessagesBase.UniquePlayerIdentifier;
 import MessagesGameState.FullMap;
 import MessagesGameState.GameState;
 import MessagesGameState.PlayerState;
+import server.converter.ResponseMarshaller;
 import server.enumerations.EPlayerStateValue;
+import server.enumerations.EWireFormat;
 import server.map.MapController;
 import server.map.PlayerMap;
+import server.move.MoveController;
 import server.player.Player;
 import server.player.PlayerController;
-import server.rules.Rules;
+import server.rules.GameConstants;
 
 /**
  * 
@@ -26,45 +31,62 @@ public class GameController {
 
 	private MapController mapController;
 	private PlayerController playerController;
+	private MoveController moveController;
 	private GameGameState gameState;
-	private Rules gameRules;
+	private GameStateCache gameStateCache;
+	private ResponseMarshaller responseMarshaller;
+	private volatile boolean finished;
 
 	public GameController() {
 
-		this.mapController = new MapController();
-		this.playerController = new PlayerController();
-		this.gameState = new GameGameState(mapController);
-		this.gameRules = new Rules();
+		this(new GameRandom());
 	}
 
-	private MapController getMapController() {
+	/**
+	 * @param random (random numbers of the game, see GameRandom)
+	 */
+	public GameController(GameRandom random) {
+
+		this.mapController = new MapController(random.split());
+		this.playerController = new PlayerController(random.split());
+		this.moveController = new MoveController();
+		this.gameStateCache = new GameStateCache();
+		this.responseMarshaller = new ResponseMarshaller();
+		this.gameState = new GameGameState(gameStateCache);
+	}
+
+	protected MapController getMapController() {
 		return mapController;
 	}
 
-	private PlayerController getPlayerController() {
+	protected PlayerController getPlayerController() {
 		return playerController;
 	}
 
-	private GameGameState getGameState() {
-
-		return this.gameState;
+	private MoveController getMoveController() {
+		return moveController;
 	}
 
-	public Rules getGameRules() {
-		return gameRules;
+	protected GameGameState getGameState() {
+
+		return this.gameState;
 	}
 
 	public void addNewPlayer(PlayerRegistration playerRegistration, UniquePlayerIdentifier newPlayerID) {
 
-		getPlayerController().getPlayers().put(newPlayerID.getUniquePlayerID(),
-				new Player(playerRegistration.getStudentFirstName(), playerRegistration.getStudentLastName(),
-						playerRegistration.getStudentID(), newPlayerID.getUniquePlayerID()));
+		getPlayerController().addPlayer(new Player(playerRegistration.getStudentFirstName(),
+				playerRegistration.getStudentLastName(), playerRegistration.getStudentID(),
+				newPlayerID.getUniquePlayerID()));
+
+		getGameState().changeGameState();
 	}
 
 	public void setHalfMap(String gameID, HalfMap halfMap) {
 
-		getMapController().setHalfMap(RunningGames.getGames().get(gameID).getGameController().getPlayerController()
-				.getPlayers().get(halfMap.getUniquePlayerID()), halfMap);
+		Game game = RunningGames.getGame(gameID);
+
+		getMapController().setHalfMap(game.getGameController().getPlayerController().getPlayers()
+				.get(halfMap.getUniquePlayerID()), halfMap);
 
 		getPlayerController().getPlayers().get(halfMap.getUniquePlayerID())
 				.setCurrentState(EPlayerStateValue.ShouldWait);
@@ -72,21 +94,178 @@ public class GameController {
 		getPlayerController().getSecondPlayer(halfMap.getUniquePlayerID())
 				.setCurrentState(EPlayerStateValue.ShouldActNext);
 
-		RunningGames.getGames().get(gameID).setGameRound(RunningGames.getGames().get(gameID).getGameRound() + 1);
+		game.setGameRound(game.getGameRound() + 1);
+
+		getGameState().changeGameState();
 
 	}
 
+	public void setPlayerMove(String gameID, PlayerMove playerMove) {
+
+		Game game = RunningGames.getGame(gameID);
+
+		Player player = getPlayerController().getPlayers().get(playerMove.getUniquePlayerID());
+
+		getMoveController().executeMove(getMapController().getMoveTable(), player,
+				getPlayerController().getSecondPlayer(playerMove.getUniquePlayerID()), playerMove);
+
+		if (player.getCurrentState().equals(EPlayerStateValue.Won)
+				|| player.getCurrentState().equals(EPlayerStateValue.Lost)) {
+			this.finished = true;
+		}
+
+		getMapController().publishSnapshot();
+
+		game.setGameRound(game.getGameRound() + 1);
+
+		getGameState().changeGameState();
+
+	}
+
+	/**
+	 * Lets the player lose the game because he broke a business rule.
+	 * 
+	 * @param player
+	 */
+	public void setPlayerLost(Player player) {
+
+		if (!player.getCurrentState().equals(EPlayerStateValue.Lost)) {
+
+			player.setCurrentState(EPlayerStateValue.Lost);
+			getGameState().changeGameState();
+		}
+
+		this.finished = true;
+	}
+
+	/**
+	 * Returns true as soon as one player won or lost the game. Can be read outside
+	 * of the actions executed on the game.
+	 * 
+	 * @return boolean
+	 */
+	public boolean isFinished() {
+		return finished;
+	}
+
+	protected void setFinished(boolean finished) {
+		this.finished = finished;
+	}
+
 	public GameState getGameStateObject(String gameID, String playerID) {
 
 		Player player = getPlayerController().getPlayers().get(playerID);
-		Optional<FullMap> map = getMapController().getOptionalFullMap(player,
-				RunningGames.getGames().get(gameID).getGameRound());
-		Collection<PlayerState> players = getPlayerController().getPlayerStates(player);
-		String gameStateID = getGameState().getGameStateID(player);
+
+		updatePlayerState(player);
+
+		return createGameState(gameID, player, getGameState().getGameStateID(), null);
+	}
+
+	/**
+	 * Returns the game state of the player as XML bytes, see
+	 * getGameStateResponse with format.
+	 * 
+	 * @param gameID
+	 * @param playerID
+	 * @param ifNoneMatch   (If-None-Match header of the request, can be null)
+	 * @param mapDeltaSince (game state id of the clients map, can be null)
+	 * @return (GameStateResponse object with the entity tag and the XML bytes)
+	 */
+	public GameStateResponse getGameStateResponse(String gameID, String playerID, String ifNoneMatch,
+			String mapDeltaSince) {
+
+		return getGameStateResponse(gameID, playerID, ifNoneMatch, mapDeltaSince, EWireFormat.Xml);
+	}
+
+	/**
+	 * Returns the game state of the player as bytes of the given format. If
+	 * neither the game state id nor the map version changed since the last
+	 * request of the player, the cached bytes are returned instead of converting
+	 * and marshalling the game state again. If the entity tag sent by the client
+	 * in the If-None-Match header is still valid, the response is returned
+	 * without body.
+	 * 
+	 * If the client names the last game state whose map it has applied, the map
+	 * of the response only contains the nodes which changed since then. If that
+	 * game state is too old, the full map is returned.
+	 * 
+	 * @param gameID
+	 * @param playerID
+	 * @param ifNoneMatch   (If-None-Match header of the request, can be null)
+	 * @param mapDeltaSince (game state id of the clients map, can be null)
+	 * @param format        (format of the body)
+	 * @return (GameStateResponse object with the entity tag and the bytes)
+	 */
+	public GameStateResponse getGameStateResponse(String gameID, String playerID, String ifNoneMatch,
+			String mapDeltaSince, EWireFormat format) {
+
+		Player player = getPlayerController().getPlayers().get(playerID);
+
+		updatePlayerState(player);
+
+		String gameStateID = getGameState().getGameStateID();
+		long mapVersion = getMapVersion();
+		String eTag = GameStateResponse.createETag(gameStateID, mapVersion, format);
+
+		if (GameStateResponse.matches(ifNoneMatch, eTag)) {
+			return GameStateResponse.notModified(gameStateID, eTag);
+		}
+
+		if (mapDeltaSince != null) {
+
+			FullMap mapDelta = getMapController().getMapDelta(player, RunningGames.getGame(gameID).getGameRound(),
+					gameStateID, mapDeltaSince);
+
+			if (mapDelta != null) {
+
+				byte[] response = responseMarshaller.marshalGameState(
+						new ResponseEnvelope<>(createGameState(gameID, player, gameStateID, mapDelta)), format);
+
+				return GameStateResponse.modifiedMapDelta(gameStateID, eTag, mapDeltaSince, response);
+			}
+		}
+
+		if (!GameConstants.GAME_STATE_CACHE_ENABLED) {
+
+			return GameStateResponse.modified(gameStateID, eTag, responseMarshaller.marshalGameState(
+					new ResponseEnvelope<>(createGameState(gameID, player, gameStateID, null)), format));
+		}
+
+		byte[] response = gameStateCache.getResponse(playerID, gameStateID, mapVersion, format);
+
+		if (response == null) {
+
+			response = responseMarshaller.marshalGameState(
+					new ResponseEnvelope<>(createGameState(gameID, player, gameStateID, null)), format);
+
+			gameStateCache.putResponse(playerID, gameStateID, mapVersion, format, response);
+		}
+
+		return GameStateResponse.modified(gameStateID, eTag, response);
+	}
+
+	private GameState createGameState(String gameID, Player player, String gameStateID, FullMap mapDelta) {
+
+		Optional<FullMap> map = mapDelta != null ? Optional.of(mapDelta)
+				: getMapController().getOptionalFullMap(player, RunningGames.getGame(gameID).getGameRound(),
+						gameStateID);
+		Collection<PlayerState> players = getPlayerController().convertePlayerStates(player);
 
 		return new GameState(map, players, gameStateID);
 	}
 
+	private void updatePlayerState(Player player) {
+
+		if (getPlayerController().updatePlayerState(player)) {
+			getGameState().changeGameState();
+		}
+	}
+
+	private long getMapVersion() {
+
+		return getMapController().getSnapshot() == null ? 0 : getMapController().getSnapshot().getVersion();
+	}
+
 	public HashMap<String, Player> getPlayers() {
 
 		return getPlayerController().getPlayers();
@@ -97,4 +276,18 @@ public class GameController {
 		return getMapController().getHalfMaps();
 	}
 
+	/**
+	 * Returns an estimate of the heap memory retained by the players, maps and
+	 * cached responses of this game.
+	 * 
+	 * @return (bytes)
+	 */
+	public long getEstimatedMemoryFootprint() {
+
+		return GameConstants.ESTIMATED_BYTES_PER_GAME
+				+ (long) getPlayers().size() * GameConstants.ESTIMATED_BYTES_PER_PLAYER
+				+ (long) getMapController().getStoredFieldsNum() * GameConstants.ESTIMATED_BYTES_PER_MAP_FIELD
+				+ gameStateCache.getCachedBytes();
+	}
+
 }
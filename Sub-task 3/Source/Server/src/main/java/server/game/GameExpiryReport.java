@@ -0,0 +1,53 @@
+package server.game;
+
+/**
+ * Result of one sweep over the expiry wheel: how many games were looked at and
+ * how many games and estimated bytes were reclaimed.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class GameExpiryReport {
+
+	private int processedGamesNum;
+	private int expiredGamesNum;
+	private long reclaimedBytes;
+
+	public GameExpiryReport() {
+
+		this.processedGamesNum = 0;
+		this.expiredGamesNum = 0;
+		this.reclaimedBytes = 0;
+	}
+
+	protected void addProcessedGames(int gamesNum) {
+		this.processedGamesNum += gamesNum;
+	}
+
+	protected void addExpiredGame(long gameBytes) {
+		++this.expiredGamesNum;
+		this.reclaimedBytes += gameBytes;
+	}
+
+	public int getProcessedGamesNum() {
+		return processedGamesNum;
+	}
+
+	public int getExpiredGamesNum() {
+		return expiredGamesNum;
+	}
+
+	public long getReclaimedBytes() {
+		return reclaimedBytes;
+	}
+
+	/**
+	 * Implements a working toString method for this object to ease debugging.
+	 */
+	@Override
+	public String toString() {
+		return "GameExpiryReport [processedGamesNum=" + processedGamesNum + ", expiredGamesNum=" + expiredGamesNum
+				+ ", reclaimedBytes=" + reclaimedBytes + "]";
+	}
+
+}
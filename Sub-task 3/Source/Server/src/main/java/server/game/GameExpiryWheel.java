@@ -0,0 +1,128 @@
+package server.game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Hashed timing wheel which expires games that have been idle for a given
+ * time. Every game is placed into the slot of the tick in which it would expire
+ * if no further request arrives. Requests only update the last activity time
+ * of the game, they never move it between slots. When a slot is reached the
+ * games in it are checked: games that stayed idle are removed from the running
+ * games, all others are placed into the slot of their new expiry tick.
+ *
+ * The wheel has one slot more than ticks fit into the idle time, so that every
+ * expiry tick falls into the current revolution. Each sweep therefore only
+ * touches the games of the slots that passed since the last sweep.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class GameExpiryWheel {
+
+	private final long tickMillis;
+	private final long idleMillis;
+	private final ConcurrentLinkedQueue<Game>[] slots;
+	private volatile long lastProcessedTick;
+
+	/**
+	 * Instantiates a new expiry wheel. The parameters must be positive.
+	 *
+	 * @param idleMillis (time without requests after which a game expires)
+	 * @param tickMillis (time between two sweeps)
+	 * @param startTime  (milliseconds)
+	 */
+	@SuppressWarnings("unchecked")
+	public GameExpiryWheel(long idleMillis, long tickMillis, long startTime) {
+
+		this.tickMillis = tickMillis;
+		this.idleMillis = idleMillis;
+		this.slots = (ConcurrentLinkedQueue<Game>[]) new ConcurrentLinkedQueue<?>[(int) (idleMillis / tickMillis) + 2];
+		this.lastProcessedTick = startTime / tickMillis;
+
+		for (int slot = 0; slot < slots.length; ++slot) {
+			slots[slot] = new ConcurrentLinkedQueue<Game>();
+		}
+	}
+
+	/**
+	 * Places the game into the slot of the tick in which it expires, based on its
+	 * last activity time.
+	 *
+	 * @param game
+	 */
+	public void schedule(Game game) {
+
+		long expiryTick = Math.max(ceilDiv(game.getLastActivityTime() + idleMillis, tickMillis),
+				lastProcessedTick + 1);
+		int slot = (int) (expiryTick % slots.length);
+
+		game.setExpirySlot(slot);
+		slots[slot].add(game);
+	}
+
+	/**
+	 * Removes the game from its slot. Is used when a game is removed from the
+	 * running games for another reason than being idle, so that the wheel does not
+	 * hold on to it.
+	 *
+	 * @param game
+	 */
+	public void cancel(Game game) {
+
+		slots[game.getExpirySlot()].remove(game);
+	}
+
+	/**
+	 * Processes all slots whose tick has passed since the last call and removes the
+	 * idle games found in them from the running games.
+	 *
+	 * @param currentTime (milliseconds)
+	 * @return (the number of removed games and their estimated size)
+	 */
+	public synchronized GameExpiryReport expireIdleGames(long currentTime) {
+
+		long currentTick = currentTime / tickMillis;
+		long ticksToProcess = Math.min(currentTick - lastProcessedTick, slots.length);
+		GameExpiryReport report = new GameExpiryReport();
+
+		for (long tick = currentTick - ticksToProcess + 1; tick <= currentTick; ++tick) {
+
+			lastProcessedTick = tick;
+			List<Game> dueGames = new ArrayList<Game>();
+			Game game;
+
+			while ((game = slots[(int) (tick % slots.length)].poll()) != null) {
+				dueGames.add(game);
+			}
+
+			for (Game dueGame : dueGames) {
+
+				if (currentTime - dueGame.getLastActivityTime() >= idleMillis) {
+
+					long footprint = dueGame.getEstimatedMemoryFootprint();
+
+					if (RunningGames.removeIdleGame(dueGame)) {
+						report.addExpiredGame(footprint);
+					}
+
+				} else if (RunningGames.getGame(dueGame.getGameIdentifier().getUniqueGameID()) == dueGame) {
+
+					schedule(dueGame);
+				}
+			}
+
+			report.addProcessedGames(dueGames.size());
+		}
+
+		lastProcessedTick = Math.max(lastProcessedTick, currentTick);
+
+		return report;
+	}
+
+	private static long ceilDiv(long dividend, long divisor) {
+		return -Math.floorDiv(-dividend, divisor);
+	}
+
+}
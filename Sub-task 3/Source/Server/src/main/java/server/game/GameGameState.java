@@ -1,85 +1,59 @@
 package server.game;
 
-import java.util.HashMap;
-import java.util.UUID;
-
-import server.map.MapController;
-import server.player.Player;
-
 /**
- * 
+ * Version of the game state. Every action which changes the game (player
+ * registered, half map received, move executed, player state changed) counts
+ * the version up, and the game state id sent to the clients is derived from
+ * it. Requesting the game state only reads the current id.
+ *
  * @author Nemanja Srdanovic
  *
  */
 public class GameGameState {
 
-	private MapController mapController;
+	private GameStateCache gameStateCache;
+	private long stateVersion;
 	private String gameStateID;
-	private HashMap<String, Player> oldPlayerState;
-	private int halfMapsReceived;
 
-	public GameGameState(MapController mapController) {
+	public GameGameState(GameStateCache gameStateCache) {
 
-		this.mapController = mapController;
-		this.oldPlayerState = new HashMap<String, Player>();
-		this.gameStateID = UUID.randomUUID().toString();
-		this.halfMapsReceived = mapController.getHalfMaps().size();
+		this.gameStateCache = gameStateCache;
+		this.stateVersion = 0;
+		this.gameStateID = Long.toString(stateVersion);
 
 	}
 
-	protected String getGameStateID(Player player) {
-
-		Player oldPlayerData = null;
-
-		if (oldPlayerState.get(player.getPlayerID()) == null) {
-
-			oldPlayerState.put(player.getPlayerID(), new Player());
-
-			oldPlayerData = oldPlayerState.get(player.getPlayerID());
-			oldPlayerData.setCurrentPosition(player.getCurrentPosition());
-			oldPlayerData.setCurrentState(player.getCurrentState());
-			oldPlayerData.setHasCollectedTreasure(player.isHasCollectedTreasure());
-
-		}
-
-		oldPlayerData = oldPlayerState.get(player.getPlayerID());
-
-		if (oldPlayerData.getCurrentPosition() == null) {
-
-			oldPlayerData.setCurrentPosition(player.getCurrentPosition());
-		}
-
-		if (player.getCurrentPosition() != null && !oldPlayerData.getCurrentPosition().getCoordinate()
-				.equals(player.getCurrentPosition().getCoordinate())) {
+	protected String getGameStateID() {
 
-			oldPlayerData.setCurrentPosition(player.getCurrentPosition());
-			this.gameStateID = UUID.randomUUID().toString();
-
-		}
-
-		if (this.halfMapsReceived != mapController.getHalfMaps().size()) {
-
-			this.halfMapsReceived = mapController.getHalfMaps().size();
-
-			this.gameStateID = UUID.randomUUID().toString();
-
-		}
-
-		if (!oldPlayerData.getCurrentState().equals(player.getCurrentState())) {
+		return this.gameStateID;
+	}
 
-			oldPlayerData.setCurrentState(player.getCurrentState());
-			this.gameStateID = UUID.randomUUID().toString();
+	protected long getStateVersion() {
 
-		}
+		return this.stateVersion;
+	}
 
-		if (oldPlayerData.isHasCollectedTreasure() != player.isHasCollectedTreasure()) {
+	/**
+	 * Sets the version of a game which is restored from a snapshot, so that the
+	 * clients keep their game state id.
+	 * 
+	 * @param stateVersion
+	 */
+	protected void restoreStateVersion(long stateVersion) {
 
-			oldPlayerData.setHasCollectedTreasure(player.isHasCollectedTreasure());
-			this.gameStateID = UUID.randomUUID().toString();
+		this.stateVersion = stateVersion;
+		this.gameStateID = Long.toString(stateVersion);
+	}
 
-		}
+	/**
+	 * Is called by every action which changes the game, so that the clients
+	 * receive a new game state id and the cached responses are dropped.
+	 */
+	protected void changeGameState() {
 
-		return this.gameStateID;
+		++this.stateVersion;
+		this.gameStateID = Long.toString(stateVersion);
+		this.gameStateCache.invalidate();
 	}
 
 }
@@ -0,0 +1,216 @@
+package server.game;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import server.exceptions.GameRuleException;
+
+/**
+ * Issues the five character game ids (five hex digits, the same format as the
+ * beginning of a UUID). Every id of the 2^20 possible ids is marked as used
+ * until its game is removed, so an id is never issued twice for running games.
+ *
+ * The ids are taken from a counter which is scrambled with a bijective
+ * mixing function, so that consecutive games do not get consecutive ids. No
+ * random number has to be generated per game and no lock is taken, an id is
+ * claimed with a single compare and set. The ids are not meant to be secret,
+ * a client can only guess ids of games which are running anyway.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class GameIDAllocator {
+
+	public static final int GAME_ID_LENGTH = 5;
+
+	private static final int ID_BITS = GAME_ID_LENGTH * 4;
+	private static final int ID_SPACE = 1 << ID_BITS;
+	private static final int ID_MASK = ID_SPACE - 1;
+	private static final int FIRST_MULTIPLIER = 0x9E3B5;
+	private static final int SECOND_MULTIPLIER = 0x6A09B;
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+	private final AtomicInteger sequence;
+	private final AtomicLongArray usedIDs;
+	private final int offset;
+
+	public GameIDAllocator() {
+
+		this(ThreadLocalRandom.current().nextInt());
+	}
+
+	/**
+	 * @param offset (start of the id sequence, random for a running server)
+	 */
+	public GameIDAllocator(int offset) {
+
+		this.sequence = new AtomicInteger();
+		this.usedIDs = new AtomicLongArray(ID_SPACE / Long.SIZE);
+		this.offset = offset;
+	}
+
+	/**
+	 * Returns an id which is not used by any other game until it is released.
+	 *
+	 * @return (five hex digits, e.g. "a2906")
+	 */
+	public String allocate() {
+
+		for (int attempt = 0; attempt < ID_SPACE; ++attempt) {
+
+			int id = scramble(sequence.getAndIncrement() + offset);
+
+			if (claim(id)) {
+				return toGameID(id);
+			}
+		}
+
+		throw new GameRuleException("No game id available.", "All game ids are used by running games.");
+	}
+
+	/**
+	 * Marks an id as used which was issued before, e.g. by the server which wrote
+	 * a game snapshot. Ids which are not in the format of this allocator can not
+	 * collide with issued ids and are always accepted.
+	 *
+	 * @param gameID
+	 * @return (false if the id is already used)
+	 */
+	public boolean reserve(String gameID) {
+
+		int id = toID(gameID);
+
+		return id < 0 || claim(id);
+	}
+
+	/**
+	 * Marks the id of a removed game as free again. Ids which were not issued by
+	 * this allocator are ignored.
+	 *
+	 * @param gameID
+	 */
+	public void release(String gameID) {
+
+		int id = toID(gameID);
+
+		if (id < 0) {
+			return;
+		}
+
+		long bit = 1L << id;
+		int word = id >>> 6;
+		long used;
+
+		do {
+			used = usedIDs.get(word);
+		} while ((used & bit) != 0 && !usedIDs.compareAndSet(word, used, used & ~bit));
+	}
+
+	/**
+	 * Checks if the id is currently issued.
+	 *
+	 * @param gameID
+	 * @return (true if the id is used by a game)
+	 */
+	public boolean isUsed(String gameID) {
+
+		int id = toID(gameID);
+
+		return id >= 0 && (usedIDs.get(id >>> 6) & (1L << id)) != 0;
+	}
+
+	/**
+	 * Returns the number of ids which are currently issued.
+	 *
+	 * @return (Number)
+	 */
+	public int getUsedIDsNum() {
+
+		int usedIDsNum = 0;
+
+		for (int word = 0; word < usedIDs.length(); ++word) {
+			usedIDsNum += Long.bitCount(usedIDs.get(word));
+		}
+
+		return usedIDsNum;
+	}
+
+	private boolean claim(int id) {
+
+		long bit = 1L << id;
+		int word = id >>> 6;
+		long used;
+
+		do {
+
+			used = usedIDs.get(word);
+
+			if ((used & bit) != 0) {
+				return false;
+			}
+
+		} while (!usedIDs.compareAndSet(word, used, used | bit));
+
+		return true;
+	}
+
+	/**
+	 * Maps every number of the id space to another number of the id space. All
+	 * steps (multiplication with an odd number and xor with the own upper bits)
+	 * are reversible, so no two numbers are mapped to the same id.
+	 */
+	private int scramble(int number) {
+
+		int id = (number * FIRST_MULTIPLIER) & ID_MASK;
+		id ^= id >>> (ID_BITS / 2);
+		id = (id * SECOND_MULTIPLIER) & ID_MASK;
+		id ^= id >>> (ID_BITS / 2);
+
+		return id;
+	}
+
+	private String toGameID(int id) {
+
+		char[] gameID = new char[GAME_ID_LENGTH];
+
+		for (int digit = GAME_ID_LENGTH - 1; digit >= 0; --digit) {
+
+			gameID[digit] = HEX_DIGITS[id & 0xF];
+			id >>>= 4;
+		}
+
+		return new String(gameID);
+	}
+
+	/**
+	 * @return (the number of the id or -1 if it is no id of this allocator)
+	 */
+	private int toID(String gameID) {
+
+		if (gameID == null || gameID.length() != GAME_ID_LENGTH) {
+			return -1;
+		}
+
+		int id = 0;
+
+		for (int digit = 0; digit < GAME_ID_LENGTH; ++digit) {
+
+			char character = gameID.charAt(digit);
+			int value;
+
+			if (character >= '0' && character <= '9') {
+				value = character - '0';
+			} else if (character >= 'a' && character <= 'f') {
+				value = character - 'a' + 10;
+			} else {
+				return -1;
+			}
+
+			id = (id << 4) | value;
+		}
+
+		return id;
+	}
+
+}
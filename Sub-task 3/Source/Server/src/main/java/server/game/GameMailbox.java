@@ -0,0 +1,161 @@
+package server.game;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import server.rules.GameConstants;
+
+/**
+ * Queue of the actions which are waiting to be executed on one game. Actions
+ * of the same game are executed one after another in the order in which they
+ * were submitted, actions of different games run in parallel on a pool of
+ * threads which is shared by all games. No lock is held while an action runs.
+ *
+ * A mailbox is scheduled on the pool only if it contains actions and is not
+ * already scheduled. After a limited number of actions the mailbox gives its
+ * thread back to the pool and schedules itself again, so that a busy game does
+ * not hold a pool thread forever.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class GameMailbox {
+
+	private static Logger logger = LoggerFactory.getLogger(GameMailbox.class);
+
+	private static final ExecutorService mailboxPool;
+
+	private final ConcurrentLinkedQueue<Runnable> actions;
+	private final AtomicBoolean scheduled;
+
+	static {
+
+		AtomicInteger threadNum = new AtomicInteger();
+
+		mailboxPool = Executors.newFixedThreadPool(GameConstants.MAILBOX_POOL_THREADS_NUM, runnable -> {
+
+			Thread thread = new Thread(runnable, "game-mailbox-" + threadNum.incrementAndGet());
+			thread.setDaemon(true);
+
+			return thread;
+		});
+	}
+
+	public GameMailbox() {
+
+		this.actions = new ConcurrentLinkedQueue<Runnable>();
+		this.scheduled = new AtomicBoolean(false);
+	}
+
+	/**
+	 * Submits the action and waits until it was executed. Runtime exceptions thrown
+	 * by the action (e.g. broken rules) are rethrown to the caller, so that they
+	 * reach the exception handler of the endpoint.
+	 *
+	 * @param action
+	 * @return (the result of the action)
+	 */
+	public <T> T execute(Supplier<T> action) {
+
+		CompletableFuture<T> result = executeAsync(action);
+
+		try {
+
+			return result.join();
+
+		} catch (CompletionException ex) {
+
+			if (ex.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) ex.getCause();
+			}
+
+			if (ex.getCause() instanceof Error) {
+				throw (Error) ex.getCause();
+			}
+
+			throw ex;
+		}
+	}
+
+	/**
+	 * Submits the action and returns its result as future, which is completed
+	 * on the thread of the mailbox. Runtime exceptions thrown by the action
+	 * complete the future exceptionally.
+	 *
+	 * @param action
+	 * @return (future of the result of the action)
+	 */
+	public <T> CompletableFuture<T> executeAsync(Supplier<T> action) {
+
+		CompletableFuture<T> result = new CompletableFuture<T>();
+
+		submit(() -> {
+
+			try {
+
+				result.complete(action.get());
+
+			} catch (Throwable ex) {
+
+				result.completeExceptionally(ex);
+			}
+		});
+
+		return result;
+	}
+
+	/**
+	 * Submits the action without waiting for it.
+	 *
+	 * @param action
+	 */
+	public void submit(Runnable action) {
+
+		actions.add(action);
+		schedule();
+	}
+
+	private void schedule() {
+
+		if (!actions.isEmpty() && scheduled.compareAndSet(false, true)) {
+
+			mailboxPool.execute(this::drain);
+		}
+	}
+
+	private void drain() {
+
+		try {
+
+			Runnable action;
+
+			for (int actionNum = 0; actionNum < GameConstants.MAILBOX_TASKS_PER_DRAIN
+					&& (action = actions.poll()) != null; ++actionNum) {
+
+				try {
+
+					action.run();
+
+				} catch (RuntimeException ex) {
+
+					logger.error("Game action failed.", ex);
+				}
+			}
+
+		} finally {
+
+			scheduled.set(false);
+			schedule();
+		}
+	}
+
+}
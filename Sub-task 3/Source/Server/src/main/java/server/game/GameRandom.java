@@ -0,0 +1,174 @@
+package server.game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Random numbers of one game: the map layout, the treasure positions, the fake
+ * enemy positions and the player who acts first. Every component of the game
+ * gets its own stream which is split off when the game is created, so the
+ * numbers of a component only depend on the seed of the game and not on how
+ * many numbers the other components have drawn. The same seed therefore
+ * reproduces the same game for the same requests (replays, benchmarks and the
+ * self-play tournament).
+ *
+ * The numbers are generated like SplittableRandom does (SplitMix64), but the
+ * position of every stream is a single number which can be read and set
+ * again, so that a game restored from a snapshot continues its streams where
+ * they were.
+ *
+ * A running server seeds every game from ThreadLocalRandom, so creating games
+ * needs no shared generator. The streams are not synchronized, they must only
+ * be used inside of the actions executed on their game.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class GameRandom {
+
+	private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+	private final long seed;
+	private final List<GameRandom> streams;
+	private long state;
+
+	public GameRandom() {
+
+		this(ThreadLocalRandom.current().nextLong());
+	}
+
+	/**
+	 * @param seed (random for a running server, fixed to reproduce a game)
+	 */
+	public GameRandom(long seed) {
+
+		this(seed, seed, new ArrayList<GameRandom>());
+	}
+
+	private GameRandom(long seed, long state, List<GameRandom> streams) {
+
+		this.seed = seed;
+		this.state = state;
+		this.streams = streams;
+
+		if (streams != null) {
+			streams.add(this);
+		}
+	}
+
+	/**
+	 * Returns the seed of the game this stream belongs to.
+	 *
+	 * @return long
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Returns a new independent stream for a component of the game.
+	 *
+	 * @return (GameRandom object)
+	 */
+	public GameRandom split() {
+
+		return new GameRandom(seed, mix64(nextState()), streams);
+	}
+
+	/**
+	 * Returns a stream which only depends on the position of this stream and the
+	 * key, without drawing from this stream. Used for numbers which must be the
+	 * same whenever they are calculated again, e.g. for a view of the map which
+	 * is converted again after the game was restored.
+	 *
+	 * @param key
+	 * @return (GameRandom object which is not part of the streams of the game)
+	 */
+	public GameRandom derive(long key) {
+
+		return new GameRandom(seed, mix64(state ^ mix64(key)), null);
+	}
+
+	/**
+	 * Returns the positions of all streams of the game, in the order in which
+	 * they were created.
+	 *
+	 * @return (one position per stream)
+	 */
+	public long[] getStreamStates() {
+
+		long[] states = new long[streams.size()];
+
+		for (int streamNum = 0; streamNum < states.length; ++streamNum) {
+			states[streamNum] = streams.get(streamNum).state;
+		}
+
+		return states;
+	}
+
+	/**
+	 * Sets the positions of all streams of the game, which must have been
+	 * created from the same seed in the same order.
+	 *
+	 * @param states (positions returned by getStreamStates)
+	 */
+	public void restoreStreamStates(long[] states) {
+
+		if (states.length != streams.size())
+			throw new IllegalArgumentException(
+					"Expected " + streams.size() + " random streams but got " + states.length + ".");
+
+		for (int streamNum = 0; streamNum < states.length; ++streamNum) {
+			streams.get(streamNum).state = states[streamNum];
+		}
+	}
+
+	/**
+	 * @param bound (must be positive)
+	 * @return (number between 0 inclusive and bound exclusive)
+	 */
+	public int nextInt(int bound) {
+
+		int number = mix32(nextState());
+		int mask = bound - 1;
+
+		if ((bound & mask) == 0) {
+			return number & mask;
+		}
+
+		// rejects the numbers of the last incomplete range, so that every result
+		// is equally likely
+		for (int unsigned = number >>> 1; unsigned + mask - (number = unsigned % bound) < 0;) {
+			unsigned = mix32(nextState()) >>> 1;
+		}
+
+		return number;
+	}
+
+	public boolean nextBoolean() {
+
+		return mix32(nextState()) < 0;
+	}
+
+	private long nextState() {
+
+		return state += GOLDEN_GAMMA;
+	}
+
+	private static long mix64(long state) {
+
+		long mixed = (state ^ (state >>> 30)) * 0xBF58476D1CE4E5B9L;
+		mixed = (mixed ^ (mixed >>> 27)) * 0x94D049BB133111EBL;
+
+		return mixed ^ (mixed >>> 31);
+	}
+
+	private static int mix32(long state) {
+
+		long mixed = (state ^ (state >>> 33)) * 0x62A9D9ED799705F5L;
+
+		return (int) (((mixed ^ (mixed >>> 28)) * 0xCB24D0A5C88C35B3L) >>> 32);
+	}
+
+}
@@ -0,0 +1,267 @@
+package server.game;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map.Entry;
+
+import MessagesBase.UniqueGameIdentifier;
+import server.enumerations.EMovementType;
+import server.enumerations.EPlayerStateValue;
+import server.map.Coordinate;
+import server.map.Map;
+import server.map.MapController;
+import server.map.PlayerMap;
+import server.player.Player;
+import server.player.PlayerController;
+
+/**
+ * Converts a running game into bytes and back. Only the state which can not be
+ * calculated again is written: the seed and the positions of the random
+ * streams, the game round and state version, the players with the fake ids
+ * shown to their enemy, the half maps (in the order in which they were
+ * received) and the current map with its version. Cached responses and map views are not written, they are
+ * created again by the next requests.
+ *
+ * A game is encoded as:
+ * <ul>
+ * <li>game id, seed, number of random streams and their positions</li>
+ * <li>running time, game round, state version, finished flag</li>
+ * <li>number of players, then per player: player, hidden player id</li>
+ * <li>first player chosen flag</li>
+ * <li>number of half maps, then per half map: player id, map</li>
+ * <li>current map flag and map, map version</li>
+ * </ul>
+ * Strings are written as length and UTF-8 bytes (length -1 for null), enum
+ * values as ordinal (-1 for null).
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class GameSnapshotCodec {
+
+	private static final EPlayerStateValue[] PLAYER_STATE_VALUES = EPlayerStateValue.values();
+	private static final EMovementType[] MOVEMENT_VALUES = EMovementType.values();
+	private static final int NULL_VALUE = -1;
+	private static final int INITIAL_BUFFER_SIZE = 512;
+
+	private GameSnapshotCodec() {
+
+	}
+
+	/**
+	 * Encodes the game. Must only be used inside of an action executed on the
+	 * game, so that no request changes the game meanwhile.
+	 *
+	 * @param game
+	 * @return (bytes of the game)
+	 */
+	public static byte[] encode(Game game) {
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+
+		try (DataOutputStream output = new DataOutputStream(bytes)) {
+
+			GameController gameController = game.getGameController();
+			PlayerController playerController = gameController.getPlayerController();
+			MapController mapController = gameController.getMapController();
+
+			writeString(output, game.getGameIdentifier().getUniqueGameID());
+			output.writeLong(game.getSeed());
+
+			long[] streamStates = game.getRandom().getStreamStates();
+			output.writeByte(streamStates.length);
+
+			for (long streamState : streamStates) {
+				output.writeLong(streamState);
+			}
+
+			output.writeLong(game.getRunningTime());
+			output.writeInt(game.getGameRound());
+			output.writeLong(gameController.getGameState().getStateVersion());
+			output.writeBoolean(gameController.isFinished());
+
+			output.writeByte(playerController.getPlayers().size());
+
+			for (Player player : playerController.getPlayers().values()) {
+
+				writePlayer(output, player);
+				writeString(output, playerController.getHiddenPlayerID(player.getPlayerID()));
+			}
+
+			output.writeBoolean(playerController.isFirstPlayerChoosen());
+
+			output.writeByte(mapController.getHalfMaps().size());
+
+			for (Entry<String, PlayerMap> halfMap : mapController.getHalfMaps().entrySet()) {
+
+				writeString(output, halfMap.getKey());
+				halfMap.getValue().getMap().writeTo(output);
+			}
+
+			output.writeBoolean(mapController.getMap() != null);
+
+			if (mapController.getMap() != null) {
+				mapController.getMap().writeTo(output);
+			}
+
+			output.writeLong(mapController.getMapVersion());
+
+		} catch (IOException e) {
+
+			throw new UncheckedIOException("The game could not be encoded.", e);
+		}
+
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Decodes a game which was written with encode. The game is not added to the
+	 * running games. Its random streams continue where they were when the game
+	 * was encoded.
+	 *
+	 * @param buffer (positioned at the beginning of the game)
+	 * @return (Game object)
+	 */
+	public static Game decode(ByteBuffer buffer) {
+
+		UniqueGameIdentifier gameIdentifier = new UniqueGameIdentifier(readString(buffer));
+		Game game = new Game(gameIdentifier, new GameRandom(buffer.getLong()));
+		long[] streamStates = new long[buffer.get()];
+
+		for (int streamNum = 0; streamNum < streamStates.length; ++streamNum) {
+			streamStates[streamNum] = buffer.getLong();
+		}
+
+		game.getRandom().restoreStreamStates(streamStates);
+
+		GameController gameController = game.getGameController();
+		PlayerController playerController = gameController.getPlayerController();
+
+		game.setRunningTime(buffer.getLong());
+		game.setGameRound(buffer.getInt());
+		gameController.getGameState().restoreStateVersion(buffer.getLong());
+		gameController.setFinished(buffer.get() != 0);
+
+		int playersNum = buffer.get();
+
+		for (int playerNum = 0; playerNum < playersNum; ++playerNum) {
+
+			Player player = readPlayer(buffer);
+			playerController.restorePlayer(player, readString(buffer));
+		}
+
+		playerController.setFirstPlayerChoosen(buffer.get() != 0);
+
+		int halfMapsNum = buffer.get();
+		LinkedHashMap<String, PlayerMap> halfMaps = new LinkedHashMap<String, PlayerMap>();
+
+		for (int halfMapNum = 0; halfMapNum < halfMapsNum; ++halfMapNum) {
+
+			String playerID = readString(buffer);
+			halfMaps.put(playerID, new PlayerMap(playerController.getPlayers().get(playerID), Map.readFrom(buffer)));
+		}
+
+		Map map = buffer.get() != 0 ? Map.readFrom(buffer) : null;
+
+		gameController.getMapController().restoreMaps(map, halfMaps, buffer.getLong());
+
+		return game;
+	}
+
+	private static void writePlayer(DataOutput output, Player player) throws IOException {
+
+		writeString(output, player.getStudentFirstName());
+		writeString(output, player.getStudentLastName());
+		writeString(output, player.getStudentID());
+		writeString(output, player.getPlayerID());
+		writeEnum(output, player.getCurrentState());
+		output.writeBoolean(player.isHasCollectedTreasure());
+		writeCoordinate(output, player.getTreasurePosition());
+		writeCoordinate(output, player.getCurrentPosition());
+		writeCoordinate(output, player.getCastePosition());
+		writeEnum(output, player.getCurrentMoveDirection());
+		output.writeInt(player.getCurrentMoveProgress());
+	}
+
+	private static Player readPlayer(ByteBuffer buffer) {
+
+		Player player = new Player(readString(buffer), readString(buffer), readString(buffer), readString(buffer));
+
+		player.setCurrentState(readEnum(buffer, PLAYER_STATE_VALUES));
+		player.setHasCollectedTreasure(buffer.get() != 0);
+		player.setTreasurePosition(readCoordinate(buffer));
+		player.setCurrentPosition(readCoordinate(buffer));
+		player.setCastePosition(readCoordinate(buffer));
+		player.setCurrentMoveDirection(readEnum(buffer, MOVEMENT_VALUES));
+		player.setCurrentMoveProgress(buffer.getInt());
+
+		return player;
+	}
+
+	private static void writeCoordinate(DataOutput output, Coordinate coordinate) throws IOException {
+
+		output.writeBoolean(coordinate != null);
+
+		if (coordinate != null) {
+
+			output.writeShort(coordinate.getX());
+			output.writeShort(coordinate.getY());
+		}
+	}
+
+	private static Coordinate readCoordinate(ByteBuffer buffer) {
+
+		if (buffer.get() == 0) {
+			return null;
+		}
+
+		return new Coordinate(buffer.getShort(), buffer.getShort());
+	}
+
+	private static void writeEnum(DataOutput output, Enum<?> value) throws IOException {
+
+		output.writeByte(value == null ? NULL_VALUE : value.ordinal());
+	}
+
+	private static <T> T readEnum(ByteBuffer buffer, T[] values) {
+
+		int ordinal = buffer.get();
+
+		return ordinal == NULL_VALUE ? null : values[ordinal];
+	}
+
+	private static void writeString(DataOutput output, String value) throws IOException {
+
+		if (value == null) {
+
+			output.writeInt(NULL_VALUE);
+			return;
+		}
+
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+
+		output.writeInt(bytes.length);
+		output.write(bytes);
+	}
+
+	private static String readString(ByteBuffer buffer) {
+
+		int length = buffer.getInt();
+
+		if (length == NULL_VALUE) {
+			return null;
+		}
+
+		byte[] bytes = new byte[length];
+		buffer.get(bytes);
+
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+}
@@ -0,0 +1,296 @@
+package server.game;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import server.metrics.ServerMetrics;
+
+/**
+ * Snapshot of all running games in a binary file, so that the games survive a
+ * restart of the server and the clients can continue with their game and
+ * player ids. The snapshot is written periodically and on shutdown, and read
+ * once when the server starts.
+ *
+ * The file consists of a header (magic number, format version, creation time,
+ * number of games, length and CRC32 checksum of the body) and a body with the
+ * games, each written as length and bytes of GameSnapshotCodec. The file is
+ * written and read with a single buffer through its channel and is not memory
+ * mapped, because a mapping stays open after the channel is closed and would
+ * block renaming and truncating the file on Windows until it is garbage
+ * collected. A new snapshot is written into a temporary file, forced to the disk
+ * and then renamed over the old snapshot, so a crash while writing always
+ * leaves a complete snapshot behind. A file with a wrong checksum is ignored.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class GameSnapshotFile implements AutoCloseable {
+
+	private static Logger logger = LoggerFactory.getLogger(GameSnapshotFile.class);
+
+	private static final int MAGIC = 0x47534E50;
+	private static final int FORMAT_VERSION = 2;
+	private static final int HEADER_SIZE = 2 * Integer.BYTES + Long.BYTES + 2 * Integer.BYTES + Long.BYTES;
+	private static final String TEMPORARY_FILE_SUFFIX = ".tmp";
+
+	private final Path file;
+	private final Path temporaryFile;
+	private volatile boolean restored;
+	private volatile int lastWrittenGamesNum;
+	private volatile int lastWrittenBytes;
+	private volatile long lastWriteMicros;
+	private volatile int restoredGamesNum;
+	private volatile long restoreMicros;
+
+	/**
+	 * Instantiates a snapshot file. Nothing is read or written until
+	 * restoreGames or writeGames is called.
+	 *
+	 * @param file (path of the snapshot)
+	 */
+	public GameSnapshotFile(Path file) {
+
+		this.file = file;
+		this.temporaryFile = file.resolveSibling(file.getFileName() + TEMPORARY_FILE_SUFFIX);
+	}
+
+	/**
+	 * Registers the gauges of the snapshot in the server metrics.
+	 */
+	public void registerGauges() {
+
+		ServerMetrics.registerGauge("snapshot.lastWrittenGames", () -> lastWrittenGamesNum);
+		ServerMetrics.registerGauge("snapshot.lastWrittenBytes", () -> lastWrittenBytes);
+		ServerMetrics.registerGauge("snapshot.lastWriteMicros", () -> lastWriteMicros);
+		ServerMetrics.registerGauge("snapshot.restoredGames", () -> restoredGamesNum);
+		ServerMetrics.registerGauge("snapshot.restoreMicros", () -> restoreMicros);
+	}
+
+	/**
+	 * Adds all games of the snapshot to the running games. A missing or damaged
+	 * snapshot is logged and the server starts without games. After this call the
+	 * snapshot is written again when the file is closed.
+	 *
+	 * @return (number of restored games)
+	 */
+	public synchronized int restoreGames() {
+
+		long startNanos = System.nanoTime();
+		int gamesNum = 0;
+
+		restored = true;
+
+		for (Game game : readGames()) {
+
+			if (RunningGames.restoreGame(game)) {
+				++gamesNum;
+			} else {
+				logger.warn("Game from snapshot not restored. ID: {}", game.getGameIdentifier().getUniqueGameID());
+			}
+		}
+
+		restoredGamesNum = gamesNum;
+		restoreMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+
+		logger.info("Games restored from snapshot. Games: {} Time (micros): {}", gamesNum, restoreMicros);
+
+		return gamesNum;
+	}
+
+	/**
+	 * Reads the games of the snapshot without adding them to the running games.
+	 *
+	 * @return (List of Game objects, empty if the snapshot is missing or damaged)
+	 */
+	public List<Game> readGames() {
+
+		List<Game> games = new ArrayList<Game>();
+
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+
+			ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(channel.size(), Integer.MAX_VALUE));
+
+			while (buffer.hasRemaining()) {
+
+				if (channel.read(buffer) < 0)
+					break;
+			}
+
+			buffer.flip();
+
+			if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC
+					|| buffer.getInt() != FORMAT_VERSION) {
+
+				logger.warn("The game snapshot {} has an unknown format and is ignored.", file);
+				return games;
+			}
+
+			buffer.getLong();
+			int gamesNum = buffer.getInt();
+			int bodyLength = buffer.getInt();
+			long checksum = buffer.getLong();
+
+			if (bodyLength != buffer.remaining() || checksum != calculateChecksum(buffer.duplicate())) {
+
+				logger.warn("The game snapshot {} is damaged and is ignored.", file);
+				return games;
+			}
+
+			for (int gameNum = 0; gameNum < gamesNum; ++gameNum) {
+
+				int gameLength = buffer.getInt();
+				ByteBuffer gameBuffer = buffer.slice();
+				gameBuffer.limit(gameLength);
+
+				games.add(GameSnapshotCodec.decode(gameBuffer));
+				buffer.position(buffer.position() + gameLength);
+			}
+
+		} catch (NoSuchFileException e) {
+
+			logger.info("No game snapshot found at {}.", file);
+
+		} catch (IOException | RuntimeException e) {
+
+			logger.error("The game snapshot " + file + " could not be read.", e);
+			games.clear();
+		}
+
+		return games;
+	}
+
+	/**
+	 * Writes all running games into a new snapshot which replaces the old one.
+	 * Every game is encoded inside of an action of the game, so the snapshot
+	 * contains a consistent state of each game.
+	 *
+	 * @return (number of written games)
+	 */
+	public synchronized int writeGames() {
+
+		long startNanos = System.nanoTime();
+		List<byte[]> encodedGames = new ArrayList<byte[]>(RunningGames.getGamesNum());
+		int bodyLength = 0;
+
+		for (Game game : RunningGames.getGamesInCreationOrder()) {
+
+			byte[] encodedGame = game.execute(() -> GameSnapshotCodec.encode(game));
+
+			encodedGames.add(encodedGame);
+			bodyLength += Integer.BYTES + encodedGame.length;
+		}
+
+		try {
+
+			writeFile(encodedGames, bodyLength);
+
+		} catch (IOException e) {
+
+			logger.error("The game snapshot " + file + " could not be written.", e);
+			return 0;
+		}
+
+		lastWrittenGamesNum = encodedGames.size();
+		lastWrittenBytes = HEADER_SIZE + bodyLength;
+		lastWriteMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+
+		logger.debug("Game snapshot written. Games: {} Bytes: {}", lastWrittenGamesNum, lastWrittenBytes);
+
+		return encodedGames.size();
+	}
+
+	private void writeFile(List<byte[]> encodedGames, int bodyLength) throws IOException {
+
+		try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+
+			ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + bodyLength);
+			ByteBuffer body = buffer.duplicate();
+			body.position(HEADER_SIZE);
+
+			for (byte[] encodedGame : encodedGames) {
+
+				body.putInt(encodedGame.length);
+				body.put(encodedGame);
+			}
+
+			body.position(HEADER_SIZE);
+
+			buffer.putInt(MAGIC);
+			buffer.putInt(FORMAT_VERSION);
+			buffer.putLong(System.currentTimeMillis());
+			buffer.putInt(encodedGames.size());
+			buffer.putInt(bodyLength);
+			buffer.putLong(calculateChecksum(body));
+			buffer.rewind();
+
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+
+			channel.force(true);
+		}
+
+		try {
+
+			Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+		} catch (AtomicMoveNotSupportedException e) {
+
+			Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	private long calculateChecksum(ByteBuffer body) {
+
+		CRC32 checksum = new CRC32();
+		checksum.update(body);
+
+		return checksum.getValue();
+	}
+
+	/**
+	 * Writes the final snapshot on shutdown, if the games were restored from this
+	 * file when the server started.
+	 */
+	@Override
+	public synchronized void close() {
+
+		if (restored) {
+
+			writeGames();
+			restored = false;
+		}
+	}
+
+	public int getLastWrittenGamesNum() {
+		return lastWrittenGamesNum;
+	}
+
+	public int getLastWrittenBytes() {
+		return lastWrittenBytes;
+	}
+
+	public int getRestoredGamesNum() {
+		return restoredGamesNum;
+	}
+
+	public long getRestoreMicros() {
+		return restoreMicros;
+	}
+
+}
@@ -0,0 +1,113 @@
+package server.game;
+
+import java.util.HashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import server.enumerations.EWireFormat;
+
+/**
+ * Cache of the serialized game state responses of one game. For every player
+ * the XML bytes of the last response are stored together with the game state
+ * id and the map version they were created for. As long as both did not change
+ * the next state request of the player is answered with the stored bytes,
+ * without converting and marshalling the game state again.
+ * 
+ * The cache is only accessed by the serialized actions of its game, so a
+ * HashMap is sufficient. The hit and miss counters are shared by all games.
+ * 
+ * @author Nemanja Srdanovic
+ *
+ */
+public class GameStateCache {
+
+	private static final LongAdder hits = new LongAdder();
+	private static final LongAdder misses = new LongAdder();
+
+	private HashMap<String, CachedGameState> responses;
+	private volatile long cachedBytes;
+
+	private static class CachedGameState {
+
+		private final String gameStateID;
+		private final long mapVersion;
+		private final EWireFormat format;
+		private final byte[] response;
+
+		private CachedGameState(String gameStateID, long mapVersion, EWireFormat format, byte[] response) {
+
+			this.gameStateID = gameStateID;
+			this.mapVersion = mapVersion;
+			this.format = format;
+			this.response = response;
+		}
+	}
+
+	public GameStateCache() {
+
+		this.responses = new HashMap<String, CachedGameState>();
+		this.cachedBytes = 0;
+	}
+
+	/**
+	 * Returns the stored response of the player if it was created for the given
+	 * game state id, map version and format.
+	 * 
+	 * @param playerID
+	 * @param gameStateID
+	 * @param mapVersion
+	 * @param format
+	 * @return (bytes of the response or null)
+	 */
+	public byte[] getResponse(String playerID, String gameStateID, long mapVersion, EWireFormat format) {
+
+		CachedGameState cachedGameState = responses.get(playerID);
+
+		if (cachedGameState != null && cachedGameState.mapVersion == mapVersion
+				&& cachedGameState.format == format && cachedGameState.gameStateID.equals(gameStateID)) {
+
+			hits.increment();
+			return cachedGameState.response;
+		}
+
+		misses.increment();
+		return null;
+	}
+
+	public void putResponse(String playerID, String gameStateID, long mapVersion, EWireFormat format,
+			byte[] response) {
+
+		CachedGameState replaced = responses.put(playerID,
+				new CachedGameState(gameStateID, mapVersion, format, response));
+
+		cachedBytes += response.length - (replaced == null ? 0 : replaced.response.length);
+	}
+
+	/**
+	 * Removes all stored responses. Is called when a change of the game state was
+	 * detected.
+	 */
+	public void invalidate() {
+
+		responses.clear();
+		cachedBytes = 0;
+	}
+
+	/**
+	 * Returns the number of bytes held by this cache. Can be called from any
+	 * thread.
+	 * 
+	 * @return (bytes)
+	 */
+	public long getCachedBytes() {
+		return cachedBytes;
+	}
+
+	public static long getHits() {
+		return hits.sum();
+	}
+
+	public static long getMisses() {
+		return misses.sum();
+	}
+
+}
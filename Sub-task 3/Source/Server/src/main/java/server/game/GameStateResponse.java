@@ -0,0 +1,164 @@
+package server.game;
+
+import server.enumerations.EWireFormat;
+
+/**
+ * Game state response of one player together with its entity tag. The entity
+ * tag is built from the game state id and the map version, so it changes
+ * exactly when the content of the response changes. If the client already
+ * holds the response with the same entity tag, no body is created.
+ *
+ * The entity tags are weak, because large responses are compressed with gzip
+ * and a strong tag would have to differ between the compressed and the
+ * uncompressed body.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class GameStateResponse {
+
+	private static final String WEAK_ETAG_PREFIX = "W/";
+	private static final String ANY_ETAG = "*";
+
+	private final String gameStateID;
+	private final String eTag;
+	private final String mapDeltaBase;
+	private final byte[] body;
+
+	private GameStateResponse(String gameStateID, String eTag, String mapDeltaBase, byte[] body) {
+
+		this.gameStateID = gameStateID;
+		this.eTag = eTag;
+		this.mapDeltaBase = mapDeltaBase;
+		this.body = body;
+	}
+
+	/**
+	 * Creates a response with the serialized game state as body.
+	 *
+	 * @param gameStateID
+	 * @param eTag
+	 * @param body        (bytes of the response envelope)
+	 * @return (GameStateResponse object)
+	 */
+	public static GameStateResponse modified(String gameStateID, String eTag, byte[] body) {
+
+		return new GameStateResponse(gameStateID, eTag, null, body);
+	}
+
+	/**
+	 * Creates a response whose map only contains the nodes which changed since the
+	 * given base game state.
+	 *
+	 * @param gameStateID
+	 * @param eTag
+	 * @param mapDeltaBase (game state id the map changes are based on)
+	 * @param body         (bytes of the response envelope)
+	 * @return (GameStateResponse object)
+	 */
+	public static GameStateResponse modifiedMapDelta(String gameStateID, String eTag, String mapDeltaBase,
+			byte[] body) {
+
+		return new GameStateResponse(gameStateID, eTag, mapDeltaBase, body);
+	}
+
+	/**
+	 * Creates a response without body for a client which already holds the game
+	 * state with the given entity tag.
+	 *
+	 * @param gameStateID
+	 * @param eTag
+	 * @return (GameStateResponse object)
+	 */
+	public static GameStateResponse notModified(String gameStateID, String eTag) {
+
+		return new GameStateResponse(gameStateID, eTag, null, null);
+	}
+
+	/**
+	 * Creates the weak entity tag of a game state.
+	 *
+	 * @param gameStateID
+	 * @param mapVersion
+	 * @return (e.g. W/"3-2")
+	 */
+	public static String createETag(String gameStateID, long mapVersion) {
+
+		return WEAK_ETAG_PREFIX + "\"" + gameStateID + "-" + mapVersion + "\"";
+	}
+
+	/**
+	 * Creates the weak entity tag of a game state in the given format. The XML
+	 * format keeps the tag of createETag, the compact formats get their own tags
+	 * because their bodies differ.
+	 *
+	 * @param gameStateID
+	 * @param mapVersion
+	 * @param format
+	 * @return (e.g. W/"3-2" or W/"3-2-binary")
+	 */
+	public static String createETag(String gameStateID, long mapVersion, EWireFormat format) {
+
+		if (format == EWireFormat.Xml)
+			return createETag(gameStateID, mapVersion);
+
+		return WEAK_ETAG_PREFIX + "\"" + gameStateID + "-" + mapVersion + "-" + format.name().toLowerCase() + "\"";
+	}
+
+	/**
+	 * Checks if the value of an If-None-Match header contains the given entity
+	 * tag. The header can contain a list of weak or strong tags or "*", which are
+	 * compared weakly (without the weak prefix).
+	 *
+	 * @param ifNoneMatch (header value, can be null)
+	 * @param eTag
+	 * @return (true if the client already holds the game state)
+	 */
+	public static boolean matches(String ifNoneMatch, String eTag) {
+
+		if (ifNoneMatch == null || ifNoneMatch.isEmpty())
+			return false;
+
+		String opaqueTag = removeWeakPrefix(eTag);
+
+		for (String clientETag : ifNoneMatch.split(",")) {
+
+			clientETag = removeWeakPrefix(clientETag.trim());
+
+			if (clientETag.equals(ANY_ETAG) || clientETag.equals(opaqueTag))
+				return true;
+		}
+
+		return false;
+	}
+
+	private static String removeWeakPrefix(String eTag) {
+
+		return eTag.startsWith(WEAK_ETAG_PREFIX) ? eTag.substring(WEAK_ETAG_PREFIX.length()) : eTag;
+	}
+
+	public String getGameStateID() {
+		return gameStateID;
+	}
+
+	public String getETag() {
+		return eTag;
+	}
+
+	public String getMapDeltaBase() {
+		return mapDeltaBase;
+	}
+
+	public boolean isMapDelta() {
+		return mapDeltaBase != null;
+	}
+
+	public byte[] getBody() {
+		return body;
+	}
+
+	public boolean isModified() {
+		return body != null;
+	}
+
+}
@@ -0,0 +1,65 @@
+package server.game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Game state requests of one game which are parked until the game state
+ * changes. A waiter is checked again every time an action changed the game
+ * (player registered, half map received, move executed) and is removed as
+ * soon as it returns true, which means that it has answered its request.
+ *
+ * The waiters are only added, removed and notified from actions executed on
+ * the game, so the list itself does not need to be thread safe.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class GameStateWaiters {
+
+	private final List<BooleanSupplier> waiters;
+
+	public GameStateWaiters() {
+
+		this.waiters = new ArrayList<BooleanSupplier>();
+	}
+
+	/**
+	 * Parks a waiter until the next change of the game state.
+	 *
+	 * @param waiter (returns true if the request was answered)
+	 */
+	public void addWaiter(BooleanSupplier waiter) {
+
+		waiters.add(waiter);
+	}
+
+	/**
+	 * Removes a waiter whose request was answered in another way (e.g. timed out
+	 * or the connection was closed).
+	 *
+	 * @param waiter
+	 */
+	public void removeWaiter(BooleanSupplier waiter) {
+
+		waiters.remove(waiter);
+	}
+
+	/**
+	 * Is called after an action changed the game, so that every parked request
+	 * can check if its game state changed.
+	 */
+	public void notifyWaiters() {
+
+		if (!waiters.isEmpty()) {
+
+			waiters.removeIf(BooleanSupplier::getAsBoolean);
+		}
+	}
+
+	public int getWaitersNum() {
+		return waiters.size();
+	}
+
+}
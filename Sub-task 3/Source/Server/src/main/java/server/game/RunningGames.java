@@ -1,16 +1,27 @@
 package server.game;
 
-import java.util.LinkedHashMap;
+import java.util.Collection;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import server.exceptions.GameCapacityException;
+import server.metrics.ServerMetrics;
 import server.rules.GameConstants;
 
 /**
+ * Registry of all games which are currently running on the server. It is
+ * accessed by every request thread and by the scheduler at the same time, so
+ * all operations are lock-free: lookups go directly to a ConcurrentHashMap and
+ * the creation order, which is needed to remove the oldest game, is kept in a
+ * ConcurrentSkipListMap sorted by a creation sequence number. Idle games are
+ * found with a timing wheel (see GameExpiryWheel). The ids of new games are
+ * issued by a GameIDAllocator and released again when the game is removed.
  *
- * 
  * @author Nemanja Srdanovic
  *
  */
@@ -18,50 +29,279 @@ public class RunningGames {
 
 	private static Logger logger = LoggerFactory.getLogger(RunningGames.class);
 
-	private static LinkedHashMap<String, Game> games;
+	private static final ConcurrentHashMap<String, Game> games;
+	private static final ConcurrentSkipListMap<Long, Game> gamesByCreationOrder;
+	private static final AtomicLong creationSequence;
+	private static final GameExpiryWheel expiryWheel;
+	private static final GameIDAllocator gameIDAllocator;
+	private static final GameAdmission admission;
+	private static volatile GameExpiryReport lastExpiryReport;
 
 	private RunningGames() {
 
 	}
 
 	static {
-		games = new LinkedHashMap<String, Game>();
+		games = new ConcurrentHashMap<String, Game>(GameConstants.MAX_PARALLEL_GAME_NUM * 2);
+		gamesByCreationOrder = new ConcurrentSkipListMap<Long, Game>();
+		creationSequence = new AtomicLong();
+		expiryWheel = new GameExpiryWheel(GameConstants.TIME_MILLIS_AFTER_WHICH_GAME_EXPIRES,
+				GameConstants.TIME_MILLIS_TO_CHECK_FOR_EXPIRED_GAMES, System.currentTimeMillis());
+		lastExpiryReport = new GameExpiryReport();
+		gameIDAllocator = new GameIDAllocator();
+		admission = new GameAdmission(
+				Integer.getInteger(GameConstants.GAME_CAPACITY_PROPERTY, GameConstants.MAX_PARALLEL_GAME_NUM),
+				GameConstants.ADMISSION_IDLE_MILLIS);
+
+		ServerMetrics.registerGauge("games.running", () -> games.size());
+		ServerMetrics.registerGauge("games.usedIDs", gameIDAllocator::getUsedIDsNum);
+		ServerMetrics.registerGauge("games.capacity", admission::getCapacity);
+		ServerMetrics.registerGauge("games.usedSlots", admission::getUsedSlotsNum);
+		ServerMetrics.registerGauge("games.pendingAdmissions", admission::getPendingAdmissionsNum);
+		ServerMetrics.registerGauge("games.admitted", admission::getAdmittedGamesNum);
+		ServerMetrics.registerGauge("games.rejected", admission::getRejectedGamesNum);
+		ServerMetrics.registerGauge("games.evictedFinished", admission::getEvictedFinishedGamesNum);
+		ServerMetrics.registerGauge("games.evictedIdle", admission::getEvictedIdleGamesNum);
+	}
+
+	/**
+	 * Returns a new game id which is not used by any running game. The id stays
+	 * reserved until the game is removed.
+	 *
+	 * @return (five character game id)
+	 */
+	public static String allocateGameID() {
+		return gameIDAllocator.allocate();
 	}
 
-	public static LinkedHashMap<String, Game> getGames() {
-		return games;
+	/**
+	 * Releases an id returned by allocateGameID whose game could not be added.
+	 *
+	 * @param gameID
+	 */
+	public static void releaseGameID(String gameID) {
+		gameIDAllocator.release(gameID);
 	}
 
-	private static void setGames(LinkedHashMap<String, Game> games) {
-		RunningGames.games = games;
+	/**
+	 * Returns the number of game ids which are currently issued.
+	 *
+	 * @return (Number)
+	 */
+	public static int getUsedGameIDsNum() {
+		return gameIDAllocator.getUsedIDsNum();
 	}
 
-	public static void removeExpiredGames() {
+	/**
+	 * Checks if a new game could be admitted, see GameAdmission.
+	 *
+	 * @throws GameCapacityException (if every game slot is used by an active game)
+	 */
+	public static void checkAdmission() {
+		admission.checkAdmission(games.values());
+	}
 
-		LinkedHashMap<String, Game> newGameList = new LinkedHashMap<>();
+	public static GameAdmission getAdmission() {
+		return admission;
+	}
 
-		for (Entry<String, Game> entry : RunningGames.getGames().entrySet()) {
+	/**
+	 * Returns the running game with the given id or null if no such game exists.
+	 *
+	 * @param gameID
+	 * @return (Game object or null)
+	 */
+	public static Game getGame(String gameID) {
+		return games.get(gameID);
+	}
 
-			if (!(System.currentTimeMillis()
-					- entry.getValue().getRunningTime() >= GameConstants.TIME_MILLIS_AFTER_WHICH_GAME_EXPIRES)) {
+	/**
+	 * Returns the number of currently running games.
+	 *
+	 * @return (Number)
+	 */
+	public static int getGamesNum() {
+		return games.size();
+	}
 
-				newGameList.put(entry.getKey(), entry.getValue());
+	/**
+	 * Atomically adds a new game. If a game with the same id is already running
+	 * the registry stays unchanged and false is returned, so that a running game
+	 * is never overwritten. The game takes one of the game slots, if all slots are
+	 * used by active games it is not added.
+	 *
+	 * @param game
+	 * @return (true if added, false if the game id is already in use)
+	 * @throws GameCapacityException (if every game slot is used by an active game)
+	 */
+	public static boolean addGame(Game game) {
 
-			}
+		String gameID = game.getGameIdentifier().getUniqueGameID();
 
+		admission.acquireSlot(games.values());
+
+		if (games.putIfAbsent(gameID, game) != null) {
+
+			admission.releaseSlot();
+			return false;
 		}
 
-		RunningGames.setGames(newGameList);
+		register(game);
 
+		return true;
 	}
 
-	public static void removeOldestGame() {
+	/**
+	 * Adds a game which was restored from a snapshot under its old id. The id is
+	 * reserved in the allocator and the game takes a game slot like a new game.
+	 * The idle time of the game starts again, so that the clients have the full
+	 * expiry time to continue after a restart of the server.
+	 *
+	 * @param game
+	 * @return (false if the id is already in use or no game slot is free)
+	 */
+	public static boolean restoreGame(Game game) {
+
+		String gameID = game.getGameIdentifier().getUniqueGameID();
+
+		if (!gameIDAllocator.reserve(gameID)) {
+			return false;
+		}
+
+		try {
+
+			admission.acquireSlot(games.values());
+
+		} catch (GameCapacityException e) {
+
+			gameIDAllocator.release(gameID);
+			return false;
+		}
+
+		if (games.putIfAbsent(gameID, game) != null) {
+
+			gameIDAllocator.release(gameID);
+			admission.releaseSlot();
+			return false;
+		}
+
+		game.updateLastActivity();
+		register(game);
+
+		return true;
+	}
+
+	private static void register(Game game) {
+
+		long sequence = creationSequence.incrementAndGet();
+		game.setCreationSequence(sequence);
+		gamesByCreationOrder.put(sequence, game);
+		expiryWheel.schedule(game);
+	}
+
+	/**
+	 * Returns the running games, the oldest game first. Games which are added or
+	 * removed while iterating may or may not be contained.
+	 *
+	 * @return (Collection of Game objects)
+	 */
+	public static Collection<Game> getGamesInCreationOrder() {
+		return gamesByCreationOrder.values();
+	}
 
-		Entry<String, Game> entry = getGames().entrySet().iterator().next();
+	/**
+	 * Atomically removes the given game. Nothing is removed if the game id is
+	 * meanwhile used by another game object.
+	 *
+	 * @param game
+	 * @return (true if the game was removed by this call)
+	 */
+	public static boolean removeGame(Game game) {
 
-		getGames().remove(entry.getKey());
+		if (!removeIdleGame(game)) {
+			return false;
+		}
+
+		expiryWheel.cancel(game);
+
+		return true;
+	}
+
+	/**
+	 * Removes a game which was already taken out of the expiry wheel.
+	 *
+	 * @param game
+	 * @return (true if the game was removed by this call)
+	 */
+	protected static boolean removeIdleGame(Game game) {
+
+		if (!games.remove(game.getGameIdentifier().getUniqueGameID(), game)) {
+			return false;
+		}
+
+		gamesByCreationOrder.remove(game.getCreationSequence(), game);
+		gameIDAllocator.release(game.getGameIdentifier().getUniqueGameID());
+		admission.releaseSlot();
+
+		return true;
+	}
+
+	/**
+	 * Removes all games which did not receive a request for the expiry time. Only
+	 * the games of the wheel slots which passed since the last call are checked,
+	 * so the cost does not depend on the number of running games.
+	 *
+	 * @return (number of removed games and their estimated size)
+	 */
+	public static GameExpiryReport removeExpiredGames() {
+
+		GameExpiryReport report = expiryWheel.expireIdleGames(System.currentTimeMillis());
+		lastExpiryReport = report;
+
+		if (report.getExpiredGamesNum() > 0) {
+
+			logger.info("Idle games removed. Games: {} Reclaimed bytes (estimated): {}", report.getExpiredGamesNum(),
+					report.getReclaimedBytes());
+		}
+
+		return report;
+	}
+
+	/**
+	 * Returns the result of the last expiry sweep.
+	 *
+	 * @return (GameExpiryReport object)
+	 */
+	public static GameExpiryReport getLastExpiryReport() {
+		return lastExpiryReport;
+	}
+
+	/**
+	 * Removes the game which was created first. If two threads call this method at
+	 * the same time, each of them removes a different game.
+	 *
+	 * @return (the removed game or null if no game is running)
+	 */
+	public static Game removeOldestGame() {
+
+		Entry<Long, Game> entry;
+
+		while ((entry = gamesByCreationOrder.pollFirstEntry()) != null) {
+
+			Game game = entry.getValue();
+
+			if (games.remove(game.getGameIdentifier().getUniqueGameID(), game)) {
+
+				expiryWheel.cancel(game);
+				gameIDAllocator.release(game.getGameIdentifier().getUniqueGameID());
+				admission.releaseSlot();
+				logger.info("Oldest game removed. ID: {}", game.getGameIdentifier().getUniqueGameID());
+
+				return game;
+			}
+		}
 
-		logger.info("Oldest game removed. ID: {}", entry.getKey());
+		return null;
 
 	}
 
@@ -0,0 +1,58 @@
+package server.journal;
+
+import server.enumerations.EGameEventType;
+
+/**
+ * One entry of the game journal. The payload depends on the type of the event
+ * (see GameEvents) and is null if the event has none.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class GameEvent {
+
+	private final String gameID;
+	private final EGameEventType eventType;
+	private final String playerID;
+	private final String payload;
+	private final long timeMillis;
+
+	public GameEvent(String gameID, EGameEventType eventType, String playerID, String payload) {
+
+		this.gameID = gameID;
+		this.eventType = eventType;
+		this.playerID = playerID;
+		this.payload = payload;
+		this.timeMillis = System.currentTimeMillis();
+	}
+
+	public String getGameID() {
+		return gameID;
+	}
+
+	public EGameEventType getEventType() {
+		return eventType;
+	}
+
+	public String getPlayerID() {
+		return playerID;
+	}
+
+	public String getPayload() {
+		return payload;
+	}
+
+	public long getTimeMillis() {
+		return timeMillis;
+	}
+
+	/**
+	 * Implements a working toString method for this object to ease debugging.
+	 */
+	@Override
+	public String toString() {
+		return "GameEvent [gameID=" + gameID + ", eventType=" + eventType + ", playerID=" + playerID + ", payload="
+				+ payload + "]";
+	}
+
+}
@@ -0,0 +1,153 @@
+package server.journal;
+
+import java.util.Collection;
+
+import MessagesBase.HalfMap;
+import MessagesBase.HalfMapNode;
+import MessagesBase.PlayerMove;
+import MessagesBase.PlayerRegistration;
+import server.enumerations.EGameEventType;
+import server.metrics.ServerMetrics;
+import server.player.Player;
+import server.rules.GameConstants;
+
+/**
+ * Creates the events of the game journal. The events are only recorded after
+ * the server has started the journal, before that (and in benchmarks) all
+ * calls are ignored.
+ *
+ * The payloads are short texts:
+ * <ul>
+ * <li>GameCreated: the seed of the random numbers of the game</li>
+ * <li>PlayerRegistered: "first name;last name;student id"</li>
+ * <li>HalfMapReceived: one character per field, row by row (G = grass, M =
+ * mountain, W = water, lower case for the field with the castle)</li>
+ * <li>MoveReceived: the direction of the move</li>
+ * <li>GameFinished: "player id:state" of every player, separated by ";"</li>
+ * </ul>
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class GameEvents {
+
+	private static volatile GameJournal journal;
+
+	private GameEvents() {
+
+	}
+
+	/**
+	 * Sets the journal the events are written to and registers its gauges.
+	 *
+	 * @param gameJournal (started journal)
+	 */
+	public static void setJournal(GameJournal gameJournal) {
+
+		journal = gameJournal;
+
+		ServerMetrics.registerGauge("journal.pending", gameJournal::getPendingEventsNum);
+		ServerMetrics.registerGauge("journal.written", gameJournal::getWrittenEventsNum);
+		ServerMetrics.registerGauge("journal.dropped", gameJournal::getDroppedEventsNum);
+		ServerMetrics.registerGauge("journal.failed", gameJournal::getFailedEventsNum);
+	}
+
+	public static void gameCreated(String gameID, long seed) {
+
+		if (journal == null) {
+			return;
+		}
+
+		append(gameID, EGameEventType.GameCreated, null, Long.toString(seed));
+	}
+
+	public static void playerRegistered(String gameID, String playerID, PlayerRegistration playerRegistration) {
+
+		if (journal == null) {
+			return;
+		}
+
+		append(gameID, EGameEventType.PlayerRegistered, playerID, playerRegistration.getStudentFirstName() + ";"
+				+ playerRegistration.getStudentLastName() + ";" + playerRegistration.getStudentID());
+	}
+
+	public static void halfMapReceived(String gameID, HalfMap halfMap) {
+
+		if (journal == null) {
+			return;
+		}
+
+		append(gameID, EGameEventType.HalfMapReceived, halfMap.getUniquePlayerID(), encodeHalfMap(halfMap));
+	}
+
+	public static void moveReceived(String gameID, PlayerMove playerMove) {
+
+		if (journal == null) {
+			return;
+		}
+
+		append(gameID, EGameEventType.MoveReceived, playerMove.getUniquePlayerID(), playerMove.getMove().name());
+	}
+
+	public static void gameFinished(String gameID, Collection<Player> players) {
+
+		if (journal == null) {
+			return;
+		}
+
+		StringBuilder result = new StringBuilder();
+
+		for (Player player : players) {
+
+			if (result.length() > 0) {
+				result.append(';');
+			}
+
+			result.append(player.getPlayerID()).append(':').append(player.getCurrentState().name());
+		}
+
+		append(gameID, EGameEventType.GameFinished, null, result.toString());
+	}
+
+	private static void append(String gameID, EGameEventType eventType, String playerID, String payload) {
+
+		GameJournal gameJournal = journal;
+
+		if (gameJournal != null) {
+			gameJournal.append(new GameEvent(gameID, eventType, playerID, payload));
+		}
+	}
+
+	/**
+	 * Is only called for half maps which passed all rules, so every field of the
+	 * half map exists exactly once.
+	 */
+	private static String encodeHalfMap(HalfMap halfMap) {
+
+		char[] fields = new char[GameConstants.NUM_OF_HALF_MAP_FIELDS];
+
+		for (HalfMapNode node : halfMap.getNodes()) {
+
+			char terrain;
+
+			switch (node.getTerrain()) {
+			case Mountain:
+				terrain = 'M';
+				break;
+			case Water:
+				terrain = 'W';
+				break;
+			default:
+				terrain = 'G';
+				break;
+			}
+
+			fields[node.getY() * GameConstants.HALF_MAP_WIDTH + node.getX()] = node.isFortPresent()
+					? Character.toLowerCase(terrain)
+					: terrain;
+		}
+
+		return new String(fields);
+	}
+
+}
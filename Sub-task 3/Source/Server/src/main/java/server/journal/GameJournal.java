@@ -0,0 +1,241 @@
+package server.journal;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append only journal of the game events, stored in the game_events table of
+ * its own SQLite database file (see MainServer.gameJournal). Appending only puts the event into a queue, so request
+ * threads never wait for the database. A single writer thread takes the events
+ * from the queue and inserts them with one JDBC batch per transaction. The
+ * database runs in WAL mode, so a commit only appends to the write ahead log.
+ *
+ * If the writer can not keep up and the queue is full, new events are dropped
+ * and counted instead of slowing down the requests.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class GameJournal implements AutoCloseable {
+
+	private static Logger logger = LoggerFactory.getLogger(GameJournal.class);
+
+	private static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS game_events ("
+			+ "id INTEGER PRIMARY KEY AUTOINCREMENT, game_id TEXT NOT NULL, event_type TEXT NOT NULL, "
+			+ "player_id TEXT, payload TEXT, created_at INTEGER NOT NULL)";
+	private static final String CREATE_INDEX = "CREATE INDEX IF NOT EXISTS game_events_game_id ON game_events (game_id)";
+	private static final String INSERT_EVENT = "INSERT INTO game_events "
+			+ "(game_id, event_type, player_id, payload, created_at) VALUES (?, ?, ?, ?, ?)";
+
+	private final DataSource dataSource;
+	private final int batchSize;
+	private final int maxPendingEvents;
+	private final long flushIntervalNanos;
+	private final ConcurrentLinkedQueue<GameEvent> pendingEvents;
+	private final AtomicInteger pendingEventsNum;
+	private final LongAdder writtenEvents;
+	private final LongAdder droppedEvents;
+	private final LongAdder failedEvents;
+	private volatile boolean running;
+	private Thread writer;
+
+	/**
+	 * Instantiates a new journal, which is started with start(). The parameters
+	 * must be positive.
+	 *
+	 * @param dataSource          (SQLite database)
+	 * @param batchSize           (maximal number of events per transaction)
+	 * @param maxPendingEvents    (events which can wait for the writer)
+	 * @param flushIntervalMillis (maximal time an event waits for the writer)
+	 */
+	public GameJournal(DataSource dataSource, int batchSize, int maxPendingEvents, long flushIntervalMillis) {
+
+		this.dataSource = dataSource;
+		this.batchSize = batchSize;
+		this.maxPendingEvents = maxPendingEvents;
+		this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+		this.pendingEvents = new ConcurrentLinkedQueue<GameEvent>();
+		this.pendingEventsNum = new AtomicInteger();
+		this.writtenEvents = new LongAdder();
+		this.droppedEvents = new LongAdder();
+		this.failedEvents = new LongAdder();
+	}
+
+	/**
+	 * Creates the table if needed, switches the database to WAL mode and starts
+	 * the writer thread.
+	 *
+	 * @throws SQLException (if the database can not be prepared)
+	 */
+	public synchronized void start() throws SQLException {
+
+		Connection connection = dataSource.getConnection();
+
+		try (Statement statement = connection.createStatement()) {
+
+			statement.execute("PRAGMA journal_mode=WAL");
+			statement.execute("PRAGMA synchronous=NORMAL");
+			statement.execute(CREATE_TABLE);
+			statement.execute(CREATE_INDEX);
+
+		} catch (SQLException e) {
+
+			connection.close();
+			throw e;
+		}
+
+		running = true;
+		writer = new Thread(() -> writeEvents(connection), "game-journal");
+		writer.setDaemon(true);
+		writer.start();
+
+		logger.info("Game journal started.");
+	}
+
+	/**
+	 * Adds an event to the journal without waiting for the database.
+	 *
+	 * @param event
+	 * @return (false if the event was dropped because too many events are pending)
+	 */
+	public boolean append(GameEvent event) {
+
+		int pending = pendingEventsNum.incrementAndGet();
+
+		if (pending > maxPendingEvents) {
+
+			pendingEventsNum.decrementAndGet();
+			droppedEvents.increment();
+
+			return false;
+		}
+
+		pendingEvents.add(event);
+
+		if (pending == batchSize) {
+			LockSupport.unpark(writer);
+		}
+
+		return true;
+	}
+
+	/**
+	 * Stops the writer after it has written all pending events.
+	 */
+	@Override
+	public synchronized void close() {
+
+		if (!running) {
+			return;
+		}
+
+		running = false;
+		LockSupport.unpark(writer);
+
+		try {
+			writer.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		logger.info("Game journal stopped. Written events: {} Dropped events: {}", getWrittenEventsNum(),
+				getDroppedEventsNum());
+	}
+
+	private void writeEvents(Connection connection) {
+
+		List<GameEvent> batch = new ArrayList<GameEvent>(batchSize);
+
+		try (Connection writerConnection = connection;
+				PreparedStatement insert = writerConnection.prepareStatement(INSERT_EVENT)) {
+
+			writerConnection.setAutoCommit(false);
+
+			while (running || !pendingEvents.isEmpty()) {
+
+				GameEvent event;
+
+				while (batch.size() < batchSize && (event = pendingEvents.poll()) != null) {
+					batch.add(event);
+				}
+
+				if (batch.isEmpty()) {
+
+					LockSupport.parkNanos(this, flushIntervalNanos);
+					continue;
+				}
+
+				writeBatch(writerConnection, insert, batch);
+				pendingEventsNum.addAndGet(-batch.size());
+				batch.clear();
+			}
+
+		} catch (SQLException e) {
+
+			logger.error("The game journal could not be written.", e);
+		}
+	}
+
+	private void writeBatch(Connection connection, PreparedStatement insert, List<GameEvent> batch) {
+
+		try {
+
+			for (GameEvent event : batch) {
+
+				insert.setString(1, event.getGameID());
+				insert.setString(2, event.getEventType().name());
+				insert.setString(3, event.getPlayerID());
+				insert.setString(4, event.getPayload());
+				insert.setLong(5, event.getTimeMillis());
+				insert.addBatch();
+			}
+
+			insert.executeBatch();
+			connection.commit();
+			writtenEvents.add(batch.size());
+
+		} catch (SQLException e) {
+
+			failedEvents.add(batch.size());
+			logger.error("Game events could not be written to the journal. Events: " + batch.size(), e);
+
+			try {
+				insert.clearBatch();
+				connection.rollback();
+			} catch (SQLException rollbackException) {
+				logger.error("The journal transaction could not be rolled back.", rollbackException);
+			}
+		}
+	}
+
+	public int getPendingEventsNum() {
+		return pendingEventsNum.get();
+	}
+
+	public long getWrittenEventsNum() {
+		return writtenEvents.sum();
+	}
+
+	public long getDroppedEventsNum() {
+		return droppedEvents.sum();
+	}
+
+	public long getFailedEventsNum() {
+		return failedEvents.sum();
+	}
+
+}
@@ -0,0 +1,46 @@
+package server.main;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import server.metrics.ServerMetrics;
+
+/**
+ * Records the latency of every request to the game endpoints, named by the
+ * endpoint method. The start time is only set by the first dispatch of a
+ * request, so that a parked long polling request is measured until it was
+ * answered.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class EndpointMetricsInterceptor implements HandlerInterceptor {
+
+	private static final String START_NANOS_ATTRIBUTE = EndpointMetricsInterceptor.class.getName() + ".startNanos";
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+
+		if (request.getAttribute(START_NANOS_ATTRIBUTE) == null) {
+			request.setAttribute(START_NANOS_ATTRIBUTE, System.nanoTime());
+		}
+
+		return true;
+	}
+
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+			Exception ex) {
+
+		Object startNanos = request.getAttribute(START_NANOS_ATTRIBUTE);
+
+		if (startNanos != null && handler instanceof HandlerMethod) {
+
+			ServerMetrics.recordEndpoint(((HandlerMethod) handler).getMethod().getName(), (Long) startNanos);
+		}
+	}
+
+}
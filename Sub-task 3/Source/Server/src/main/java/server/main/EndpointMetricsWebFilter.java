@@ -0,0 +1,45 @@
+package server.main;
+
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+import reactor.core.publisher.Mono;
+import server.metrics.ServerMetrics;
+import server.rules.GameConstants;
+
+/**
+ * Records the latency of every request to the game endpoints of the reactive
+ * stack, named by the endpoint method like EndpointMetricsInterceptor does for
+ * the servlet stack. A parked long polling request is measured until it was
+ * answered.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class EndpointMetricsWebFilter implements WebFilter {
+
+	private static final String GAMES_PATH = "/games";
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+
+		if (!GameConstants.METRICS_ENABLED || !exchange.getRequest().getPath().value().startsWith(GAMES_PATH))
+			return chain.filter(exchange);
+
+		long startNanos = System.nanoTime();
+
+		return chain.filter(exchange).doFinally(signal -> {
+
+			Object handler = exchange.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+
+			if (handler instanceof HandlerMethod) {
+
+				ServerMetrics.recordEndpoint(((HandlerMethod) handler).getMethod().getName(), startNanos);
+			}
+		});
+	}
+
+}
@@ -0,0 +1,197 @@
+package server.main;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import MessagesBase.HalfMap;
+import MessagesBase.PlayerMove;
+import MessagesBase.PlayerRegistration;
+import MessagesBase.UniqueGameIdentifier;
+import MessagesBase.UniquePlayerIdentifier;
+import server.enumerations.ERulePhase;
+import server.enumerations.EWireFormat;
+import server.exceptions.GameRuleException;
+import server.game.Game;
+import server.game.GameRandom;
+import server.game.GameStateResponse;
+import server.game.RunningGames;
+import server.journal.GameEvents;
+import server.rules.Rules;
+
+/**
+ * The work behind the game endpoints, shared by the servlet endpoints
+ * (ServerEndpoints) and the reactive endpoints (ReactiveServerEndpoints), so
+ * that both answer every request in the same way. The endpoints only differ in
+ * how they wait for the game: the methods which read or change a game must be
+ * executed on the game (see Game.execute and Game.executeAsync).
+ * 
+ * @author Nemanja Srdanovic
+ *
+ */
+public class GameRequests {
+
+	private GameRequests() {
+
+	}
+
+	/**
+	 * Creates a new game under a free game id and adds it to the running games.
+	 * 
+	 * @return (UniqueGameIdentifier object of the new game)
+	 */
+	public static UniqueGameIdentifier createGame() {
+
+		return createGame(ThreadLocalRandom.current().nextLong());
+	}
+
+	/**
+	 * Creates a new game like createGame, whose random numbers are generated from
+	 * the given seed (see GameRandom), e.g. to replay a game from the journal.
+	 * 
+	 * The admission is checked before a game id is allocated. If the game is
+	 * rejected when it takes its game slot, the id is released again, so that
+	 * rejected requests do not use up the game ids.
+	 * 
+	 * @param seed
+	 * @return (UniqueGameIdentifier object of the new game)
+	 */
+	public static UniqueGameIdentifier createGame(long seed) {
+
+		String gameId;
+		UniqueGameIdentifier gameIdentifier;
+		Game newGame;
+		boolean added;
+
+		Rules.check(ERulePhase.NewGame, rule -> rule.newGame());
+
+		do {
+
+			gameId = RunningGames.allocateGameID();
+			gameIdentifier = new UniqueGameIdentifier(gameId);
+			newGame = new Game(gameIdentifier, new GameRandom(seed));
+
+			try {
+
+				added = RunningGames.addGame(newGame);
+
+			} catch (RuntimeException ex) {
+
+				RunningGames.releaseGameID(gameId);
+				throw ex;
+			}
+
+		} while (!added);
+
+		GameEvents.gameCreated(gameId, seed);
+
+		return gameIdentifier;
+	}
+
+	/**
+	 * Returns the running game of a request and marks it as active.
+	 * 
+	 * @param gameID
+	 * @return (Game object)
+	 * @throws GameRuleException if no game with the id is running
+	 */
+	public static Game getGame(String gameID) {
+
+		Game game = RunningGames.getGame(gameID);
+
+		if (game == null) {
+
+			throw new GameRuleException("Game id not found.", "The provided gameId is invalid.");
+		}
+
+		game.updateLastActivity();
+
+		return game;
+	}
+
+	/**
+	 * Registers a new player for the game. Must be executed on the game.
+	 * 
+	 * @param game
+	 * @param gameID
+	 * @param playerRegistration
+	 * @return (UniquePlayerIdentifier object of the new player)
+	 */
+	public static UniquePlayerIdentifier registerPlayer(Game game, String gameID,
+			PlayerRegistration playerRegistration) {
+
+		Rules.check(ERulePhase.RegisterPlayer, rule -> rule.registerPlayer(playerRegistration, gameID));
+
+		UniquePlayerIdentifier playerID = new UniquePlayerIdentifier(UUID.randomUUID().toString());
+
+		game.getGameController().addNewPlayer(playerRegistration, playerID);
+		GameEvents.playerRegistered(gameID, playerID.getUniquePlayerID(), playerRegistration);
+		game.getStateWaiters().notifyWaiters();
+
+		return playerID;
+	}
+
+	/**
+	 * Checks and stores the half map of a player. Must be executed on the game.
+	 * 
+	 * @param game
+	 * @param gameID
+	 * @param halfMap
+	 */
+	public static void receiveHalfMap(Game game, String gameID, HalfMap halfMap) {
+
+		Rules.check(ERulePhase.ReceiveHalfMap, rule -> rule.receiveHalfMap(
+				game.getGameController().getPlayers().get(halfMap.getUniquePlayerID()), halfMap, gameID));
+
+		game.getGameController().setHalfMap(gameID, halfMap);
+		GameEvents.halfMapReceived(gameID, halfMap);
+		game.getStateWaiters().notifyWaiters();
+	}
+
+	/**
+	 * Checks and executes the move of a player. Must be executed on the game.
+	 * 
+	 * @param game
+	 * @param gameID
+	 * @param playerMove
+	 */
+	public static void receiveMove(Game game, String gameID, PlayerMove playerMove) {
+
+		Rules.check(ERulePhase.ReceiveMove, rule -> rule.receiveMove(
+				game.getGameController().getPlayers().get(playerMove.getUniquePlayerID()), playerMove, gameID));
+
+		game.getGameController().setPlayerMove(gameID, playerMove);
+		GameEvents.moveReceived(gameID, playerMove);
+		game.getStateWaiters().notifyWaiters();
+	}
+
+	/**
+	 * Checks if the player may request the game state. Must be executed on the
+	 * game.
+	 * 
+	 * @param gameID
+	 * @param playerID
+	 */
+	public static void checkGameStateRequest(String gameID, String playerID) {
+
+		Rules.check(ERulePhase.ReturnGameState, rule -> rule.returnGameState(gameID, playerID));
+	}
+
+	/**
+	 * Returns the game state response of the player. Must be executed on the
+	 * game.
+	 * 
+	 * @param game
+	 * @param gameID
+	 * @param playerID
+	 * @param ifNoneMatch   (can be null)
+	 * @param mapDeltaSince (can be null)
+	 * @param format
+	 * @return (GameStateResponse object)
+	 */
+	public static GameStateResponse getGameState(Game game, String gameID, String playerID, String ifNoneMatch,
+			String mapDeltaSince, EWireFormat format) {
+
+		return game.getGameController().getGameStateResponse(gameID, playerID, ifNoneMatch, mapDeltaSince, format);
+	}
+
+}
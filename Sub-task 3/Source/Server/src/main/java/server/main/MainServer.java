@@ -1,18 +1,41 @@
 package server.main;
 
+import java.nio.file.Paths;
+import java.sql.SQLException;
 import java.util.Collections;
+import java.util.List;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.sqlite.SQLiteDataSource;
 
+import server.game.GameSnapshotFile;
+import server.game.RunningGames;
+import server.journal.GameEvents;
+import server.journal.GameJournal;
 import server.rules.GameConstants;
 
+/**
+ * Starts the server. By default the game endpoints run on the servlet stack
+ * (Tomcat, ServerEndpoints). Started with
+ * "--spring.main.web-application-type=reactive" the same endpoints run on the
+ * reactive stack (Netty, ReactiveServerEndpoints, ReactiveServerConfiguration),
+ * which needs no thread per waiting request.
+ * 
+ * @author Nemanja Srdanovic
+ *
+ */
 @SpringBootApplication
 @EnableScheduling
 @Configuration
-public class MainServer {
+public class MainServer implements WebMvcConfigurer {
 
 	public static void main(String[] args) {
 		SpringApplication app = new SpringApplication(MainServer.class);
@@ -20,4 +43,85 @@ public class MainServer {
 		app.setDefaultProperties(Collections.singletonMap("server.port", GameConstants.DEFAULT_PORT));
 		app.run(args);
 	}
+
+	/**
+	 * Starts the game journal on its own SQLite database file, so that the WAL
+	 * mode and the log files of the journal stay out of the database of the
+	 * application (se.sqlite). It is closed on shutdown after all pending events
+	 * are written.
+	 */
+	@Bean(destroyMethod = "close")
+	public GameJournal gameJournal() throws SQLException {
+
+		SQLiteDataSource dataSource = new SQLiteDataSource();
+		dataSource.setUrl("jdbc:sqlite:"
+				+ System.getProperty(GameConstants.GAME_JOURNAL_FILE_PROPERTY, GameConstants.GAME_JOURNAL_DEFAULT_FILE));
+
+		GameJournal journal = new GameJournal(dataSource, GameConstants.GAME_JOURNAL_BATCH_SIZE,
+				GameConstants.GAME_JOURNAL_MAX_PENDING_EVENTS, GameConstants.GAME_JOURNAL_FLUSH_INTERVAL_MILLIS);
+
+		if (GameConstants.GAME_JOURNAL_ENABLED) {
+
+			journal.start();
+			GameEvents.setJournal(journal);
+		}
+
+		return journal;
+	}
+
+	/**
+	 * Restores the games of the last snapshot before the server accepts requests.
+	 * On shutdown the final snapshot is written after the last request.
+	 */
+	@Bean(destroyMethod = "close")
+	public GameSnapshotFile gameSnapshotFile() {
+
+		GameSnapshotFile snapshotFile = new GameSnapshotFile(Paths.get(
+				System.getProperty(GameConstants.GAME_SNAPSHOT_FILE_PROPERTY, GameConstants.GAME_SNAPSHOT_DEFAULT_FILE)));
+
+		if (GameConstants.GAME_SNAPSHOT_ENABLED) {
+
+			snapshotFile.registerGauges();
+			snapshotFile.restoreGames();
+		}
+
+		return snapshotFile;
+	}
+
+	@Scheduled(fixedDelay = GameConstants.GAME_SNAPSHOT_INTERVAL_MILLIS,
+			initialDelay = GameConstants.GAME_SNAPSHOT_INTERVAL_MILLIS)
+	public void writeGameSnapshot() {
+
+		if (GameConstants.GAME_SNAPSHOT_ENABLED)
+			gameSnapshotFile().writeGames();
+	}
+
+	/**
+	 * Each game is automatically removed / ended when no request was sent to it
+	 * for 10 minutes, so no further messages can be sent to it. This scheduler is
+	 * calling a method to do that every few seconds, which only checks the games
+	 * whose idle time could have run out since the last call.
+	 */
+	@Scheduled(fixedRate = GameConstants.TIME_MILLIS_TO_CHECK_FOR_EXPIRED_GAMES)
+	public void checkForExpiredGames() {
+
+		RunningGames.removeExpiredGames();
+	}
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+
+		if (GameConstants.METRICS_ENABLED)
+			registry.addInterceptor(new EndpointMetricsInterceptor()).addPathPatterns("/games/**", "/games");
+	}
+
+	/**
+	 * The converter of the compact formats is asked first, it only handles the
+	 * JSON and binary media types and leaves XML to the JAXB converter.
+	 */
+	@Override
+	public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+
+		converters.add(0, new WireFormatMessageConverter());
+	}
 }
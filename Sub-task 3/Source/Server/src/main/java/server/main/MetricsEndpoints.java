@@ -0,0 +1,30 @@
+package server.main;
+
+import java.util.Map;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import server.metrics.ServerMetrics;
+
+@Controller
+@RequestMapping(value = "/metrics")
+public class MetricsEndpoints {
+
+	/**
+	 * Returns the latency histograms of every rule phase and every game endpoint
+	 * and the number of rejected requests per error name as JSON. The latencies
+	 * are given in microseconds.
+	 * 
+	 * @return
+	 */
+	@RequestMapping(value = "", method = RequestMethod.GET, produces = MediaType.APPLICATION_JSON_VALUE)
+	public @ResponseBody Map<String, Object> getMetrics() {
+
+		return ServerMetrics.getReport();
+	}
+
+}
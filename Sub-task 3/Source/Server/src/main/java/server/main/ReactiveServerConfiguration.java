@@ -0,0 +1,46 @@
+package server.main;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+/**
+ * Configuration of the reactive stack: Netty as web server, the codecs of the
+ * compact formats and the endpoint metrics (the counterpart of the
+ * WebMvcConfigurer methods of MainServer).
+ * 
+ * @author Nemanja Srdanovic
+ *
+ */
+@Configuration
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class ReactiveServerConfiguration implements WebFluxConfigurer {
+
+	/**
+	 * Tomcat is on the classpath for the servlet stack and would otherwise also
+	 * be chosen for the reactive stack.
+	 */
+	@Bean
+	public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+
+		return new NettyReactiveWebServerFactory();
+	}
+
+	@Override
+	public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+
+		configurer.customCodecs().register(new WireFormatDecoder());
+		configurer.customCodecs().register(new WireFormatEncoder());
+	}
+
+	@Bean
+	public EndpointMetricsWebFilter endpointMetricsWebFilter() {
+
+		return new EndpointMetricsWebFilter();
+	}
+
+}
@@ -0,0 +1,346 @@
+package server.main;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BooleanSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import MessagesBase.HalfMap;
+import MessagesBase.PlayerMove;
+import MessagesBase.PlayerRegistration;
+import MessagesBase.ResponseEnvelope;
+import MessagesBase.UniqueGameIdentifier;
+import MessagesBase.UniquePlayerIdentifier;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import server.enumerations.EWireFormat;
+import server.exceptions.GameCapacityException;
+import server.exceptions.RuleException;
+import server.game.Game;
+import server.game.GameStateResponse;
+import server.metrics.ServerMetrics;
+import server.rules.GameConstants;
+
+/**
+ * Game endpoints of the reactive stack (Netty). They answer the same requests
+ * as ServerEndpoints with the same responses, but no request holds a thread
+ * while it waits: the actions are handed to the mailbox of the game and the
+ * response is written when the action completed. A parked long polling
+ * request only costs its connection and a waiter of the game.
+ * 
+ * The endpoints are used if the server is started as reactive web application
+ * (see MainServer).
+ * 
+ * @author Nemanja Srdanovic
+ *
+ */
+@Controller
+@RequestMapping(value = "/games")
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class ReactiveServerEndpoints {
+
+	private static Logger logger = LoggerFactory.getLogger(ReactiveServerEndpoints.class);
+
+	/**
+	 * Creates a new game (see ServerEndpoints.newGame).
+	 * 
+	 * @return
+	 */
+	@RequestMapping(value = "", method = RequestMethod.GET, produces = MediaType.APPLICATION_XML_VALUE)
+	public @ResponseBody UniqueGameIdentifier newGame() {
+
+		UniqueGameIdentifier gameIdentifier = GameRequests.createGame();
+
+		logger.info("New game created. ID :  {}", gameIdentifier.getUniqueGameID());
+
+		return gameIdentifier;
+	}
+
+	/**
+	 * Registers a player for the game (see ServerEndpoints.registerPlayer).
+	 * 
+	 * @param gameID
+	 * @param playerRegistration
+	 * @return
+	 */
+	@RequestMapping(value = "/{gameID}/players", method = RequestMethod.POST, consumes = MediaType.APPLICATION_XML_VALUE, produces = MediaType.APPLICATION_XML_VALUE)
+	public @ResponseBody Mono<ResponseEnvelope<UniquePlayerIdentifier>> registerPlayer(@PathVariable String gameID,
+			@Validated @RequestBody PlayerRegistration playerRegistration) {
+
+		Game game = GameRequests.getGame(gameID);
+
+		return Mono.fromFuture(game.executeAsync(() -> GameRequests.registerPlayer(game, gameID, playerRegistration)))
+				.map(newPlayerID -> {
+
+					logger.info("New player for game registered. GameID: " + gameID + " PlayerID: "
+							+ newPlayerID.getUniquePlayerID());
+
+					return new ResponseEnvelope<>(newPlayerID);
+				});
+	}
+
+	/**
+	 * Receives the half map of a player (see ServerEndpoints.receiveHalfMap).
+	 * 
+	 * @param gameID
+	 * @param halfMap
+	 * @return
+	 */
+	@RequestMapping(value = "/{gameID}/halfmaps", method = RequestMethod.POST, consumes = {
+			MediaType.APPLICATION_XML_VALUE, GameConstants.WIRE_FORMAT_JSON_MEDIA_TYPE,
+			GameConstants.WIRE_FORMAT_BINARY_MEDIA_TYPE }, produces = MediaType.APPLICATION_XML_VALUE)
+	public @ResponseBody Mono<ResponseEnvelope<?>> receiveHalfMap(@PathVariable String gameID,
+			@Validated @RequestBody HalfMap halfMap) {
+
+		Game game = GameRequests.getGame(gameID);
+
+		return Mono.fromFuture(game.executeAsync(() -> {
+
+			GameRequests.receiveHalfMap(game, gameID, halfMap);
+
+			return Boolean.TRUE;
+		})).map(received -> {
+
+			logger.info("Half map received. Game: " + gameID + " Player: " + halfMap.getUniquePlayerID());
+
+			return new ResponseEnvelope<>();
+		});
+	}
+
+	/**
+	 * Receives the move of a player (see ServerEndpoints.receiveMove).
+	 * 
+	 * @param gameID
+	 * @param playerMove
+	 * @return
+	 */
+	@RequestMapping(value = "/{gameID}/moves", method = RequestMethod.POST, consumes = {
+			MediaType.APPLICATION_XML_VALUE, GameConstants.WIRE_FORMAT_JSON_MEDIA_TYPE,
+			GameConstants.WIRE_FORMAT_BINARY_MEDIA_TYPE }, produces = MediaType.APPLICATION_XML_VALUE)
+	public @ResponseBody Mono<ResponseEnvelope<?>> receiveMove(@PathVariable String gameID,
+			@Validated @RequestBody PlayerMove playerMove) {
+
+		Game game = GameRequests.getGame(gameID);
+
+		return Mono.fromFuture(game.executeAsync(() -> {
+
+			GameRequests.receiveMove(game, gameID, playerMove);
+
+			return Boolean.TRUE;
+		})).map(received -> {
+
+			logger.info("Move received. Game: " + gameID + " Player: " + playerMove.getUniquePlayerID());
+
+			return new ResponseEnvelope<>();
+		});
+	}
+
+	/**
+	 * Returns the game state of the player (see ServerEndpoints.returnGameState).
+	 * 
+	 * @param gameID
+	 * @param playerID
+	 * @param mapDeltaSince
+	 * @param ifNoneMatch
+	 * @param accept
+	 * @return
+	 */
+	@RequestMapping(value = "/{gameID}/states/{playerID}", method = RequestMethod.GET, produces = {
+			MediaType.APPLICATION_XML_VALUE, GameConstants.WIRE_FORMAT_JSON_MEDIA_TYPE,
+			GameConstants.WIRE_FORMAT_BINARY_MEDIA_TYPE })
+	public @ResponseBody Mono<ResponseEntity<byte[]>> returnGameState(@PathVariable String gameID,
+			@PathVariable String playerID, @RequestParam(required = false) String mapDeltaSince,
+			@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+			@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+
+		EWireFormat format = WireFormats.negotiate(accept);
+		Game game = GameRequests.getGame(gameID);
+
+		CompletableFuture<GameStateResponse> gameState = game.executeAsync(() -> {
+
+			GameRequests.checkGameStateRequest(gameID, playerID);
+
+			return GameRequests.getGameState(game, gameID, playerID, ifNoneMatch, mapDeltaSince, format);
+		});
+
+		return Mono.fromFuture(gameState).map(response -> {
+
+			logger.info("Game state returned. Game: " + gameID + " Player: " + playerID);
+
+			return createResponseEntity(response, format);
+		});
+	}
+
+	/**
+	 * Long polling variant of the game state endpoint (see
+	 * ServerEndpoints.waitForGameState). The request is parked as waiter of the
+	 * game and answered by the action which changed the game state, or by the
+	 * timeout.
+	 * 
+	 * @param gameID
+	 * @param playerID
+	 * @param waitForChangeAfter (game state id the client already holds)
+	 * @param timeoutMs          (optional, capped by the server)
+	 * @param mapDeltaSince      (optional)
+	 * @param ifNoneMatch
+	 * @param accept
+	 * @return
+	 */
+	@RequestMapping(value = "/{gameID}/states/{playerID}", params = "waitForChangeAfter", method = RequestMethod.GET, produces = {
+			MediaType.APPLICATION_XML_VALUE, GameConstants.WIRE_FORMAT_JSON_MEDIA_TYPE,
+			GameConstants.WIRE_FORMAT_BINARY_MEDIA_TYPE })
+	public @ResponseBody Mono<ResponseEntity<byte[]>> waitForGameState(@PathVariable String gameID,
+			@PathVariable String playerID, @RequestParam String waitForChangeAfter,
+			@RequestParam(required = false) Long timeoutMs, @RequestParam(required = false) String mapDeltaSince,
+			@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+			@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+
+		Game game = GameRequests.getGame(gameID);
+		EWireFormat format = WireFormats.negotiate(accept);
+
+		return Mono.create(sink -> {
+
+			BooleanSupplier waiter = () -> answerGameState(game, sink, gameID, playerID, waitForChangeAfter,
+					ifNoneMatch, mapDeltaSince, format);
+
+			Disposable timeout = Mono.delay(Duration.ofMillis(getLongPollTimeout(timeoutMs)))
+					.subscribe(tick -> game.executeAsync(() -> answerGameState(game, sink, gameID, playerID, null,
+							ifNoneMatch, mapDeltaSince, format)));
+
+			sink.onDispose(() -> {
+
+				timeout.dispose();
+				game.executeAsync(() -> {
+
+					game.getStateWaiters().removeWaiter(waiter);
+
+					return null;
+				});
+			});
+
+			game.executeAsync(() -> {
+
+				GameRequests.checkGameStateRequest(gameID, playerID);
+
+				if (!waiter.getAsBoolean()) {
+					game.getStateWaiters().addWaiter(waiter);
+				}
+
+				return null;
+
+			}).whenComplete((result, ex) -> {
+
+				if (ex != null)
+					sink.error(ex);
+			});
+		});
+	}
+
+	/**
+	 * Answers a parked request with the game state of the player, unless the game
+	 * state id is still the one the client is waiting to change. Must be executed
+	 * on the game.
+	 * 
+	 * @return (true if the request was answered)
+	 */
+	private boolean answerGameState(Game game, MonoSink<ResponseEntity<byte[]>> sink, String gameID,
+			String playerID, String waitForChangeAfter, String ifNoneMatch, String mapDeltaSince, EWireFormat format) {
+
+		try {
+
+			GameStateResponse gameState = GameRequests.getGameState(game, gameID, playerID, ifNoneMatch,
+					mapDeltaSince, format);
+
+			if (gameState.getGameStateID().equals(waitForChangeAfter)) {
+				return false;
+			}
+
+			sink.success(createResponseEntity(gameState, format));
+
+			logger.info("Game state returned. Game: " + gameID + " Player: " + playerID);
+
+		} catch (RuntimeException ex) {
+
+			sink.error(ex);
+		}
+
+		return true;
+	}
+
+	private ResponseEntity<byte[]> createResponseEntity(GameStateResponse gameState, EWireFormat format) {
+
+		if (!gameState.isModified()) {
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(gameState.getETag()).build();
+		}
+
+		if (gameState.isMapDelta()) {
+
+			return ResponseEntity.ok().eTag(gameState.getETag())
+					.header(GameConstants.MAP_DELTA_BASE_HEADER, gameState.getMapDeltaBase())
+					.contentType(WireFormats.getMediaType(format)).body(gameState.getBody());
+		}
+
+		return ResponseEntity.ok().eTag(gameState.getETag()).contentType(WireFormats.getMediaType(format))
+				.body(gameState.getBody());
+	}
+
+	private long getLongPollTimeout(Long timeoutMs) {
+
+		if (timeoutMs == null || timeoutMs <= 0) {
+			return GameConstants.LONG_POLL_DEFAULT_TIMEOUT_MILLIS;
+		}
+
+		return Math.min(timeoutMs, GameConstants.LONG_POLL_MAX_TIMEOUT_MILLIS);
+	}
+
+	/**
+	 * Answers a rejected new game with 503 (Service Unavailable) and a Retry-After
+	 * header (see ServerEndpoints.handleCapacityException).
+	 * 
+	 * @param ex
+	 * @return
+	 */
+	@ExceptionHandler({ GameCapacityException.class })
+	public ResponseEntity<ResponseEnvelope<?>> handleCapacityException(GameCapacityException ex) {
+		ServerMetrics.countRejection(ex.getErrorName());
+		ResponseEnvelope<?> result = new ResponseEnvelope<>(ex.getErrorName(), ex.getMessage());
+
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+				.header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()))
+				.contentType(MediaType.APPLICATION_XML).body(result);
+	}
+
+	/**
+	 * Answers a broken rule with an error envelope and 200 (see
+	 * ServerEndpoints.handleException).
+	 * 
+	 * @param ex
+	 * @return
+	 */
+	@ExceptionHandler({ RuleException.class })
+	public @ResponseBody ResponseEnvelope<?> handleException(RuleException ex) {
+		ServerMetrics.countRejection(ex.getErrorName());
+		ResponseEnvelope<?> result = new ResponseEnvelope<>(ex.getErrorName(), ex.getMessage());
+
+		return result;
+	}
+}
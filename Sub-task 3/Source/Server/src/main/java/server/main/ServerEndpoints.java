@@ -1,38 +1,55 @@
 package server.main;
 
-import java.util.UUID;
+import java.io.IOException;
+import java.util.function.BooleanSupplier;
 
 import javax.servlet.http.HttpServletResponse;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import MessagesBase.HalfMap;
+import MessagesBase.PlayerMove;
 import MessagesBase.PlayerRegistration;
 import MessagesBase.ResponseEnvelope;
 import MessagesBase.UniqueGameIdentifier;
 import MessagesBase.UniquePlayerIdentifier;
-import MessagesGameState.GameState;
-import server.enumerations.EPlayerStateValue;
-import server.exceptions.GameRuleException;
+import server.enumerations.EWireFormat;
+import server.exceptions.GameCapacityException;
 import server.exceptions.RuleException;
 import server.game.Game;
-import server.game.RunningGames;
+import server.game.GameStateResponse;
+import server.metrics.ServerMetrics;
 import server.rules.GameConstants;
-import server.rules.IRule;
 
+/**
+ * Game endpoints of the servlet stack (Tomcat, one thread per request). They
+ * are used unless the server is started as reactive web application, then
+ * ReactiveServerEndpoints answer the same requests (see MainServer).
+ * 
+ * @author Nemanja Srdanovic
+ *
+ */
 @Controller
 @RequestMapping(value = "/games")
+@ConditionalOnWebApplication(type = Type.SERVLET)
 public class ServerEndpoints {
 
 	private static Logger logger = LoggerFactory.getLogger(ServerEndpoints.class);
@@ -48,18 +65,9 @@ public class ServerEndpoints {
 	@RequestMapping(value = "", method = RequestMethod.GET, produces = MediaType.APPLICATION_XML_VALUE)
 	public @ResponseBody UniqueGameIdentifier newGame() {
 
-		String gameId = UUID.randomUUID().toString().substring(0, 5);
-		UniqueGameIdentifier gameIdentifier = new UniqueGameIdentifier(gameId);
-		Game newGame = new Game(gameIdentifier);
+		UniqueGameIdentifier gameIdentifier = GameRequests.createGame();
 
-		for (IRule rule : newGame.getGameController().getGameRules().getRules()) {
-
-			rule.newGame();
-		}
-
-		RunningGames.getGames().put(gameId, newGame);
-
-		logger.info("New game created. ID :  {}", gameId);
+		logger.info("New game created. ID :  {}", gameIdentifier.getUniqueGameID());
 
 		return gameIdentifier;
 
@@ -84,20 +92,10 @@ public class ServerEndpoints {
 	public @ResponseBody ResponseEnvelope<UniquePlayerIdentifier> registerPlayer(@PathVariable String gameID,
 			@Validated @RequestBody PlayerRegistration playerRegistration) {
 
-		if (RunningGames.getGames().get(gameID) == null) {
-
-			throw new GameRuleException("Game id not found.", "The provided gameId is invalid.");
-		}
-
-		for (IRule rule : RunningGames.getGames().get(gameID).getGameController().getGameRules().getRules()) {
-
-			rule.registerPlayer(playerRegistration, gameID);
-
-		}
-
-		UniquePlayerIdentifier newPlayerID = new UniquePlayerIdentifier(UUID.randomUUID().toString());
+		Game game = GameRequests.getGame(gameID);
 
-		RunningGames.getGames().get(gameID).getGameController().addNewPlayer(playerRegistration, newPlayerID);
+		UniquePlayerIdentifier newPlayerID = game
+				.execute(() -> GameRequests.registerPlayer(game, gameID, playerRegistration));
 
 		ResponseEnvelope<UniquePlayerIdentifier> playerIDMessage = new ResponseEnvelope<>(newPlayerID);
 
@@ -120,29 +118,65 @@ public class ServerEndpoints {
 	 * The server replies generically with a responseEnvelope . But since there is
 	 * no data here, that is data Element not included in this case.
 	 * 
+	 * Instead of XML the half map can be sent in the compact JSON or binary format
+	 * (see WireFormatMessageConverter), the reply is always XML.
+	 * 
 	 * @param gameID
 	 * @param halfMap
 	 * @return
 	 */
-	@RequestMapping(value = "/{gameID}/halfmaps", method = RequestMethod.POST, consumes = MediaType.APPLICATION_XML_VALUE, produces = MediaType.APPLICATION_XML_VALUE)
+	@RequestMapping(value = "/{gameID}/halfmaps", method = RequestMethod.POST, consumes = {
+			MediaType.APPLICATION_XML_VALUE, GameConstants.WIRE_FORMAT_JSON_MEDIA_TYPE,
+			GameConstants.WIRE_FORMAT_BINARY_MEDIA_TYPE }, produces = MediaType.APPLICATION_XML_VALUE)
 	public @ResponseBody ResponseEnvelope<?> receiveHalfMap(@PathVariable String gameID,
 			@Validated @RequestBody HalfMap halfMap) {
 
-		if (RunningGames.getGames().get(gameID) == null) {
+		Game game = GameRequests.getGame(gameID);
 
-			throw new GameRuleException("Game id not found.", "The provided gameId is invalid.");
+		game.execute(() -> {
 
-		}
+			GameRequests.receiveHalfMap(game, gameID, halfMap);
 
-		for (IRule rule : RunningGames.getGames().get(gameID).getGameController().getGameRules().getRules()) {
+			return null;
+		});
 
-			rule.receiveHalfMap(RunningGames.getGames().get(gameID).getGameController().getPlayers()
-					.get(halfMap.getUniquePlayerID()), halfMap, gameID);
-		}
+		logger.info("Half map received. Game: " + gameID + " Player: " + halfMap.getUniquePlayerID());
 
-		RunningGames.getGames().get(gameID).getGameController().setHalfMap(gameID, halfMap);
+		return new ResponseEnvelope<>();
 
-		logger.info("Half map received. Game: " + gameID + " Player: " + halfMap.getUniquePlayerID());
+	}
+
+	/**
+	 * The client sends an HTTP POST request with an XML message in the body to the
+	 * endpoint below. Here is the part GameID with the unique one obtained during
+	 * game creation GameID to replace. The body contains the unique PlayerID and
+	 * the direction in which the avatar should move. Depending on the terrain the
+	 * same direction must be sent several times before the avatar reaches the next
+	 * field.
+	 * 
+	 * The server replies generically with a responseEnvelope without data. Like
+	 * the half map, the move can be sent in a compact format.
+	 * 
+	 * @param gameID
+	 * @param playerMove
+	 * @return
+	 */
+	@RequestMapping(value = "/{gameID}/moves", method = RequestMethod.POST, consumes = {
+			MediaType.APPLICATION_XML_VALUE, GameConstants.WIRE_FORMAT_JSON_MEDIA_TYPE,
+			GameConstants.WIRE_FORMAT_BINARY_MEDIA_TYPE }, produces = MediaType.APPLICATION_XML_VALUE)
+	public @ResponseBody ResponseEnvelope<?> receiveMove(@PathVariable String gameID,
+			@Validated @RequestBody PlayerMove playerMove) {
+
+		Game game = GameRequests.getGame(gameID);
+
+		game.execute(() -> {
+
+			GameRequests.receiveMove(game, gameID, playerMove);
+
+			return null;
+		});
+
+		logger.info("Move received. Game: " + gameID + " Player: " + playerMove.getUniquePlayerID());
 
 		return new ResponseEnvelope<>();
 
@@ -156,50 +190,206 @@ public class ServerEndpoints {
 	 * replies with the game status, otherwise a corresponding error message is
 	 * returned.
 	 * 
+	 * The clients poll this endpoint continuously, so the serialized response is
+	 * cached until the game state changes and written directly to the response.
+	 * Every response carries an ETag header. If the client sends it back in the
+	 * If-None-Match header and the game state did not change, the server replies
+	 * with 304 (Not Modified) and without body.
+	 * 
+	 * A client which sends the id of the last game state whose map it has applied
+	 * in mapDeltaSince only receives the map nodes which changed since then. Such
+	 * a response is marked with the Map-Delta-Base header, without it the
+	 * response contains the full map.
+	 * 
+	 * The client chooses the format with the Accept header: XML (default), compact
+	 * JSON or binary (see WireFormats). Large responses are compressed with gzip if
+	 * the client accepts it (see application.properties).
+	 * 
 	 * @param gameID
 	 * @param playerID
-	 * @return
+	 * @param mapDeltaSince
+	 * @param ifNoneMatch
+	 * @param accept
+	 * @param response
+	 * @throws IOException
 	 */
-	@RequestMapping(value = "/{gameID}/states/{playerID}", method = RequestMethod.GET, produces = MediaType.APPLICATION_XML_VALUE)
-	public @ResponseBody ResponseEnvelope<GameState> returnGameState(@PathVariable String gameID,
-			@PathVariable String playerID) {
+	@RequestMapping(value = "/{gameID}/states/{playerID}", method = RequestMethod.GET, produces = {
+			MediaType.APPLICATION_XML_VALUE, GameConstants.WIRE_FORMAT_JSON_MEDIA_TYPE,
+			GameConstants.WIRE_FORMAT_BINARY_MEDIA_TYPE })
+	public void returnGameState(@PathVariable String gameID, @PathVariable String playerID,
+			@RequestParam(required = false) String mapDeltaSince,
+			@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+			@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+			HttpServletResponse response) throws IOException {
+
+		EWireFormat format = WireFormats.negotiate(accept);
+		Game game = GameRequests.getGame(gameID);
+
+		GameStateResponse gameState = game.execute(() -> {
+
+			GameRequests.checkGameStateRequest(gameID, playerID);
+
+			return GameRequests.getGameState(game, gameID, playerID, ifNoneMatch, mapDeltaSince, format);
+		});
+
+		response.setHeader(HttpHeaders.ETAG, gameState.getETag());
+
+		if (gameState.isMapDelta()) {
+			response.setHeader(GameConstants.MAP_DELTA_BASE_HEADER, gameState.getMapDeltaBase());
+		}
+
+		if (!gameState.isModified()) {
 
-		if (RunningGames.getGames().get(gameID) == null) {
+			response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
 
-			throw new GameRuleException("Game id not found.", "The provided gameId is invalid.");
+			logger.info("Game state not modified. Game: " + gameID + " Player: " + playerID);
 
+			return;
 		}
 
-		for (IRule rule : RunningGames.getGames().get(gameID).getGameController().getGameRules().getRules()) {
+		response.setContentType(WireFormats.getMediaType(format).toString());
+		response.setContentLength(gameState.getBody().length);
+		response.getOutputStream().write(gameState.getBody());
 
-			rule.returnGameState(gameID, playerID);
+		logger.info("Game state returned. Game: " + gameID + " Player: " + playerID);
+
+	}
+
+	/**
+	 * Long polling variant of the game state endpoint. The client sends the id of
+	 * the last game state it received and the server answers as soon as the game
+	 * state id of the player is a different one. Until then the request is parked
+	 * without holding a request thread and is checked again after every action
+	 * which changed the game. If nothing changed until the timeout, the current
+	 * game state is returned (or 304 if the client sent a matching ETag).
+	 * 
+	 * @param gameID
+	 * @param playerID
+	 * @param waitForChangeAfter (game state id the client already holds)
+	 * @param timeoutMs          (optional, capped by the server)
+	 * @param mapDeltaSince      (optional, see returnGameState)
+	 * @param ifNoneMatch
+	 * @param accept             (format of the response, see returnGameState)
+	 * @return
+	 */
+	@RequestMapping(value = "/{gameID}/states/{playerID}", params = "waitForChangeAfter", method = RequestMethod.GET, produces = {
+			MediaType.APPLICATION_XML_VALUE, GameConstants.WIRE_FORMAT_JSON_MEDIA_TYPE,
+			GameConstants.WIRE_FORMAT_BINARY_MEDIA_TYPE })
+	public @ResponseBody DeferredResult<ResponseEntity<byte[]>> waitForGameState(@PathVariable String gameID,
+			@PathVariable String playerID, @RequestParam String waitForChangeAfter,
+			@RequestParam(required = false) Long timeoutMs, @RequestParam(required = false) String mapDeltaSince,
+			@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+			@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+
+		Game game = GameRequests.getGame(gameID);
+		EWireFormat format = WireFormats.negotiate(accept);
+		DeferredResult<ResponseEntity<byte[]>> result = new DeferredResult<>(getLongPollTimeout(timeoutMs));
+
+		BooleanSupplier waiter = () -> answerGameState(game, result, gameID, playerID, waitForChangeAfter,
+				ifNoneMatch, mapDeltaSince, format);
+
+		result.onTimeout(() -> game.execute(
+				() -> answerGameState(game, result, gameID, playerID, null, ifNoneMatch, mapDeltaSince, format)));
+		result.onCompletion(() -> game.execute(() -> {
+
+			game.getStateWaiters().removeWaiter(waiter);
+
+			return null;
+		}));
+
+		game.execute(() -> {
+
+			GameRequests.checkGameStateRequest(gameID, playerID);
+
+			if (!waiter.getAsBoolean()) {
+				game.getStateWaiters().addWaiter(waiter);
+			}
+
+			return null;
+		});
+
+		return result;
+	}
+
+	/**
+	 * Sets the game state of the player as result of a parked request, unless the
+	 * game state id is still the one the client is waiting to change. Must be
+	 * executed on the game.
+	 * 
+	 * @return (true if the request was answered)
+	 */
+	private boolean answerGameState(Game game, DeferredResult<ResponseEntity<byte[]>> result, String gameID,
+			String playerID, String waitForChangeAfter, String ifNoneMatch, String mapDeltaSince, EWireFormat format) {
+
+		try {
+
+			GameStateResponse gameState = GameRequests.getGameState(game, gameID, playerID, ifNoneMatch,
+					mapDeltaSince, format);
+			MediaType mediaType = WireFormats.getMediaType(format);
+
+			if (gameState.getGameStateID().equals(waitForChangeAfter)) {
+				return false;
+			}
+
+			if (!gameState.isModified()) {
+
+				result.setResult(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(gameState.getETag()).build());
+
+			} else if (gameState.isMapDelta()) {
+
+				result.setResult(ResponseEntity.ok().eTag(gameState.getETag())
+						.header(GameConstants.MAP_DELTA_BASE_HEADER, gameState.getMapDeltaBase())
+						.contentType(mediaType).body(gameState.getBody()));
+
+			} else {
+
+				result.setResult(ResponseEntity.ok().eTag(gameState.getETag()).contentType(mediaType)
+						.body(gameState.getBody()));
+			}
+
+			logger.info("Game state returned. Game: " + gameID + " Player: " + playerID);
+
+		} catch (RuntimeException ex) {
+
+			result.setErrorResult(ex);
 		}
 
-		ResponseEnvelope<GameState> gameState = new ResponseEnvelope<>(
-				RunningGames.getGames().get(gameID).getGameController().getGameStateObject(gameID, playerID));
+		return true;
+	}
 
-		logger.info("Game state returned. {}", gameState.getData().get().getPlayers());
+	private long getLongPollTimeout(Long timeoutMs) {
 
-		return gameState;
+		if (timeoutMs == null || timeoutMs <= 0) {
+			return GameConstants.LONG_POLL_DEFAULT_TIMEOUT_MILLIS;
+		}
 
+		return Math.min(timeoutMs, GameConstants.LONG_POLL_MAX_TIMEOUT_MILLIS);
 	}
 
 	/**
-	 * Each game is automatically removed / ended 10 minutes after the game was
-	 * created, so no further messages can be sent to it. This scheduler is calling
-	 * a method to do that every 10 minutes.
+	 * Handles a new game which was rejected because every game slot is used by an
+	 * active game. The client receives 503 (Service Unavailable) with a
+	 * Retry-After header, so that it can try again when a slot might be free.
+	 * 
+	 * @param ex
+	 * @return
 	 */
-	@Scheduled(fixedRate = GameConstants.TIME_MILLIS_TO_CHECK_FOR_EXPIRED_GAMES)
-	private void checkForExpiredGames() {
+	@ExceptionHandler({ GameCapacityException.class })
+	public ResponseEntity<ResponseEnvelope<?>> handleCapacityException(GameCapacityException ex) {
+		ServerMetrics.countRejection(ex.getErrorName());
+		ResponseEnvelope<?> result = new ResponseEnvelope<>(ex.getErrorName(), ex.getMessage());
 
-		RunningGames.removeExpiredGames();
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+				.header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()))
+				.contentType(MediaType.APPLICATION_XML).body(result);
 	}
 
 	/**
 	 * The most basic way of handling exceptions in spring. The superclass catches
 	 * subclasses exceptions which is than sent to the client. If a business rule is
-	 * broke the exception is also handing over a player object so that that player
-	 * state can be set to lost.
+	 * broke by a player, the game has already set that player state to lost while
+	 * executing the action (see Game.execute). The rejection is counted by its
+	 * error name for the metrics endpoint.
 	 * 
 	 * @param ex
 	 * @param response
@@ -207,12 +397,10 @@ public class ServerEndpoints {
 	 */
 	@ExceptionHandler({ RuleException.class })
 	public @ResponseBody ResponseEnvelope<?> handleException(RuleException ex, HttpServletResponse response) {
+		ServerMetrics.countRejection(ex.getErrorName());
 		ResponseEnvelope<?> result = new ResponseEnvelope<>(ex.getErrorName(), ex.getMessage());
 		response.setStatus(HttpServletResponse.SC_OK);
 
-		if (ex.getPlayer() != null)
-			ex.getPlayer().setCurrentState(EPlayerStateValue.Lost);
-
 		return result;
 	}
 }
@@ -0,0 +1,68 @@
+package server.main;
+
+import java.util.Map;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.AbstractDataBufferDecoder;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.util.MimeType;
+
+import MessagesBase.HalfMap;
+import MessagesBase.PlayerMove;
+import server.converter.IMessageCodec;
+import server.converter.ResponseMarshaller;
+import server.exceptions.ConverterException;
+
+/**
+ * Decoder of the reactive stack for half maps and moves sent in a compact
+ * format, the counterpart of WireFormatMessageConverter. XML is left to the
+ * JAXB decoder.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class WireFormatDecoder extends AbstractDataBufferDecoder<Object> {
+
+	public WireFormatDecoder() {
+
+		super(WireFormats.JSON, WireFormats.BINARY);
+	}
+
+	@Override
+	public boolean canDecode(ResolvableType elementType, MimeType mimeType) {
+
+		Class<?> messageClass = elementType.toClass();
+
+		return (HalfMap.class.equals(messageClass) || PlayerMove.class.equals(messageClass))
+				&& super.canDecode(elementType, mimeType);
+	}
+
+	/**
+	 * Decodes a complete message, the buffer is released afterwards.
+	 */
+	@Override
+	public Object decode(DataBuffer dataBuffer, ResolvableType targetType, MimeType mimeType,
+			Map<String, Object> hints) throws DecodingException {
+
+		IMessageCodec codec = ResponseMarshaller.getCodec(WireFormats.getFormat(mimeType));
+
+		try {
+
+			if (HalfMap.class.equals(targetType.toClass()))
+				return codec.decodeHalfMap(dataBuffer.asInputStream());
+
+			return codec.decodePlayerMove(dataBuffer.asInputStream());
+
+		} catch (ConverterException e) {
+
+			throw new DecodingException(e.getMessage(), e);
+
+		} finally {
+
+			DataBufferUtils.release(dataBuffer);
+		}
+	}
+
+}
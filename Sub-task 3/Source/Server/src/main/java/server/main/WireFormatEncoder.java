@@ -0,0 +1,62 @@
+package server.main;
+
+import java.util.Map;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.AbstractEncoder;
+import org.springframework.core.codec.EncodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.util.MimeType;
+
+import MessagesBase.ERequestState;
+import MessagesBase.ResponseEnvelope;
+import MessagesGameState.GameState;
+import reactor.core.publisher.Flux;
+import server.converter.ResponseMarshaller;
+
+/**
+ * Encoder of the reactive stack for error responses of the game state
+ * endpoints in a compact format, the counterpart of
+ * WireFormatMessageConverter. Successful game state responses are already
+ * encoded by the endpoints.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class WireFormatEncoder extends AbstractEncoder<Object> {
+
+	public WireFormatEncoder() {
+
+		super(WireFormats.JSON, WireFormats.BINARY);
+	}
+
+	@Override
+	public boolean canEncode(ResolvableType elementType, MimeType mimeType) {
+
+		return ResponseEnvelope.class.equals(elementType.toClass()) && super.canEncode(elementType, mimeType);
+	}
+
+	@Override
+	public Flux<DataBuffer> encode(Publisher<? extends Object> inputStream, DataBufferFactory bufferFactory,
+			ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+
+		return Flux.from(inputStream).map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints));
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public DataBuffer encodeValue(Object value, DataBufferFactory bufferFactory, ResolvableType valueType,
+			MimeType mimeType, Map<String, Object> hints) {
+
+		ResponseEnvelope<?> envelope = (ResponseEnvelope<?>) value;
+
+		if (envelope.getState() != ERequestState.Error)
+			throw new EncodingException("Only error responses are written in a compact format.");
+
+		return bufferFactory.wrap(ResponseMarshaller.getCodec(WireFormats.getFormat(mimeType))
+				.encodeGameState((ResponseEnvelope<GameState>) envelope));
+	}
+
+}
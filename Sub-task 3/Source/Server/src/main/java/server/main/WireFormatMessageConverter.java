@@ -0,0 +1,95 @@
+package server.main;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import MessagesBase.ERequestState;
+import MessagesBase.HalfMap;
+import MessagesBase.PlayerMove;
+import MessagesBase.ResponseEnvelope;
+import server.converter.IMessageCodec;
+import server.converter.ResponseMarshaller;
+import server.enumerations.EWireFormat;
+import server.exceptions.ConverterException;
+
+/**
+ * Message converter of spring for the compact formats. It reads half maps and
+ * moves sent as compact JSON or binary and writes error responses of the game
+ * state endpoints in the format the client asked for. Successful game state
+ * responses are written by the endpoints themselves (see ServerEndpoints). All
+ * other messages are left to the XML converter.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class WireFormatMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+	public WireFormatMessageConverter() {
+
+		super(WireFormats.JSON, WireFormats.BINARY);
+	}
+
+	@Override
+	protected boolean supports(Class<?> clazz) {
+
+		return HalfMap.class.equals(clazz) || PlayerMove.class.equals(clazz) || ResponseEnvelope.class.equals(clazz);
+	}
+
+	@Override
+	public boolean canRead(Class<?> clazz, MediaType mediaType) {
+
+		return !ResponseEnvelope.class.equals(clazz) && super.canRead(clazz, mediaType);
+	}
+
+	@Override
+	public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+
+		return ResponseEnvelope.class.equals(clazz) && super.canWrite(clazz, mediaType);
+	}
+
+	@Override
+	protected Object readInternal(Class<? extends Object> clazz, HttpInputMessage inputMessage)
+			throws IOException, HttpMessageNotReadableException {
+
+		IMessageCodec codec = ResponseMarshaller.getCodec(WireFormats.getFormat(inputMessage.getHeaders().getContentType()));
+
+		try {
+
+			if (HalfMap.class.equals(clazz))
+				return codec.decodeHalfMap(inputMessage.getBody());
+
+			return codec.decodePlayerMove(inputMessage.getBody());
+
+		} catch (ConverterException e) {
+
+			throw new HttpMessageNotReadableException(e.getMessage(), e, inputMessage);
+		}
+	}
+
+	/**
+	 * Only error envelopes are written here, they do not contain data and have the
+	 * same form in every message.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	protected void writeInternal(Object object, HttpOutputMessage outputMessage)
+			throws IOException, HttpMessageNotWritableException {
+
+		ResponseEnvelope<?> envelope = (ResponseEnvelope<?>) object;
+
+		if (envelope.getState() != ERequestState.Error)
+			throw new HttpMessageNotWritableException("Only error responses are written in a compact format.");
+
+		EWireFormat format = WireFormats.getFormat(outputMessage.getHeaders().getContentType());
+
+		outputMessage.getBody().write(ResponseMarshaller.getCodec(format)
+				.encodeGameState((ResponseEnvelope<MessagesGameState.GameState>) envelope));
+	}
+
+}
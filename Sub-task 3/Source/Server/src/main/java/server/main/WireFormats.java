@@ -0,0 +1,103 @@
+package server.main;
+
+import java.util.List;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeType;
+
+import server.enumerations.EWireFormat;
+import server.rules.GameConstants;
+
+/**
+ * Chooses the format of a game state response from the Accept header of the
+ * request. The client names the compact format it prefers and XML as fallback,
+ * e.g. "application/x-game-binary, application/xml;q=0.5". Clients which send
+ * no Accept header or accept anything get XML, the format of the network
+ * protocol.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class WireFormats {
+
+	public static final MediaType JSON = MediaType.parseMediaType(GameConstants.WIRE_FORMAT_JSON_MEDIA_TYPE);
+	public static final MediaType BINARY = MediaType.parseMediaType(GameConstants.WIRE_FORMAT_BINARY_MEDIA_TYPE);
+
+	private WireFormats() {
+
+	}
+
+	/**
+	 * Returns the format of the media type with the highest quality which is
+	 * accepted by the client.
+	 *
+	 * @param accept (Accept header of the request, can be null)
+	 * @return (EWireFormat value)
+	 */
+	public static EWireFormat negotiate(String accept) {
+
+		if (accept == null || accept.isEmpty())
+			return EWireFormat.Xml;
+
+		List<MediaType> mediaTypes;
+
+		try {
+
+			mediaTypes = MediaType.parseMediaTypes(accept);
+
+		} catch (InvalidMediaTypeException e) {
+
+			return EWireFormat.Xml;
+		}
+
+		MediaType.sortBySpecificityAndQuality(mediaTypes);
+
+		for (MediaType mediaType : mediaTypes) {
+
+			if (mediaType.getQualityValue() <= 0)
+				continue;
+
+			if (mediaType.includes(MediaType.APPLICATION_XML) || mediaType.includes(MediaType.TEXT_XML))
+				return EWireFormat.Xml;
+
+			if (mediaType.includes(BINARY))
+				return EWireFormat.Binary;
+
+			if (mediaType.includes(JSON))
+				return EWireFormat.Json;
+		}
+
+		return EWireFormat.Xml;
+	}
+
+	/**
+	 * Returns the format of a request body.
+	 *
+	 * @param contentType (Content-Type of the request, can be null)
+	 * @return (EWireFormat value)
+	 */
+	public static EWireFormat getFormat(MimeType contentType) {
+
+		if (contentType != null && BINARY.includes(contentType))
+			return EWireFormat.Binary;
+
+		if (contentType != null && JSON.includes(contentType))
+			return EWireFormat.Json;
+
+		return EWireFormat.Xml;
+	}
+
+	public static MediaType getMediaType(EWireFormat format) {
+
+		switch (format) {
+		case Json:
+			return JSON;
+		case Binary:
+			return BINARY;
+		default:
+			return MediaType.APPLICATION_XML;
+		}
+	}
+
+}
@@ -1,43 +1,335 @@
 package server.map;
 
-import java.util.HashMap;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 
+import server.enumerations.EAvatarPositionValue;
+import server.enumerations.ECastleValue;
+import server.enumerations.ETerrainType;
+import server.enumerations.ETreasureValue;
 import server.exceptions.MapException;
 
 /**
+ * Packed grid of map fields. Every field is stored in one byte of an array
+ * with the index y * width + x. The byte contains the terrain, castle,
+ * treasure and avatar value of the field as bit groups, so a complete map of
+ * 64 fields needs less than 100 bytes and is iterated in memory order.
+ * 
+ * Bits 0-1 contain the terrain (0 if the grid position has no field), bits 2-3
+ * the castle value, bit 4 the treasure value and bits 5-6 the avatar value.
  * 
  * @author Nemanja Srdanovic
  *
  */
 public class Map {
 
-	private HashMap<Coordinate, Field> hashMap;
+	private static final ETerrainType[] TERRAIN_VALUES = ETerrainType.values();
+	private static final ECastleValue[] CASTLE_VALUES = ECastleValue.values();
+	private static final ETreasureValue[] TREASURE_VALUES = ETreasureValue.values();
+	private static final EAvatarPositionValue[] AVATAR_VALUES = EAvatarPositionValue.values();
+
+	private static final int TERRAIN_SHIFT = 0;
+	private static final int TERRAIN_MASK = 0b11;
+	private static final int CASTLE_SHIFT = 2;
+	private static final int CASTLE_MASK = 0b11;
+	private static final int TREASURE_SHIFT = 4;
+	private static final int TREASURE_MASK = 0b1;
+	private static final int AVATAR_SHIFT = 5;
+	private static final int AVATAR_MASK = 0b11;
+
+	private final int width;
+	private final int height;
+	private final byte[] fields;
+	private int fieldsNum;
+
+	/**
+	 * Instantiates a new map object without fields. The parameters must be
+	 * positive.
+	 * 
+	 * @param width  (number of fields on the horizontal side)
+	 * @param height (number of fields on the vertical side)
+	 */
+	public Map(int width, int height) {
+
+		if (width <= 0 || height <= 0)
+			throw new MapException("Map exception: The map size cant be empty.");
+
+		this.width = width;
+		this.height = height;
+		this.fields = new byte[width * height];
+		this.fieldsNum = 0;
+
+	}
+
+	private Map(Map map) {
+
+		this.width = map.width;
+		this.height = map.height;
+		this.fields = Arrays.copyOf(map.fields, map.fields.length);
+		this.fieldsNum = map.fieldsNum;
+	}
+
+	/**
+	 * Returns a copy of this map which can be changed without changing this map.
+	 * 
+	 * @return (Map object)
+	 */
+	public Map copy() {
+		return new Map(this);
+	}
+
+	/**
+	 * Writes the size and the packed fields of this map, so that the map can be
+	 * restored with readFrom.
+	 * 
+	 * @param output
+	 * @throws IOException
+	 */
+	public void writeTo(DataOutput output) throws IOException {
+
+		output.writeShort(width);
+		output.writeShort(height);
+		output.write(fields);
+	}
+
+	/**
+	 * Reads a map which was written with writeTo.
+	 * 
+	 * @param buffer (positioned at the beginning of the map)
+	 * @return (Map object)
+	 */
+	public static Map readFrom(ByteBuffer buffer) {
+
+		Map map = new Map(buffer.getShort(), buffer.getShort());
+
+		buffer.get(map.fields);
+
+		for (byte field : map.fields) {
+
+			if (field != 0) {
+				++map.fieldsNum;
+			}
+		}
+
+		return map;
+	}
+
+	/**
+	 * Copies all fields of the given map into this map, moved by the given
+	 * offset.
+	 * 
+	 * @param map
+	 * @param offsetX
+	 * @param offsetY
+	 */
+	public void insert(Map map, int offsetX, int offsetY) {
+
+		if (offsetX < 0 || offsetY < 0 || offsetX + map.width > width || offsetY + map.height > height)
+			throw new MapException("Map exception: The inserted map doesnt fit into the map.");
+
+		for (int y = 0; y < map.height; ++y) {
+
+			for (int x = 0; x < map.width; ++x) {
+
+				byte field = map.fields[map.getIndex(x, y)];
+
+				if (field != 0) {
+
+					setFieldByte(getIndex(x + offsetX, y + offsetY), field);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Adds a field with the default characteristics (no castle, treasure or
+	 * avatar). An existing field at the same index is replaced.
+	 * 
+	 * @param index
+	 * @param terrain
+	 */
+	public void setField(int index, ETerrainType terrain) {
+
+		if (terrain == null)
+			throw new MapException("Map exception: The field terrain cant be null.");
+
+		setFieldByte(index, (byte) ((terrain.ordinal() + 1) << TERRAIN_SHIFT
+				| ECastleValue.NoOrUnknownCastleState.ordinal() << CASTLE_SHIFT
+				| ETreasureValue.NoOrUnknownTreasureValue.ordinal() << TREASURE_SHIFT
+				| EAvatarPositionValue.NoAvatarPresent.ordinal() << AVATAR_SHIFT));
+	}
+
+	private void setFieldByte(int index, byte field) {
+
+		if (fields[index] == 0) {
+			++fieldsNum;
+		}
+
+		fields[index] = field;
+	}
+
+	private int getBits(int index, int shift, int mask) {
+		return (fields[index] >> shift) & mask;
+	}
+
+	private void setBits(int index, int shift, int mask, int value) {
+
+		if (fields[index] == 0)
+			throw new MapException("Map exception: There is no field at index " + index + ".");
 
-	public Map() {
+		fields[index] = (byte) ((fields[index] & ~(mask << shift)) | (value << shift));
+	}
 
+	/**
+	 * Get the index of a map position.
+	 * 
+	 * @param x
+	 * @param y
+	 * @return (y * width + x)
+	 */
+	public int getIndex(int x, int y) {
+		return y * width + x;
 	}
 
 	/**
-	 * Instantiates a new map object. The parameters must not be null.
+	 * Get the index of a coordinate.
 	 * 
-	 * @param hashMap (contains the field objects for the map)
+	 * @param coordinate
+	 * @return (y * width + x)
 	 */
-	public Map(HashMap<Coordinate, Field> hashMap) {
+	public int getIndex(Coordinate coordinate) {
+		return getIndex(coordinate.getX(), coordinate.getY());
+	}
+
+	public int getX(int index) {
+		return index % width;
+	}
 
-		if (hashMap == null || hashMap.isEmpty())
-			throw new MapException("Map exception: The field map cant be empty or null.");
+	public int getY(int index) {
+		return index / width;
+	}
 
-		this.hashMap = hashMap;
+	/**
+	 * Get a new coordinate object for the given index.
+	 * 
+	 * @param index
+	 * @return (Coordinate object)
+	 */
+	public Coordinate getCoordinate(int index) {
+		return new Coordinate(getX(index), getY(index));
+	}
 
+	/**
+	 * Checks if the map contains a field at the given index.
+	 * 
+	 * @param index
+	 * @return (true if a field exists)
+	 */
+	public boolean hasField(int index) {
+		return fields[index] != 0;
 	}
 
 	/**
-	 * Get the collection with the field objects.
+	 * Get the terrain used by a field.
 	 * 
-	 * @return (collection)
+	 * @param index
+	 * @return (the terrain, e.g., Grass or Mountain)
 	 */
-	public HashMap<Coordinate, Field> getHashMap() {
-		return hashMap;
+	public ETerrainType getFieldTerrain(int index) {
+
+		if (fields[index] == 0)
+			throw new MapException("Map exception: There is no field at index " + index + ".");
+
+		return TERRAIN_VALUES[getBits(index, TERRAIN_SHIFT, TERRAIN_MASK) - 1];
+	}
+
+	/**
+	 * Get the castle characteristics used by a field.
+	 * 
+	 * @param index
+	 * @return (the characteristics e.g., EnemyCastlePresent, MyCastlePresent)
+	 */
+	public ECastleValue getFieldCastleContent(int index) {
+		return CASTLE_VALUES[getBits(index, CASTLE_SHIFT, CASTLE_MASK)];
+	}
+
+	/**
+	 * Set the castle characteristics used by a field.
+	 * 
+	 * @param index
+	 * @param castleContent
+	 */
+	public void setFieldCastleContent(int index, ECastleValue castleContent) {
+		setBits(index, CASTLE_SHIFT, CASTLE_MASK, castleContent.ordinal());
+	}
+
+	/**
+	 * Get the treasure characteristics used by a field.
+	 * 
+	 * @param index
+	 * @return (the characteristics e.g., MyTreasurePresent)
+	 */
+	public ETreasureValue getFieldTreasureContent(int index) {
+		return TREASURE_VALUES[getBits(index, TREASURE_SHIFT, TREASURE_MASK)];
+	}
+
+	/**
+	 * Set the treasure characteristics used by a field.
+	 * 
+	 * @param index
+	 * @param treasureContent
+	 */
+	public void setFieldTreasureContent(int index, ETreasureValue treasureContent) {
+		setBits(index, TREASURE_SHIFT, TREASURE_MASK, treasureContent.ordinal());
+	}
+
+	/**
+	 * Get the avatar characteristics used by a field.
+	 * 
+	 * @param index
+	 * @return (the characteristics e.g., EnemyAvatarPosition, MyAvatarPosition)
+	 */
+	public EAvatarPositionValue getFieldAvatarContent(int index) {
+		return AVATAR_VALUES[getBits(index, AVATAR_SHIFT, AVATAR_MASK)];
+	}
+
+	/**
+	 * Set the avatar characteristics used by a field.
+	 * 
+	 * @param index
+	 * @param avatarContent
+	 */
+	public void setFieldAvatarContent(int index, EAvatarPositionValue avatarContent) {
+		setBits(index, AVATAR_SHIFT, AVATAR_MASK, avatarContent.ordinal());
+	}
+
+	/**
+	 * Get the number of grid positions (width * height). Fields are only at the
+	 * positions for which hasField returns true.
+	 * 
+	 * @return (Number)
+	 */
+	public int getSize() {
+		return fields.length;
+	}
+
+	/**
+	 * Get the number of fields contained in the map.
+	 * 
+	 * @return (Number)
+	 */
+	public int getFieldsNum() {
+		return fieldsNum;
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
 	}
 
 }
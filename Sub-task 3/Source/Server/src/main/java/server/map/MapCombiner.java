@@ -1,13 +1,10 @@
 package server.map;
 
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
-import java.util.Map.Entry;
-import java.util.Random;
 
 import server.enumerations.ECastleValue;
 import server.enumerations.ETerrainType;
+import server.game.GameRandom;
 import server.rules.GameConstants;
 
 /**
@@ -17,13 +14,26 @@ import server.rules.GameConstants;
  */
 public class MapCombiner {
 
+	private GameRandom random;
+
 	public MapCombiner() {
+
+		this(new GameRandom());
+	}
+
+	/**
+	 * @param random (stream of the game which chooses the map layout and the
+	 *               treasure fields)
+	 */
+	public MapCombiner(GameRandom random) {
+
+		this.random = random;
 	}
 
 	public Map combineHalfMaps(HashMap<String, PlayerMap> halfMaps) {
 
 		Map tmpMap = null;
-		int optionNum = new Random().nextInt(4);
+		int optionNum = random.nextInt(4);
 
 		PlayerMap firstPlayerMap = (PlayerMap) halfMaps.values().toArray()[0];
 		PlayerMap secondPlayerMap = (PlayerMap) halfMaps.values().toArray()[1];
@@ -53,20 +63,21 @@ public class MapCombiner {
 		return tmpMap;
 	}
 
-	private void setTreasureField(PlayerMap player) {
+	private void setTreasureField(PlayerMap player, int offsetX, int offsetY) {
 
-		List<Field> mapFields = new ArrayList<Field>(player.getMap().getHashMap().values());
+		Map halfMap = player.getMap();
 
 		boolean treasureSet = false;
 
 		while (!treasureSet) {
 
-			int randomField = new Random().nextInt(mapFields.size());
+			int randomField = random.nextInt(halfMap.getSize());
 
-			if (mapFields.get(randomField).getFieldTerrain().equals(ETerrainType.Grass)
-					&& !mapFields.get(randomField).getFieldCastleContent().equals(ECastleValue.MyCastlePresent)) {
+			if (halfMap.hasField(randomField) && halfMap.getFieldTerrain(randomField).equals(ETerrainType.Grass)
+					&& !halfMap.getFieldCastleContent(randomField).equals(ECastleValue.MyCastlePresent)) {
 
-				player.getPlayer().setTreasurePosition(mapFields.get(randomField));
+				player.getPlayer().setTreasurePosition(
+						new Coordinate(halfMap.getX(randomField) + offsetX, halfMap.getY(randomField) + offsetY));
 				treasureSet = true;
 
 			}
@@ -76,29 +87,21 @@ public class MapCombiner {
 	private Map combineToOneMap(PlayerMap firstPlayerMap, PlayerMap secondPlayerMap, int extendWidth,
 			int extendHeight) {
 
-		setTreasureField(firstPlayerMap);
-		setTreasureField(secondPlayerMap);
-
-		HashMap<Coordinate, Field> fullMapFields = firstPlayerMap.getMap().getHashMap();
+		setTreasureField(firstPlayerMap, 0, 0);
+		setTreasureField(secondPlayerMap, extendWidth, extendHeight);
 
-		for (Entry<Coordinate, Field> entry : secondPlayerMap.getMap().getHashMap().entrySet()) {
+		Map fullMap = new Map(GameConstants.HALF_MAP_WIDTH + extendWidth, GameConstants.HALF_MAP_HEIGHT + extendHeight);
 
-			Field field = entry.getValue();
+		fullMap.insert(firstPlayerMap.getMap(), 0, 0);
+		fullMap.insert(secondPlayerMap.getMap(), extendWidth, extendHeight);
 
-			field.getCoordinate().setX(field.getCoordinate().getX() + extendWidth);
-			field.getCoordinate().setY(field.getCoordinate().getY() + extendHeight);
+		Coordinate secondCastle = secondPlayerMap.getPlayer().getCastePosition();
+		Coordinate movedCastle = new Coordinate(secondCastle.getX() + extendWidth, secondCastle.getY() + extendHeight);
 
-			if (field.getFieldCastleContent().equals(ECastleValue.MyCastlePresent)) {
-
-				secondPlayerMap.getPlayer().setCastePosition(field);
-				secondPlayerMap.getPlayer().setCurrentPosition(field);
-			}
-
-			fullMapFields.put(field.getCoordinate(), field);
-
-		}
+		secondPlayerMap.getPlayer().setCastePosition(movedCastle);
+		secondPlayerMap.getPlayer().setCurrentPosition(movedCastle);
 
-		return new Map(fullMapFields);
+		return fullMap;
 	}
 
 }
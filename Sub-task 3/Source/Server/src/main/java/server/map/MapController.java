@@ -1,12 +1,14 @@
 package server.map;
 
 import java.util.HashMap;
-import java.util.Map.Entry;
+import java.util.LinkedHashMap;
 import java.util.Optional;
 
 import MessagesBase.HalfMap;
 import MessagesGameState.FullMap;
 import server.converter.MapConverter;
+import server.game.GameRandom;
+import server.move.MoveTable;
 import server.player.Player;
 import server.rules.GameConstants;
 
@@ -19,15 +21,34 @@ public class MapController {
 
 	private Map map;
 	private HashMap<String, PlayerMap> halfMaps;
+	private HashMap<String, MapViewHistory> mapViews;
 	private MapCombiner mapCombiner;
 	private MapConverter mapConverter;
+	private MoveTable moveTable;
+	private MapSnapshot snapshot;
+	private long mapVersion;
 
 	public MapController() {
 
+		this(new GameRandom());
+	}
+
+	/**
+	 * @param random (stream of the game, the map combiner and the map converter
+	 *               get their own streams split off from it)
+	 */
+	public MapController(GameRandom random) {
+
 		this.map = null;
-		this.halfMaps = new HashMap<String, PlayerMap>();
-		this.mapCombiner = new MapCombiner();
-		this.mapConverter = new MapConverter();
+		// kept in the order in which the half maps were received, so that the map
+		// combiner only depends on the random numbers of the game
+		this.halfMaps = new LinkedHashMap<String, PlayerMap>();
+		this.mapViews = new HashMap<String, MapViewHistory>();
+		this.mapCombiner = new MapCombiner(random.split());
+		this.mapConverter = new MapConverter(random.split());
+		this.moveTable = null;
+		this.snapshot = null;
+		this.mapVersion = 0;
 
 	}
 
@@ -36,17 +57,91 @@ public class MapController {
 		FullMap fullMap = new FullMap();
 
 		if (halfMaps.get(player.getPlayerID()) != null) {
-			fullMap = mapConverter.converteMapToFullMap(getMapDuplicate(getMap()), player, gameRound);
+			fullMap = mapConverter.converteMapToFullMap(getSnapshot(), player, gameRound);
 		}
 
 		return Optional.of(fullMap);
 
 	}
 
-	private Map getMap() {
+	/**
+	 * Returns the map of the player in the given game state. The map is converted
+	 * only once per game state and stored, so that later requests can get the
+	 * changes since this game state.
+	 * 
+	 * @param player
+	 * @param gameRound
+	 * @param gameStateID
+	 * @return
+	 */
+	public Optional<FullMap> getOptionalFullMap(Player player, int gameRound, String gameStateID) {
+
+		MapViewHistory history = mapViews.computeIfAbsent(player.getPlayerID(), playerID -> new MapViewHistory());
+		FullMap fullMap = history.getView(gameStateID);
+
+		if (fullMap == null) {
+
+			fullMap = getOptionalFullMap(player, gameRound).get();
+			history.addView(gameStateID, fullMap);
+		}
+
+		return Optional.of(fullMap);
+	}
+
+	/**
+	 * Returns the nodes of the players map which changed since the given base game
+	 * state. If the map of the base game state is not stored anymore or the shape
+	 * of the map changed since then (half maps combined), the full map has to be
+	 * sent instead.
+	 * 
+	 * @param player
+	 * @param gameRound
+	 * @param gameStateID     (current game state)
+	 * @param baseGameStateID (last game state applied by the client)
+	 * @return (FullMap with the changed nodes or null)
+	 */
+	public FullMap getMapDelta(Player player, int gameRound, String gameStateID, String baseGameStateID) {
+
+		FullMap fullMap = getOptionalFullMap(player, gameRound, gameStateID).get();
+		FullMap baseMap = mapViews.get(player.getPlayerID()).getView(baseGameStateID);
+
+		if (baseMap == null) {
+			return null;
+		}
+
+		return mapConverter.createFullMapDelta(baseMap, fullMap);
+	}
+
+	/**
+	 * Returns the current map: the half map of the first player as long as only
+	 * one half map was received, the combined map afterwards and null before.
+	 * 
+	 * @return (Map object or null)
+	 */
+	public Map getMap() {
 		return map;
 	}
 
+	/**
+	 * Returns the snapshot of the latest map version or null if no half map was
+	 * received yet.
+	 * 
+	 * @return (MapSnapshot object or null)
+	 */
+	public MapSnapshot getSnapshot() {
+		return snapshot;
+	}
+
+	/**
+	 * Publishes a new snapshot of the current map. Must be called after every
+	 * change of the map, all state requests until the next change read this
+	 * snapshot.
+	 */
+	public void publishSnapshot() {
+
+		this.snapshot = new MapSnapshot(++mapVersion, getMap());
+	}
+
 	private void setMap(Map map) {
 		this.map = map;
 	}
@@ -55,21 +150,68 @@ public class MapController {
 		return halfMaps;
 	}
 
-	private Map getMapDuplicate(Map map) {
+	/**
+	 * Returns the precomputed move data of the combined map or null as long as not
+	 * both half maps were received.
+	 * 
+	 * @return (MoveTable object or null)
+	 */
+	public MoveTable getMoveTable() {
+		return moveTable;
+	}
+
+	/**
+	 * Returns the number of fields held by this controller in the half maps, the
+	 * combined map and the published snapshot.
+	 * 
+	 * @return (Number)
+	 */
+	public int getStoredFieldsNum() {
+
+		int fieldsNum = 0;
+
+		for (PlayerMap halfMap : halfMaps.values()) {
+			fieldsNum += halfMap.getMap().getFieldsNum();
+		}
+
+		if (halfMaps.size() == GameConstants.HALF_MAPS_NUM_TO_COMPLETE_MAP) {
+			fieldsNum += getMap().getFieldsNum();
+		}
 
-		HashMap<Coordinate, Field> hashMap = new HashMap<>();
+		if (getSnapshot() != null) {
+			fieldsNum += getSnapshot().getFieldsNum();
+		}
 
-		for (Entry<Coordinate, Field> entry : map.getHashMap().entrySet()) {
+		return fieldsNum;
+	}
 
-			Coordinate coordinate = new Coordinate(entry.getKey().getX(), entry.getKey().getY());
-			Field field = new Field(coordinate, entry.getValue().getFieldTerrain(),
-					entry.getValue().getFieldCastleContent(), entry.getValue().getFieldAvatarContent(),
-					entry.getValue().getFieldTreasureContent());
+	/**
+	 * Restores the maps of a game from a snapshot. The move table is calculated
+	 * again and the snapshot of the map is published with the restored version,
+	 * so that the clients see the same map version as before.
+	 * 
+	 * @param map        (current map or null)
+	 * @param halfMaps   (received half maps by player id, in the order in which
+	 *                   they were received)
+	 * @param mapVersion (version of the last published snapshot)
+	 */
+	public void restoreMaps(Map map, LinkedHashMap<String, PlayerMap> halfMaps, long mapVersion) {
+
+		setMap(map);
+		this.halfMaps = halfMaps;
+		this.mapVersion = mapVersion;
+
+		if (halfMaps.size() == GameConstants.HALF_MAPS_NUM_TO_COMPLETE_MAP) {
+			this.moveTable = new MoveTable(map);
+		}
 
-			hashMap.put(coordinate, field);
+		if (map != null) {
+			this.snapshot = new MapSnapshot(mapVersion, map);
 		}
+	}
 
-		return new Map(hashMap);
+	public long getMapVersion() {
+		return mapVersion;
 	}
 
 	public void setHalfMap(Player player, HalfMap halfMap) {
@@ -85,9 +227,12 @@ public class MapController {
 		} else if (halfMaps.size() == GameConstants.HALF_MAPS_NUM_TO_COMPLETE_MAP) {
 
 			setMap(mapCombiner.combineHalfMaps(this.halfMaps));
+			this.moveTable = new MoveTable(getMap());
 
 		}
 
+		publishSnapshot();
+
 	}
 
 }
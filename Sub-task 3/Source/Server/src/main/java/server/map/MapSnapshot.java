@@ -0,0 +1,84 @@
+package server.map;
+
+import server.enumerations.EAvatarPositionValue;
+import server.enumerations.ECastleValue;
+import server.enumerations.ETerrainType;
+import server.enumerations.ETreasureValue;
+
+/**
+ * Read-only copy of a game map in the state of one map version. A new snapshot
+ * is only published when the map changes (half map received, avatar moved),
+ * and all state requests in between read the same snapshot. The per-player
+ * view (hidden enemy castle and avatar) is calculated while converting the
+ * snapshot, so the snapshot itself is never changed.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class MapSnapshot {
+
+	private final long version;
+	private final Map map;
+
+	/**
+	 * Instantiates a new snapshot of the given map. The map is copied, so later
+	 * changes of the map do not change the snapshot.
+	 *
+	 * @param version (number of the map version)
+	 * @param map
+	 */
+	public MapSnapshot(long version, Map map) {
+
+		this.version = version;
+		this.map = map.copy();
+	}
+
+	public long getVersion() {
+		return version;
+	}
+
+	public int getIndex(int x, int y) {
+		return map.getIndex(x, y);
+	}
+
+	public int getIndex(Coordinate coordinate) {
+		return map.getIndex(coordinate);
+	}
+
+	public int getX(int index) {
+		return map.getX(index);
+	}
+
+	public int getY(int index) {
+		return map.getY(index);
+	}
+
+	public boolean hasField(int index) {
+		return map.hasField(index);
+	}
+
+	public ETerrainType getFieldTerrain(int index) {
+		return map.getFieldTerrain(index);
+	}
+
+	public ECastleValue getFieldCastleContent(int index) {
+		return map.getFieldCastleContent(index);
+	}
+
+	public ETreasureValue getFieldTreasureContent(int index) {
+		return map.getFieldTreasureContent(index);
+	}
+
+	public EAvatarPositionValue getFieldAvatarContent(int index) {
+		return map.getFieldAvatarContent(index);
+	}
+
+	public int getSize() {
+		return map.getSize();
+	}
+
+	public int getFieldsNum() {
+		return map.getFieldsNum();
+	}
+
+}
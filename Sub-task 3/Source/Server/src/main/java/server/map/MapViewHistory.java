@@ -0,0 +1,53 @@
+package server.map;
+
+import java.util.LinkedHashMap;
+import java.util.Map.Entry;
+
+import MessagesGameState.FullMap;
+import server.rules.GameConstants;
+
+/**
+ * The last maps which were sent to one player, stored by the game state id in
+ * which they were sent. The map of a game state is converted only once, and a
+ * client which names the last game state it received can get only the nodes
+ * which changed since then. Older views are dropped.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class MapViewHistory {
+
+	private final LinkedHashMap<String, FullMap> views;
+
+	public MapViewHistory() {
+
+		this.views = new LinkedHashMap<String, FullMap>() {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Entry<String, FullMap> eldest) {
+				return size() > GameConstants.MAP_VIEW_HISTORY_SIZE;
+			}
+		};
+	}
+
+	/**
+	 * Returns the map which was sent to the player in the given game state.
+	 *
+	 * @param gameStateID
+	 * @return (FullMap object or null if the view is not stored anymore)
+	 */
+	public FullMap getView(String gameStateID) {
+		return views.get(gameStateID);
+	}
+
+	public void addView(String gameStateID, FullMap fullMap) {
+		views.put(gameStateID, fullMap);
+	}
+
+	public int getViewsNum() {
+		return views.size();
+	}
+
+}
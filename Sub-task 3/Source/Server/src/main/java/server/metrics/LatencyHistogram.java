@@ -0,0 +1,81 @@
+package server.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.AtomicHistogram;
+import org.HdrHistogram.Histogram;
+
+import server.rules.GameConstants;
+
+/**
+ * Latency histogram of one rule phase or endpoint together with the number of
+ * rejected calls. Recording is lock free, so it can be called from every
+ * request thread without slowing down other games.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class LatencyHistogram {
+
+	private static final double NANOS_PER_MICRO = 1000.0;
+
+	private final AtomicHistogram histogram;
+	private final LongAdder rejections;
+
+	public LatencyHistogram() {
+
+		this.histogram = new AtomicHistogram(GameConstants.METRICS_MAX_TRACKED_NANOS,
+				GameConstants.METRICS_SIGNIFICANT_DIGITS);
+		this.rejections = new LongAdder();
+	}
+
+	/**
+	 * Records the time since the given start. Longer calls than the tracked
+	 * maximum are recorded as the maximum.
+	 *
+	 * @param startNanos (value of System.nanoTime() when the call started)
+	 */
+	public void record(long startNanos) {
+
+		histogram.recordValue(Math.min(System.nanoTime() - startNanos, GameConstants.METRICS_MAX_TRACKED_NANOS));
+	}
+
+	public void countRejection() {
+
+		rejections.increment();
+	}
+
+	public long getCallsNum() {
+		return histogram.getTotalCount();
+	}
+
+	public long getRejectionsNum() {
+		return rejections.sum();
+	}
+
+	/**
+	 * Creates a report of the recorded calls, the latencies are converted to
+	 * microseconds.
+	 *
+	 * @return (calls, rejections, mean, p50, p90, p99, p999 and max)
+	 */
+	public Map<String, Object> getReport() {
+
+		Histogram snapshot = histogram.copy();
+		Map<String, Object> report = new LinkedHashMap<String, Object>();
+
+		report.put("calls", snapshot.getTotalCount());
+		report.put("rejections", rejections.sum());
+		report.put("meanMicros", snapshot.getMean() / NANOS_PER_MICRO);
+		report.put("p50Micros", snapshot.getValueAtPercentile(50) / NANOS_PER_MICRO);
+		report.put("p90Micros", snapshot.getValueAtPercentile(90) / NANOS_PER_MICRO);
+		report.put("p99Micros", snapshot.getValueAtPercentile(99) / NANOS_PER_MICRO);
+		report.put("p999Micros", snapshot.getValueAtPercentile(99.9) / NANOS_PER_MICRO);
+		report.put("maxMicros", snapshot.getMaxValue() / NANOS_PER_MICRO);
+
+		return report;
+	}
+
+}
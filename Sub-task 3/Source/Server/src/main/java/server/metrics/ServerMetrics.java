@@ -0,0 +1,128 @@
+package server.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Collects the latencies of every rule phase and every endpoint, counts the
+ * rejected requests by the error name of the rule exception and reads the
+ * registered gauges. The metrics are kept for the whole lifetime of the server
+ * and are exposed on the metrics endpoint.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class ServerMetrics {
+
+	private static final ConcurrentMap<String, LatencyHistogram> ruleHistograms;
+	private static final ConcurrentMap<String, LatencyHistogram> endpointHistograms;
+	private static final ConcurrentMap<String, LongAdder> rejections;
+	private static final ConcurrentMap<String, LongSupplier> gauges;
+
+	private ServerMetrics() {
+
+	}
+
+	static {
+		ruleHistograms = new ConcurrentHashMap<String, LatencyHistogram>();
+		endpointHistograms = new ConcurrentHashMap<String, LatencyHistogram>();
+		rejections = new ConcurrentHashMap<String, LongAdder>();
+		gauges = new ConcurrentHashMap<String, LongSupplier>();
+	}
+
+	/**
+	 * Registers a value which is read every time the report is created, e.g. the
+	 * number of running games.
+	 *
+	 * @param gaugeName
+	 * @param gauge
+	 */
+	public static void registerGauge(String gaugeName, LongSupplier gauge) {
+
+		gauges.put(gaugeName, gauge);
+	}
+
+	/**
+	 * Returns the histogram of one phase of a rule. Is called once per rule and
+	 * phase, the rules keep the histograms so that no lookup is needed per call.
+	 *
+	 * @param ruleName
+	 * @param phaseName
+	 * @return (LatencyHistogram object)
+	 */
+	public static LatencyHistogram getRuleHistogram(String ruleName, String phaseName) {
+
+		return ruleHistograms.computeIfAbsent(ruleName + "." + phaseName, name -> new LatencyHistogram());
+	}
+
+	/**
+	 * Records the latency of one request of an endpoint.
+	 *
+	 * @param endpointName
+	 * @param startNanos   (value of System.nanoTime() when the request started)
+	 */
+	public static void recordEndpoint(String endpointName, long startNanos) {
+
+		LatencyHistogram histogram = endpointHistograms.get(endpointName);
+
+		if (histogram == null) {
+			histogram = endpointHistograms.computeIfAbsent(endpointName, name -> new LatencyHistogram());
+		}
+
+		histogram.record(startNanos);
+	}
+
+	/**
+	 * Counts a request which was rejected with a rule exception.
+	 *
+	 * @param errorName (error name of the rule exception)
+	 */
+	public static void countRejection(String errorName) {
+
+		LongAdder counter = rejections.get(errorName);
+
+		if (counter == null) {
+			counter = rejections.computeIfAbsent(errorName, name -> new LongAdder());
+		}
+
+		counter.increment();
+	}
+
+	public static long getRejectionsNum(String errorName) {
+
+		LongAdder counter = rejections.get(errorName);
+
+		return counter == null ? 0 : counter.sum();
+	}
+
+	/**
+	 * Creates a report of all metrics, sorted by name.
+	 *
+	 * @return (rules, endpoints, rejections and gauges)
+	 */
+	public static Map<String, Object> getReport() {
+
+		Map<String, Object> report = new TreeMap<String, Object>();
+		Map<String, Object> rules = new TreeMap<String, Object>();
+		Map<String, Object> endpoints = new TreeMap<String, Object>();
+		Map<String, Long> rejectionsByName = new TreeMap<String, Long>();
+		Map<String, Long> gaugeValues = new TreeMap<String, Long>();
+
+		ruleHistograms.forEach((name, histogram) -> rules.put(name, histogram.getReport()));
+		endpointHistograms.forEach((name, histogram) -> endpoints.put(name, histogram.getReport()));
+		rejections.forEach((name, counter) -> rejectionsByName.put(name, counter.sum()));
+		gauges.forEach((name, gauge) -> gaugeValues.put(name, gauge.getAsLong()));
+
+		report.put("rules", rules);
+		report.put("endpoints", endpoints);
+		report.put("rejections", rejectionsByName);
+		report.put("gauges", gaugeValues);
+
+		return report;
+	}
+
+}
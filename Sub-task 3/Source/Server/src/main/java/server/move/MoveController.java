@@ -0,0 +1,116 @@
+package server.move;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import MessagesBase.PlayerMove;
+import server.converter.EnumConverter;
+import server.enumerations.EAvatarPositionValue;
+import server.enumerations.EMovementType;
+import server.enumerations.EPlayerStateValue;
+import server.map.Coordinate;
+import server.map.Map;
+import server.player.Player;
+
+/**
+ * Executes the moves sent by the players on the precomputed move table of the
+ * combined map. A player has to send the same move direction as often as the
+ * terrain of the current and the next field requires before the avatar
+ * changes its position. Changing the direction starts counting again.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class MoveController {
+
+	private static Logger logger = LoggerFactory.getLogger(MoveController.class);
+	private EnumConverter enumConverter;
+
+	public MoveController() {
+
+		this.enumConverter = new EnumConverter();
+	}
+
+	/**
+	 * Executes one move of the player. A move onto water or outside of the map
+	 * lets the player lose immediately. Reaching the own treasure collects it and
+	 * reaching the enemy castle with the collected treasure wins the game.
+	 * Otherwise the enemy is allowed to act next.
+	 *
+	 * @param moveTable (move table of the combined map)
+	 * @param player    (the player who sent the move)
+	 * @param enemy     (the second player of the game)
+	 * @param move      (move from the network protocol)
+	 */
+	public void executeMove(MoveTable moveTable, Player player, Player enemy, PlayerMove move) {
+
+		EMovementType direction = enumConverter.NetworkMove_To_EMovementType(move.getMove());
+		int position = moveTable.getMap().getIndex(player.getCurrentPosition());
+		int moveCost = moveTable.getMoveCost(position, direction);
+
+		if (moveCost == MoveTable.DEADLY_MOVE) {
+
+			logger.info("Player " + player.getPlayerID() + " moved into water or out of the map.");
+
+			setWinner(enemy, player);
+			return;
+		}
+
+		if (direction.equals(player.getCurrentMoveDirection())) {
+
+			player.setCurrentMoveProgress(player.getCurrentMoveProgress() + 1);
+
+		} else {
+
+			player.setCurrentMoveDirection(direction);
+			player.setCurrentMoveProgress(1);
+		}
+
+		if (player.getCurrentMoveProgress() >= moveCost) {
+
+			changePosition(moveTable.getMap(), player, enemy, moveTable.getNeighbour(position, direction));
+
+			if (player.getCurrentState().equals(EPlayerStateValue.Won)) {
+				return;
+			}
+		}
+
+		player.setCurrentState(EPlayerStateValue.ShouldWait);
+		enemy.setCurrentState(EPlayerStateValue.ShouldActNext);
+	}
+
+	private void changePosition(Map map, Player player, Player enemy, int nextField) {
+
+		Coordinate nextPosition = map.getCoordinate(nextField);
+
+		if (!player.getCurrentPosition().equals(enemy.getCurrentPosition())) {
+			map.setFieldAvatarContent(map.getIndex(player.getCurrentPosition()), EAvatarPositionValue.NoAvatarPresent);
+		}
+
+		map.setFieldAvatarContent(nextField, EAvatarPositionValue.MyAvatarPosition);
+		player.setCurrentPosition(nextPosition);
+		player.setCurrentMoveDirection(null);
+		player.setCurrentMoveProgress(0);
+
+		if (!player.isHasCollectedTreasure() && nextPosition.equals(player.getTreasurePosition())) {
+
+			logger.info("Player " + player.getPlayerID() + " collected the treasure.");
+
+			player.setHasCollectedTreasure(true);
+		}
+
+		if (player.isHasCollectedTreasure() && nextPosition.equals(enemy.getCastePosition())) {
+
+			logger.info("Player " + player.getPlayerID() + " captured the enemy castle.");
+
+			setWinner(player, enemy);
+		}
+	}
+
+	private void setWinner(Player winner, Player loser) {
+
+		winner.setCurrentState(EPlayerStateValue.Won);
+		loser.setCurrentState(EPlayerStateValue.Lost);
+	}
+
+}
@@ -0,0 +1,143 @@
+package server.move;
+
+import server.enumerations.EMovementType;
+import server.enumerations.ETerrainType;
+import server.exceptions.MapException;
+import server.map.Map;
+import server.rules.GameConstants;
+
+/**
+ * Precomputed movement data of a combined map. For every field index of the
+ * map (y * width + x) and every move direction the index of the neighbour
+ * field and the number of moves needed to get there are calculated once when
+ * the map is complete. Validating and executing a move is therefore an array
+ * access instead of a coordinate calculation on every move.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class MoveTable {
+
+	/**
+	 * Neighbour index of a move which leaves the map.
+	 */
+	public static final int OUTSIDE_OF_MAP = -1;
+
+	/**
+	 * Move cost of a move which ends on water or outside of the map.
+	 */
+	public static final int DEADLY_MOVE = 0;
+
+	private static final int DIRECTIONS_NUM = EMovementType.values().length;
+
+	private final Map map;
+	private final int[] neighbours;
+	private final int[] moveCosts;
+
+	/**
+	 * Instantiates a new move table for a complete map. The parameter must not be
+	 * null.
+	 *
+	 * @param map (the combined map of both players)
+	 */
+	public MoveTable(Map map) {
+
+		if (map == null)
+			throw new MapException("Map exception: The move table needs a combined map.");
+
+		this.map = map;
+		this.neighbours = new int[map.getSize() * DIRECTIONS_NUM];
+		this.moveCosts = new int[map.getSize() * DIRECTIONS_NUM];
+
+		for (int index = 0; index < map.getSize(); ++index) {
+
+			for (EMovementType direction : EMovementType.values()) {
+
+				int neighbour = calculateNeighbour(index, direction);
+				int tableIndex = index * DIRECTIONS_NUM + direction.ordinal();
+
+				neighbours[tableIndex] = neighbour;
+				moveCosts[tableIndex] = calculateMoveCost(index, neighbour);
+			}
+		}
+	}
+
+	private int calculateNeighbour(int index, EMovementType direction) {
+
+		int x = map.getX(index);
+		int y = map.getY(index);
+
+		switch (direction) {
+
+		case Down:
+			++y;
+			break;
+		case Left:
+			--x;
+			break;
+		case Right:
+			++x;
+			break;
+		case Up:
+			--y;
+			break;
+		}
+
+		if (x < 0 || y < 0 || x >= map.getWidth() || y >= map.getHeight() || !map.hasField(map.getIndex(x, y))) {
+			return OUTSIDE_OF_MAP;
+		}
+
+		return map.getIndex(x, y);
+	}
+
+	private int calculateMoveCost(int from, int neighbour) {
+
+		if (!map.hasField(from) || neighbour == OUTSIDE_OF_MAP
+				|| map.getFieldTerrain(neighbour).equals(ETerrainType.Water)) {
+
+			return DEADLY_MOVE;
+		}
+
+		return getTerrainCost(map.getFieldTerrain(from)) + getTerrainCost(map.getFieldTerrain(neighbour));
+	}
+
+	private int getTerrainCost(ETerrainType terrain) {
+
+		return terrain.equals(ETerrainType.Mountain) ? GameConstants.MOUNTAIN_MOVE_COST
+				: GameConstants.GRASS_MOVE_COST;
+	}
+
+	/**
+	 * Get the map the move data was calculated for.
+	 *
+	 * @return (Map object)
+	 */
+	public Map getMap() {
+		return map;
+	}
+
+	/**
+	 * Get the index of the field next to the given field in the move direction.
+	 *
+	 * @param index
+	 * @param direction
+	 * @return (index or OUTSIDE_OF_MAP)
+	 */
+	public int getNeighbour(int index, EMovementType direction) {
+		return neighbours[index * DIRECTIONS_NUM + direction.ordinal()];
+	}
+
+	/**
+	 * Get the number of moves which are needed to leave the given field and enter
+	 * its neighbour in the move direction. Leaving and entering a grass field costs
+	 * one move each, leaving and entering a mountain costs two moves each.
+	 *
+	 * @param index
+	 * @param direction
+	 * @return (number of moves or DEADLY_MOVE)
+	 */
+	public int getMoveCost(int index, EMovementType direction) {
+		return moveCosts[index * DIRECTIONS_NUM + direction.ordinal()];
+	}
+
+}
@@ -1,7 +1,8 @@
 package server.player;
 
+import server.enumerations.EMovementType;
 import server.enumerations.EPlayerStateValue;
-import server.map.Field;
+import server.map.Coordinate;
 
 /**
  * 
@@ -16,9 +17,11 @@ public class Player {
 	private String playerID;
 	private EPlayerStateValue currentState;
 	private boolean hasCollectedTreasure;
-	private Field treasurePosition;
-	private Field currentPosition;
-	private Field castePosition;
+	private Coordinate treasurePosition;
+	private Coordinate currentPosition;
+	private Coordinate castePosition;
+	private EMovementType currentMoveDirection;
+	private int currentMoveProgress;
 
 	public Player() {
 
@@ -76,11 +79,11 @@ public class Player {
 		this.hasCollectedTreasure = hasCollectedTreasure;
 	}
 
-	public Field getCastePosition() {
+	public Coordinate getCastePosition() {
 		return castePosition;
 	}
 
-	public void setCastePosition(Field castePosition) {
+	public void setCastePosition(Coordinate castePosition) {
 		this.castePosition = castePosition;
 	}
 
@@ -92,20 +95,36 @@ public class Player {
 		this.currentState = currentState;
 	}
 
-	public Field getTreasurePosition() {
+	public Coordinate getTreasurePosition() {
 		return treasurePosition;
 	}
 
-	public void setTreasurePosition(Field treasurePosition) {
+	public void setTreasurePosition(Coordinate treasurePosition) {
 		this.treasurePosition = treasurePosition;
 	}
 
-	public Field getCurrentPosition() {
+	public Coordinate getCurrentPosition() {
 		return currentPosition;
 	}
 
-	public void setCurrentPosition(Field currentPosition) {
+	public void setCurrentPosition(Coordinate currentPosition) {
 		this.currentPosition = currentPosition;
 	}
 
+	public EMovementType getCurrentMoveDirection() {
+		return currentMoveDirection;
+	}
+
+	public void setCurrentMoveDirection(EMovementType currentMoveDirection) {
+		this.currentMoveDirection = currentMoveDirection;
+	}
+
+	public int getCurrentMoveProgress() {
+		return currentMoveProgress;
+	}
+
+	public void setCurrentMoveProgress(int currentMoveProgress) {
+		this.currentMoveProgress = currentMoveProgress;
+	}
+
 }
@@ -4,7 +4,6 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map.Entry;
-import java.util.Random;
 import java.util.UUID;
 
 import org.slf4j.Logger;
@@ -13,6 +12,7 @@ import org.slf4j.LoggerFactory;
 import MessagesGameState.PlayerState;
 import server.converter.PlayerConverter;
 import server.enumerations.EPlayerStateValue;
+import server.game.GameRandom;
 
 /**
  * 
@@ -23,12 +23,24 @@ public class PlayerController {
 
 	private static Logger logger = LoggerFactory.getLogger(PlayerController.class);
 	private HashMap<String, Player> players;
+	private HashMap<String, Player> hiddenPlayers;
 	private PlayerConverter playerConverter;
+	private GameRandom random;
 	private boolean firstPlayerChoosen;
 
 	public PlayerController() {
 
+		this(new GameRandom());
+	}
+
+	/**
+	 * @param random (stream of the game which chooses the player who acts first)
+	 */
+	public PlayerController(GameRandom random) {
+
+		this.random = random;
 		this.players = new HashMap<String, Player>();
+		this.hiddenPlayers = new HashMap<String, Player>();
 		this.playerConverter = new PlayerConverter();
 		this.firstPlayerChoosen = false;
 	}
@@ -37,6 +49,47 @@ public class PlayerController {
 		return players;
 	}
 
+	/**
+	 * Adds a registered player to the game. The copy of the player which is shown
+	 * to the enemy gets its fake player id once here, so that converting the
+	 * player states does not generate a new id for every request.
+	 * 
+	 * @param player
+	 */
+	public void addPlayer(Player player) {
+
+		players.put(player.getPlayerID(), player);
+		hiddenPlayers.put(player.getPlayerID(), fakePlayerIdObject(player));
+	}
+
+	/**
+	 * Adds a player restored from a snapshot together with the fake player id
+	 * which was shown to the enemy before.
+	 * 
+	 * @param player
+	 * @param hiddenPlayerID
+	 */
+	public void restorePlayer(Player player, String hiddenPlayerID) {
+
+		Player hiddenPlayer = new Player(player.getStudentFirstName(), player.getStudentLastName(),
+				player.getStudentID(), hiddenPlayerID);
+
+		players.put(player.getPlayerID(), player);
+		hiddenPlayers.put(player.getPlayerID(), hiddenPlayer);
+	}
+
+	public String getHiddenPlayerID(String playerID) {
+		return hiddenPlayers.get(playerID).getPlayerID();
+	}
+
+	public boolean isFirstPlayerChoosen() {
+		return firstPlayerChoosen;
+	}
+
+	public void setFirstPlayerChoosen(boolean firstPlayerChoosen) {
+		this.firstPlayerChoosen = firstPlayerChoosen;
+	}
+
 	public Player getSecondPlayer(String firstPlayerID) {
 
 		for (Entry<String, Player> entry : players.entrySet()) {
@@ -51,13 +104,19 @@ public class PlayerController {
 		return null;
 	}
 
-	public Collection<PlayerState> getPlayerStates(Player player) {
+	/**
+	 * Sets the state of the player to the opposite of the second players state.
+	 * As long as no player was chosen to act first, the player is chosen randomly.
+	 * 
+	 * @param player
+	 * @return (true if the state of the player was changed)
+	 */
+	public boolean updatePlayerState(Player player) {
 
-		Collection<PlayerState> playerStates = new HashSet<>();
+		EPlayerStateValue oldState = player.getCurrentState();
 
 		if (this.players.size() == 2) {
 
-			Random random = new Random();
 			boolean canSendNext = random.nextBoolean();
 
 			if (canSendNext || this.firstPlayerChoosen) {
@@ -80,14 +139,32 @@ public class PlayerController {
 			}
 
 			this.firstPlayerChoosen = true;
-			playerStates.add(playerConverter
-					.convertePlayerToPlayerState(fakePlayerIdObject(getSecondPlayer(player.getPlayerID()))));
+		}
+
+		return !oldState.equals(player.getCurrentState());
+	}
+
+	/**
+	 * Converts the states of both players into network protocol objects without
+	 * changing them. The id of the second player is hidden.
+	 * 
+	 * @param player
+	 * @return
+	 */
+	public Collection<PlayerState> convertePlayerStates(Player player) {
+
+		Collection<PlayerState> playerStates = new HashSet<>();
+
+		if (this.players.size() == 2) {
+
+			Player hiddenPlayer = hiddenPlayers.get(getSecondPlayer(player.getPlayerID()).getPlayerID());
+
+			playerStates.add(playerConverter.convertePlayerToPlayerState(hiddenPlayer));
 		}
 
 		playerStates.add(playerConverter.convertePlayerToPlayerState(player));
 
 		return playerStates;
-
 	}
 
 	private Player fakePlayerIdObject(Player player) {
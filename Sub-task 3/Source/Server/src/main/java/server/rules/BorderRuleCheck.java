@@ -6,6 +6,7 @@ import org.slf4j.LoggerFactory;
 import MessagesBase.ETerrain;
 import MessagesBase.HalfMap;
 import MessagesBase.HalfMapNode;
+import MessagesBase.PlayerMove;
 import MessagesBase.PlayerRegistration;
 import server.exceptions.MapRuleException;
 import server.player.Player;
@@ -49,6 +50,12 @@ public class BorderRuleCheck implements IRule {
 
 	}
 
+	@Override
+	public void receiveMove(Player player, PlayerMove playerMove, String gameID) {
+		// TODO Auto-generated method stub
+
+	}
+
 	/**
 	 * Each card border may only consist of less than half of water fields (maximum
 	 * 3 water fields on the long and 1 water field on the short sides) in order to
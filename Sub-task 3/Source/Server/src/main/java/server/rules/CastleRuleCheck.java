@@ -6,6 +6,7 @@ import org.slf4j.LoggerFactory;
 import MessagesBase.ETerrain;
 import MessagesBase.HalfMap;
 import MessagesBase.HalfMapNode;
+import MessagesBase.PlayerMove;
 import MessagesBase.PlayerRegistration;
 import server.exceptions.MapRuleException;
 import server.player.Player;
@@ -49,6 +50,12 @@ public class CastleRuleCheck implements IRule {
 
 	}
 
+	@Override
+	public void receiveMove(Player player, PlayerMove playerMove, String gameID) {
+		// TODO Auto-generated method stub
+
+	}
+
 	/**
 	 * The generated map half must contain a grass field with the castle on it.
 	 * 
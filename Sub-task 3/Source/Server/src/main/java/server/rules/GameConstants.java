@@ -1,5 +1,7 @@
 package server.rules;
 
+import server.enumerations.EGameExecutionMode;
+
 /**
  * All constant values needed for game creation and execution.
  * 
@@ -14,6 +16,9 @@ public class GameConstants {
 	public static final int NUM_OF_CASTLE_PER_HALF_MAP = 1;
 	public static final int ROUND_AFTER_WHICH_REAL_POSITION_VISIBLE = 10;
 	public static final int MAX_PARALLEL_GAME_NUM = 999;
+	public static final String GAME_CAPACITY_PROPERTY = "games.capacity";
+	public static final long ADMISSION_IDLE_MILLIS = 60000;
+	public static final long ADMISSION_MIN_RETRY_AFTER_SECONDS = 1;
 
 	public static final int NUM_OF_HALF_MAP_FIELDS = 32;
 	public static final int HALF_MAP_HEIGHT = 4;
@@ -41,6 +46,46 @@ public class GameConstants {
 	public static final int MIN_MAP_WIDTH_FIELD = 0;
 
 	public static final int HALF_MAPS_NUM_TO_COMPLETE_MAP = 2;
-	public static final int TIME_MILLIS_TO_CHECK_FOR_EXPIRED_GAMES = 600000;
+	public static final boolean COMPILED_HALF_MAP_RULES = true;
+
+	public static final int GRASS_MOVE_COST = 1;
+	public static final int MOUNTAIN_MOVE_COST = 2;
+
+	public static final int TIME_MILLIS_TO_CHECK_FOR_EXPIRED_GAMES = 5000;
 	public static final int TIME_MILLIS_AFTER_WHICH_GAME_EXPIRES = 600000;
+
+	public static final int ESTIMATED_BYTES_PER_GAME = 1200;
+	public static final int ESTIMATED_BYTES_PER_PLAYER = 320;
+	public static final int ESTIMATED_BYTES_PER_MAP_FIELD = 1;
+
+	public static final boolean GAME_STATE_CACHE_ENABLED = true;
+
+	public static final int MAP_VIEW_HISTORY_SIZE = 4;
+	public static final String MAP_DELTA_BASE_HEADER = "Map-Delta-Base";
+
+	public static final String WIRE_FORMAT_JSON_MEDIA_TYPE = "application/json";
+	public static final String WIRE_FORMAT_BINARY_MEDIA_TYPE = "application/x-game-binary";
+
+	public static final long LONG_POLL_DEFAULT_TIMEOUT_MILLIS = 30000;
+	public static final long LONG_POLL_MAX_TIMEOUT_MILLIS = 60000;
+
+	public static final EGameExecutionMode GAME_EXECUTION_MODE = EGameExecutionMode.Mailbox;
+	public static final int MAILBOX_POOL_THREADS_NUM = Runtime.getRuntime().availableProcessors();
+	public static final int MAILBOX_TASKS_PER_DRAIN = 16;
+
+	public static final boolean METRICS_ENABLED = true;
+	public static final long METRICS_MAX_TRACKED_NANOS = 120_000_000_000L;
+	public static final int METRICS_SIGNIFICANT_DIGITS = 2;
+
+	public static final boolean GAME_JOURNAL_ENABLED = true;
+	public static final int GAME_JOURNAL_BATCH_SIZE = 512;
+	public static final int GAME_JOURNAL_MAX_PENDING_EVENTS = 65536;
+	public static final long GAME_JOURNAL_FLUSH_INTERVAL_MILLIS = 50;
+	public static final String GAME_JOURNAL_FILE_PROPERTY = "games.journal";
+	public static final String GAME_JOURNAL_DEFAULT_FILE = "games.journal";
+
+	public static final boolean GAME_SNAPSHOT_ENABLED = true;
+	public static final String GAME_SNAPSHOT_FILE_PROPERTY = "games.snapshot.file";
+	public static final String GAME_SNAPSHOT_DEFAULT_FILE = "games.snapshot";
+	public static final long GAME_SNAPSHOT_INTERVAL_MILLIS = 10000;
 }
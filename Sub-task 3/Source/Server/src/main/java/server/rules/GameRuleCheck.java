@@ -4,6 +4,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import MessagesBase.HalfMap;
+import MessagesBase.PlayerMove;
 import MessagesBase.PlayerRegistration;
 import server.exceptions.GameRuleException;
 import server.game.RunningGames;
@@ -25,7 +26,7 @@ public class GameRuleCheck implements IRule {
 
 	@Override
 	public void newGame() {
-		isMaxGameNumberExceed();
+		isGameCapacityReached();
 
 	}
 
@@ -47,9 +48,15 @@ public class GameRuleCheck implements IRule {
 
 	}
 
+	@Override
+	public void receiveMove(Player player, PlayerMove playerMove, String gameID) {
+		isGameExisting(gameID);
+
+	}
+
 	private void isGameExisting(String gameID) {
 
-		if (RunningGames.getGames().get(gameID) == null) {
+		if (RunningGames.getGame(gameID) == null) {
 
 			logger.info("A game rule was broken by sending an unexcisting gameID.");
 
@@ -57,14 +64,13 @@ public class GameRuleCheck implements IRule {
 		}
 	}
 
-	private void isMaxGameNumberExceed() {
-
-		if (RunningGames.getGames().size() == GameConstants.MAX_PARALLEL_GAME_NUM) {
-
-			RunningGames.removeOldestGame();
-
-		}
+	/**
+	 * If all game slots are used, a finished or idle game is evicted. If every
+	 * game is active, the new game is rejected (see GameAdmission).
+	 */
+	private void isGameCapacityReached() {
 
+		RunningGames.checkAdmission();
 	}
 
 }
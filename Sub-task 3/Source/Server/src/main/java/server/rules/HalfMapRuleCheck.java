@@ -0,0 +1,333 @@
+package server.rules;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import MessagesBase.ETerrain;
+import MessagesBase.HalfMap;
+import MessagesBase.HalfMapNode;
+import MessagesBase.PlayerMove;
+import MessagesBase.PlayerRegistration;
+import server.exceptions.MapRuleException;
+import server.player.Player;
+
+/**
+ * Checks all half map rules (border, castle, island and terrain rule) in one
+ * rule. The nodes of the half map are read once, during which the water fields
+ * on the borders, the castles and the terrain types are counted and the
+ * accessible fields are indexed by column and row. The island rule is then
+ * checked with an iterative flood fill over this index instead of searching
+ * the neighbours of every visited field in all nodes.
+ *
+ * The rules are checked in the same order and throw the same exceptions as
+ * BorderRuleCheck, CastleRuleCheck, IslandRuleCheck and TerrainRuleCheck.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class HalfMapRuleCheck implements IRule {
+
+	private static Logger logger = LoggerFactory.getLogger(HalfMapRuleCheck.class);
+
+	private static final int NO_NODE = -1;
+	private static final int COLUMNS_NUM = GameConstants.MAX_HALF_MAP_WIDTH_FIELD + 1;
+	private static final int ROWS_NUM = GameConstants.MAX_HALF_MAP_HEIGHT_FIELD + 1;
+
+	public HalfMapRuleCheck() {
+		super();
+		// TODO Auto-generated constructor stub
+	}
+
+	@Override
+	public void newGame() {
+		// TODO Auto-generated method stub
+
+	}
+
+	@Override
+	public void registerPlayer(PlayerRegistration playerRegistration, String gameID) {
+		// TODO Auto-generated method stub
+
+	}
+
+	@Override
+	public void receiveHalfMap(Player player, HalfMap halfMap, String gameID) {
+
+		halfMapRules(player, halfMap);
+
+	}
+
+	@Override
+	public void returnGameState(String gameID, String playerID) {
+		// TODO Auto-generated method stub
+
+	}
+
+	@Override
+	public void receiveMove(Player player, PlayerMove playerMove, String gameID) {
+		// TODO Auto-generated method stub
+
+	}
+
+	private void halfMapRules(Player player, HalfMap halfMap) {
+
+		Collection<HalfMapNode> halfMapNodes = halfMap.getNodes();
+		HalfMapNode[] nodes = halfMapNodes.toArray(new HalfMapNode[halfMapNodes.size()]);
+		boolean[] accessible = new boolean[nodes.length];
+
+		int longSideWaterFieldsUp = 0;
+		int longSideWaterFieldsDown = 0;
+		int shortSideWaterFieldsLeft = 0;
+		int shortSideWaterFieldsRight = 0;
+
+		int castleNum = 0;
+		boolean castleOnGrass = false;
+		int castleNode = NO_NODE;
+
+		int grassFieldNum = 0;
+		int mountainFieldNum = 0;
+		int waterFieldNum = 0;
+
+		boolean[] fieldOccupied = new boolean[COLUMNS_NUM * ROWS_NUM];
+		boolean nodesIndexable = true;
+
+		for (int nodeNum = 0; nodeNum < nodes.length; ++nodeNum) {
+
+			HalfMapNode node = nodes[nodeNum];
+			ETerrain terrain = node.getTerrain();
+
+			if (terrain.equals(ETerrain.Water)) {
+
+				++waterFieldNum;
+
+				if (node.getY() == 0)
+					++longSideWaterFieldsDown;
+
+				if (node.getY() == GameConstants.MAX_HALF_MAP_HEIGHT_FIELD)
+					++longSideWaterFieldsUp;
+
+				if (node.getX() == 0)
+					++shortSideWaterFieldsLeft;
+
+				if (node.getX() == GameConstants.MAX_HALF_MAP_WIDTH_FIELD)
+					++shortSideWaterFieldsRight;
+
+			} else {
+
+				if (terrain.equals(ETerrain.Grass))
+					++grassFieldNum;
+
+				if (terrain.equals(ETerrain.Mountain))
+					++mountainFieldNum;
+
+				accessible[nodeNum] = true;
+
+				if (nodesIndexable && isInHalfMap(node)) {
+
+					int field = node.getY() * COLUMNS_NUM + node.getX();
+					nodesIndexable = !fieldOccupied[field];
+					fieldOccupied[field] = true;
+
+				} else {
+					nodesIndexable = false;
+				}
+			}
+
+			if (node.isFortPresent()) {
+
+				++castleNum;
+				castleOnGrass = terrain.equals(ETerrain.Grass);
+
+				if (castleNode == NO_NODE)
+					castleNode = nodeNum;
+			}
+		}
+
+		if (longSideWaterFieldsUp > GameConstants.MAX_MAP_WATER_FIELDS_ON_HORIZONTAL_EGE
+				|| longSideWaterFieldsDown > GameConstants.MAX_MAP_WATER_FIELDS_ON_HORIZONTAL_EGE
+				|| shortSideWaterFieldsLeft > GameConstants.MAX_MAP_WATER_FIELDS_ON_VERTICAL_EGE
+				|| shortSideWaterFieldsRight > GameConstants.MAX_MAP_WATER_FIELDS_ON_VERTICAL_EGE) {
+
+			logger.info("The border rule was broken by player with ID: {}", player.getPlayerID());
+
+			throw new MapRuleException(player, "Border rule not passed. ",
+					"The amount of water fields on borders is too high.");
+		}
+
+		if (castleNum != GameConstants.NUM_OF_CASTLE_PER_HALF_MAP || !castleOnGrass) {
+
+			logger.info("The castle rule was broken by player with ID: {}", player.getPlayerID());
+
+			throw new MapRuleException(player, "Castle rule not passed.",
+					"The provided half map either does not have the accurate castle number or the castle is not on a grass field");
+		}
+
+		int visitedFieldsNum = nodesIndexable ? floodFill(nodes, accessible, castleNode)
+				: floodFillUnindexed(nodes, accessible, castleNode);
+
+		if (visitedFieldsNum != (GameConstants.NUM_OF_HALF_MAP_FIELDS - waterFieldNum)) {
+
+			logger.info("The island rule was broken by player with ID: {}", player.getPlayerID());
+
+			throw new MapRuleException(player, "Island found.",
+					"There is an island on the provided half map, so that not all fields are accessible.");
+		}
+
+		if (grassFieldNum < GameConstants.MIN_MAP_GRASS_FIELDS
+				|| mountainFieldNum < GameConstants.MIN_MAP_MOUNTAIN_FIELDS
+				|| waterFieldNum < GameConstants.MIN_MAP_WATER_FIELDS) {
+
+			logger.info("The terrain rule was broken by player with ID: {}", player.getPlayerID());
+
+			throw new MapRuleException(player, "Terrain type rule not passed. ",
+					"The minimal terrain type number is not satisfied");
+		}
+	}
+
+	private boolean isInHalfMap(HalfMapNode node) {
+
+		return node.getX() >= 0 && node.getX() < COLUMNS_NUM && node.getY() >= 0 && node.getY() < ROWS_NUM;
+	}
+
+	/**
+	 * Counts the accessible fields which can be reached from the castle. As in
+	 * IslandRuleCheck, every accessible field in the column left and right and in
+	 * the row above and below of a visited field is its neighbour. The accessible
+	 * fields are linked per column and row, so every column and row is only
+	 * visited once.
+	 *
+	 * @param nodes
+	 * @param accessible (true for every node which is not water)
+	 * @param startNode  (index of the castle node)
+	 * @return (number of visited fields)
+	 */
+	private int floodFill(HalfMapNode[] nodes, boolean[] accessible, int startNode) {
+
+		int[] columnFirstNode = new int[COLUMNS_NUM];
+		int[] rowFirstNode = new int[ROWS_NUM];
+		int[] nextNodeInColumn = new int[nodes.length];
+		int[] nextNodeInRow = new int[nodes.length];
+
+		Arrays.fill(columnFirstNode, NO_NODE);
+		Arrays.fill(rowFirstNode, NO_NODE);
+
+		for (int nodeNum = 0; nodeNum < nodes.length; ++nodeNum) {
+
+			if (accessible[nodeNum]) {
+
+				nextNodeInColumn[nodeNum] = columnFirstNode[nodes[nodeNum].getX()];
+				columnFirstNode[nodes[nodeNum].getX()] = nodeNum;
+
+				nextNodeInRow[nodeNum] = rowFirstNode[nodes[nodeNum].getY()];
+				rowFirstNode[nodes[nodeNum].getY()] = nodeNum;
+			}
+		}
+
+		boolean[] visited = new boolean[nodes.length];
+		boolean[] columnVisited = new boolean[COLUMNS_NUM];
+		boolean[] rowVisited = new boolean[ROWS_NUM];
+		int[] openNodes = new int[nodes.length];
+		int openNodesNum = 0;
+		int visitedFieldsNum = 1;
+
+		visited[startNode] = true;
+		openNodes[openNodesNum++] = startNode;
+
+		while (openNodesNum > 0) {
+
+			HalfMapNode node = nodes[openNodes[--openNodesNum]];
+
+			for (int column = node.getX() - 1; column <= node.getX() + 1; column += 2) {
+
+				if (column < 0 || column >= COLUMNS_NUM || columnVisited[column])
+					continue;
+
+				columnVisited[column] = true;
+
+				for (int next = columnFirstNode[column]; next != NO_NODE; next = nextNodeInColumn[next]) {
+
+					if (!visited[next]) {
+
+						visited[next] = true;
+						++visitedFieldsNum;
+						openNodes[openNodesNum++] = next;
+					}
+				}
+			}
+
+			for (int row = node.getY() - 1; row <= node.getY() + 1; row += 2) {
+
+				if (row < 0 || row >= ROWS_NUM || rowVisited[row])
+					continue;
+
+				rowVisited[row] = true;
+
+				for (int next = rowFirstNode[row]; next != NO_NODE; next = nextNodeInRow[next]) {
+
+					if (!visited[next]) {
+
+						visited[next] = true;
+						++visitedFieldsNum;
+						openNodes[openNodesNum++] = next;
+					}
+				}
+			}
+		}
+
+		return visitedFieldsNum;
+	}
+
+	/**
+	 * Same flood fill as floodFill for half maps with accessible fields outside
+	 * of the half map borders or with more than one accessible field on the same
+	 * position, which can not be indexed by column and row. The neighbours are
+	 * searched in all nodes and, as in IslandRuleCheck, equal nodes are only
+	 * counted once.
+	 *
+	 * @param nodes
+	 * @param accessible (true for every node which is not water)
+	 * @param startNode  (index of the castle node)
+	 * @return (number of visited fields)
+	 */
+	private int floodFillUnindexed(HalfMapNode[] nodes, boolean[] accessible, int startNode) {
+
+		boolean[] visited = new boolean[nodes.length];
+		int[] openNodes = new int[nodes.length];
+		int openNodesNum = 0;
+
+		visited[startNode] = true;
+		openNodes[openNodesNum++] = startNode;
+
+		while (openNodesNum > 0) {
+
+			HalfMapNode node = nodes[openNodes[--openNodesNum]];
+
+			for (int next = 0; next < nodes.length; ++next) {
+
+				if (accessible[next] && !visited[next]
+						&& (nodes[next].getX() == node.getX() + 1 || nodes[next].getX() == node.getX() - 1
+								|| nodes[next].getY() == node.getY() + 1 || nodes[next].getY() == node.getY() - 1)) {
+
+					visited[next] = true;
+					openNodes[openNodesNum++] = next;
+				}
+			}
+		}
+
+		Set<HalfMapNode> visitedFields = new HashSet<HalfMapNode>();
+
+		for (int nodeNum = 0; nodeNum < nodes.length; ++nodeNum) {
+
+			if (visited[nodeNum])
+				visitedFields.add(nodes[nodeNum]);
+		}
+
+		return visitedFields.size();
+	}
+
+}
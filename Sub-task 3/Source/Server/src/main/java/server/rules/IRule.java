@@ -1,10 +1,13 @@
 package server.rules;
 
 import MessagesBase.HalfMap;
+import MessagesBase.PlayerMove;
 import MessagesBase.PlayerRegistration;
 import server.player.Player;
 
 /**
+ * A rule which is checked before an action is executed. One rule object is
+ * shared by all games (see Rules), so implementations must be stateless.
  * 
  * @author Nemanja Srdanovic
  *
@@ -19,4 +22,6 @@ public interface IRule {
 
 	public void returnGameState(String gameID, String playerID);
 
+	public void receiveMove(Player player, PlayerMove playerMove, String gameID);
+
 }
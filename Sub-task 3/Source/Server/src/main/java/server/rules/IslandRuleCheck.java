@@ -11,6 +11,7 @@ import org.slf4j.LoggerFactory;
 import MessagesBase.ETerrain;
 import MessagesBase.HalfMap;
 import MessagesBase.HalfMapNode;
+import MessagesBase.PlayerMove;
 import MessagesBase.PlayerRegistration;
 import server.exceptions.MapRuleException;
 import server.player.Player;
@@ -24,12 +25,9 @@ public class IslandRuleCheck implements IRule {
 
 	private static Logger logger = LoggerFactory.getLogger(IslandRuleCheck.class);
 
-	private Set<HalfMapNode> visitedFields;
-
 	public IslandRuleCheck() {
-
-		this.visitedFields = new HashSet<HalfMapNode>();
-
+		super();
+		// TODO Auto-generated constructor stub
 	}
 
 	@Override
@@ -57,6 +55,12 @@ public class IslandRuleCheck implements IRule {
 
 	}
 
+	@Override
+	public void receiveMove(Player player, PlayerMove playerMove, String gameID) {
+		// TODO Auto-generated method stub
+
+	}
+
 	/**
 	 * No islands may be generated, so mountains or grass fields are never allowed
 	 * to be completely enclosed by water or map boundaries (or a combination of
@@ -67,8 +71,8 @@ public class IslandRuleCheck implements IRule {
 	 */
 	private void waterFieldsIslandRule(Player player, HalfMap halfMap) {
 
-		visitedFields.clear();
-		fieldAccessibilityRule(halfMap, getCastleNode(player, halfMap));
+		Set<HalfMapNode> visitedFields = new HashSet<HalfMapNode>();
+		fieldAccessibilityRule(halfMap, getCastleNode(player, halfMap), visitedFields);
 
 		if (visitedFields.size() != (GameConstants.NUM_OF_HALF_MAP_FIELDS - countHalfMapWaterFields(halfMap))) {
 
@@ -88,9 +92,10 @@ public class IslandRuleCheck implements IRule {
 	 * field of the half map (which does not consist of water).
 	 * 
 	 * @param halfMap
-	 * @return boolean
+	 * @param node
+	 * @param visitedFields (fields visited in the current check)
 	 */
-	private void fieldAccessibilityRule(HalfMap halfMap, HalfMapNode node) {
+	private void fieldAccessibilityRule(HalfMap halfMap, HalfMapNode node, Set<HalfMapNode> visitedFields) {
 
 		if (node != null) {
 
@@ -104,7 +109,7 @@ public class IslandRuleCheck implements IRule {
 
 			for (HalfMapNode currentNode : getNeighbors(node, halfMap)) {
 
-				fieldAccessibilityRule(halfMap, currentNode);
+				fieldAccessibilityRule(halfMap, currentNode, visitedFields);
 			}
 
 		}
@@ -0,0 +1,100 @@
+package server.rules;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import MessagesBase.HalfMap;
+import MessagesBase.PlayerMove;
+import MessagesBase.PlayerRegistration;
+import server.enumerations.EPlayerStateValue;
+import server.exceptions.GameRuleException;
+import server.exceptions.MoveRuleException;
+import server.game.RunningGames;
+import server.player.Player;
+
+/**
+ * 
+ * @author Nemanja Srdanovic
+ *
+ */
+public class MoveRuleCheck implements IRule {
+
+	private static Logger logger = LoggerFactory.getLogger(MoveRuleCheck.class);
+
+	public MoveRuleCheck() {
+		super();
+		// TODO Auto-generated constructor stub
+	}
+
+	@Override
+	public void newGame() {
+		// TODO Auto-generated method stub
+
+	}
+
+	@Override
+	public void registerPlayer(PlayerRegistration playerRegistration, String gameID) {
+		// TODO Auto-generated method stub
+
+	}
+
+	@Override
+	public void receiveHalfMap(Player player, HalfMap halfMap, String gameID) {
+		// TODO Auto-generated method stub
+
+	}
+
+	@Override
+	public void returnGameState(String gameID, String playerID) {
+		// TODO Auto-generated method stub
+
+	}
+
+	@Override
+	public void receiveMove(Player player, PlayerMove playerMove, String gameID) {
+		isGameOverRule(gameID, player);
+		isMapCompleteRule(gameID, player);
+		isPlayersTurnRule(player);
+
+	}
+
+	/**
+	 * The game is over as soon as one player won or lost, also for the enemy of a
+	 * player who lost by breaking a rule and whose state was not changed.
+	 */
+	private void isGameOverRule(String gameID, Player player) {
+
+		if (player.getCurrentState().equals(EPlayerStateValue.Won)
+				|| player.getCurrentState().equals(EPlayerStateValue.Lost)
+				|| RunningGames.getGame(gameID).getGameController().isFinished()) {
+
+			logger.info("A move was sent after the game was over by player with id: " + player.getPlayerID());
+
+			throw new GameRuleException("Game over.", "The game is already over, no further moves are accepted.");
+		}
+	}
+
+	private void isMapCompleteRule(String gameID, Player player) {
+
+		if (RunningGames.getGame(gameID).getGameController().getHalfMaps()
+				.size() < GameConstants.HALF_MAPS_NUM_TO_COMPLETE_MAP) {
+
+			logger.info("A move rule was broken by moving before the map was complete by player with id: "
+					+ player.getPlayerID());
+
+			throw new MoveRuleException(player, "Map not complete.",
+					"The player id( " + player.getPlayerID() + " ) has sent a move before both half maps were sent.");
+		}
+	}
+
+	private void isPlayersTurnRule(Player player) {
+
+		if (!player.getCurrentState().equals(EPlayerStateValue.ShouldActNext)) {
+
+			logger.info("A move rule was broken by moving out of turn by player with id: " + player.getPlayerID());
+
+			throw new MoveRuleException(player, "Not players turn.",
+					"The player id( " + player.getPlayerID() + " ) has sent a move although it was not his turn.");
+		}
+	}
+}
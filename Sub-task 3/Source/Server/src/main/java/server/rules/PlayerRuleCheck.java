@@ -4,6 +4,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import MessagesBase.HalfMap;
+import MessagesBase.PlayerMove;
 import MessagesBase.PlayerRegistration;
 import server.exceptions.GameRuleException;
 import server.game.RunningGames;
@@ -47,9 +48,15 @@ public class PlayerRuleCheck implements IRule {
 
 	}
 
+	@Override
+	public void receiveMove(Player player, PlayerMove playerMove, String gameID) {
+		isPlayerRegistredRule(gameID, playerMove.getUniquePlayerID());
+
+	}
+
 	private void isPlayerRegistredRule(String gameID, String playerID) {
 
-		if (RunningGames.getGames().get(gameID).getGameController().getPlayers().get(playerID) == null) {
+		if (RunningGames.getGame(gameID).getGameController().getPlayers().get(playerID) == null) {
 
 			logger.info("A player rule was broken by sending an unexcisting playerID [" + playerID + "] for game: "
 					+ gameID);
@@ -63,7 +70,7 @@ public class PlayerRuleCheck implements IRule {
 
 	private void allPlayersRegistredRule(String gameID) {
 
-		if (RunningGames.getGames().get(gameID).getGameController().getPlayers()
+		if (RunningGames.getGame(gameID).getGameController().getPlayers()
 				.size() >= GameConstants.MAX_PLAYER_NUM_PER_GAME) {
 
 			logger.info("A player rule was broken by trying to register more than two players for game: " + gameID);
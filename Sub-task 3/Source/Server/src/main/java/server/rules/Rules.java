@@ -1,32 +1,101 @@
 package server.rules;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
+
+import server.enumerations.ERulePhase;
+import server.exceptions.RuleException;
+import server.metrics.LatencyHistogram;
+import server.metrics.ServerMetrics;
 
 /**
- * 
+ * The rules which are checked for every action of every game. The rule objects
+ * are created once and shared by all games, so a rule must not keep any state
+ * between two checks. Everything a check needs is handed over with the call.
+ *
  * @author Nemanja Srdanovic
  *
  */
 public class Rules {
 
-	private List<IRule> rules;
+	private static final List<IRule> rules;
+	private static final LatencyHistogram[][] ruleHistograms;
+
+	private Rules() {
+
+	}
+
+	static {
+
+		List<IRule> ruleList = new ArrayList<IRule>();
+
+		if (GameConstants.COMPILED_HALF_MAP_RULES) {
+
+			ruleList.add(new GameRuleCheck());
+			ruleList.add(new PlayerRuleCheck());
+			ruleList.add(new HalfMapRuleCheck());
+
+		} else {
+
+			ruleList.add(new BorderRuleCheck());
+			ruleList.add(new CastleRuleCheck());
+			ruleList.add(new GameRuleCheck());
+			ruleList.add(new IslandRuleCheck());
+			ruleList.add(new PlayerRuleCheck());
+			ruleList.add(new TerrainRuleCheck());
+		}
+
+		ruleList.add(new TooMuchMapsSentRuleCheck());
+		ruleList.add(new MoveRuleCheck());
+
+		rules = Collections.unmodifiableList(ruleList);
+		ruleHistograms = new LatencyHistogram[rules.size()][ERulePhase.values().length];
+
+		for (int ruleNum = 0; ruleNum < rules.size(); ++ruleNum) {
+			for (ERulePhase phase : ERulePhase.values()) {
+
+				ruleHistograms[ruleNum][phase.ordinal()] = ServerMetrics
+						.getRuleHistogram(rules.get(ruleNum).getClass().getSimpleName(), phase.name());
+			}
+		}
+	}
+
+	/**
+	 * Checks all rules for one phase of a request, e.g.
+	 * check(ERulePhase.ReceiveMove, rule -> rule.receiveMove(player, move,
+	 * gameID)). The first rule which is broken throws its exception. If metrics
+	 * are enabled, the latency and rejections of every rule are recorded.
+	 *
+	 * @param phase
+	 * @param check (calls the method of the phase on the given rule)
+	 */
+	public static void check(ERulePhase phase, Consumer<IRule> check) {
+
+		if (!GameConstants.METRICS_ENABLED) {
 
-	public Rules() {
+			rules.forEach(check);
+			return;
+		}
 
-		this.rules = new ArrayList<IRule>();
+		for (int ruleNum = 0; ruleNum < rules.size(); ++ruleNum) {
 
-		this.rules.add(new BorderRuleCheck());
-		this.rules.add(new CastleRuleCheck());
-		this.rules.add(new GameRuleCheck());
-		this.rules.add(new IslandRuleCheck());
-		this.rules.add(new PlayerRuleCheck());
-		this.rules.add(new TerrainRuleCheck());
-		this.rules.add(new TooMuchMapsSentRuleCheck());
+			LatencyHistogram histogram = ruleHistograms[ruleNum][phase.ordinal()];
+			long startNanos = System.nanoTime();
 
+			try {
+				check.accept(rules.get(ruleNum));
+			} catch (RuleException e) {
+				histogram.countRejection();
+				throw e;
+			} finally {
+				histogram.record(startNanos);
+			}
+		}
 	}
 
-	public List<IRule> getRules() {
+	public static List<IRule> getRules() {
 		return rules;
 	}
 
@@ -6,6 +6,7 @@ import org.slf4j.LoggerFactory;
 import MessagesBase.ETerrain;
 import MessagesBase.HalfMap;
 import MessagesBase.HalfMapNode;
+import MessagesBase.PlayerMove;
 import MessagesBase.PlayerRegistration;
 import server.exceptions.MapRuleException;
 import server.player.Player;
@@ -49,6 +50,12 @@ public class TerrainRuleCheck implements IRule {
 
 	}
 
+	@Override
+	public void receiveMove(Player player, PlayerMove playerMove, String gameID) {
+		// TODO Auto-generated method stub
+
+	}
+
 	/**
 	 * Every terrain type must appear, i.e. every half of the map must contain at
 	 * least 3 mountain fields,15 grass fields and 4 water fields.
@@ -4,6 +4,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import MessagesBase.HalfMap;
+import MessagesBase.PlayerMove;
 import MessagesBase.PlayerRegistration;
 import server.exceptions.MapRuleException;
 import server.game.RunningGames;
@@ -47,9 +48,15 @@ public class TooMuchMapsSentRuleCheck implements IRule {
 
 	}
 
+	@Override
+	public void receiveMove(Player player, PlayerMove playerMove, String gameID) {
+		// TODO Auto-generated method stub
+
+	}
+
 	private void mapAlreadySentRule(String gameID, Player player) {
 
-		if (RunningGames.getGames().get(gameID).getGameController().getHalfMaps().get(player.getPlayerID()) != null) {
+		if (RunningGames.getGame(gameID).getGameController().getHalfMaps().get(player.getPlayerID()) != null) {
 
 			logger.info("A map rule was broken by trying to send more than one half map by player with id: "
 					+ player.getPlayerID());
@@ -0,0 +1,69 @@
+package test.server.converter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares the sources of the codecs of the server with the copies of the
+ * client, line by line and without the package names. The clients decode what
+ * the server encodes, so the copies must not drift apart. Like the self-play
+ * tournament, the test expects the client project next to the server project.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class CodecCopiesTest {
+
+	private static final Path SERVER_CONVERTER = Paths.get("src/main/java/server/converter");
+	private static final Path CLIENT_CONVERTER = Paths
+			.get("../../../Sub-task 2/Source/Client/src/main/java/client/converter");
+	private static final String[] CODEC_FILES = { "IMessageCodec.java", "CompactJsonCodec.java", "BinaryCodec.java",
+			"MapNodeCodes.java" };
+
+	/**
+	 * Test that reads both copies of every codec file and checks that they only
+	 * differ in the package names.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	public void codecCopies_CompareSources_SameSources() throws IOException {
+
+		Assertions.assertTrue(Files.isDirectory(CLIENT_CONVERTER),
+				"Client converter not found at " + CLIENT_CONVERTER.toAbsolutePath());
+
+		for (String codecFile : CODEC_FILES) {
+
+			List<String> serverLines = readWithoutPackageNames(SERVER_CONVERTER.resolve(codecFile));
+			List<String> clientLines = readWithoutPackageNames(CLIENT_CONVERTER.resolve(codecFile));
+
+			for (int line = 0; line < Math.min(serverLines.size(), clientLines.size()); ++line) {
+
+				Assertions.assertEquals(serverLines.get(line), clientLines.get(line),
+						codecFile + " line " + (line + 1));
+			}
+
+			Assertions.assertEquals(serverLines.size(), clientLines.size(), codecFile + " number of lines");
+		}
+	}
+
+	/**
+	 * The sources are read as ISO-8859-1 like the build does, every character is
+	 * kept as it is.
+	 */
+	private List<String> readWithoutPackageNames(Path file) throws IOException {
+
+		List<String> lines = Files.readAllLines(file, StandardCharsets.ISO_8859_1);
+		lines.replaceAll(line -> line.replaceAll("\\b(server|client)\\.", ""));
+
+		return lines;
+	}
+
+}
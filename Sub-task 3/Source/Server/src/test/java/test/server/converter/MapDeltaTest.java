@@ -0,0 +1,295 @@
+package test.server.converter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import MessagesBase.ETerrain;
+import MessagesBase.HalfMap;
+import MessagesBase.PlayerRegistration;
+import MessagesGameState.EFortState;
+import MessagesGameState.EPlayerGameState;
+import MessagesGameState.EPlayerPositionState;
+import MessagesGameState.ETreasureState;
+import MessagesGameState.FullMap;
+import MessagesGameState.FullMapNode;
+import MessagesGameState.GameState;
+import MessagesGameState.PlayerState;
+import server.converter.CompactJsonCodec;
+import server.converter.MapConverter;
+import server.enumerations.EWireFormat;
+import server.game.Game;
+import server.game.GameRandom;
+import server.game.GameStateResponse;
+import server.game.RunningGames;
+import server.main.GameRequests;
+import server.main.ServerEndpoints;
+import server.map.MapController;
+import server.player.Player;
+import server.rules.GameConstants;
+import test.server.rules.HalfMapRuleTestObjects;
+
+/**
+ * Checks the map deltas of the game state: only the changed nodes are sent, an
+ * unchanged map gives an empty delta and the full map is sent if the base game
+ * state is not stored anymore or the shape of the map changed since then.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class MapDeltaTest {
+
+	private static final long SEED = 20201;
+	private static final int MAP_WIDTH = 16;
+	private static final int MAP_HEIGHT = 4;
+	private static final int MAP_FIELDS_NUM = GameConstants.NUM_OF_HALF_MAP_FIELDS
+			* GameConstants.HALF_MAPS_NUM_TO_COMPLETE_MAP;
+
+	private final HalfMap validHalfMap = new HalfMapRuleTestObjects(SEED).getValidHalfMap();
+	private final CompactJsonCodec codec = new CompactJsonCodec();
+
+	private String gameID;
+	private Game game;
+	private List<String> playerIDs;
+	private String firstPlayerID;
+	private String halfMapStateID;
+
+	/**
+	 * Executed before each test to create a game in which both half maps were
+	 * sent. The player who sent the first half map requested his game state
+	 * before the second half map was sent, so he holds a view of his half map.
+	 */
+	@BeforeEach
+	public void setUp() {
+
+		gameID = GameRequests.createGame(SEED).getUniqueGameID();
+		game = RunningGames.getGame(gameID);
+		playerIDs = new ArrayList<String>();
+
+		for (int playerNum = 0; playerNum < 2; ++playerNum) {
+
+			playerIDs.add(GameRequests.registerPlayer(game, gameID, new PlayerRegistration("Delta", "Player", "0"))
+					.getUniquePlayerID());
+		}
+
+		firstPlayerID = sendHalfMap();
+		halfMapStateID = requestGameState(firstPlayerID, null).getGameStateID();
+
+		sendHalfMap();
+	}
+
+	/**
+	 * Executed after each test to remove the created games.
+	 */
+	@AfterEach
+	public void tearDown() {
+
+		for (Game runningGame : new ArrayList<Game>(RunningGames.getGamesInCreationOrder())) {
+			RunningGames.removeGame(runningGame);
+		}
+	}
+
+	/**
+	 * Test that changes two nodes of a map and checks that the delta contains
+	 * exactly these nodes.
+	 */
+	@Test
+	public void twoNodesChanged_CreateFullMapDelta_OnlyChangedNodes() {
+
+		FullMap baseMap = createFullMap(-1, -1);
+		FullMap fullMap = createFullMap(3, 5);
+
+		FullMap mapDelta = new MapConverter(new GameRandom(SEED)).createFullMapDelta(baseMap, fullMap);
+
+		Assertions.assertEquals(2, mapDelta.getMapNodes().size());
+
+		for (FullMapNode node : mapDelta.getMapNodes()) {
+
+			Assertions.assertTrue(node.getX() == 3 || node.getX() == 5);
+			Assertions.assertEquals(EPlayerPositionState.MyPosition, node.getPlayerPositionState());
+		}
+
+		Assertions.assertTrue(new MapConverter(new GameRandom(SEED)).createFullMapDelta(fullMap, fullMap)
+				.getMapNodes().isEmpty());
+	}
+
+	/**
+	 * Test that requests the game state twice without a change in between and
+	 * checks that the second response is an empty map delta.
+	 */
+	@Test
+	public void mapUnchanged_RequestMapDelta_EmptyMapDelta() {
+
+		String gameStateID = requestGameState(firstPlayerID, null).getGameStateID();
+		GameStateResponse response = requestGameState(firstPlayerID, gameStateID);
+
+		Assertions.assertTrue(response.isMapDelta());
+		Assertions.assertEquals(gameStateID, response.getMapDeltaBase());
+		Assertions.assertTrue(decodeMap(response).getMapNodes().isEmpty());
+	}
+
+	/**
+	 * Test that stores more views of a half map than the history holds and checks
+	 * that a delta based on the oldest view is refused, while a delta based on a
+	 * view which is still stored is created.
+	 */
+	@Test
+	public void baseViewEvicted_GetMapDelta_NoMapDelta() {
+
+		MapController mapController = new MapController(new GameRandom(SEED));
+		Player player = new Player("Delta", "Player", "0", firstPlayerID);
+		int gameRound = 1;
+
+		mapController.setHalfMap(player, new HalfMap(firstPlayerID, validHalfMap.getNodes()));
+
+		for (int view = 0; view <= GameConstants.MAP_VIEW_HISTORY_SIZE; ++view) {
+			mapController.getOptionalFullMap(player, gameRound, "view-" + view);
+		}
+
+		String gameStateID = "view-" + GameConstants.MAP_VIEW_HISTORY_SIZE;
+
+		Assertions.assertNull(mapController.getMapDelta(player, gameRound, gameStateID, "view-0"));
+		Assertions.assertTrue(mapController.getMapDelta(player, gameRound, gameStateID, "view-1").getMapNodes()
+				.isEmpty());
+	}
+
+	/**
+	 * Test that requests a delta based on the view of the half map after both half
+	 * maps were combined and checks that the full map is sent instead.
+	 */
+	@Test
+	public void halfMapsCombined_RequestMapDelta_FullMap() {
+
+		GameStateResponse response = requestGameState(firstPlayerID, halfMapStateID);
+
+		Assertions.assertFalse(response.isMapDelta());
+		Assertions.assertNull(response.getMapDeltaBase());
+		Assertions.assertEquals(MAP_FIELDS_NUM, decodeMap(response).getMapNodes().size());
+
+		FullMap fullMap = createFullMap(-1, -1);
+		FullMap halfMap = new FullMap(new ArrayList<FullMapNode>(fullMap.getMapNodes()).subList(0,
+				GameConstants.NUM_OF_HALF_MAP_FIELDS));
+
+		Assertions.assertNull(new MapConverter(new GameRandom(SEED)).createFullMapDelta(halfMap, fullMap));
+	}
+
+	/**
+	 * Test that requests the game state at the endpoint with and without a base
+	 * game state and checks that only the map delta is marked with the
+	 * Map-Delta-Base header.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	public void mapDeltaRequested_ReturnGameState_MapDeltaBaseHeaderSet() throws IOException {
+
+		ServerEndpoints endpoints = new ServerEndpoints();
+		String gameStateID = requestGameState(firstPlayerID, null).getGameStateID();
+
+		HttpServletResponse fullMapResponse = createResponse();
+		endpoints.returnGameState(gameID, firstPlayerID, null, null, null, fullMapResponse);
+
+		Mockito.verify(fullMapResponse, Mockito.never())
+				.setHeader(ArgumentMatchers.eq(GameConstants.MAP_DELTA_BASE_HEADER), ArgumentMatchers.anyString());
+
+		HttpServletResponse mapDeltaResponse = createResponse();
+		endpoints.returnGameState(gameID, firstPlayerID, gameStateID, null, null, mapDeltaResponse);
+
+		Mockito.verify(mapDeltaResponse).setHeader(GameConstants.MAP_DELTA_BASE_HEADER, gameStateID);
+	}
+
+	private HttpServletResponse createResponse() throws IOException {
+
+		HttpServletResponse response = Mockito.mock(HttpServletResponse.class);
+		Mockito.when(response.getOutputStream()).thenReturn(Mockito.mock(ServletOutputStream.class));
+
+		return response;
+	}
+
+	private GameStateResponse requestGameState(String playerID, String mapDeltaSince) {
+
+		GameRequests.checkGameStateRequest(gameID, playerID);
+
+		return GameRequests.getGameState(game, gameID, playerID, null, mapDeltaSince, EWireFormat.Json);
+	}
+
+	private FullMap decodeMap(GameStateResponse response) {
+
+		return codec.decodeGameState(new ByteArrayInputStream(response.getBody())).getData().get().getMap().get();
+	}
+
+	/**
+	 * Creates a rectangle map of grass with the own position on the nodes of the
+	 * given columns of the first row.
+	 */
+	private FullMap createFullMap(int firstPositionX, int secondPositionX) {
+
+		List<FullMapNode> nodes = new ArrayList<FullMapNode>();
+
+		for (int y = 0; y < MAP_HEIGHT; ++y) {
+
+			for (int x = 0; x < MAP_WIDTH; ++x) {
+
+				boolean position = y == 0 && (x == firstPositionX || x == secondPositionX);
+
+				nodes.add(new FullMapNode(ETerrain.Grass,
+						position ? EPlayerPositionState.MyPosition : EPlayerPositionState.NoPlayerPresent,
+						ETreasureState.NoOrUnknownTreasureState, EFortState.NoOrUnknownFortState, x, y));
+			}
+		}
+
+		return new FullMap(nodes);
+	}
+
+	/**
+	 * Requests the game states of both players and lets the player who should act
+	 * next send the valid half map.
+	 *
+	 * @return (id of the player who sent the half map)
+	 */
+	private String sendHalfMap() {
+
+		for (int request = 0; request < 100; ++request) {
+
+			for (String playerID : playerIDs) {
+
+				GameState gameState = codec
+						.decodeGameState(new ByteArrayInputStream(requestGameState(playerID, null).getBody())).getData()
+						.get();
+
+				if (getState(gameState, playerID) == EPlayerGameState.ShouldActNext) {
+
+					GameRequests.receiveHalfMap(game, gameID, new HalfMap(playerID, validHalfMap.getNodes()));
+					return playerID;
+				}
+			}
+		}
+
+		Assertions.fail("No player was chosen to send his half map.");
+
+		return null;
+	}
+
+	private EPlayerGameState getState(GameState gameState, String playerID) {
+
+		for (PlayerState playerState : gameState.getPlayers()) {
+
+			if (playerState.getUniquePlayerID().equals(playerID))
+				return playerState.getState();
+		}
+
+		return null;
+	}
+
+}
@@ -0,0 +1,145 @@
+package test.server.game;
+
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import server.game.Game;
+import server.game.GameExpiryReport;
+import server.game.GameExpiryWheel;
+import server.game.RunningGames;
+import server.main.GameRequests;
+
+/**
+ * Checks that the expiry wheel removes a game at the first tick after its idle
+ * time, keeps a game with later activity and does not remove a game whose
+ * expiry lies more than one revolution of the wheel ahead.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class GameExpiryWheelTest {
+
+	private static final long IDLE_MILLIS = 1000;
+	private static final long TICK_MILLIS = 100;
+	private static final int REVOLUTIONS_NUM = 3;
+
+	private Game game;
+	private String gameID;
+	private long activityTime;
+
+	/**
+	 * Executed before each test to create a running game.
+	 */
+	@BeforeEach
+	public void setUp() {
+
+		gameID = GameRequests.createGame().getUniqueGameID();
+		game = RunningGames.getGame(gameID);
+		activityTime = game.getLastActivityTime();
+	}
+
+	/**
+	 * Executed after each test to remove the created games.
+	 */
+	@AfterEach
+	public void tearDown() {
+
+		for (Game runningGame : new ArrayList<Game>(RunningGames.getGamesInCreationOrder())) {
+			RunningGames.removeGame(runningGame);
+		}
+	}
+
+	/**
+	 * Test that sweeps the wheel until just before the tick in which the idle time
+	 * of the game has passed and checks that the game is only removed in this
+	 * tick.
+	 */
+	@Test
+	public void gameIdle_ExpireIdleGames_RemovedAtExpiryTick() {
+
+		GameExpiryWheel wheel = new GameExpiryWheel(IDLE_MILLIS, TICK_MILLIS, activityTime);
+		long expiryTime = getExpiryTickTime(activityTime);
+
+		wheel.schedule(game);
+
+		Assertions.assertEquals(0, wheel.expireIdleGames(expiryTime - 1).getExpiredGamesNum());
+		Assertions.assertSame(game, RunningGames.getGame(gameID));
+
+		GameExpiryReport report = wheel.expireIdleGames(expiryTime);
+
+		Assertions.assertEquals(1, report.getProcessedGamesNum());
+		Assertions.assertEquals(1, report.getExpiredGamesNum());
+		Assertions.assertNull(RunningGames.getGame(gameID));
+	}
+
+	/**
+	 * Test that lets the game receive a request after it was scheduled and checks
+	 * that it is scheduled again when its first expiry tick is reached and only
+	 * removed after the idle time since the request.
+	 *
+	 * @throws InterruptedException
+	 */
+	@Test
+	public void activityAfterScheduling_ExpireIdleGames_Rescheduled() throws InterruptedException {
+
+		GameExpiryWheel wheel = new GameExpiryWheel(IDLE_MILLIS, TICK_MILLIS, activityTime);
+
+		wheel.schedule(game);
+
+		Thread.sleep(TICK_MILLIS);
+		game.updateLastActivity();
+
+		long laterActivityTime = game.getLastActivityTime();
+
+		Assertions.assertTrue(getExpiryTickTime(laterActivityTime) > getExpiryTickTime(activityTime));
+
+		GameExpiryReport report = wheel.expireIdleGames(getExpiryTickTime(activityTime));
+
+		Assertions.assertEquals(1, report.getProcessedGamesNum());
+		Assertions.assertEquals(0, report.getExpiredGamesNum());
+		Assertions.assertSame(game, RunningGames.getGame(gameID));
+
+		Assertions.assertEquals(1, wheel.expireIdleGames(getExpiryTickTime(laterActivityTime)).getExpiredGamesNum());
+		Assertions.assertNull(RunningGames.getGame(gameID));
+	}
+
+	/**
+	 * Test that starts the wheel several revolutions before the expiry of the game
+	 * and sweeps it tick by tick. The slot of the game is reached in every
+	 * revolution, but the game is only removed at its expiry tick.
+	 */
+	@Test
+	public void expiryRevolutionsAhead_ExpireIdleGames_NotRemovedEarly() {
+
+		long revolutionMillis = (IDLE_MILLIS / TICK_MILLIS + 2) * TICK_MILLIS;
+		long startTime = activityTime - REVOLUTIONS_NUM * revolutionMillis;
+		long expiryTime = getExpiryTickTime(activityTime);
+
+		GameExpiryWheel wheel = new GameExpiryWheel(IDLE_MILLIS, TICK_MILLIS, startTime);
+
+		wheel.schedule(game);
+
+		for (long currentTime = startTime + TICK_MILLIS; currentTime < expiryTime; currentTime += TICK_MILLIS) {
+
+			Assertions.assertEquals(0, wheel.expireIdleGames(currentTime).getExpiredGamesNum(), "Time " + currentTime);
+		}
+
+		Assertions.assertSame(game, RunningGames.getGame(gameID));
+		Assertions.assertEquals(1, wheel.expireIdleGames(expiryTime).getExpiredGamesNum());
+		Assertions.assertNull(RunningGames.getGame(gameID));
+	}
+
+	/**
+	 * Returns the start of the first tick in which the idle time since the given
+	 * activity has passed.
+	 */
+	private long getExpiryTickTime(long lastActivityTime) {
+
+		return -Math.floorDiv(-(lastActivityTime + IDLE_MILLIS), TICK_MILLIS) * TICK_MILLIS;
+	}
+
+}
@@ -0,0 +1,131 @@
+package test.server.game;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import server.exceptions.GameRuleException;
+import server.game.GameIDAllocator;
+
+/**
+ * Checks that the game id allocator issues every id only once, also when many
+ * threads allocate at the same time, that released ids are issued again and
+ * that reserved ids of restored games are not issued.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class GameIDAllocatorTest {
+
+	private static final int ID_SPACE = 1 << (GameIDAllocator.GAME_ID_LENGTH * 4);
+	private static final int THREADS_NUM = 8;
+	private static final int IDS_PER_THREAD_NUM = 20000;
+
+	/**
+	 * Test that allocates ids from many threads at once and checks that no id was
+	 * issued twice.
+	 *
+	 * @throws InterruptedException
+	 * @throws ExecutionException
+	 */
+	@Test
+	public void manyThreads_AllocateIDs_AllIDsUnique() throws InterruptedException, ExecutionException {
+
+		GameIDAllocator allocator = new GameIDAllocator();
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS_NUM);
+		List<Future<List<String>>> allocations = new ArrayList<Future<List<String>>>();
+
+		try {
+
+			for (int threadNum = 0; threadNum < THREADS_NUM; ++threadNum) {
+
+				Callable<List<String>> allocation = () -> {
+
+					List<String> gameIDs = new ArrayList<String>(IDS_PER_THREAD_NUM);
+
+					for (int idNum = 0; idNum < IDS_PER_THREAD_NUM; ++idNum) {
+						gameIDs.add(allocator.allocate());
+					}
+
+					return gameIDs;
+				};
+
+				allocations.add(executor.submit(allocation));
+			}
+
+			Set<String> gameIDs = new HashSet<String>();
+
+			for (Future<List<String>> allocation : allocations) {
+				gameIDs.addAll(allocation.get());
+			}
+
+			Assertions.assertEquals(THREADS_NUM * IDS_PER_THREAD_NUM, gameIDs.size());
+			Assertions.assertEquals(THREADS_NUM * IDS_PER_THREAD_NUM, allocator.getUsedIDsNum());
+
+		} finally {
+
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Test that uses every id, releases one of them and checks that exactly this
+	 * id is issued again.
+	 */
+	@Test
+	public void allIDsUsed_ReleaseID_IDIssuedAgain() {
+
+		GameIDAllocator allocator = new GameIDAllocator();
+		String releasedGameID = null;
+
+		for (int idNum = 0; idNum < ID_SPACE; ++idNum) {
+
+			String gameID = allocator.allocate();
+
+			if (idNum == ID_SPACE / 2) {
+				releasedGameID = gameID;
+			}
+		}
+
+		Assertions.assertThrows(GameRuleException.class, () -> allocator.allocate());
+
+		allocator.release(releasedGameID);
+
+		Assertions.assertFalse(allocator.isUsed(releasedGameID));
+		Assertions.assertEquals(ID_SPACE - 1, allocator.getUsedIDsNum());
+		Assertions.assertEquals(releasedGameID, allocator.allocate());
+		Assertions.assertTrue(allocator.isUsed(releasedGameID));
+	}
+
+	/**
+	 * Test that reserves the id of a restored game in a new allocator, which would
+	 * issue this id first, and checks that the id is reserved only once and not
+	 * issued while all other ids are allocated.
+	 */
+	@Test
+	public void restoredIDReserved_AllocateIDs_ReservedIDNotIssued() {
+
+		String restoredGameID = new GameIDAllocator(0).allocate();
+		GameIDAllocator allocator = new GameIDAllocator(0);
+
+		Assertions.assertTrue(allocator.reserve(restoredGameID));
+		Assertions.assertFalse(allocator.reserve(restoredGameID));
+
+		for (int idNum = 1; idNum < ID_SPACE; ++idNum) {
+			Assertions.assertNotEquals(restoredGameID, allocator.allocate());
+		}
+
+		Assertions.assertThrows(GameRuleException.class, () -> allocator.allocate());
+		Assertions.assertEquals(ID_SPACE, allocator.getUsedIDsNum());
+	}
+
+}
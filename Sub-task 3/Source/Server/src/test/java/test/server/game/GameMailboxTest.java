@@ -0,0 +1,216 @@
+package test.server.game;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import server.exceptions.MoveRuleException;
+import server.exceptions.RuleException;
+import server.game.GameMailbox;
+import server.player.Player;
+import server.rules.GameConstants;
+
+/**
+ * Checks that the actions of a mailbox run one at a time in the order in which
+ * they were submitted, that broken rules reach the caller and that a mailbox
+ * with more actions than one drain executes keeps all of them.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class GameMailboxTest {
+
+	private static final int THREADS_NUM = 8;
+	private static final int ACTIONS_PER_THREAD_NUM = 500;
+	private static final int DRAINS_NUM = 10;
+	private static final long TIMEOUT_SECONDS = 10;
+
+	/**
+	 * Test that executes actions on one mailbox from many threads at once and
+	 * checks that no two actions overlapped, that every action ran and that the
+	 * actions of each thread ran in the order of the thread.
+	 *
+	 * @throws InterruptedException
+	 * @throws ExecutionException
+	 * @throws TimeoutException
+	 */
+	@Test
+	public void manyThreads_ExecuteActions_OneAtATimeInOrder()
+			throws InterruptedException, ExecutionException, TimeoutException {
+
+		GameMailbox mailbox = new GameMailbox();
+		AtomicBoolean running = new AtomicBoolean(false);
+		AtomicBoolean overlapped = new AtomicBoolean(false);
+		// only changed inside of the actions, which the mailbox serializes
+		List<Integer> executedActions = new ArrayList<Integer>();
+		CountDownLatch start = new CountDownLatch(1);
+		List<Thread> threads = new ArrayList<Thread>();
+
+		for (int threadNum = 0; threadNum < THREADS_NUM; ++threadNum) {
+
+			int firstAction = threadNum * ACTIONS_PER_THREAD_NUM;
+
+			Thread thread = new Thread(() -> {
+
+				awaitQuietly(start);
+
+				for (int action = firstAction; action < firstAction + ACTIONS_PER_THREAD_NUM; ++action) {
+
+					int actionNum = action;
+
+					mailbox.execute(() -> {
+
+						if (!running.compareAndSet(false, true)) {
+							overlapped.set(true);
+						}
+
+						executedActions.add(actionNum);
+						running.set(false);
+
+						return null;
+					});
+				}
+			});
+
+			thread.setDaemon(true);
+			threads.add(thread);
+			thread.start();
+		}
+
+		long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS);
+
+		start.countDown();
+
+		for (Thread thread : threads) {
+			thread.join(Math.max(deadline - System.currentTimeMillis(), 1));
+		}
+
+		Assertions.assertFalse(overlapped.get());
+
+		List<Integer> result = readExecutedActions(mailbox, executedActions);
+
+		Assertions.assertEquals(THREADS_NUM * ACTIONS_PER_THREAD_NUM, result.size());
+
+		int[] lastActions = new int[THREADS_NUM];
+		Arrays.fill(lastActions, -1);
+
+		for (int action : result) {
+
+			int threadNum = action / ACTIONS_PER_THREAD_NUM;
+
+			Assertions.assertTrue(action > lastActions[threadNum], "Action " + action);
+			lastActions[threadNum] = action;
+		}
+	}
+
+	/**
+	 * Test that breaks a rule inside of an action and checks that execute throws
+	 * the exception of the action and that the future of executeAsync is
+	 * completed with it.
+	 *
+	 * @throws InterruptedException
+	 */
+	@Test
+	public void ruleBroken_ExecuteAction_RuleExceptionPassedOn() throws InterruptedException {
+
+		GameMailbox mailbox = new GameMailbox();
+		RuleException brokenRule = new MoveRuleException(new Player("Mailbox", "Player", "0", "player"),
+				"Not players turn.", "The player sent a move although the enemy should act next.");
+
+		RuleException thrown = Assertions.assertThrows(RuleException.class, () -> mailbox.execute(() -> {
+			throw brokenRule;
+		}));
+
+		Assertions.assertSame(brokenRule, thrown);
+
+		CompletableFuture<Object> future = mailbox.executeAsync(() -> {
+			throw brokenRule;
+		});
+
+		ExecutionException ex = Assertions.assertThrows(ExecutionException.class,
+				() -> future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+		Assertions.assertTrue(future.isCompletedExceptionally());
+		Assertions.assertSame(brokenRule, ex.getCause());
+		Assertions.assertEquals(1, (int) mailbox.execute(() -> 1));
+	}
+
+	/**
+	 * Test that fills the mailbox with the actions of several drains while the
+	 * first action blocks and checks that after the release all actions run in the
+	 * order in which they were submitted. One drain only executes
+	 * MAILBOX_TASKS_PER_DRAIN actions, so the mailbox has to schedule itself again.
+	 *
+	 * @throws InterruptedException
+	 * @throws ExecutionException
+	 * @throws TimeoutException
+	 */
+	@Test
+	public void moreActionsThanOneDrain_SubmitActions_AllExecutedInOrder()
+			throws InterruptedException, ExecutionException, TimeoutException {
+
+		GameMailbox mailbox = new GameMailbox();
+		int actionsNum = GameConstants.MAILBOX_TASKS_PER_DRAIN * DRAINS_NUM + 1;
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch executed = new CountDownLatch(actionsNum);
+		List<Integer> executedActions = new ArrayList<Integer>();
+
+		mailbox.submit(() -> awaitQuietly(release));
+
+		for (int action = 0; action < actionsNum; ++action) {
+
+			int actionNum = action;
+
+			mailbox.submit(() -> {
+
+				executedActions.add(actionNum);
+				executed.countDown();
+			});
+		}
+
+		release.countDown();
+
+		Assertions.assertTrue(executed.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+		List<Integer> result = readExecutedActions(mailbox, executedActions);
+
+		Assertions.assertEquals(actionsNum, result.size());
+
+		for (int action = 0; action < actionsNum; ++action) {
+			Assertions.assertEquals(action, (int) result.get(action));
+		}
+	}
+
+	/**
+	 * Copies the executed actions inside of an action of the mailbox, with a
+	 * timeout, so that a mailbox which stopped executing lets the test fail.
+	 */
+	private List<Integer> readExecutedActions(GameMailbox mailbox, List<Integer> executedActions)
+			throws InterruptedException, ExecutionException, TimeoutException {
+
+		return mailbox.executeAsync(() -> new ArrayList<Integer>(executedActions)).get(TIMEOUT_SECONDS,
+				TimeUnit.SECONDS);
+	}
+
+	private void awaitQuietly(CountDownLatch latch) {
+
+		try {
+
+			latch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+		} catch (InterruptedException e) {
+
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
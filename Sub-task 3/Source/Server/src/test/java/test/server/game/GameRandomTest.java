@@ -0,0 +1,63 @@
+package test.server.game;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import server.game.GameRandom;
+
+/**
+ * Checks that the random streams of a game can be continued from their
+ * positions and that derived numbers do not move the streams.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class GameRandomTest {
+
+	private static final long SEED = 20201;
+	private static final int NUMBERS_NUM = 100;
+	private static final int BOUND = 64;
+
+	/**
+	 * Test that advances two streams, restores their positions in streams
+	 * created from the same seed and compares the following numbers.
+	 */
+	@Test
+	public void streamsAdvanced_RestoreStreamStates_SameNumbers() {
+
+		GameRandom original = new GameRandom(SEED);
+		GameRandom[] originalStreams = { original.split(), original.split() };
+
+		for (int number = 0; number < NUMBERS_NUM; ++number) {
+			originalStreams[number % 2].nextInt(BOUND);
+		}
+
+		GameRandom restored = new GameRandom(SEED);
+		GameRandom[] restoredStreams = { restored.split(), restored.split() };
+
+		restored.restoreStreamStates(original.getStreamStates());
+
+		for (int number = 0; number < NUMBERS_NUM; ++number) {
+
+			Assertions.assertEquals(originalStreams[number % 2].nextInt(BOUND),
+					restoredStreams[number % 2].nextInt(BOUND));
+			Assertions.assertEquals(originalStreams[number % 2].nextBoolean(),
+					restoredStreams[number % 2].nextBoolean());
+		}
+	}
+
+	/**
+	 * Test that derives numbers for the same key twice and checks that they are
+	 * the same and that the stream did not move.
+	 */
+	@Test
+	public void numbersDerived_DeriveAgain_SameNumbersAndStreamUnchanged() {
+
+		GameRandom random = new GameRandom(SEED);
+		long[] states = random.getStreamStates();
+
+		Assertions.assertEquals(random.derive(7).nextInt(BOUND), random.derive(7).nextInt(BOUND));
+		Assertions.assertArrayEquals(states, random.getStreamStates());
+	}
+
+}
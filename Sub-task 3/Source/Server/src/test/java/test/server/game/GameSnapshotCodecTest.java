@@ -0,0 +1,237 @@
+package test.server.game;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import MessagesBase.EMove;
+import MessagesBase.HalfMap;
+import MessagesBase.PlayerMove;
+import MessagesBase.PlayerRegistration;
+import MessagesGameState.EPlayerGameState;
+import MessagesGameState.FullMapNode;
+import MessagesGameState.GameState;
+import MessagesGameState.PlayerState;
+import server.game.Game;
+import server.game.GameSnapshotCodec;
+import server.game.RunningGames;
+import server.main.GameRequests;
+import test.server.rules.HalfMapRuleTestObjects;
+
+/**
+ * Checks that a game restored from a snapshot continues like the game would
+ * have continued without the snapshot: the random streams (map layout, fake
+ * enemy positions) go on where they were and the half maps are combined in the
+ * order in which they were received.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class GameSnapshotCodecTest {
+
+	private static final long FIRST_SEED = 20201;
+	private static final int SEEDS_NUM = 20;
+	private static final int MOVES_NUM = 4;
+
+	private final HalfMap validHalfMap = new HalfMapRuleTestObjects(FIRST_SEED).getValidHalfMap();
+
+	/**
+	 * Executed after each test to remove the created games.
+	 */
+	@AfterEach
+	public void tearDown() {
+
+		for (Game game : new ArrayList<Game>(RunningGames.getGamesInCreationOrder())) {
+			RunningGames.removeGame(game);
+		}
+	}
+
+	/**
+	 * Test that encodes games after the first half map, finishes the map of the
+	 * original game and of the restored game with the same requests and compares
+	 * the maps both players see.
+	 */
+	@Test
+	public void oneHalfMapReceived_RestoreSnapshot_SameMapsAsOriginalGame() {
+
+		for (long seed = FIRST_SEED; seed < FIRST_SEED + SEEDS_NUM; ++seed) {
+
+			String gameID = GameRequests.createGame(seed).getUniqueGameID();
+			Game game = RunningGames.getGame(gameID);
+			List<String> playerIDs = registerPlayers(game, gameID);
+
+			sendHalfMap(game, gameID, playerIDs);
+
+			byte[] snapshot = GameSnapshotCodec.encode(game);
+			String originalMaps = finishMap(game, gameID, playerIDs);
+
+			RunningGames.removeGame(game);
+
+			Game restoredGame = GameSnapshotCodec.decode(ByteBuffer.wrap(snapshot));
+
+			Assertions.assertEquals(seed, restoredGame.getSeed());
+			Assertions.assertTrue(RunningGames.restoreGame(restoredGame));
+			Assertions.assertEquals(originalMaps, finishMap(restoredGame, gameID, playerIDs), "Seed " + seed);
+
+			RunningGames.removeGame(restoredGame);
+		}
+	}
+
+	/**
+	 * Test that encodes games after both players saw the combined map with the
+	 * fake enemy positions, lets the original game and the restored game continue
+	 * with the same moves and compares the maps both players see after every
+	 * move. Only if the random streams continue where they were, the restored
+	 * game shows the same fake enemy positions.
+	 */
+	@Test
+	public void mapCombined_RestoreSnapshot_SameFakeEnemyPositionsAsOriginalGame() {
+
+		for (long seed = FIRST_SEED; seed < FIRST_SEED + SEEDS_NUM; ++seed) {
+
+			String gameID = GameRequests.createGame(seed).getUniqueGameID();
+			Game game = RunningGames.getGame(gameID);
+			List<String> playerIDs = registerPlayers(game, gameID);
+
+			sendHalfMap(game, gameID, playerIDs);
+			finishMap(game, gameID, playerIDs);
+
+			byte[] snapshot = GameSnapshotCodec.encode(game);
+			String originalMaps = sendMoves(game, gameID, playerIDs);
+
+			RunningGames.removeGame(game);
+
+			Game restoredGame = GameSnapshotCodec.decode(ByteBuffer.wrap(snapshot));
+
+			Assertions.assertTrue(RunningGames.restoreGame(restoredGame));
+			Assertions.assertEquals(originalMaps, sendMoves(restoredGame, gameID, playerIDs), "Seed " + seed);
+
+			RunningGames.removeGame(restoredGame);
+		}
+	}
+
+	private List<String> registerPlayers(Game game, String gameID) {
+
+		List<String> playerIDs = new ArrayList<String>();
+
+		for (int playerNum = 0; playerNum < 2; ++playerNum) {
+
+			playerIDs.add(GameRequests.registerPlayer(game, gameID, new PlayerRegistration("Snapshot", "Player", "0"))
+					.getUniquePlayerID());
+		}
+
+		return playerIDs;
+	}
+
+	/**
+	 * Lets the player who should act next move up, which leads from the castle
+	 * of the valid half map onto grass, and returns the maps of both players
+	 * after every move.
+	 */
+	private String sendMoves(Game game, String gameID, List<String> playerIDs) {
+
+		StringBuilder maps = new StringBuilder();
+
+		for (int move = 0; move < MOVES_NUM; ++move) {
+
+			String actingPlayerID = requestGameStates(game, gameID, playerIDs, maps);
+
+			GameRequests.receiveMove(game, gameID, PlayerMove.of(actingPlayerID, EMove.Up));
+		}
+
+		requestGameStates(game, gameID, playerIDs, maps);
+
+		return maps.toString();
+	}
+
+	private String requestGameStates(Game game, String gameID, List<String> playerIDs, StringBuilder maps) {
+
+		String actingPlayerID = null;
+
+		for (String playerID : playerIDs) {
+
+			GameRequests.checkGameStateRequest(gameID, playerID);
+			GameState gameState = game.getGameController().getGameStateObject(gameID, playerID);
+
+			maps.append(renderMap(gameState)).append('\n');
+
+			if (getState(gameState, playerID) == EPlayerGameState.ShouldActNext) {
+				actingPlayerID = playerID;
+			}
+		}
+
+		Assertions.assertNotNull(actingPlayerID, "No player should act next.");
+
+		return actingPlayerID;
+	}
+
+	private String finishMap(Game game, String gameID, List<String> playerIDs) {
+
+		sendHalfMap(game, gameID, playerIDs);
+
+		StringBuilder maps = new StringBuilder();
+
+		for (String playerID : playerIDs) {
+			maps.append(renderMap(game.getGameController().getGameStateObject(gameID, playerID))).append('\n');
+		}
+
+		return maps.toString();
+	}
+
+	/**
+	 * Requests the game states of both players and lets the player who should act
+	 * next send the valid half map.
+	 */
+	private void sendHalfMap(Game game, String gameID, List<String> playerIDs) {
+
+		for (int request = 0; request < 100; ++request) {
+
+			for (String playerID : playerIDs) {
+
+				GameRequests.checkGameStateRequest(gameID, playerID);
+				GameState gameState = game.getGameController().getGameStateObject(gameID, playerID);
+
+				if (getState(gameState, playerID) == EPlayerGameState.ShouldActNext) {
+
+					GameRequests.receiveHalfMap(game, gameID, new HalfMap(playerID, validHalfMap.getNodes()));
+					return;
+				}
+			}
+		}
+
+		Assertions.fail("No player was chosen to send his half map.");
+	}
+
+	private EPlayerGameState getState(GameState gameState, String playerID) {
+
+		for (PlayerState playerState : gameState.getPlayers()) {
+
+			if (playerState.getUniquePlayerID().equals(playerID))
+				return playerState.getState();
+		}
+
+		return null;
+	}
+
+	private String renderMap(GameState gameState) {
+
+		List<FullMapNode> nodes = new ArrayList<FullMapNode>(gameState.getMap().get().getMapNodes());
+		nodes.sort(Comparator.comparingInt(FullMapNode::getY).thenComparingInt(FullMapNode::getX));
+
+		StringBuilder map = new StringBuilder();
+
+		for (FullMapNode node : nodes) {
+
+			map.append(node.getX()).append(',').append(node.getY()).append(' ').append(node.getTerrain()).append(' ')
+					.append(node.getPlayerPositionState()).append(' ').append(node.getFortState()).append(';');
+		}
+
+		return map.toString();
+	}
+
+}
@@ -0,0 +1,72 @@
+package test.server.game;
+
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import server.exceptions.GameCapacityException;
+import server.game.Game;
+import server.game.RunningGames;
+import server.main.GameRequests;
+
+/**
+ * Checks that game ids are only used by running games, also when new games are
+ * rejected because every game slot is used.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class RunningGamesTest {
+
+	private static final int REJECTED_GAMES_NUM = 1000;
+
+	/**
+	 * Executed after each test to remove the created games.
+	 */
+	@AfterEach
+	public void tearDown() {
+
+		for (Game game : new ArrayList<Game>(RunningGames.getGamesInCreationOrder())) {
+			RunningGames.removeGame(game);
+		}
+	}
+
+	/**
+	 * Test that fills all game slots with active games, lets further games be
+	 * rejected and checks that the rejected games did not take a game id.
+	 */
+	@Test
+	public void capacityReached_CreateGames_NoGameIDsLost() {
+
+		int capacity = RunningGames.getAdmission().getCapacity();
+
+		while (RunningGames.getGamesNum() < capacity) {
+			GameRequests.createGame();
+		}
+
+		for (int gameNum = 0; gameNum < REJECTED_GAMES_NUM; ++gameNum) {
+			Assertions.assertThrows(GameCapacityException.class, () -> GameRequests.createGame());
+		}
+
+		Assertions.assertEquals(capacity, RunningGames.getGamesNum());
+		Assertions.assertEquals(RunningGames.getGamesNum(), RunningGames.getUsedGameIDsNum());
+	}
+
+	/**
+	 * Test that removes all games and checks that their game ids are free again.
+	 */
+	@Test
+	public void gamesRemoved_RemoveGames_GameIDsReleased() {
+
+		for (int gameNum = 0; gameNum < 10; ++gameNum) {
+			GameRequests.createGame();
+		}
+
+		tearDown();
+
+		Assertions.assertEquals(0, RunningGames.getUsedGameIDsNum());
+	}
+
+}
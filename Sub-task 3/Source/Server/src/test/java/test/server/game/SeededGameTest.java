@@ -0,0 +1,257 @@
+package test.server.game;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import MessagesBase.HalfMap;
+import MessagesBase.PlayerRegistration;
+import MessagesGameState.FullMap;
+import MessagesGameState.FullMapNode;
+import server.enumerations.EPlayerStateValue;
+import server.game.Game;
+import server.game.GameRandom;
+import server.game.RunningGames;
+import server.main.GameRequests;
+import server.map.Map;
+import server.map.MapController;
+import server.player.Player;
+import server.rules.GameConstants;
+import test.server.rules.HalfMapRuleTestObjects;
+
+/**
+ * Checks that two games with the same seed which receive the same half maps
+ * combine the same map, place the treasures on the same fields and show the
+ * players the same maps in every round.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class SeededGameTest {
+
+	private static final long SEED = 20201;
+	private static final long OTHER_SEED = 20202;
+	private static final int ROUNDS_NUM = GameConstants.ROUND_AFTER_WHICH_REAL_POSITION_VISIBLE + 2;
+
+	private final HalfMap validHalfMap = new HalfMapRuleTestObjects(SEED).getValidHalfMap();
+
+	/**
+	 * Executed after each test to remove the created games.
+	 */
+	@AfterEach
+	public void tearDown() {
+
+		for (Game runningGame : new ArrayList<Game>(RunningGames.getGamesInCreationOrder())) {
+			RunningGames.removeGame(runningGame);
+		}
+	}
+
+	/**
+	 * Test that combines the same half maps in two map controllers with the same
+	 * seed and compares the bytes of the combined maps, the treasure positions and
+	 * the maps of both players in several rounds. A third controller with another
+	 * seed shows at least one different map, so the maps really depend on the
+	 * seed.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	public void sameSeed_CombineHalfMaps_SameMapsAndTreasures() throws IOException {
+
+		List<Player> players = createPlayers();
+		List<Player> seededPlayers = createPlayers();
+		List<Player> otherPlayers = createPlayers();
+
+		MapController mapController = combineHalfMaps(new GameRandom(SEED), players);
+		MapController seededMapController = combineHalfMaps(new GameRandom(SEED), seededPlayers);
+		MapController otherMapController = combineHalfMaps(new GameRandom(OTHER_SEED), otherPlayers);
+
+		Assertions.assertArrayEquals(writeMap(mapController.getMap()), writeMap(seededMapController.getMap()));
+
+		boolean otherMapShown = false;
+
+		for (int playerNum = 0; playerNum < players.size(); ++playerNum) {
+
+			Player player = players.get(playerNum);
+			Player seededPlayer = seededPlayers.get(playerNum);
+			Player otherPlayer = otherPlayers.get(playerNum);
+
+			Assertions.assertEquals(player.getTreasurePosition(), seededPlayer.getTreasurePosition());
+			Assertions.assertEquals(player.getCastePosition(), seededPlayer.getCastePosition());
+
+			for (int gameRound = 1; gameRound <= ROUNDS_NUM; ++gameRound) {
+
+				String fullMap = renderFullMap(mapController.getOptionalFullMap(player, gameRound).get());
+
+				Assertions.assertEquals(fullMap,
+						renderFullMap(seededMapController.getOptionalFullMap(seededPlayer, gameRound).get()),
+						"Round " + gameRound);
+
+				otherMapShown |= !fullMap
+						.equals(renderFullMap(otherMapController.getOptionalFullMap(otherPlayer, gameRound).get()));
+			}
+		}
+
+		Assertions.assertTrue(otherMapShown);
+	}
+
+	/**
+	 * Test that plays the same half maps in two games created with the same seed
+	 * and compares which player acts first, the treasure positions and the maps of
+	 * both players in several rounds.
+	 */
+	@Test
+	public void sameSeed_CreateGames_SameTreasuresAndMaps() {
+
+		Game game = RunningGames.getGame(GameRequests.createGame(SEED).getUniqueGameID());
+		Game seededGame = RunningGames.getGame(GameRequests.createGame(SEED).getUniqueGameID());
+
+		List<String> playerIDs = registerPlayers(game);
+		List<String> seededPlayerIDs = registerPlayers(seededGame);
+
+		Assertions.assertEquals(completeMap(game, playerIDs), completeMap(seededGame, seededPlayerIDs));
+
+		for (int playerNum = 0; playerNum < playerIDs.size(); ++playerNum) {
+
+			String playerID = playerIDs.get(playerNum);
+			String seededPlayerID = seededPlayerIDs.get(playerNum);
+
+			Assertions.assertEquals(getPlayer(game, playerID).getTreasurePosition(),
+					getPlayer(seededGame, seededPlayerID).getTreasurePosition());
+
+			for (int gameRound = 1; gameRound <= ROUNDS_NUM; ++gameRound) {
+
+				game.setGameRound(gameRound);
+				seededGame.setGameRound(gameRound);
+
+				Assertions.assertEquals(requestFullMap(game, playerID), requestFullMap(seededGame, seededPlayerID),
+						"Round " + gameRound);
+			}
+		}
+	}
+
+	private List<Player> createPlayers() {
+
+		List<Player> players = new ArrayList<Player>();
+
+		for (int playerNum = 0; playerNum < 2; ++playerNum) {
+			players.add(new Player("Seeded", "Player", "0", "player-" + playerNum));
+		}
+
+		return players;
+	}
+
+	private MapController combineHalfMaps(GameRandom random, List<Player> players) {
+
+		MapController mapController = new MapController(random);
+
+		for (Player player : players) {
+			mapController.setHalfMap(player, new HalfMap(player.getPlayerID(), validHalfMap.getNodes()));
+		}
+
+		return mapController;
+	}
+
+	private byte[] writeMap(Map map) throws IOException {
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		try (DataOutputStream output = new DataOutputStream(bytes)) {
+			map.writeTo(output);
+		}
+
+		return bytes.toByteArray();
+	}
+
+	private List<String> registerPlayers(Game game) {
+
+		List<String> playerIDs = new ArrayList<String>();
+		String gameID = game.getGameIdentifier().getUniqueGameID();
+
+		for (int playerNum = 0; playerNum < 2; ++playerNum) {
+
+			playerIDs.add(GameRequests.registerPlayer(game, gameID, new PlayerRegistration("Seeded", "Player", "0"))
+					.getUniquePlayerID());
+		}
+
+		return playerIDs;
+	}
+
+	/**
+	 * Lets the player who should act next send the valid half map, twice.
+	 *
+	 * @return (numbers of the players in the order in which they sent their half
+	 *         maps)
+	 */
+	private List<Integer> completeMap(Game game, List<String> playerIDs) {
+
+		String gameID = game.getGameIdentifier().getUniqueGameID();
+		List<Integer> actingPlayerNums = new ArrayList<Integer>();
+
+		for (int halfMapNum = 0; halfMapNum < 2; ++halfMapNum) {
+
+			for (String playerID : playerIDs) {
+				GameRequests.checkGameStateRequest(gameID, playerID);
+				game.getGameController().getGameStateObject(gameID, playerID);
+			}
+
+			for (int playerNum = 0; playerNum < playerIDs.size(); ++playerNum) {
+
+				String playerID = playerIDs.get(playerNum);
+
+				if (getPlayer(game, playerID).getCurrentState() == EPlayerStateValue.ShouldActNext) {
+
+					actingPlayerNums.add(playerNum);
+					game.execute(() -> {
+
+						GameRequests.receiveHalfMap(game, gameID, new HalfMap(playerID, validHalfMap.getNodes()));
+						return null;
+					});
+					break;
+				}
+			}
+		}
+
+		Assertions.assertEquals(2, actingPlayerNums.size());
+
+		return actingPlayerNums;
+	}
+
+	private String requestFullMap(Game game, String playerID) {
+
+		String gameID = game.getGameIdentifier().getUniqueGameID();
+
+		GameRequests.checkGameStateRequest(gameID, playerID);
+
+		return renderFullMap(game.getGameController().getGameStateObject(gameID, playerID).getMap().get());
+	}
+
+	private Player getPlayer(Game game, String playerID) {
+		return game.getGameController().getPlayers().get(playerID);
+	}
+
+	private String renderFullMap(FullMap fullMap) {
+
+		List<FullMapNode> nodes = new ArrayList<FullMapNode>(fullMap.getMapNodes());
+		nodes.sort(Comparator.comparingInt(FullMapNode::getY).thenComparingInt(FullMapNode::getX));
+
+		StringBuilder rendered = new StringBuilder();
+
+		for (FullMapNode node : nodes) {
+
+			rendered.append(node.getX()).append(',').append(node.getY()).append(' ').append(node.getTerrain())
+					.append(' ').append(node.getPlayerPositionState()).append(' ').append(node.getTreasureState())
+					.append(' ').append(node.getFortState()).append(';');
+		}
+
+		return rendered.toString();
+	}
+
+}
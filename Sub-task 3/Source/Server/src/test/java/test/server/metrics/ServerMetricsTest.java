@@ -0,0 +1,125 @@
+package test.server.metrics;
+
+import java.util.Map;
+import java.util.function.Consumer;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import MessagesBase.ResponseEnvelope;
+import server.enumerations.ERulePhase;
+import server.exceptions.GameRuleException;
+import server.exceptions.RuleException;
+import server.main.ReactiveServerEndpoints;
+import server.main.ServerEndpoints;
+import server.metrics.ServerMetrics;
+import server.rules.IRule;
+import server.rules.Rules;
+
+/**
+ * Checks that the rule and endpoint metrics are recorded and that recording
+ * them adds less than a microsecond per call.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class ServerMetricsTest {
+
+	private static final long MAX_OVERHEAD_NANOS = 1000;
+	private static final int CALLS_NUM = 200_000;
+	private static final int ROUNDS_NUM = 5;
+
+	private static final Consumer<IRule> NO_CHECK = rule -> {
+	};
+
+	/**
+	 * Test that checks all rules with an empty check and compares the time with
+	 * the uninstrumented loop over the same rules. The best round is used, so
+	 * that a single garbage collection or JIT compilation does not fail the test.
+	 */
+	@Test
+	public void rulesChecked_MeasureInstrumentation_LessThanOneMicrosecondPerRule() {
+
+		long overheadNanos = Long.MAX_VALUE;
+
+		for (int round = 0; round < ROUNDS_NUM; ++round) {
+
+			long startNanos = System.nanoTime();
+
+			for (int call = 0; call < CALLS_NUM; ++call) {
+				Rules.getRules().forEach(NO_CHECK);
+			}
+
+			long plainNanos = System.nanoTime() - startNanos;
+			startNanos = System.nanoTime();
+
+			for (int call = 0; call < CALLS_NUM; ++call) {
+				Rules.check(ERulePhase.ReceiveMove, NO_CHECK);
+			}
+
+			long instrumentedNanos = System.nanoTime() - startNanos;
+
+			overheadNanos = Math.min(overheadNanos,
+					(instrumentedNanos - plainNanos) / ((long) CALLS_NUM * Rules.getRules().size()));
+		}
+
+		Assertions.assertTrue(overheadNanos < MAX_OVERHEAD_NANOS, "Overhead per rule: " + overheadNanos + " ns");
+	}
+
+	/**
+	 * Test that records endpoint latencies and checks that one recording takes
+	 * less than a microsecond.
+	 */
+	@Test
+	public void endpointRecorded_MeasureInstrumentation_LessThanOneMicrosecondPerCall() {
+
+		long overheadNanos = Long.MAX_VALUE;
+
+		for (int round = 0; round < ROUNDS_NUM; ++round) {
+
+			long startNanos = System.nanoTime();
+
+			for (int call = 0; call < CALLS_NUM; ++call) {
+				ServerMetrics.recordEndpoint("overheadTest", System.nanoTime());
+			}
+
+			overheadNanos = Math.min(overheadNanos, (System.nanoTime() - startNanos) / CALLS_NUM);
+		}
+
+		Assertions.assertTrue(overheadNanos < MAX_OVERHEAD_NANOS, "Overhead per call: " + overheadNanos + " ns");
+	}
+
+	/**
+	 * Test that breaks the first rule, lets the exception handlers of both
+	 * endpoint stacks answer the broken rule and checks that the rejection is
+	 * counted for that rule and by the error name once per answer.
+	 */
+	@Test
+	@SuppressWarnings("unchecked")
+	public void ruleBroken_HandleException_RejectionCounted() {
+
+		String ruleName = Rules.getRules().get(0).getClass().getSimpleName() + "." + ERulePhase.NewGame.name();
+		Map<String, Object> rules = (Map<String, Object>) ServerMetrics.getReport().get("rules");
+		long ruleRejectionsNum = (Long) ((Map<String, Object>) rules.get(ruleName)).get("rejections");
+
+		RuleException ex = Assertions.assertThrows(GameRuleException.class,
+				() -> Rules.check(ERulePhase.NewGame, rule -> {
+					throw new GameRuleException("Metrics test.", "Rejected by the metrics test.");
+				}));
+
+		ResponseEnvelope<?> servletResult = new ServerEndpoints().handleException(ex,
+				Mockito.mock(HttpServletResponse.class));
+		ResponseEnvelope<?> reactiveResult = new ReactiveServerEndpoints().handleException(ex);
+
+		rules = (Map<String, Object>) ServerMetrics.getReport().get("rules");
+
+		Assertions.assertEquals(ruleRejectionsNum + 1, ((Map<String, Object>) rules.get(ruleName)).get("rejections"));
+		Assertions.assertEquals(2L, ServerMetrics.getRejectionsNum("Metrics test."));
+		Assertions.assertEquals("Metrics test.", servletResult.getExceptionName());
+		Assertions.assertEquals("Metrics test.", reactiveResult.getExceptionName());
+	}
+
+}
@@ -0,0 +1,290 @@
+package test.server.move;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import MessagesBase.EMove;
+import MessagesBase.PlayerMove;
+import server.enumerations.EAvatarPositionValue;
+import server.enumerations.EMovementType;
+import server.enumerations.EPlayerStateValue;
+import server.enumerations.ETerrainType;
+import server.map.Coordinate;
+import server.map.Map;
+import server.move.MoveController;
+import server.move.MoveTable;
+import server.player.Player;
+import server.rules.GameConstants;
+
+/**
+ * Checks the moves on the precomputed move table: the number of moves the
+ * terrain requires, deadly moves, collecting the treasure and capturing the
+ * enemy castle.
+ *
+ * The test map (G grass, M mountain, W water, . no field):
+ *
+ * <pre>
+ * G G M W
+ * G G M .
+ * </pre>
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class MoveControllerTest {
+
+	private static final String[] TEST_MAP = { "GGMW", "GGM." };
+
+	private MoveController moveController;
+	private MoveTable moveTable;
+	private Player player;
+	private Player enemy;
+
+	/**
+	 * Executed before each test to place the player on the upper left and the
+	 * enemy on the lower left field, with the player acting next.
+	 */
+	@BeforeEach
+	public void setUp() {
+
+		moveController = new MoveController();
+		moveTable = new MoveTable(createMap(TEST_MAP));
+		player = createPlayer("player", new Coordinate(0, 0));
+		enemy = createPlayer("enemy", new Coordinate(0, 1));
+
+		player.setCurrentState(EPlayerStateValue.ShouldActNext);
+		enemy.setCurrentState(EPlayerStateValue.ShouldWait);
+		enemy.setCastePosition(new Coordinate(0, 1));
+
+		moveTable.getMap().setFieldAvatarContent(moveTable.getMap().getIndex(0, 0),
+				EAvatarPositionValue.MyAvatarPosition);
+		moveTable.getMap().setFieldAvatarContent(moveTable.getMap().getIndex(0, 1),
+				EAvatarPositionValue.MyAvatarPosition);
+	}
+
+	/**
+	 * Test that checks the move costs of the table: leaving and entering grass
+	 * costs one move each, leaving and entering a mountain two moves each.
+	 */
+	@Test
+	public void mapCompleted_CalculateMoveTable_CostOfBothTerrains() {
+
+		Map map = moveTable.getMap();
+		int grassToGrass = GameConstants.GRASS_MOVE_COST + GameConstants.GRASS_MOVE_COST;
+		int grassToMountain = GameConstants.GRASS_MOVE_COST + GameConstants.MOUNTAIN_MOVE_COST;
+		int mountainToMountain = GameConstants.MOUNTAIN_MOVE_COST + GameConstants.MOUNTAIN_MOVE_COST;
+
+		Assertions.assertEquals(grassToGrass, moveTable.getMoveCost(map.getIndex(0, 0), EMovementType.Right));
+		Assertions.assertEquals(grassToMountain, moveTable.getMoveCost(map.getIndex(1, 0), EMovementType.Right));
+		Assertions.assertEquals(grassToMountain, moveTable.getMoveCost(map.getIndex(2, 0), EMovementType.Left));
+		Assertions.assertEquals(mountainToMountain, moveTable.getMoveCost(map.getIndex(2, 0), EMovementType.Down));
+		Assertions.assertEquals(map.getIndex(1, 0), moveTable.getNeighbour(map.getIndex(0, 0), EMovementType.Right));
+	}
+
+	/**
+	 * Test that moves from grass onto a mountain and checks that the avatar only
+	 * changes its position after as many moves as both terrains cost.
+	 */
+	@Test
+	public void grassToMountain_ExecuteMoves_PositionChangedAfterMoveCost() {
+
+		player.setCurrentPosition(new Coordinate(1, 0));
+
+		int moveCost = GameConstants.GRASS_MOVE_COST + GameConstants.MOUNTAIN_MOVE_COST;
+
+		for (int move = 1; move < moveCost; ++move) {
+
+			executeMove(EMove.Right);
+
+			Assertions.assertEquals(new Coordinate(1, 0), player.getCurrentPosition());
+			Assertions.assertEquals(move, player.getCurrentMoveProgress());
+			Assertions.assertEquals(EPlayerStateValue.ShouldWait, player.getCurrentState());
+			Assertions.assertEquals(EPlayerStateValue.ShouldActNext, enemy.getCurrentState());
+		}
+
+		executeMove(EMove.Right);
+
+		Assertions.assertEquals(new Coordinate(2, 0), player.getCurrentPosition());
+		Assertions.assertEquals(0, player.getCurrentMoveProgress());
+		Assertions.assertNull(player.getCurrentMoveDirection());
+	}
+
+	/**
+	 * Test that changes the direction in the middle of a move and checks that the
+	 * moves in the old direction are not counted anymore.
+	 */
+	@Test
+	public void directionChanged_ExecuteMoves_ProgressReset() {
+
+		executeMove(EMove.Right);
+		executeMove(EMove.Down);
+
+		Assertions.assertEquals(EMovementType.Down, player.getCurrentMoveDirection());
+		Assertions.assertEquals(1, player.getCurrentMoveProgress());
+
+		executeMove(EMove.Right);
+
+		Assertions.assertEquals(new Coordinate(0, 0), player.getCurrentPosition());
+		Assertions.assertEquals(1, player.getCurrentMoveProgress());
+
+		executeMove(EMove.Right);
+
+		Assertions.assertEquals(new Coordinate(1, 0), player.getCurrentPosition());
+	}
+
+	/**
+	 * Test that moves out of the map, onto a position without field and into
+	 * water and checks that each of these moves is deadly and lets the enemy win.
+	 */
+	@Test
+	public void deadlyMove_ExecuteMove_PlayerLostEnemyWon() {
+
+		Map map = moveTable.getMap();
+
+		Assertions.assertEquals(MoveTable.OUTSIDE_OF_MAP, moveTable.getNeighbour(map.getIndex(0, 0), EMovementType.Up));
+		Assertions.assertEquals(MoveTable.OUTSIDE_OF_MAP,
+				moveTable.getNeighbour(map.getIndex(2, 1), EMovementType.Right));
+		Assertions.assertEquals(MoveTable.DEADLY_MOVE, moveTable.getMoveCost(map.getIndex(0, 0), EMovementType.Up));
+		Assertions.assertEquals(MoveTable.DEADLY_MOVE, moveTable.getMoveCost(map.getIndex(2, 1), EMovementType.Right));
+		Assertions.assertEquals(MoveTable.DEADLY_MOVE, moveTable.getMoveCost(map.getIndex(2, 0), EMovementType.Right));
+
+		for (Object[] deadlyMove : new Object[][] { { new Coordinate(0, 0), EMove.Left },
+				{ new Coordinate(2, 1), EMove.Right }, { new Coordinate(2, 0), EMove.Right } }) {
+
+			setUp();
+			player.setCurrentPosition((Coordinate) deadlyMove[0]);
+
+			executeMove((EMove) deadlyMove[1]);
+
+			Assertions.assertEquals(EPlayerStateValue.Lost, player.getCurrentState());
+			Assertions.assertEquals(EPlayerStateValue.Won, enemy.getCurrentState());
+		}
+	}
+
+	/**
+	 * Test that moves onto the own treasure and checks that it is collected.
+	 */
+	@Test
+	public void treasureReached_ExecuteMoves_TreasureCollected() {
+
+		player.setTreasurePosition(new Coordinate(1, 0));
+
+		executeMove(EMove.Right);
+
+		Assertions.assertFalse(player.isHasCollectedTreasure());
+
+		executeMove(EMove.Right);
+
+		Assertions.assertTrue(player.isHasCollectedTreasure());
+		Assertions.assertEquals(EPlayerStateValue.ShouldWait, player.getCurrentState());
+	}
+
+	/**
+	 * Test that moves onto the enemy castle without and with the collected
+	 * treasure and checks that only the second move wins the game.
+	 */
+	@Test
+	public void enemyCastleReached_ExecuteMoves_WonOnlyWithTreasure() {
+
+		player.setCurrentPosition(new Coordinate(1, 1));
+
+		executeMove(EMove.Left);
+		executeMove(EMove.Left);
+
+		Assertions.assertEquals(new Coordinate(0, 1), player.getCurrentPosition());
+		Assertions.assertEquals(EPlayerStateValue.ShouldWait, player.getCurrentState());
+		Assertions.assertEquals(EPlayerStateValue.ShouldActNext, enemy.getCurrentState());
+
+		setUp();
+		player.setCurrentPosition(new Coordinate(1, 1));
+		player.setHasCollectedTreasure(true);
+
+		executeMove(EMove.Left);
+		executeMove(EMove.Left);
+
+		Assertions.assertEquals(EPlayerStateValue.Won, player.getCurrentState());
+		Assertions.assertEquals(EPlayerStateValue.Lost, enemy.getCurrentState());
+	}
+
+	/**
+	 * Test that moves away from a field of the player alone and from a field
+	 * shared with the enemy and checks that only the field of the player alone is
+	 * cleared, the shared field still shows the enemy.
+	 */
+	@Test
+	public void avatarLeavesField_ExecuteMoves_FieldClearedUnlessShared() {
+
+		Map map = moveTable.getMap();
+
+		executeMove(EMove.Right);
+		executeMove(EMove.Right);
+
+		Assertions.assertEquals(EAvatarPositionValue.NoAvatarPresent, map.getFieldAvatarContent(map.getIndex(0, 0)));
+		Assertions.assertEquals(EAvatarPositionValue.MyAvatarPosition, map.getFieldAvatarContent(map.getIndex(1, 0)));
+
+		setUp();
+		map = moveTable.getMap();
+		player.setCurrentPosition(new Coordinate(0, 1));
+
+		executeMove(EMove.Right);
+		executeMove(EMove.Right);
+
+		Assertions.assertEquals(EAvatarPositionValue.MyAvatarPosition, map.getFieldAvatarContent(map.getIndex(0, 1)));
+		Assertions.assertEquals(EAvatarPositionValue.MyAvatarPosition, map.getFieldAvatarContent(map.getIndex(1, 1)));
+	}
+
+	/**
+	 * Executes the move of the player and checks that the enemy acts next, unless
+	 * the move ended the game. The move controller does not check the turn, so
+	 * the tests can send several moves of the player in a row.
+	 */
+	private void executeMove(EMove move) {
+
+		moveController.executeMove(moveTable, player, enemy, PlayerMove.of(player.getPlayerID(), move));
+
+		if (player.getCurrentState() == EPlayerStateValue.ShouldWait) {
+
+			Assertions.assertEquals(EPlayerStateValue.ShouldActNext, enemy.getCurrentState());
+		}
+	}
+
+	private Player createPlayer(String playerID, Coordinate position) {
+
+		Player player = new Player("Move", "Player", "0", playerID);
+		player.setCurrentPosition(position);
+		player.setCastePosition(position);
+		player.setTreasurePosition(new Coordinate(3, 1));
+
+		return player;
+	}
+
+	private Map createMap(String[] rows) {
+
+		Map map = new Map(rows[0].length(), rows.length);
+
+		for (int y = 0; y < rows.length; ++y) {
+
+			for (int x = 0; x < rows[y].length(); ++x) {
+
+				switch (rows[y].charAt(x)) {
+
+				case 'G':
+					map.setField(map.getIndex(x, y), ETerrainType.Grass);
+					break;
+				case 'M':
+					map.setField(map.getIndex(x, y), ETerrainType.Mountain);
+					break;
+				case 'W':
+					map.setField(map.getIndex(x, y), ETerrainType.Water);
+					break;
+				default:
+					break;
+				}
+			}
+		}
+
+		return map;
+	}
+
+}
@@ -0,0 +1,205 @@
+package test.server.move;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import MessagesBase.EMove;
+import MessagesBase.HalfMap;
+import MessagesBase.PlayerMove;
+import MessagesBase.PlayerRegistration;
+import server.enumerations.EMovementType;
+import server.enumerations.EPlayerStateValue;
+import server.exceptions.GameRuleException;
+import server.exceptions.MoveRuleException;
+import server.exceptions.RuleException;
+import server.game.Game;
+import server.game.RunningGames;
+import server.main.GameRequests;
+import server.map.Coordinate;
+import server.player.Player;
+import test.server.rules.HalfMapRuleTestObjects;
+
+/**
+ * Checks the moves sent to a running game: moves before the map is complete,
+ * out of turn and after the game is over are rejected and let the player lose,
+ * an accepted move ends the turn of the player.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class MoveRuleCheckTest {
+
+	private static final long SEED = 20201;
+
+	private final HalfMap validHalfMap = new HalfMapRuleTestObjects(SEED).getValidHalfMap();
+
+	private String gameID;
+	private Game game;
+	private List<String> playerIDs;
+
+	/**
+	 * Executed before each test to create a game with two registered players.
+	 */
+	@BeforeEach
+	public void setUp() {
+
+		gameID = GameRequests.createGame(SEED).getUniqueGameID();
+		game = RunningGames.getGame(gameID);
+		playerIDs = new ArrayList<String>();
+
+		for (int playerNum = 0; playerNum < 2; ++playerNum) {
+
+			playerIDs.add(GameRequests.registerPlayer(game, gameID, new PlayerRegistration("Move", "Player", "0"))
+					.getUniquePlayerID());
+		}
+	}
+
+	/**
+	 * Executed after each test to remove the created games.
+	 */
+	@AfterEach
+	public void tearDown() {
+
+		for (Game runningGame : new ArrayList<Game>(RunningGames.getGamesInCreationOrder())) {
+			RunningGames.removeGame(runningGame);
+		}
+	}
+
+	/**
+	 * Test that sends a move before any half map was sent and checks that it is
+	 * rejected and the player lost.
+	 */
+	@Test
+	public void mapIncomplete_ReceiveMove_MoveRuleException() {
+
+		String playerID = playerIDs.get(0);
+
+		RuleException ex = Assertions.assertThrows(MoveRuleException.class, () -> sendMove(playerID, EMove.Up));
+
+		Assertions.assertEquals("Map not complete.", ex.getErrorName());
+		Assertions.assertEquals(EPlayerStateValue.Lost, getPlayer(playerID).getCurrentState());
+	}
+
+	/**
+	 * Test that lets the player who should wait send a move after the map was
+	 * completed and checks that it is rejected and the player lost.
+	 */
+	@Test
+	public void notPlayersTurn_ReceiveMove_MoveRuleException() {
+
+		completeMap();
+
+		String waitingPlayerID = getPlayerID(EPlayerStateValue.ShouldWait);
+
+		RuleException ex = Assertions.assertThrows(MoveRuleException.class,
+				() -> sendMove(waitingPlayerID, EMove.Up));
+
+		Assertions.assertEquals("Not players turn.", ex.getErrorName());
+		Assertions.assertEquals(EPlayerStateValue.Lost, getPlayer(waitingPlayerID).getCurrentState());
+		Assertions.assertTrue(game.getGameController().isFinished());
+	}
+
+	/**
+	 * Test that lets both players send a move after the game was lost by one of
+	 * them and checks that both moves are rejected because the game is over, also
+	 * the move of the enemy who was about to act next.
+	 */
+	@Test
+	public void gameOver_ReceiveMove_GameRuleException() {
+
+		completeMap();
+
+		String waitingPlayerID = getPlayerID(EPlayerStateValue.ShouldWait);
+
+		Assertions.assertThrows(MoveRuleException.class, () -> sendMove(waitingPlayerID, EMove.Up));
+
+		for (String playerID : playerIDs) {
+
+			RuleException ex = Assertions.assertThrows(GameRuleException.class, () -> sendMove(playerID, EMove.Up));
+
+			Assertions.assertEquals("Game over.", ex.getErrorName());
+		}
+	}
+
+	/**
+	 * Test that lets the player who should act next send a move and checks that
+	 * the move is counted, the round increased and the turn passed to the enemy.
+	 * Every move costs at least two moves, so the avatar does not move yet.
+	 */
+	@Test
+	public void playersTurn_ReceiveMove_TurnPassedToEnemy() {
+
+		completeMap();
+
+		String actingPlayerID = getPlayerID(EPlayerStateValue.ShouldActNext);
+		Player player = getPlayer(actingPlayerID);
+		Coordinate position = player.getCurrentPosition();
+		int gameRound = game.getGameRound();
+
+		sendMove(actingPlayerID, EMove.Up);
+
+		Assertions.assertEquals(gameRound + 1, game.getGameRound());
+		Assertions.assertEquals(EPlayerStateValue.ShouldWait, player.getCurrentState());
+		Assertions.assertEquals(EPlayerStateValue.ShouldActNext,
+				game.getGameController().getPlayers().values().stream().filter(enemy -> enemy != player).findFirst()
+						.get().getCurrentState());
+		Assertions.assertEquals(position, player.getCurrentPosition());
+		Assertions.assertEquals(EMovementType.Up, player.getCurrentMoveDirection());
+		Assertions.assertEquals(1, player.getCurrentMoveProgress());
+		Assertions.assertFalse(game.getGameController().isFinished());
+	}
+
+	private void sendMove(String playerID, EMove move) {
+
+		game.execute(() -> {
+
+			GameRequests.receiveMove(game, gameID, PlayerMove.of(playerID, move));
+			return null;
+		});
+	}
+
+	/**
+	 * Lets the player who should act next send the valid half map, twice.
+	 */
+	private void completeMap() {
+
+		for (int halfMapNum = 0; halfMapNum < 2; ++halfMapNum) {
+
+			for (String playerID : playerIDs) {
+				GameRequests.checkGameStateRequest(gameID, playerID);
+				game.getGameController().getGameStateObject(gameID, playerID);
+			}
+
+			String actingPlayerID = getPlayerID(EPlayerStateValue.ShouldActNext);
+
+			game.execute(() -> {
+
+				GameRequests.receiveHalfMap(game, gameID, new HalfMap(actingPlayerID, validHalfMap.getNodes()));
+				return null;
+			});
+		}
+	}
+
+	private String getPlayerID(EPlayerStateValue state) {
+
+		for (String playerID : playerIDs) {
+
+			if (getPlayer(playerID).getCurrentState() == state)
+				return playerID;
+		}
+
+		Assertions.fail("No player is in the state " + state + ".");
+
+		return null;
+	}
+
+	private Player getPlayer(String playerID) {
+		return game.getGameController().getPlayers().get(playerID);
+	}
+
+}
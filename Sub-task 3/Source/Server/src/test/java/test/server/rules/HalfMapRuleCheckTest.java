@@ -0,0 +1,171 @@
+package test.server.rules;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import MessagesBase.HalfMap;
+import server.exceptions.MapRuleException;
+import server.player.Player;
+import server.rules.BorderRuleCheck;
+import server.rules.CastleRuleCheck;
+import server.rules.HalfMapRuleCheck;
+import server.rules.IRule;
+import server.rules.IslandRuleCheck;
+import server.rules.TerrainRuleCheck;
+
+/**
+ * Differential test of the HalfMapRuleCheck object against the single half map
+ * rules it replaces. Every half map has to be rejected with the same exception
+ * or accepted by both.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class HalfMapRuleCheckTest {
+
+	private static final long SEED = 18235;
+	private static final int HALF_MAPS_NUM = 5000;
+	private static final String PASSED = "passed";
+
+	private static HalfMapRuleTestObjects generator;
+	private static Player player;
+	private static List<IRule> singleRules;
+	private static IRule compiledRule;
+
+	/**
+	 * Executed once, before all tests in this class to prepare dependencies.
+	 */
+	@BeforeAll
+	public static void setUpBeforeClass() {
+
+		generator = new HalfMapRuleTestObjects(SEED);
+		player = new Player("Nemanja", "Srdanovic", "01234567", HalfMapRuleTestObjects.PLAYER_ID);
+		singleRules = Arrays.asList(new BorderRuleCheck(), new CastleRuleCheck(), new IslandRuleCheck(),
+				new TerrainRuleCheck());
+		compiledRule = new HalfMapRuleCheck();
+	}
+
+	/**
+	 * Executed once, after all tests in this class use to clean up dependencies.
+	 */
+	@AfterAll
+	public static void tearDownAfterClass() {
+
+		generator = null;
+		player = null;
+		singleRules = null;
+		compiledRule = null;
+	}
+
+	/**
+	 * Test that receives a valid half map and checks that both the single rules
+	 * and the compiled rule accept it.
+	 */
+	@Test
+	public void validHalfMapReceived_CheckRules_BothPassed() {
+
+		HalfMap halfMap = generator.getValidHalfMap();
+
+		Assertions.assertEquals(PASSED, checkSingleRules(halfMap));
+		Assertions.assertEquals(PASSED, checkCompiledRule(halfMap));
+	}
+
+	/**
+	 * Test that receives random half maps and checks that the compiled rule
+	 * reports the same outcome as the single rules. Also checks that the random
+	 * half maps reach every rule, so that the comparison is meaningful.
+	 */
+	@Test
+	public void randomHalfMapsReceived_CheckRules_SameOutcome() {
+
+		Map<String, Integer> outcomes = compareOutcomes(generator::getRandomHalfMap);
+
+		Assertions.assertTrue(outcomes.containsKey(PASSED));
+		Assertions.assertTrue(outcomes.containsKey("Border rule not passed. "));
+		Assertions.assertTrue(outcomes.containsKey("Castle rule not passed."));
+		Assertions.assertTrue(outcomes.containsKey("Terrain type rule not passed. "));
+	}
+
+	/**
+	 * Test that receives valid half maps with additional water fields and checks
+	 * that the compiled rule reports the same outcome as the single rules.
+	 */
+	@Test
+	public void floodedHalfMapsReceived_CheckRules_SameOutcome() {
+
+		Map<String, Integer> outcomes = compareOutcomes(generator::getFloodedHalfMap);
+
+		Assertions.assertTrue(outcomes.containsKey(PASSED));
+		Assertions.assertTrue(outcomes.containsKey("Border rule not passed. "));
+	}
+
+	/**
+	 * Test that receives half maps with missing, duplicated and out of border
+	 * fields and checks that the compiled rule reports the same outcome as the
+	 * single rules.
+	 */
+	@Test
+	public void malformedHalfMapsReceived_CheckRules_SameOutcome() {
+
+		Map<String, Integer> outcomes = compareOutcomes(generator::getMalformedHalfMap);
+
+		Assertions.assertTrue(outcomes.containsKey("Island found."));
+	}
+
+	private Map<String, Integer> compareOutcomes(Supplier<HalfMap> halfMaps) {
+
+		Map<String, Integer> outcomes = new HashMap<String, Integer>();
+
+		for (int halfMapNum = 0; halfMapNum < HALF_MAPS_NUM; ++halfMapNum) {
+
+			HalfMap halfMap = halfMaps.get();
+			String expected = checkSingleRules(halfMap);
+
+			Assertions.assertEquals(expected, checkCompiledRule(halfMap), "Half map number " + halfMapNum);
+			outcomes.merge(expected.split("\n")[0], 1, Integer::sum);
+		}
+
+		return outcomes;
+	}
+
+	private String checkSingleRules(HalfMap halfMap) {
+
+		try {
+
+			for (IRule rule : singleRules) {
+				rule.receiveHalfMap(player, halfMap, null);
+			}
+
+		} catch (MapRuleException e) {
+			return describe(e);
+		}
+
+		return PASSED;
+	}
+
+	private String checkCompiledRule(HalfMap halfMap) {
+
+		try {
+			compiledRule.receiveHalfMap(player, halfMap, null);
+		} catch (MapRuleException e) {
+			return describe(e);
+		}
+
+		return PASSED;
+	}
+
+	private String describe(MapRuleException e) {
+
+		Assertions.assertSame(player, e.getPlayer());
+		return e.getErrorName() + "\n" + e.getMessage();
+	}
+
+}
@@ -0,0 +1,161 @@
+package test.server.rules;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import MessagesBase.ETerrain;
+import MessagesBase.HalfMap;
+import MessagesBase.HalfMapNode;
+import server.rules.GameConstants;
+
+/**
+ * This HalfMapRuleTestObjects object creates valid, invalid and malformed half
+ * maps for the server.rules package objects. All random half maps are created
+ * from a fixed seed, so every test run checks the same half maps.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class HalfMapRuleTestObjects {
+
+	public static final String PLAYER_ID = "a2906a21-6cc9-43a2-844f-c3f79a7d54f4";
+
+	private static final String[] VALID_MAP_ROWS = { "GGMGGGGG", "GWGMGWGG", "GGWGMGWG", "GGGGGGGG" };
+
+	private final Random random;
+
+	public HalfMapRuleTestObjects(long seed) {
+
+		this.random = new Random(seed);
+	}
+
+	/**
+	 * Returns a half map which passes all half map rules.
+	 */
+	public HalfMap getValidHalfMap() {
+
+		return createHalfMap(VALID_MAP_ROWS, 0, 3);
+	}
+
+	/**
+	 * Returns a half map with random terrain types and zero to two castles on
+	 * random fields. Mostly breaks one or more half map rules.
+	 */
+	public HalfMap getRandomHalfMap() {
+
+		int waterPercent = 5 + random.nextInt(30);
+		int mountainPercent = 5 + random.nextInt(20);
+
+		List<HalfMapNode> nodes = new ArrayList<HalfMapNode>();
+
+		for (int y = 0; y < GameConstants.HALF_MAP_HEIGHT; ++y) {
+			for (int x = 0; x < GameConstants.HALF_MAP_WIDTH; ++x) {
+
+				int terrain = random.nextInt(100);
+
+				if (terrain < waterPercent) {
+					nodes.add(new HalfMapNode(x, y, ETerrain.Water));
+				} else if (terrain < waterPercent + mountainPercent) {
+					nodes.add(new HalfMapNode(x, y, ETerrain.Mountain));
+				} else {
+					nodes.add(new HalfMapNode(x, y, ETerrain.Grass));
+				}
+			}
+		}
+
+		int castleNum = random.nextInt(10) == 0 ? random.nextInt(3) : 1;
+
+		for (int castle = 0; castle < castleNum; ++castle) {
+
+			int nodeNum = random.nextInt(nodes.size());
+			HalfMapNode node = nodes.get(nodeNum);
+			nodes.set(nodeNum, new HalfMapNode(node.getX(), node.getY(), true, node.getTerrain()));
+		}
+
+		return new HalfMap(PLAYER_ID, nodes);
+	}
+
+	/**
+	 * Returns the valid half map in which some random fields were changed to
+	 * water. Depending on the changed fields the half map stays valid or breaks
+	 * the border rule.
+	 */
+	public HalfMap getFloodedHalfMap() {
+
+		List<HalfMapNode> nodes = new ArrayList<HalfMapNode>(getValidHalfMap().getNodes());
+		int floodedFieldsNum = 1 + random.nextInt(4);
+
+		for (int flooded = 0; flooded < floodedFieldsNum; ++flooded) {
+
+			int nodeNum = random.nextInt(nodes.size());
+			HalfMapNode node = nodes.get(nodeNum);
+
+			if (!node.isFortPresent()) {
+				nodes.set(nodeNum, new HalfMapNode(node.getX(), node.getY(), ETerrain.Water));
+			}
+		}
+
+		return new HalfMap(PLAYER_ID, nodes);
+	}
+
+	/**
+	 * Returns a half map which is not a complete 8x4 grid: fields are missing,
+	 * sent twice or lie outside of the half map borders. The outside fields are
+	 * only placed right of and below the half map, the network messages do not
+	 * accept negative coordinates.
+	 */
+	public HalfMap getMalformedHalfMap() {
+
+		List<HalfMapNode> nodes = new ArrayList<HalfMapNode>(getFloodedHalfMap().getNodes());
+		int changesNum = 1 + random.nextInt(3);
+
+		for (int change = 0; change < changesNum; ++change) {
+
+			HalfMapNode node = nodes.get(random.nextInt(nodes.size()));
+
+			switch (random.nextInt(3)) {
+			case 0:
+				if (!node.isFortPresent())
+					nodes.remove(node);
+				break;
+			case 1:
+				nodes.add(node);
+				break;
+			default:
+				nodes.add(new HalfMapNode(random.nextInt(12), random.nextInt(8),
+						random.nextBoolean() ? ETerrain.Grass : ETerrain.Mountain));
+				break;
+			}
+		}
+
+		return new HalfMap(PLAYER_ID, nodes);
+	}
+
+	private HalfMap createHalfMap(String[] rows, int castleX, int castleY) {
+
+		List<HalfMapNode> nodes = new ArrayList<HalfMapNode>();
+
+		for (int y = 0; y < rows.length; ++y) {
+			for (int x = 0; x < rows[y].length(); ++x) {
+
+				nodes.add(new HalfMapNode(x, y, x == castleX && y == castleY, getTerrain(rows[y].charAt(x))));
+			}
+		}
+
+		return new HalfMap(PLAYER_ID, nodes);
+	}
+
+	private ETerrain getTerrain(char terrain) {
+
+		switch (terrain) {
+		case 'W':
+			return ETerrain.Water;
+		case 'M':
+			return ETerrain.Mountain;
+		default:
+			return ETerrain.Grass;
+		}
+	}
+
+}
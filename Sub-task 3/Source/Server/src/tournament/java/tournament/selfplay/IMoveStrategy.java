@@ -0,0 +1,27 @@
+package tournament.selfplay;
+
+import client.enumerations.EMovementType;
+import client.game.Avatar;
+
+/**
+ * Decides the next move of an entrant of the self-play tournament, like the AI
+ * of the client. A strategy is created for every match as soon as the full map
+ * is known (see TournamentEntrants) and asked for a move every time the player
+ * has to act.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+@FunctionalInterface
+public interface IMoveStrategy {
+
+	/**
+	 * Returns the next move or null if the strategy could not decide, in which
+	 * case it is asked again with the same avatar.
+	 *
+	 * @param avatar (state of the avatar after the last game state)
+	 * @return (EMovementType or null)
+	 */
+	public EMovementType getNextMove(Avatar avatar);
+
+}
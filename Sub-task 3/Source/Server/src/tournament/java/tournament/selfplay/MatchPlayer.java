@@ -0,0 +1,219 @@
+package tournament.selfplay;
+
+import java.util.Random;
+
+import MessagesBase.HalfMap;
+import MessagesBase.PlayerMove;
+import MessagesBase.PlayerRegistration;
+import MessagesGameState.EPlayerGameState;
+import MessagesGameState.GameState;
+import MessagesGameState.PlayerState;
+import client.constants.GameConstants;
+import client.converter.Converter;
+import client.enumerations.EAvatarPositionValue;
+import client.enumerations.ECastleValue;
+import client.enumerations.EMovementType;
+import client.enumerations.ETreasureValue;
+import client.game.Avatar;
+import client.map.Field;
+import client.map.Map;
+import client.map.MapController;
+
+/**
+ * The client side of one player in a self-play match. It does what the game
+ * controller and the game state worker of the client do, without the network:
+ * it generates and converts the half map, applies the received game states to
+ * the map and the avatar and asks the move strategy of its entrant for the
+ * next move.
+ *
+ * Like the client with map deltas, the map is converted once and then updated
+ * in place, so the strategy keeps working on the same fields.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class MatchPlayer {
+
+	private static final int CLIENT_ROUNDS_PER_ACTION = 2;
+	private static final int CLIENT_ROUND_ENEMY_POSITION_KNOWN = 10;
+
+	private final int entrantNum;
+	private final String entrantName;
+	private final Random random;
+	private final Converter converter;
+	private final Avatar avatar;
+
+	private String playerID;
+	private String gameStateID;
+	private EPlayerGameState state;
+	private Map halfMap;
+	private Map fullMap;
+	private IMoveStrategy strategy;
+	private int gameRound;
+	private boolean enemyPositionSet;
+
+	/**
+	 * Instantiates a new match player of the entrant.
+	 *
+	 * @param entrantNum  (0 for the first and 1 for the second entrant of the
+	 *                    tournament)
+	 * @param entrantName (see TournamentEntrants)
+	 * @param random      (seeded random generator of the match)
+	 */
+	public MatchPlayer(int entrantNum, String entrantName, Random random) {
+
+		this.entrantNum = entrantNum;
+		this.entrantName = entrantName;
+		this.random = random;
+		// only the map and enum converters are used, they do not need a game
+		// controller
+		this.converter = new Converter(null);
+		this.avatar = new Avatar();
+		this.gameStateID = "StartID";
+		this.state = EPlayerGameState.ShouldWait;
+	}
+
+	public int getEntrantNum() {
+		return entrantNum;
+	}
+
+	public PlayerRegistration getPlayerRegistration() {
+		return new PlayerRegistration(entrantName, "Tournament", "0");
+	}
+
+	public String getPlayerID() {
+		return playerID;
+	}
+
+	public void setPlayerID(String playerID) {
+		this.playerID = playerID;
+	}
+
+	public boolean isHalfMapSent() {
+		return halfMap != null;
+	}
+
+	public boolean isActingNext() {
+		return state == EPlayerGameState.ShouldActNext;
+	}
+
+	/**
+	 * Generates the half map of the player with the map controller of the client,
+	 * seeded from the random generator of the match.
+	 *
+	 * @return (HalfMap object from the network protocol)
+	 */
+	public HalfMap createHalfMap() {
+
+		halfMap = new MapController(random.nextLong()).generateMap();
+		gameRound += CLIENT_ROUNDS_PER_ACTION;
+
+		return converter.getMapConverter().converteMapToHalfMap(playerID, halfMap);
+	}
+
+	/**
+	 * Returns the next move of the strategy or null if the strategy could not
+	 * decide or the full map is not known yet.
+	 *
+	 * @return (PlayerMove object from the network protocol or null)
+	 */
+	public PlayerMove createMove() {
+
+		if (fullMap == null)
+			return null;
+
+		if (strategy == null) {
+			strategy = TournamentEntrants.createStrategy(entrantName, fullMap, halfMap, random);
+		}
+
+		EMovementType move = strategy.getNextMove(avatar);
+
+		if (move == null)
+			return null;
+
+		gameRound += CLIENT_ROUNDS_PER_ACTION;
+
+		return PlayerMove.of(playerID, converter.getEnumConverter().EMovementType_To_NetworkMove(move));
+	}
+
+	/**
+	 * Applies a game state received from the server, if it is a new one. The map
+	 * is only applied as soon as it contains both half maps (before that it is
+	 * empty or only the own half map).
+	 *
+	 * @param gameState (GameState object from the network protocol)
+	 */
+	public void updateGameState(GameState gameState) {
+
+		if (gameStateID.equals(gameState.getGameStateId()))
+			return;
+
+		gameStateID = gameState.getGameStateId();
+
+		PlayerState playerState = getMyPlayerState(gameState);
+		state = playerState.getState();
+
+		if (gameState.getMap().isPresent()
+				&& gameState.getMap().get().getMapNodes().size() > GameConstants.NUM_OF_HALF_MAP_FIELDS) {
+
+			if (fullMap == null) {
+				fullMap = converter.getMapConverter().converteFullMapToMap(gameState.getMap().get());
+			} else {
+				converter.getMapConverter().applyFullMapDelta(fullMap, gameState.getMap().get());
+			}
+
+			avatar.setTreasureCollected(playerState.hasCollectedTreasure());
+			setAvatarState();
+		}
+	}
+
+	private PlayerState getMyPlayerState(GameState gameState) {
+
+		for (PlayerState playerState : gameState.getPlayers()) {
+
+			if (playerState.getUniquePlayerID().equals(playerID))
+				return playerState;
+		}
+
+		throw new IllegalStateException("The game state contains no state of player " + playerID + ".");
+	}
+
+	/**
+	 * Updates the avatar from the map like the game state worker of the client.
+	 */
+	private void setAvatarState() {
+
+		for (Field field : fullMap.getHashMap().values()) {
+
+			EAvatarPositionValue avatarContent = field.getFieldAvatarContent();
+			boolean myAvatar = avatarContent.equals(EAvatarPositionValue.BothAvatarPosition)
+					|| avatarContent.equals(EAvatarPositionValue.MyAvatarPosition);
+			boolean enemyAvatar = avatarContent.equals(EAvatarPositionValue.BothAvatarPosition)
+					|| avatarContent.equals(EAvatarPositionValue.EnemyAvatarPosition);
+
+			if (myAvatar) {
+				avatar.setCurrentPosition(field);
+			}
+
+			if (enemyAvatar) {
+
+				avatar.setEnemyCurrentPosition(field);
+
+				if (!enemyPositionSet && gameRound > CLIENT_ROUND_ENEMY_POSITION_KNOWN) {
+
+					avatar.setEnemyPosition(field);
+					enemyPositionSet = true;
+				}
+			}
+
+			if (field.getFieldTreasureContent().equals(ETreasureValue.MyTreasurePresent)) {
+				avatar.setTreasureSaw(field);
+			}
+
+			if (field.getFieldCastleContent().equals(ECastleValue.EnemyCastlePresent)) {
+				avatar.setEnemyCastleSaw(field);
+			}
+		}
+	}
+
+}
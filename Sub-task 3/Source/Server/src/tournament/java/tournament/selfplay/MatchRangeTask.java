@@ -0,0 +1,77 @@
+package tournament.selfplay;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Fork/join task which plays a range of matches of the tournament. Ranges
+ * above MATCHES_PER_TASK are split in two halves, so idle workers steal the
+ * other half. Every match gets its own random generator seeded from the seed
+ * of the tournament and the number of the match, so the results do not depend
+ * on which thread plays which match.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class MatchRangeTask extends RecursiveTask<TournamentResults> {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final int MATCHES_PER_TASK = 16;
+	private static final long SEED_INCREMENT = 0x9E3779B97F4A7C15L;
+
+	private final String[] entrants;
+	private final long seed;
+	private final int fromMatch;
+	private final int toMatch;
+
+	/**
+	 * Instantiates a new task for the matches from fromMatch (inclusive) to
+	 * toMatch (exclusive).
+	 *
+	 * @param entrants  (names of the two entrants)
+	 * @param seed      (seed of the tournament)
+	 * @param fromMatch
+	 * @param toMatch
+	 */
+	public MatchRangeTask(String[] entrants, long seed, int fromMatch, int toMatch) {
+
+		this.entrants = entrants;
+		this.seed = seed;
+		this.fromMatch = fromMatch;
+		this.toMatch = toMatch;
+	}
+
+	@Override
+	protected TournamentResults compute() {
+
+		if (toMatch - fromMatch > MATCHES_PER_TASK) {
+
+			int middleMatch = (fromMatch + toMatch) >>> 1;
+			MatchRangeTask secondHalf = new MatchRangeTask(entrants, seed, middleMatch, toMatch);
+
+			secondHalf.fork();
+
+			TournamentResults results = new MatchRangeTask(entrants, seed, fromMatch, middleMatch).compute();
+
+			return results.merge(secondHalf.join());
+		}
+
+		TournamentResults results = new TournamentResults();
+
+		for (int matchNum = fromMatch; matchNum < toMatch; ++matchNum) {
+
+			// the entrants take turns in registering first
+			new SelfPlayMatch(entrants, matchNum % 2 == 1, createMatchRandom(matchNum)).play(results);
+		}
+
+		return results;
+	}
+
+	private Random createMatchRandom(int matchNum) {
+
+		return new Random(new SplittableRandom(seed + matchNum * SEED_INCREMENT).nextLong());
+	}
+
+}
@@ -0,0 +1,73 @@
+package tournament.selfplay;
+
+import java.util.List;
+import java.util.Random;
+
+import client.enumerations.EMovementType;
+import client.game.Avatar;
+import client.map.Field;
+import client.map.Map;
+import client.move.MapSidesController;
+
+/**
+ * Baseline entrant which walks to a random neighbour field which is not water.
+ * The direction is kept until the avatar has reached that field, because the
+ * server only moves the avatar after the same direction was sent as often as
+ * the terrain requires.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class RandomMoveStrategy implements IMoveStrategy {
+
+	private final Map gameMap;
+	private final MapSidesController mapSidesController;
+	private final Random random;
+	private Field targetField;
+	private EMovementType direction;
+
+	public RandomMoveStrategy(Map gameMap, Map halfMap, Random random) {
+
+		this.gameMap = gameMap;
+		this.mapSidesController = new MapSidesController(gameMap, halfMap);
+		this.random = random;
+	}
+
+	@Override
+	public EMovementType getNextMove(Avatar avatar) {
+
+		Field position = avatar.getCurrentPosition();
+
+		if (direction == null || targetField == null || isSameField(position, targetField)) {
+
+			List<Field> neighbours = mapSidesController.getNeighbors(position, gameMap.getHashMap());
+
+			if (neighbours.isEmpty())
+				return null;
+
+			targetField = neighbours.get(random.nextInt(neighbours.size()));
+			direction = getDirection(position, targetField);
+		}
+
+		return direction;
+	}
+
+	private boolean isSameField(Field first, Field second) {
+
+		return first.getCoordinate().getX() == second.getCoordinate().getX()
+				&& first.getCoordinate().getY() == second.getCoordinate().getY();
+	}
+
+	private EMovementType getDirection(Field from, Field to) {
+
+		if (to.getCoordinate().getX() > from.getCoordinate().getX())
+			return EMovementType.Right;
+		if (to.getCoordinate().getX() < from.getCoordinate().getX())
+			return EMovementType.Left;
+		if (to.getCoordinate().getY() > from.getCoordinate().getY())
+			return EMovementType.Down;
+
+		return EMovementType.Up;
+	}
+
+}
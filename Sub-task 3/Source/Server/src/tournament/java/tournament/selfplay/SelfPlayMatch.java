@@ -0,0 +1,172 @@
+package tournament.selfplay;
+
+import java.util.Random;
+
+import MessagesBase.PlayerMove;
+import server.enumerations.EPlayerStateValue;
+import server.exceptions.RuleException;
+import server.game.Game;
+import server.game.GameController;
+import server.game.RunningGames;
+import server.main.GameRequests;
+
+/**
+ * One match of the self-play tournament between two entrants. The match runs
+ * the same game logic as the endpoints (GameRequests, so all rules, the map
+ * combination and the move handling) on a running game, but calls it directly
+ * from one thread instead of over HTTP. Because no other thread knows the
+ * game, the actions are not executed through the mailbox of the game. A
+ * broken rule lets the player lose, like in Game.execute. The game and the
+ * half maps are seeded from the random generator of the match, so a match is
+ * played the same way for the same seed.
+ *
+ * Both players request their game state before every action, the player who
+ * should act next sends its half map or its next move. A match which is not
+ * finished after MAX_GAME_ROUNDS rounds (or which makes no progress because no
+ * strategy can decide) ends in a draw.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class SelfPlayMatch {
+
+	public static final int MAX_GAME_ROUNDS = 200;
+	private static final int MAX_ACTIONS = MAX_GAME_ROUNDS * 2;
+
+	private final Random random;
+	private final MatchPlayer[] players;
+
+	/**
+	 * Instantiates a new match. The players are registered in the order of the
+	 * entrants, or the other way round if secondRegistersFirst is set.
+	 *
+	 * @param entrants             (names of the two entrants, see
+	 *                             TournamentEntrants)
+	 * @param secondRegistersFirst
+	 * @param random               (seeded random generator of the match)
+	 */
+	public SelfPlayMatch(String[] entrants, boolean secondRegistersFirst, Random random) {
+
+		this.random = random;
+
+		MatchPlayer firstPlayer = new MatchPlayer(0, entrants[0], random);
+		MatchPlayer secondPlayer = new MatchPlayer(1, entrants[1], random);
+
+		this.players = secondRegistersFirst ? new MatchPlayer[] { secondPlayer, firstPlayer }
+				: new MatchPlayer[] { firstPlayer, secondPlayer };
+	}
+
+	/**
+	 * Plays the match and records its result.
+	 *
+	 * @param results
+	 */
+	public void play(TournamentResults results) {
+
+		String gameID = GameRequests.createGame(random.nextLong()).getUniqueGameID();
+		Game game = RunningGames.getGame(gameID);
+		GameController gameController = game.getGameController();
+		MatchPlayer firstActingPlayer = null;
+		boolean ruleBroken = false;
+
+		try {
+
+			for (MatchPlayer player : players) {
+
+				player.setPlayerID(GameRequests.registerPlayer(game, gameID, player.getPlayerRegistration())
+						.getUniquePlayerID());
+			}
+
+			for (int actionNum = 0; actionNum < MAX_ACTIONS && !gameController.isFinished()
+					&& game.getGameRound() < MAX_GAME_ROUNDS; ++actionNum) {
+
+				MatchPlayer actingPlayer = updateGameStates(game, gameID);
+
+				if (actingPlayer == null)
+					continue;
+
+				if (firstActingPlayer == null) {
+					firstActingPlayer = actingPlayer;
+				}
+
+				try {
+
+					act(game, gameID, actingPlayer);
+
+				} catch (RuleException ex) {
+
+					if (ex.getPlayer() == null)
+						throw ex;
+
+					gameController.setPlayerLost(ex.getPlayer());
+					ruleBroken = true;
+				}
+			}
+
+			results.recordMatch(getWinnerEntrantNum(gameController),
+					firstActingPlayer == null ? TournamentResults.NO_ENTRANT : firstActingPlayer.getEntrantNum(),
+					game.getGameRound(), ruleBroken);
+
+		} finally {
+
+			RunningGames.removeGame(game);
+		}
+	}
+
+	/**
+	 * Lets both players request their game state and returns the player who
+	 * should act next, or null if none should.
+	 */
+	private MatchPlayer updateGameStates(Game game, String gameID) {
+
+		MatchPlayer actingPlayer = null;
+
+		for (MatchPlayer player : players) {
+
+			GameRequests.checkGameStateRequest(gameID, player.getPlayerID());
+			player.updateGameState(game.getGameController().getGameStateObject(gameID, player.getPlayerID()));
+
+			if (player.isActingNext()) {
+				actingPlayer = player;
+			}
+		}
+
+		return actingPlayer;
+	}
+
+	private void act(Game game, String gameID, MatchPlayer player) {
+
+		if (!player.isHalfMapSent()) {
+
+			GameRequests.receiveHalfMap(game, gameID, player.createHalfMap());
+			return;
+		}
+
+		PlayerMove move = player.createMove();
+
+		if (move != null) {
+			GameRequests.receiveMove(game, gameID, move);
+		}
+	}
+
+	/**
+	 * Returns the entrant of the player who won or whose enemy lost, or
+	 * NO_ENTRANT for a draw.
+	 */
+	private int getWinnerEntrantNum(GameController gameController) {
+
+		for (MatchPlayer player : players) {
+
+			EPlayerStateValue state = gameController.getPlayers().get(player.getPlayerID()).getCurrentState();
+
+			if (state.equals(EPlayerStateValue.Won))
+				return player.getEntrantNum();
+
+			if (state.equals(EPlayerStateValue.Lost))
+				return 1 - player.getEntrantNum();
+		}
+
+		return TournamentResults.NO_ENTRANT;
+	}
+
+}
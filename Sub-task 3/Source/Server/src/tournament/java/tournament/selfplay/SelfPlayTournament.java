@@ -0,0 +1,85 @@
+package tournament.selfplay;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Lets two entrants (see TournamentEntrants) play many complete matches
+ * against each other in this JVM, with the game logic of the server and the
+ * move strategies of the client but without HTTP. The matches are spread over
+ * all cores by a fork/join pool (see MatchRangeTask). At the end the win
+ * rates, the rounds the entrants needed to win and the matches per second are
+ * printed.
+ *
+ * Run with "gradlew selfPlayTournament -Pmatches=10000 -Pseed=20201
+ * -Pentrants=ai,random -Pthreads=8" or the main method with the same values
+ * as arguments. Without threads all available processors are used.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class SelfPlayTournament {
+
+	private static final int DEFAULT_MATCHES_NUM = 10000;
+	private static final long DEFAULT_SEED = 20201;
+	private static final String DEFAULT_ENTRANTS = TournamentEntrants.AI_ENTRANT + ","
+			+ TournamentEntrants.RANDOM_ENTRANT;
+
+	private final String[] entrants;
+	private final long seed;
+	private final int threadsNum;
+
+	public SelfPlayTournament(String[] entrants, long seed, int threadsNum) {
+
+		for (String entrant : entrants) {
+
+			if (!TournamentEntrants.exists(entrant))
+				throw new IllegalArgumentException("Unknown entrant: " + entrant);
+		}
+
+		if (entrants.length != 2)
+			throw new IllegalArgumentException("A tournament needs exactly two entrants.");
+
+		this.entrants = entrants;
+		this.seed = seed;
+		this.threadsNum = threadsNum;
+	}
+
+	public static void main(String[] args) {
+
+		int matchesNum = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_MATCHES_NUM;
+		long seed = args.length > 1 ? Long.parseLong(args[1]) : DEFAULT_SEED;
+		String[] entrants = (args.length > 2 ? args[2] : DEFAULT_ENTRANTS).split(",");
+		int threadsNum = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+		SelfPlayTournament tournament = new SelfPlayTournament(entrants, seed, threadsNum);
+
+		System.out.printf("%s against %s, %d matches, seed %d, %d threads%n", entrants[0], entrants[1], matchesNum,
+				seed, threadsNum);
+
+		long startNanos = System.nanoTime();
+		TournamentResults results = tournament.play(matchesNum);
+
+		results.print(System.out, entrants, System.nanoTime() - startNanos);
+	}
+
+	/**
+	 * Plays the given number of matches and returns their results.
+	 *
+	 * @param matchesNum
+	 * @return (TournamentResults object)
+	 */
+	public TournamentResults play(int matchesNum) {
+
+		ForkJoinPool pool = new ForkJoinPool(threadsNum);
+
+		try {
+
+			return pool.invoke(new MatchRangeTask(entrants, seed, 0, matchesNum));
+
+		} finally {
+
+			pool.shutdown();
+		}
+	}
+
+}
@@ -0,0 +1,58 @@
+package tournament.selfplay;
+
+import java.util.Random;
+
+import client.map.Map;
+import client.move.AI;
+
+/**
+ * The entrants which can play in the self-play tournament. A new version of
+ * the AI is compared with the current one by adding it here under its own
+ * name.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class TournamentEntrants {
+
+	public static final String AI_ENTRANT = "ai";
+	public static final String RANDOM_ENTRANT = "random";
+
+	private TournamentEntrants() {
+
+	}
+
+	/**
+	 * Checks if an entrant with the name exists.
+	 *
+	 * @param entrantName
+	 * @return boolean
+	 */
+	public static boolean exists(String entrantName) {
+
+		return AI_ENTRANT.equals(entrantName) || RANDOM_ENTRANT.equals(entrantName);
+	}
+
+	/**
+	 * Creates the move strategy of the entrant for one match.
+	 *
+	 * @param entrantName
+	 * @param gameMap     (full map as converted by the client)
+	 * @param halfMap     (half map the player has sent)
+	 * @param random      (seeded random generator of the match)
+	 * @return (IMoveStrategy object)
+	 */
+	public static IMoveStrategy createStrategy(String entrantName, Map gameMap, Map halfMap, Random random) {
+
+		switch (entrantName) {
+
+		case AI_ENTRANT:
+			return new AI(gameMap, halfMap)::getNextMove;
+		case RANDOM_ENTRANT:
+			return new RandomMoveStrategy(gameMap, halfMap, random);
+		default:
+			throw new IllegalArgumentException("Unknown entrant: " + entrantName);
+		}
+	}
+
+}
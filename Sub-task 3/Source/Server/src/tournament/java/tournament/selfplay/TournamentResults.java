@@ -0,0 +1,187 @@
+package tournament.selfplay;
+
+import java.io.PrintStream;
+
+/**
+ * Results of the matches of a part of the tournament. Every fork/join task
+ * records its matches in its own results, which are merged when the tasks are
+ * joined, so recording needs no synchronization.
+ *
+ * The rounds to win are the game rounds of the server (half maps included) at
+ * the end of the won matches, counted per entrant.
+ *
+ * @author Nemanja Srdanovic
+ *
+ */
+public class TournamentResults {
+
+	public static final int NO_ENTRANT = -1;
+
+	private static final int ENTRANTS_NUM = 2;
+	private static final int ROUNDS_BUCKET_SIZE = 20;
+	private static final double[] PERCENTILES = { 10, 50, 90, 99 };
+
+	private final long[] wins;
+	private final long[][] roundsToWin;
+	private long matchesNum;
+	private long draws;
+	private long ruleBreaks;
+	private long firstActingPlayerWins;
+
+	public TournamentResults() {
+
+		this.wins = new long[ENTRANTS_NUM];
+		this.roundsToWin = new long[ENTRANTS_NUM][SelfPlayMatch.MAX_GAME_ROUNDS + 1];
+	}
+
+	/**
+	 * Records the result of one match.
+	 *
+	 * @param winnerEntrantNum      (entrant who won or NO_ENTRANT for a draw)
+	 * @param firstActingEntrantNum (entrant who acted first or NO_ENTRANT)
+	 * @param gameRounds            (game rounds of the server at the end)
+	 * @param ruleBroken            (true if the match ended by a broken rule)
+	 */
+	public void recordMatch(int winnerEntrantNum, int firstActingEntrantNum, int gameRounds, boolean ruleBroken) {
+
+		++matchesNum;
+
+		if (ruleBroken) {
+			++ruleBreaks;
+		}
+
+		if (winnerEntrantNum == NO_ENTRANT) {
+
+			++draws;
+			return;
+		}
+
+		++wins[winnerEntrantNum];
+		++roundsToWin[winnerEntrantNum][Math.min(gameRounds, SelfPlayMatch.MAX_GAME_ROUNDS)];
+
+		if (winnerEntrantNum == firstActingEntrantNum) {
+			++firstActingPlayerWins;
+		}
+	}
+
+	/**
+	 * Adds the results of another part of the tournament.
+	 *
+	 * @param results
+	 * @return (this object)
+	 */
+	public TournamentResults merge(TournamentResults results) {
+
+		matchesNum += results.matchesNum;
+		draws += results.draws;
+		ruleBreaks += results.ruleBreaks;
+		firstActingPlayerWins += results.firstActingPlayerWins;
+
+		for (int entrantNum = 0; entrantNum < ENTRANTS_NUM; ++entrantNum) {
+
+			wins[entrantNum] += results.wins[entrantNum];
+
+			for (int rounds = 0; rounds <= SelfPlayMatch.MAX_GAME_ROUNDS; ++rounds) {
+				roundsToWin[entrantNum][rounds] += results.roundsToWin[entrantNum][rounds];
+			}
+		}
+
+		return this;
+	}
+
+	public long getMatchesNum() {
+		return matchesNum;
+	}
+
+	public long getWins(int entrantNum) {
+		return wins[entrantNum];
+	}
+
+	public long getDraws() {
+		return draws;
+	}
+
+	/**
+	 * Prints the win rates, the percentiles and distribution of the rounds to
+	 * win and the number of matches per second.
+	 *
+	 * @param out
+	 * @param entrants     (names of the two entrants)
+	 * @param elapsedNanos (duration of the tournament)
+	 */
+	public void print(PrintStream out, String[] entrants, long elapsedNanos) {
+
+		double seconds = elapsedNanos / 1_000_000_000.0;
+
+		out.println();
+		out.printf("%d matches in %.2f s, %.1f matches/s%n", matchesNum, seconds, matchesNum / seconds);
+		out.println();
+		out.printf("%-10s %10s %9s %6s %6s %6s %6s %6s%n", "entrant", "wins", "win rate", "p10", "p50", "p90",
+				"p99", "max");
+
+		for (int entrantNum = 0; entrantNum < ENTRANTS_NUM; ++entrantNum) {
+
+			out.printf("%-10s %10d %8.1f%%", entrants[entrantNum], wins[entrantNum], percent(wins[entrantNum]));
+
+			for (double percentile : PERCENTILES) {
+				out.printf(" %6d", getRoundsToWinPercentile(entrantNum, percentile));
+			}
+
+			out.printf(" %6d%n", getRoundsToWinPercentile(entrantNum, 100));
+		}
+
+		out.printf("%-10s %10d %8.1f%%%n", "draw", draws, percent(draws));
+		out.println();
+		out.printf("won by the player who acted first: %d (%.1f%% of the decided matches)%n", firstActingPlayerWins,
+				matchesNum - draws == 0 ? 0.0 : 100.0 * firstActingPlayerWins / (matchesNum - draws));
+		out.printf("ended by a broken rule: %d (%.1f%%)%n", ruleBreaks, percent(ruleBreaks));
+		out.println();
+		out.println("rounds to win:");
+		out.printf("%-10s %10s %10s%n", "rounds", entrants[0], entrants[1]);
+
+		for (int bucketStart = 0; bucketStart <= SelfPlayMatch.MAX_GAME_ROUNDS; bucketStart += ROUNDS_BUCKET_SIZE) {
+
+			int bucketEnd = Math.min(bucketStart + ROUNDS_BUCKET_SIZE - 1, SelfPlayMatch.MAX_GAME_ROUNDS);
+
+			out.printf("%-10s %10d %10d%n", bucketStart + "-" + bucketEnd, countWins(0, bucketStart, bucketEnd),
+					countWins(1, bucketStart, bucketEnd));
+		}
+	}
+
+	private double percent(long count) {
+
+		return matchesNum == 0 ? 0.0 : 100.0 * count / matchesNum;
+	}
+
+	private long countWins(int entrantNum, int fromRounds, int toRounds) {
+
+		long count = 0;
+
+		for (int rounds = fromRounds; rounds <= toRounds; ++rounds) {
+			count += roundsToWin[entrantNum][rounds];
+		}
+
+		return count;
+	}
+
+	/**
+	 * Returns the smallest number of rounds within which at least the given
+	 * percentage of the wins of the entrant were reached, 0 without wins.
+	 */
+	private int getRoundsToWinPercentile(int entrantNum, double percentile) {
+
+		long neededWins = (long) Math.ceil(wins[entrantNum] * percentile / 100.0);
+		long counted = 0;
+
+		for (int rounds = 0; rounds <= SelfPlayMatch.MAX_GAME_ROUNDS; ++rounds) {
+
+			counted += roundsToWin[entrantNum][rounds];
+
+			if (counted >= neededWins && counted > 0)
+				return rounds;
+		}
+
+		return 0;
+	}
+
+}